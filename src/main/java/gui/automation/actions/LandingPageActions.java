@@ -48,6 +48,11 @@ public class LandingPageActions extends BaseActions {
         return landingPage.isFooterAdVisible();
     }
 
+    public boolean matchesVisualBaseline() {
+        logger.info("Comparing landing page with its visual baseline");
+        return landingPage.matchesVisualBaseline();
+    }
+
     public boolean isElementsCardVisible() {
         return landingPage.isElementsCardVisible();
     }
@@ -4,6 +4,7 @@ import gui.automation.pages.TextBoxPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 
 public class TextBoxActions extends BaseActions {
     private static final Logger logger = LoggerFactory.getLogger(TextBoxActions.class);
@@ -18,6 +19,20 @@ public class TextBoxActions extends BaseActions {
     // Navigation Methods
     // ----------------------
     // (Inherit navigation methods from BaseActions)
+    public void openEmptyForm(String url) {
+        if (isAt(url)) {
+            try {
+                if (textBoxPage.resetForm()) {
+                    logger.info("Reset Text Box form in place at {}", url);
+                    return;
+                }
+            } catch (WebDriverException e) {
+                logger.warn("Could not reset Text Box form by script: {}", e.getMessage());
+            }
+        }
+        logger.info("Navigating to Text Box form at {}", url);
+        navigateTo(url);
+    }
 
     // ----------------------
     // Input Methods
@@ -106,4 +121,9 @@ public class TextBoxActions extends BaseActions {
     public boolean isCurrentAddressEmpty() { return textBoxPage.isCurrentAddressEmpty(); }
     public boolean isPermanentAddressEmpty() { return textBoxPage.isPermanentAddressEmpty(); }
     public boolean isOutputEmpty() { return textBoxPage.isOutputEmpty(); }
+
+    public boolean matchesVisualBaseline() {
+        logger.info("Comparing Text Box form with its visual baseline");
+        return textBoxPage.matchesVisualBaseline();
+    }
 }
@@ -35,6 +35,18 @@ public class BasePage {
      * Navigates the browser to the given URL.
      */
     public void navigateTo(String url) {
-        SeleniumUtil.getDriver().get(url);
+        SeleniumUtil.goTo(url);
+    }
+
+    /**
+     * Returns true if the browser is already showing the given URL (ignoring a trailing slash and fragment).
+     */
+    public boolean isAt(String url) {
+        return normalize(SeleniumUtil.getDriver().getCurrentUrl()).equals(normalize(url));
+    }
+
+    private static String normalize(String url) {
+        String withoutFragment = url.contains("#") ? url.substring(0, url.indexOf('#')) : url;
+        return withoutFragment.endsWith("/") ? withoutFragment.substring(0, withoutFragment.length() - 1) : withoutFragment;
     }
 }
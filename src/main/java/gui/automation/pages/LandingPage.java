@@ -66,6 +66,15 @@ public class LandingPage extends BasePage {
         return isBannerVisible();
     }
 
+    /**
+     * Compares the visible landing page (banner and cards) with the "landing-page" baseline, ignoring the
+     * rotating footer ad.
+     */
+    public boolean matchesVisualBaseline() {
+        SeleniumUtil.waitForVisible(bookStoreCard);
+        return SeleniumUtil.matchesBaseline("landing-page", footerAd);
+    }
+
     // ----------------------
     // Click Methods
     // ----------------------
@@ -25,6 +25,7 @@ public class TextBoxPage extends BasePage {
     private final By outputEmail = By.xpath("//p[@id='email']");
     private final By outputCurrentAddress = By.xpath("//p[@id='currentAddress']");
     private final By outputPermanentAddress = By.xpath("//p[@id='permanentAddress']");
+    private final By userForm = By.xpath("//form[@id='userForm']");
 
     // ----------------------
     // Visibility Check Methods
@@ -189,6 +190,22 @@ public class TextBoxPage extends BasePage {
         return SeleniumUtil.getAttribute(permanentAddressInput, "value").isEmpty();
     }
 
+    /**
+     * Compares the Text Box form (only the form element, so page ads do not matter) with the "text-box-form"
+     * baseline.
+     */
+    public boolean matchesVisualBaseline() {
+        return SeleniumUtil.elementMatchesBaseline("text-box-form", userForm);
+    }
+
+    /**
+     * Clears the form by script and checks that no submit output is left, so the next data row can start without
+     * a reload. Returns false if the page still needs one.
+     */
+    public boolean resetForm() {
+        return SeleniumUtil.resetForms(outputName, outputEmail, outputCurrentAddress, outputPermanentAddress);
+    }
+
     public boolean isOutputEmpty() {
         boolean nameMissingOrEmpty = SeleniumUtil.find(outputName) == null || SeleniumUtil.getText(outputName).isEmpty();
         boolean emailMissingOrEmpty = SeleniumUtil.find(outputEmail) == null || SeleniumUtil.getText(outputEmail).isEmpty();
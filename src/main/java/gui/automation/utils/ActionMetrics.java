@@ -0,0 +1,331 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-action latency instrumentation for SeleniumUtil: call counts, latency percentiles and failures per
+ * operation, per locator and per test.
+ * <p>
+ * Every public SeleniumUtil operation brackets its body with start() and stop(). An operation counts as failed if
+ * it throws, or if it gave up without throwing (a wait that timed out and returned null, a click on an element that
+ * never appeared). Once an operation and a locator have been seen, recording does not allocate: operations are
+ * looked up by their (constant) name, locators through an identity-keyed cache in front of the canonical by-text
+ * map (By.toString() allocates, so it only runs on a cache miss), and per-test totals go into arrays owned by the
+ * test's thread. Times are inclusive, so an operation that calls another (e.g. click waiting for clickable) counts
+ * both. Each operation is also recorded as a span on the TraceTimeline and in the FlightRecorder. Switch it off
+ * with perf.action.metrics=false or setEnabled(false); with the timeline and flight recorder off as well, start()
+ * then returns immediately.
+ * <p>
+ * Example (inside SeleniumUtil):
+ *   long start = ActionMetrics.start();
+ *   boolean failed = false;
+ *   try { ... on timeout: failed = true; return null; ... } catch (RuntimeException e) { failed = true; throw e; }
+ *   finally { ActionMetrics.stop("waitForVisible", by, start, failed); }
+ */
+public class ActionMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(ActionMetrics.class);
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final int MAX_OPERATIONS = 256;
+    private static final int LOCATOR_CACHE_SIZE = 1024;
+
+    private static volatile boolean enabled = ConfigUtils.getBoolean("perf.action.metrics", true);
+    private static final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextOperationIndex = new AtomicInteger();
+    private static final Operation[] operationsByIndex = new Operation[MAX_OPERATIONS];
+    private static final Map<String, LocatorStats> locators = new ConcurrentHashMap<>();
+    private static final CachedLocator[] locatorCache = new CachedLocator[LOCATOR_CACHE_SIZE];
+    private static final ThreadLocal<TestStats> currentTest = new ThreadLocal<>();
+    private static final Queue<TestStats> finishedTests = new ConcurrentLinkedQueue<>();
+
+    private ActionMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ActionMetrics.enabled = enabled;
+    }
+
+    /**
+     * Marks the start of an operation.
+     *
+     * @return A token to pass to stop().
+     */
+    public static long start() {
+        return enabled || TraceTimeline.isEnabled() || FlightRecorder.isEnabled() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Records a finished operation.
+     *
+     * @param operation Operation name; use a string constant so no key is built per call.
+     * @param locator   The main locator of the call, or null.
+     * @param start     The value returned by start().
+     * @param failed    True if the operation threw or gave up.
+     */
+    public static void stop(String operation, By locator, long start, boolean failed) {
+        if (start == NOT_STARTED) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Operation op = operation(operation);
+        TraceTimeline.span(op.name, op.category, start);
+        FlightRecorder.record(op.name, locator, failed);
+        if (!enabled) {
+            return;
+        }
+        op.histogram.recordNanos(nanos);
+        if (failed) {
+            op.failures.increment();
+        }
+        if (locator != null) {
+            locatorStats(locator).record(nanos, failed);
+        }
+        TestStats test = currentTest.get();
+        if (test != null && op.index < MAX_OPERATIONS) {
+            test.count[op.index]++;
+            test.nanos[op.index] += nanos;
+            if (failed) {
+                test.failures[op.index]++;
+            }
+        }
+    }
+
+    /**
+     * Starts attributing operations on the calling thread to the given test.
+     */
+    public static void beginTest(String testName) {
+        currentTest.set(new TestStats(testName));
+    }
+
+    /**
+     * Stops attributing operations on the calling thread to its current test.
+     */
+    public static void endTest() {
+        TestStats test = currentTest.get();
+        if (test != null) {
+            currentTest.remove();
+            finishedTests.add(test);
+        }
+    }
+
+    /**
+     * Writes action-latency.json (all operations, top locators and per-test breakdown) and logs the top-N
+     * operations by total time. N comes from perf.action.metrics.top.
+     *
+     * @return The report path, or null if nothing was recorded.
+     */
+    public static Path writeReport() {
+        if (operations.isEmpty()) {
+            return null;
+        }
+        int top = ConfigUtils.getInt("perf.action.metrics.top", 20);
+        List<Operation> ops = new ArrayList<>(operations.values());
+        ops.sort(Comparator.comparingLong((Operation op) -> op.histogram.getTotalMicros()).reversed());
+        logger.info("{}", toTable(ops, top));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        List<Map<String, Object>> opRows = new ArrayList<>();
+        for (Operation op : ops) {
+            LatencyHistogram h = op.histogram;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("operation", op.name);
+            row.put("count", h.getCount());
+            row.put("failures", op.failures.sum());
+            row.put("totalMs", h.getTotalMicros() / 1000.0);
+            row.put("p50Ms", h.getPercentileMillis(50));
+            row.put("p95Ms", h.getPercentileMillis(95));
+            row.put("p99Ms", h.getPercentileMillis(99));
+            row.put("maxMs", h.getMaxMicros() / 1000.0);
+            opRows.add(row);
+        }
+        report.put("operations", opRows);
+
+        List<LocatorStats> locatorList = new ArrayList<>(locators.values());
+        locatorList.sort(Comparator.comparingLong((LocatorStats l) -> l.totalNanos.sum()).reversed());
+        List<Map<String, Object>> locatorRows = new ArrayList<>();
+        for (LocatorStats l : locatorList.subList(0, Math.min(top, locatorList.size()))) {
+            long count = l.count.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("locator", l.locator);
+            row.put("count", count);
+            row.put("failures", l.failures.sum());
+            row.put("totalMs", l.totalNanos.sum() / 1e6);
+            row.put("meanMs", count == 0 ? 0 : l.totalNanos.sum() / 1e6 / count);
+            row.put("maxMs", l.maxNanos.get() / 1e6);
+            locatorRows.add(row);
+        }
+        report.put("slowestLocators", locatorRows);
+
+        List<Map<String, Object>> testRows = new ArrayList<>();
+        for (TestStats test : finishedTests) {
+            testRows.add(test.toMap(5));
+        }
+        testRows.sort(Comparator.comparing(row -> String.valueOf(row.get("test"))));
+        report.put("tests", testRows);
+
+        Path path = ReportUtils.reportPath("action-latency.json");
+        ReportUtils.writeString(path, new Json().toJson(report));
+        return path;
+    }
+
+    /**
+     * Clears all recorded data.
+     */
+    public static void reset() {
+        for (Operation op : operations.values()) {
+            op.histogram.reset();
+            op.failures.reset();
+        }
+        locators.clear();
+        synchronized (locatorCache) {
+            for (int i = 0; i < LOCATOR_CACHE_SIZE; i++) {
+                locatorCache[i] = null;
+            }
+        }
+        finishedTests.clear();
+    }
+
+    static String toTable(List<Operation> sortedOps, int top) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "Top %d SeleniumUtil operations by total time%n", top));
+        sb.append(String.format(Locale.ROOT, "%-36s %8s %8s %11s %9s %9s %9s%n", "operation", "count", "failures",
+                "total ms", "p50 ms", "p95 ms", "max ms"));
+        for (Operation op : sortedOps.subList(0, Math.min(top, sortedOps.size()))) {
+            LatencyHistogram h = op.histogram;
+            sb.append(String.format(Locale.ROOT, "%-36s %8d %8d %11.1f %9.1f %9.1f %9.1f%n", op.name, h.getCount(),
+                    op.failures.sum(), h.getTotalMicros() / 1000.0, h.getPercentileMillis(50),
+                    h.getPercentileMillis(95), h.getMaxMicros() / 1000.0));
+        }
+        return sb.toString();
+    }
+
+    private static Operation operation(String name) {
+        Operation op = operations.get(name);
+        return op != null ? op : operations.computeIfAbsent(name, Operation::new);
+    }
+
+    private static LocatorStats locatorStats(By locator) {
+        int slot = System.identityHashCode(locator) & (LOCATOR_CACHE_SIZE - 1);
+        CachedLocator cached = locatorCache[slot];
+        if (cached != null && cached.locator == locator) {
+            return cached.stats;
+        }
+        LocatorStats stats = locators.computeIfAbsent(locator.toString(), LocatorStats::new);
+        locatorCache[slot] = new CachedLocator(locator, stats);
+        return stats;
+    }
+
+    /**
+     * Aggregates of one operation name.
+     */
+    static final class Operation {
+        private final String name;
+        private final String category;
+        private final int index;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+
+        private Operation(String name) {
+            this.name = name;
+            this.category = name.startsWith("wait") ? TraceTimeline.CATEGORY_WAIT
+                    : name.toLowerCase().contains("screenshot") ? TraceTimeline.CATEGORY_SCREENSHOT
+                    : TraceTimeline.CATEGORY_ACTION;
+            this.index = nextOperationIndex.getAndIncrement();
+            if (index < MAX_OPERATIONS) {
+                operationsByIndex[index] = this;
+            }
+        }
+    }
+
+    private static final class LocatorStats {
+        private final String locator;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private LocatorStats(String locator) {
+            this.locator = locator;
+        }
+
+        private void record(long nanos, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (failed) {
+                failures.increment();
+            }
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+    }
+
+    private static final class CachedLocator {
+        private final By locator;
+        private final LocatorStats stats;
+
+        private CachedLocator(By locator, LocatorStats stats) {
+            this.locator = locator;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * Per-test totals, indexed by operation. Only written by the test's own thread.
+     */
+    private static final class TestStats {
+        private final String test;
+        private final long[] count = new long[MAX_OPERATIONS];
+        private final long[] nanos = new long[MAX_OPERATIONS];
+        private final long[] failures = new long[MAX_OPERATIONS];
+
+        private TestStats(String test) {
+            this.test = test;
+        }
+
+        private Map<String, Object> toMap(int topOperations) {
+            List<Integer> used = new ArrayList<>();
+            long totalNanos = 0;
+            for (int i = 0; i < MAX_OPERATIONS; i++) {
+                if (count[i] > 0) {
+                    used.add(i);
+                    totalNanos += nanos[i];
+                }
+            }
+            used.sort((a, b) -> Long.compare(nanos[b], nanos[a]));
+            List<Map<String, Object>> ops = new ArrayList<>();
+            for (int i : used.subList(0, Math.min(topOperations, used.size()))) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("operation", operationsByIndex[i].name);
+                row.put("count", count[i]);
+                row.put("failures", failures[i]);
+                row.put("totalMs", nanos[i] / 1e6);
+                ops.add(row);
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("test", test);
+            map.put("inclusiveMs", totalNanos / 1e6);
+            map.put("topOperations", ops);
+            return map;
+        }
+    }
+}
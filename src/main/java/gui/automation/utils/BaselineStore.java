@@ -0,0 +1,176 @@
+package gui.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baseline images for visual checks, with an approval step for changes.
+ * <p>
+ * Approved baselines live in visual.baseline.dir (checked in with the tests). A check that fails leaves the
+ * actual screenshot in the pending folder (visual/pending/ in the report directory) and a diff image in
+ * visual/diff/; nothing is written for passing checks. A reviewer who accepts the change runs approve(name) or
+ * approveAll() (see ApproveBaselinesMain in the tests), which moves the pending image over the baseline. A check
+ * without a baseline fails and leaves its screenshot pending (visual.missing.baseline=fail, the default), so a fresh
+ * checkout or CI run never passes against baselines nobody reviewed; approve it and commit the baseline. For local
+ * work visual.missing.baseline=approve records the screenshot as the baseline and passes instead.
+ * <p>
+ * Example:
+ *   VisualDiffResult result = BaselineStore.defaultStore().check("landing-page", png, VisualDiffOptions.defaults());
+ */
+public class BaselineStore {
+    private static final Logger logger = LoggerFactory.getLogger(BaselineStore.class);
+    private final Path baselineDir;
+    private final Path workDir;
+
+    public BaselineStore(Path baselineDir, Path workDir) {
+        this.baselineDir = baselineDir;
+        this.workDir = workDir;
+    }
+
+    /**
+     * The store configured by visual.baseline.dir, with pending and diff images under the report directory.
+     */
+    public static BaselineStore defaultStore() {
+        return new BaselineStore(Paths.get(ConfigUtils.get("visual.baseline.dir", "src/test/resources/visual-baselines/")),
+                ReportUtils.reportPath("visual"));
+    }
+
+    /**
+     * Compares a screenshot with the named baseline.
+     *
+     * @param name  Baseline name, e.g. "landing-page"; used as the file name.
+     * @param image The PNG screenshot.
+     * @return The comparison result; for a missing baseline an empty, passing or failing result depending on
+     * visual.missing.baseline.
+     */
+    public VisualDiffResult check(String name, byte[] image, VisualDiffOptions options) {
+        Path baseline = baselinePath(name);
+        if (!Files.exists(baseline)) {
+            boolean approve = "approve".equalsIgnoreCase(ConfigUtils.get("visual.missing.baseline", "fail"));
+            write(approve ? baseline : pendingPath(name), image);
+            if (approve) {
+                logger.warn("No visual baseline '{}'; recorded {} (visual.missing.baseline=approve)", name, baseline);
+            } else {
+                logger.error("No visual baseline '{}' in {}; the check fails. Review {} and approve it with "
+                        + "ApproveBaselinesMain, then commit the baseline", name, baselineDir, pendingPath(name));
+            }
+            return new VisualDiffResult(0, 0, new int[0], new byte[0], approve ? 0 : 1, 0, approve ? 0 : 1, false,
+                    options.getMaxDiffRatio());
+        }
+        VisualDiffResult result;
+        try {
+            result = VisualDiff.compare(Files.readAllBytes(baseline), image, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read baseline " + baseline, e);
+        }
+        if (result.isPassed()) {
+            deleteIfExists(pendingPath(name));
+            deleteIfExists(diffPath(name));
+        } else {
+            write(pendingPath(name), image);
+            result.writeDiffImage(diffPath(name));
+            logger.warn("Visual check '{}' failed: {}. Diff: {}", name, result, diffPath(name));
+        }
+        return result;
+    }
+
+    /**
+     * Accepts the pending screenshot of the given name as its new baseline.
+     *
+     * @return False if there is nothing pending under that name.
+     */
+    public boolean approve(String name) {
+        Path pending = pendingPath(name);
+        if (!Files.exists(pending)) {
+            return false;
+        }
+        try {
+            Files.createDirectories(baselineDir);
+            Files.move(pending, baselinePath(name), StandardCopyOption.REPLACE_EXISTING);
+            deleteIfExists(diffPath(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not approve baseline " + name, e);
+        }
+        logger.info("Approved visual baseline '{}'", name);
+        return true;
+    }
+
+    /**
+     * Accepts every pending screenshot.
+     *
+     * @return The approved names.
+     */
+    public List<String> approveAll() {
+        List<String> approved = new ArrayList<>();
+        for (String name : pending()) {
+            if (approve(name)) {
+                approved.add(name);
+            }
+        }
+        return approved;
+    }
+
+    /**
+     * Names of the screenshots waiting for approval.
+     */
+    public List<String> pending() {
+        List<String> names = new ArrayList<>();
+        Path dir = workDir.resolve("pending");
+        if (!Files.isDirectory(dir)) {
+            return names;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.png")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                names.add(fileName.substring(0, fileName.length() - ".png".length()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list pending baselines in " + dir, e);
+        }
+        names.sort(null);
+        return names;
+    }
+
+    public Path baselinePath(String name) {
+        return baselineDir.resolve(fileName(name));
+    }
+
+    public Path pendingPath(String name) {
+        return workDir.resolve("pending").resolve(fileName(name));
+    }
+
+    public Path diffPath(String name) {
+        return workDir.resolve("diff").resolve(fileName(name));
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9_.-]", "_") + ".png";
+    }
+
+    private static void write(Path path, byte[] image) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, image);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + path, e);
+        }
+    }
+
+    private static void deleteIfExists(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
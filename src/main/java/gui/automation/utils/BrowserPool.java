@@ -0,0 +1,242 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool of warm headless browsers for long-running processes such as {@link SyntheticMonitor}.
+ * <p>
+ * Browsers are started up front by warmUp() and handed out with acquire(). On release a browser is recycled
+ * (quit and replaced lazily) once it has served max uses, is older than max age, or when the caller reports it
+ * as unhealthy, so slow leaks in the browser or driver never build up. Defaults come from the
+ * monitor.browser.* keys in config.properties.
+ * <p>
+ * Example:
+ *   BrowserPool pool = new BrowserPool("chrome", baseUrl, 2).warmUp();
+ *   BrowserPool.Lease lease = pool.acquire();
+ *   try { ... lease.getDriver() ... } finally { pool.release(lease, passed); }
+ */
+public class BrowserPool {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPool.class);
+    private static final Set<BrowserPool> openPools = ConcurrentHashMap.newKeySet();
+
+    private final Supplier<WebDriver> factory;
+    private final int size;
+    private final BlockingQueue<Lease> idle = new LinkedBlockingQueue<>();
+    private final List<Lease> all = new ArrayList<>();
+    private int maxUses = ConfigUtils.getInt("monitor.browser.max.uses", 50);
+    private long maxAgeMillis = TimeUnit.MINUTES.toMillis(ConfigUtils.getLong("monitor.browser.max.age.minutes", 60));
+    private boolean headless = true;
+    private volatile boolean closed;
+
+    public BrowserPool(String browser, String startUrl, int size) {
+        this(null, size, browser, startUrl);
+    }
+
+    /**
+     * A pool whose browsers come from the given factory instead of DriverUtils, e.g. remote browsers.
+     * The pool quits them through DriverUtils.quit().
+     */
+    public BrowserPool(Supplier<WebDriver> factory, int size) {
+        this(factory, size, null, null);
+    }
+
+    private BrowserPool(Supplier<WebDriver> factory, int size, String browser, String startUrl) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Browser pool size must be at least 1: " + size);
+        }
+        this.factory = factory != null ? factory : () -> {
+            WebDriver started = DriverUtils.getDriver(browser, startUrl, headless);
+            // The pool owns the driver; do not leave it bound to whichever thread happened to start it
+            DriverUtils.detachDriver();
+            return started;
+        };
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            Lease lease = new Lease(i);
+            all.add(lease);
+            idle.add(lease);
+        }
+        openPools.add(this);
+    }
+
+    public BrowserPool maxUses(int maxUses) {
+        this.maxUses = maxUses;
+        return this;
+    }
+
+    public BrowserPool maxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        return this;
+    }
+
+    /**
+     * Whether browsers start without a window (default true).
+     */
+    public BrowserPool headless(boolean headless) {
+        this.headless = headless;
+        return this;
+    }
+
+    /**
+     * Starts every browser now instead of on first use. Failures are logged; the slot retries on next acquire.
+     */
+    public BrowserPool warmUp() {
+        for (Lease lease : all) {
+            try {
+                lease.ensureStarted();
+            } catch (RuntimeException e) {
+                logger.warn("Could not warm up browser slot {}: {}", lease.slot, e.getMessage());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Blocks until a browser is free, starting it if needed, and binds it to SeleniumUtil for the calling thread.
+     */
+    public Lease acquire() throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is closed");
+        }
+        Lease lease = idle.take();
+        try {
+            lease.ensureStarted();
+        } catch (RuntimeException e) {
+            idle.add(lease);
+            throw e;
+        }
+        lease.uses++;
+        SeleniumUtil.setDriver(lease.driver);
+        return lease;
+    }
+
+    /**
+     * Returns a browser to the pool.
+     *
+     * @param healthy False if the run failed or the browser misbehaved; the browser is then replaced.
+     */
+    public void release(Lease lease, boolean healthy) {
+        SeleniumUtil.setDriver(null);
+        long age = System.currentTimeMillis() - lease.startedAt;
+        boolean recycle = !healthy || lease.uses >= maxUses || age >= maxAgeMillis;
+        // The closed check and the return to idle happen together, so close() either sees the lease or it is quit
+        if (!recycle && giveBack(lease)) {
+            return;
+        }
+        if (recycle) {
+            logger.info("Recycling browser slot {} after {} uses, {}s (healthy={})", lease.slot, lease.uses,
+                    age / 1000, healthy);
+        }
+        lease.quit();
+        giveBack(lease);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Quits all idle browsers; browsers still leased are quit when released.
+     */
+    public void close() {
+        List<Lease> drained = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            idle.drainTo(drained);
+        }
+        openPools.remove(this);
+        for (Lease lease : drained) {
+            lease.quit();
+        }
+    }
+
+    /**
+     * Quits the idle browsers of every open pool, e.g. when memory is needed for a new browser; their slots start a
+     * browser again on next acquire.
+     */
+    public static void releaseIdleBrowsers() {
+        for (BrowserPool pool : openPools) {
+            List<Lease> drained = new ArrayList<>();
+            pool.idle.drainTo(drained);
+            for (Lease lease : drained) {
+                if (lease.driver != null) {
+                    logger.info("Releasing idle browser slot {} to free memory", lease.slot);
+                    lease.quit();
+                }
+            }
+            for (Lease lease : drained) {
+                pool.giveBack(lease);
+            }
+        }
+    }
+
+    /**
+     * Puts a lease back on the idle queue unless the pool is closed.
+     *
+     * @return false if the pool is closed; the caller must quit the browser.
+     */
+    private synchronized boolean giveBack(Lease lease) {
+        if (closed) {
+            return false;
+        }
+        idle.add(lease);
+        return true;
+    }
+
+    /**
+     * One pool slot and the browser currently living in it.
+     */
+    public class Lease {
+        private final int slot;
+        private WebDriver driver;
+        private int uses;
+        private long startedAt;
+
+        private Lease(int slot) {
+            this.slot = slot;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        /**
+         * Times the current browser has been acquired; 1 means it was started for this lease.
+         */
+        public int getUses() {
+            return uses;
+        }
+
+        private void ensureStarted() {
+            if (driver == null) {
+                long start = System.nanoTime();
+                driver = factory.get();
+                uses = 0;
+                startedAt = System.currentTimeMillis();
+                logger.info("Started browser slot {} in {} ms", slot, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+
+        private void quit() {
+            if (driver != null) {
+                try {
+                    DriverUtils.quit(driver);
+                } catch (Exception e) {
+                    logger.warn("Could not quit browser slot {}: {}", slot, e.getMessage());
+                }
+                driver = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Counts and times the WebDriver commands (HTTP round trips to the driver) issued during each test.
+ * <p>
+ * When perf.command.trace is on, DriverUtils wraps every driver in Selenium's EventFiringDecorator with
+ * {@link #listener()}, which sees each call on the driver and on the elements, navigation, alerts and options it
+ * hands out. Calls that never leave the JVM (manage(), navigate(), getWrappedDriver(), ...) are not counted.
+ * Commands are attributed to the test started on the calling thread with beginTest(); endTest() returns its
+ * totals so budget checks (e.g. @MaxRoundTrips in the tests) can fail it. writeReport() writes
+ * command-trace.json with per-command counts and a compact, capped trace of every test.
+ * <p>
+ * Example:
+ *   CommandTrace.beginTest("TextBoxComponentTest.testSubmit");
+ *   ... run the test ...
+ *   CommandTrace.TestTrace trace = CommandTrace.endTest();
+ *   if (trace.getRoundTrips() > 50) { ... }
+ */
+public class CommandTrace {
+    private static final boolean ENABLED = ConfigUtils.getBoolean("perf.command.trace", true);
+    private static final int MAX_ENTRIES = ConfigUtils.getInt("perf.command.trace.max.entries", 500);
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList("manage", "navigate", "switchTo",
+            "timeouts", "window", "logs", "getWrappedDriver", "getWrappedElement", "getDevTools", "maybeGetDevTools",
+            "getCapabilities", "getSessionId", "getCommandExecutor", "getFileDetector", "setFileDetector",
+            "hashCode", "equals", "toString"));
+    private static final WebDriverListener LISTENER = new TraceListener();
+    private static final ThreadLocal<TestTrace> current = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> callStart = ThreadLocal.withInitial(() -> new long[16]);
+    private static final ThreadLocal<int[]> callDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private static final Queue<TestTrace> finished = new ConcurrentLinkedQueue<>();
+
+    private CommandTrace() {
+    }
+
+    /**
+     * True if DriverUtils should decorate new drivers (perf.command.trace).
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * The listener DriverUtils registers with EventFiringDecorator.
+     */
+    public static WebDriverListener listener() {
+        return LISTENER;
+    }
+
+    /**
+     * Starts attributing commands issued on the calling thread to the given test.
+     */
+    public static void beginTest(String testName) {
+        current.set(new TestTrace(testName));
+    }
+
+    /**
+     * Finishes the calling thread's current test and keeps it for the report.
+     *
+     * @return The finished trace, or null if no test was started on this thread.
+     */
+    public static TestTrace endTest() {
+        TestTrace trace = current.get();
+        if (trace != null) {
+            current.remove();
+            trace.endNanos = System.nanoTime();
+            finished.add(trace);
+        }
+        return trace;
+    }
+
+    /**
+     * Returns the trace of the test running on the calling thread, or null.
+     */
+    public static TestTrace getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Writes command-trace.json: for each test the number of round trips, time spent in commands, counts per
+     * command and the compact trace ([offset ms, command, duration ms, ok]). The file is written without
+     * indentation as traces of long tests get large.
+     *
+     * @return The report path, or null if no test was traced.
+     */
+    public static Path writeReport() {
+        if (finished.isEmpty()) {
+            return null;
+        }
+        List<TestTrace> traces = new ArrayList<>(finished);
+        traces.sort(Comparator.comparing(TestTrace::getTestName));
+        List<Map<String, Object>> tests = new ArrayList<>();
+        for (TestTrace trace : traces) {
+            tests.add(trace.toMap());
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("tests", tests);
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput out = new Json().newOutput(json)) {
+            out.setPrettyPrint(false).write(report);
+        }
+        Path path = ReportUtils.reportPath("command-trace.json");
+        ReportUtils.writeString(path, json.toString());
+        return path;
+    }
+
+    /**
+     * Commands and timings of one test. Only written by the test's own thread.
+     */
+    public static class TestTrace {
+        private final String testName;
+        private final long startNanos = System.nanoTime();
+        private long endNanos;
+        private int roundTrips;
+        private long commandNanos;
+        private final Map<String, long[]> byCommand = new TreeMap<>();
+        private final List<Object[]> entries = new ArrayList<>();
+        private int droppedEntries;
+
+        TestTrace(String testName) {
+            this.testName = testName;
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        /**
+         * Number of WebDriver commands sent so far.
+         */
+        public int getRoundTrips() {
+            return roundTrips;
+        }
+
+        public long getCommandMillis() {
+            return commandNanos / 1_000_000;
+        }
+
+        /**
+         * Returns the most frequent commands as "name x count", for failure messages.
+         */
+        public String topCommands(int limit) {
+            List<Map.Entry<String, long[]>> sorted = new ArrayList<>(byCommand.entrySet());
+            sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, long[]> entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+                sb.append(sb.length() > 0 ? ", " : "").append(entry.getKey()).append(" x").append(entry.getValue()[0]);
+            }
+            return sb.toString();
+        }
+
+        private void record(String command, long start, long nanos, boolean ok) {
+            roundTrips++;
+            commandNanos += nanos;
+            long[] stats = byCommand.computeIfAbsent(command, c -> new long[2]);
+            stats[0]++;
+            stats[1] += nanos;
+            if (entries.size() < MAX_ENTRIES) {
+                entries.add(new Object[]{(start - startNanos) / 1_000_000, command,
+                        Math.round(nanos / 10_000.0) / 100.0, ok});
+            } else {
+                droppedEntries++;
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("test", testName);
+            map.put("roundTrips", roundTrips);
+            map.put("commandMs", commandNanos / 1e6);
+            map.put("wallMs", ((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos) / 1e6);
+            Map<String, Object> commands = new LinkedHashMap<>();
+            byCommand.forEach((name, stats) -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("count", stats[0]);
+                row.put("totalMs", stats[1] / 1e6);
+                commands.put(name, row);
+            });
+            map.put("commands", commands);
+            map.put("trace", entries);
+            if (droppedEntries > 0) {
+                map.put("droppedEntries", droppedEntries);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Times every remote call. Calls can nest (e.g. a driver call made from inside a wait), so start times are
+     * kept on a small per-thread stack.
+     */
+    private static final class TraceListener implements WebDriverListener {
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            int[] depth = callDepth.get();
+            long[] starts = callStart.get();
+            if (depth[0] < starts.length) {
+                starts[depth[0]] = System.nanoTime();
+            }
+            depth[0]++;
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            boolean elementMissing = "findElements".equals(method.getName()) && result instanceof List
+                    && ((List<?>) result).isEmpty();
+            finish(target, method, true, elementMissing);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            finish(target, method, false, "findElement".equals(method.getName())
+                    && e.getCause() instanceof NoSuchElementException);
+        }
+
+        private void finish(Object target, Method method, boolean ok, boolean elementMissing) {
+            int[] depth = callDepth.get();
+            if (depth[0] == 0) {
+                return;
+            }
+            depth[0]--;
+            if (LOCAL_CALLS.contains(method.getName()) || depth[0] >= callStart.get().length) {
+                return;
+            }
+            long start = callStart.get()[depth[0]];
+            long nanos = System.nanoTime() - start;
+            WaitProfiler.command(nanos, elementMissing);
+            TestTrace trace = current.get();
+            if (trace != null) {
+                trace.record(commandName(target, method), start, nanos, ok);
+            }
+        }
+
+        private static String commandName(Object target, Method method) {
+            if (target instanceof WebDriver) {
+                return method.getName();
+            }
+            if (target instanceof WebElement) {
+                return "element." + method.getName();
+            }
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package gui.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides how many browsers may run at once on this machine, and holds back new browsers while the running ones
+ * use too much memory.
+ * <p>
+ * recommendedParallelism() sizes the run up front: one browser per CPU, but no more than fit into the memory
+ * available at start (MemAvailable on Linux, free physical memory elsewhere) minus browser.memory.reserve.mb for
+ * the JVM and the OS, at browser.memory.estimate.mb each. parallel.browsers overrides it with a fixed number, or
+ * with "suite" to keep the thread-count of testng.xml (recorded by ParallelismListener through useSuiteParallelism).
+ * <p>
+ * During the run, DriverUtils asks admit() before starting a browser and calls release() after quitting it. A
+ * browser is admitted while the measured memory of all browser and driver processes started by this JVM, plus one
+ * more browser's worth, stays under the ceiling (browser.rss.ceiling.mb, by default the memory available at start
+ * minus the reserve); otherwise the caller waits until browsers quit. Memory is the proportional set size (PSS):
+ * Chrome's renderer, GPU and utility processes share much of their memory, which summed RSS counts once per
+ * process and PSS splits between them. Kernels without smaps_rollup (before 4.14) fall back to RSS. Before waiting,
+ * idle pooled browsers are quit (BrowserPool.releaseIdleBrowsers). The first browser is always admitted, and
+ * after browser.admission.timeout.seconds a waiting browser is admitted anyway, with a warning, so a wrong
+ * ceiling slows a run down but never hangs it. Where memory cannot be read (no /proc), running browsers are
+ * counted at the estimate instead.
+ */
+public class ConcurrencyController {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyController.class);
+    private static final String ADMISSION_METRIC = "webassure_browser_admission_total";
+    private static final long MB = 1024 * 1024;
+    private static final long POLL_MILLIS = 500;
+    // Browser memory is read at most this often; a /proc walk per admission check would add up
+    private static final long MEMORY_SAMPLE_MILLIS = 1000;
+    private static volatile ConcurrencyController global;
+    // The largest thread-count of the run's parallel suites when parallel.browsers is "suite"; 0 until recorded
+    private static volatile int suiteParallelism;
+
+    private final long ceilingBytes;
+    private final long estimateBytes;
+    private final long timeoutMillis;
+    private final LongSupplier browserMemory;
+    private int running;
+    private long sampledMemory = -1;
+    private long sampledAt;
+
+    /**
+     * @param ceilingBytes  Browser memory above which no new browser is admitted.
+     * @param estimateBytes Memory assumed for one more browser.
+     * @param timeoutMillis How long a browser waits before it is admitted regardless.
+     * @param browserMemory Current memory of all running browsers in bytes, or -1 if unknown.
+     */
+    public ConcurrencyController(long ceilingBytes, long estimateBytes, long timeoutMillis,
+                                 LongSupplier browserMemory) {
+        this.ceilingBytes = ceilingBytes;
+        this.estimateBytes = estimateBytes;
+        this.timeoutMillis = timeoutMillis;
+        this.browserMemory = browserMemory;
+    }
+
+    /**
+     * The controller DriverUtils uses, configured from config.properties on first use.
+     */
+    public static ConcurrencyController global() {
+        if (global == null) {
+            synchronized (ConcurrencyController.class) {
+                if (global == null) {
+                    long reserve = ConfigUtils.getLong("browser.memory.reserve.mb", 1024) * MB;
+                    long ceiling = ConfigUtils.getLong("browser.rss.ceiling.mb", 0) * MB;
+                    if (ceiling <= 0) {
+                        ceiling = Math.max(availableMemoryBytes() - reserve, estimateBytes());
+                    }
+                    global = new ConcurrencyController(ceiling, estimateBytes(),
+                            TimeUnit.SECONDS.toMillis(ConfigUtils.getLong("browser.admission.timeout.seconds", 300)),
+                            ConcurrencyController::browserMemoryBytes);
+                    logger.info("Browser admission: memory ceiling {} MB, {} MB per browser", ceiling / MB,
+                            estimateBytes() / MB);
+                }
+            }
+        }
+        return global;
+    }
+
+    /**
+     * Number of browsers to run in parallel: parallel.browsers if set to a number, the suite thread-count if set to
+     * "suite" (once recorded), otherwise sized from CPUs and available memory.
+     */
+    public static int recommendedParallelism() {
+        String configured = ConfigUtils.get("parallel.browsers", "auto");
+        if ("suite".equalsIgnoreCase(configured) && suiteParallelism > 0) {
+            return suiteParallelism;
+        }
+        if (!"auto".equalsIgnoreCase(configured) && !"suite".equalsIgnoreCase(configured)) {
+            try {
+                return Math.max(1, Integer.parseInt(configured));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Property parallel.browsers is neither auto, suite nor a number: " + configured, e);
+            }
+        }
+        return parallelismFor(Runtime.getRuntime().availableProcessors(), availableMemoryBytes(), estimateBytes(),
+                ConfigUtils.getLong("browser.memory.reserve.mb", 1024) * MB);
+    }
+
+    /**
+     * Records the thread-count the suites run with when parallel.browsers is "suite", so recommendedParallelism()
+     * (and with it e.g. readonly.page.browsers) follows testng.xml instead of the machine.
+     */
+    public static void useSuiteParallelism(int threads) {
+        suiteParallelism = Math.max(1, threads);
+    }
+
+    /**
+     * One browser per CPU, limited to what fits into the available memory after the reserve; at least 1.
+     */
+    public static int parallelismFor(int cpus, long availableBytes, long perBrowserBytes, long reserveBytes) {
+        long byMemory = availableBytes < 0 ? cpus : (availableBytes - reserveBytes) / Math.max(1, perBrowserBytes);
+        return (int) Math.max(1, Math.min(cpus, byMemory));
+    }
+
+    /**
+     * Blocks until a new browser may start, then counts it as running.
+     *
+     * @throws IllegalStateException If the thread is interrupted while waiting.
+     */
+    public void admit() {
+        synchronized (this) {
+            if (canAdmit()) {
+                admitted();
+                return;
+            }
+        }
+        // Idle pooled browsers hold memory nobody is using; quit them before making anyone wait
+        BrowserPool.releaseIdleBrowsers();
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            boolean queued = false;
+            while (!canAdmit()) {
+                long waited = System.currentTimeMillis() - start;
+                if (waited >= timeoutMillis) {
+                    logger.warn("Admitting a browser after waiting {} s although {} browsers use {} MB (ceiling {} MB)",
+                            waited / 1000, running, currentMemory() / MB, ceilingBytes / MB);
+                    MetricsRegistry.global().counter(ADMISSION_METRIC, "result", "timeout").increment();
+                    break;
+                }
+                if (!queued) {
+                    queued = true;
+                    logger.info("Queueing browser start: {} browsers use {} MB of the {} MB ceiling", running,
+                            currentMemory() / MB, ceilingBytes / MB);
+                    MetricsRegistry.global().counter(ADMISSION_METRIC, "result", "queued").increment();
+                }
+                try {
+                    wait(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting to start a browser", e);
+                }
+            }
+            admitted();
+        }
+    }
+
+    /**
+     * Counts a browser as gone and wakes waiting callers.
+     */
+    public synchronized void release() {
+        if (running > 0) {
+            running--;
+        }
+        // Memory is not freed the instant quit() returns; take a fresh sample on the next check
+        sampledAt = 0;
+        notifyAll();
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public long getCeilingBytes() {
+        return ceilingBytes;
+    }
+
+    private void admitted() {
+        running++;
+        // A starting browser has hardly any memory yet; count its estimate until the next sample sees it
+        if (sampledMemory >= 0) {
+            sampledMemory += estimateBytes;
+        }
+        MetricsRegistry.global().counter(ADMISSION_METRIC, "result", "admitted").increment();
+    }
+
+    private boolean canAdmit() {
+        if (running == 0) {
+            return true;
+        }
+        return currentMemory() + estimateBytes <= ceilingBytes;
+    }
+
+    private long currentMemory() {
+        long now = System.currentTimeMillis();
+        if (sampledAt == 0 || now - sampledAt >= MEMORY_SAMPLE_MILLIS) {
+            sampledMemory = browserMemory.getAsLong();
+            sampledAt = now;
+        }
+        return sampledMemory >= 0 ? sampledMemory : running * estimateBytes;
+    }
+
+    private static long estimateBytes() {
+        return ConfigUtils.getLong("browser.memory.estimate.mb", 500) * MB;
+    }
+
+    /**
+     * Summed PSS (or RSS, see processMemoryBytes) of all processes started by this JVM (drivers and their
+     * browsers), from /proc; -1 if unknown.
+     */
+    public static long browserMemoryBytes() {
+        if (!Files.isDirectory(Paths.get("/proc/self"))) {
+            return -1;
+        }
+        long[] total = {0};
+        ProcessHandle.current().descendants().forEach(process ->
+                total[0] += processMemoryBytes(Paths.get("/proc", Long.toString(process.pid()))));
+        return total[0];
+    }
+
+    /**
+     * Memory of one process given its /proc directory: Pss from smaps_rollup, else VmRSS from status, else 0
+     * (the process has ended).
+     */
+    public static long processMemoryBytes(Path procDir) {
+        long kb = readKb(procDir.resolve("smaps_rollup"), "Pss:");
+        if (kb < 0) {
+            kb = readKb(procDir.resolve("status"), "VmRSS:");
+        }
+        return kb < 0 ? 0 : kb * 1024;
+    }
+
+    /**
+     * Memory available for new processes: MemAvailable from /proc/meminfo, else the OS's free physical memory,
+     * else -1.
+     */
+    public static long availableMemoryBytes() {
+        long fromProc = readKb(Paths.get("/proc/meminfo"), "MemAvailable:");
+        if (fromProc >= 0) {
+            return fromProc * 1024;
+        }
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize();
+        }
+        return -1;
+    }
+
+    private static long readKb(Path file, String field) {
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+            for (String line : lines) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process ended between listing and reading, or no /proc
+        }
+        return -1;
+    }
+}
@@ -25,4 +25,44 @@ public class ConfigUtils {
     public static String get(String key) {
         return props.getProperty(key);
     }
+
+    /**
+     * Returns the property value, or the default if the key is missing or blank.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property " + key + " is not an integer: " + value, e);
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property " + key + " is not a number: " + value, e);
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Property " + key + " is not a number: " + value, e);
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package gui.automation.utils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a CSV file as test data (see TestDataSource for filtering, sampling and data providers).
+ * <p>
+ * Parsing follows RFC 4180: fields may be quoted, quoted fields may contain the delimiter, line breaks and quotes
+ * written twice (""), and records end with CRLF, LF or CR. Blank lines and a leading byte order mark are skipped.
+ * A malformed file (text after a closing quote, a quote left open) fails with an IllegalArgumentException naming
+ * the line.
+ * <p>
+ * Example:
+ *   &#64;DataProvider(name = "textBoxData")
+ *   public Iterator&lt;Object[]&gt; textBoxData() {
+ *       return CsvDataSource.of("src/test/resources/testdata/text-box.csv")
+ *               .asDataProvider("name", "email", "currentAddress", "permanentAddress");
+ *   }
+ */
+public class CsvDataSource extends TestDataSource<CsvDataSource> {
+    private char delimiter = ',';
+    private Charset charset = StandardCharsets.UTF_8;
+
+    private CsvDataSource(Path path) {
+        super(path);
+    }
+
+    public static CsvDataSource of(String path) {
+        return of(Paths.get(path));
+    }
+
+    public static CsvDataSource of(Path path) {
+        return new CsvDataSource(path);
+    }
+
+    /**
+     * Field delimiter, e.g. ';' or '\t' (default ',').
+     */
+    public CsvDataSource delimiter(char delimiter) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * File encoding (default UTF-8).
+     */
+    public CsvDataSource charset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    @Override
+    protected String formatKey() {
+        return delimiter + "|" + charset.name();
+    }
+
+    @Override
+    protected Records open() throws IOException {
+        return new Parser(new InputStreamReader(Files.newInputStream(path), charset), delimiter, path);
+    }
+
+    /**
+     * Parses records from a reader. Reads through its own buffer, so no line is ever held twice.
+     */
+    static final class Parser implements Records {
+        private static final int EOF = -1;
+        private final Reader reader;
+        private final char delimiter;
+        private final Object source;
+        private final char[] buffer = new char[16 * 1024];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int length;
+        private int line = 1;
+        private int width = 8;
+        private boolean started;
+
+        Parser(Reader reader, char delimiter, Object source) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+            this.source = source;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            if (!started) {
+                started = true;
+                if (peek() == '\uFEFF') {
+                    read();
+                }
+            }
+            int c;
+            // Skip blank lines between records
+            while ((c = peek()) == '\r' || c == '\n') {
+                endOfLine(read());
+            }
+            if (c == EOF) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(width);
+            while (true) {
+                int end = readField();
+                fields.add(field.toString());
+                field.setLength(0);
+                if (end != delimiter) {
+                    endOfLine(end);
+                    break;
+                }
+            }
+            width = fields.size();
+            return fields.toArray(new String[0]);
+        }
+
+        /**
+         * Reads one field into the builder and returns the character that ended it: the delimiter, a line break
+         * or EOF.
+         */
+        private int readField() throws IOException {
+            if (peek() != '"') {
+                while (true) {
+                    int c = read();
+                    if (c == delimiter || c == '\r' || c == '\n' || c == EOF) {
+                        return c;
+                    }
+                    // A quote inside an unquoted field (5" screen) is kept as text, as most tools do
+                    field.append((char) c);
+                }
+            }
+            int openedOnLine = line;
+            read();
+            while (true) {
+                int c = read();
+                if (c == EOF) {
+                    throw new IllegalArgumentException(source + ": quoted field opened on line " + openedOnLine + " is never closed");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                        continue;
+                    }
+                    int end = read();
+                    if (end == delimiter || end == '\r' || end == '\n' || end == EOF) {
+                        return end;
+                    }
+                    throw malformed("text after a closing quote");
+                }
+                if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                    line++;
+                }
+                field.append((char) c);
+            }
+        }
+
+        private void endOfLine(int c) throws IOException {
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            if (c != EOF) {
+                line++;
+            }
+        }
+
+        private int peek() throws IOException {
+            if (position == length && !fill()) {
+                return EOF;
+            }
+            return buffer[position];
+        }
+
+        private int read() throws IOException {
+            if (position == length && !fill()) {
+                return EOF;
+            }
+            return buffer[position++];
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            length = read;
+            return true;
+        }
+
+        private IllegalArgumentException malformed(String problem) {
+            return new IllegalArgumentException(source + ": " + problem + " on line " + line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
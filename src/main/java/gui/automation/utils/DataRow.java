@@ -0,0 +1,147 @@
+package gui.automation.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row of tabular test data (CSV, Excel), read by position or by header name. Missing cells read as "".
+ * <p>
+ * Example:
+ *   for (DataRow row : CsvDataSource.of("src/test/resources/testdata/text-box.csv")) {
+ *       String email = row.get("email");
+ *   }
+ */
+public abstract class DataRow {
+    private final Columns columns;
+    private final long rowNumber;
+
+    DataRow(Columns columns, long rowNumber) {
+        this.columns = columns;
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * A row backed by an array of cell values (used as is, not copied).
+     */
+    static DataRow of(Columns columns, String[] values, long rowNumber) {
+        return new DataRow(columns, rowNumber) {
+            @Override
+            protected String cell(int index) {
+                return index < values.length ? values[index] : null;
+            }
+
+            @Override
+            public int size() {
+                return Math.max(values.length, columns.size());
+            }
+        };
+    }
+
+    /**
+     * Value of the cell at the given position, or "" if the row is shorter.
+     */
+    public String get(int index) {
+        String value = cell(index);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Value of the named column.
+     *
+     * @throws IllegalArgumentException If there is no such column (or the data has no header row).
+     */
+    public String get(String column) {
+        return get(columns.indexOf(column));
+    }
+
+    /**
+     * True if the data has a column of that name.
+     */
+    public boolean has(String column) {
+        return columns.contains(column);
+    }
+
+    /**
+     * Column names from the header row; empty if the data has no header.
+     */
+    public List<String> getColumns() {
+        return columns.names();
+    }
+
+    /**
+     * 1-based number of the row among the data rows (the header does not count).
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public abstract int size();
+
+    /**
+     * The cells as a new array, at least as long as the header.
+     */
+    public Object[] toArray() {
+        Object[] values = new Object[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * The named cells, in the given order, as a new array (e.g. the parameters of a test method).
+     */
+    public Object[] toArray(String... selected) {
+        Object[] values = new Object[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            values[i] = get(selected[i]);
+        }
+        return values;
+    }
+
+    protected abstract String cell(int index);
+
+    @Override
+    public String toString() {
+        return "row " + rowNumber + " " + Arrays.toString(toArray());
+    }
+
+    /**
+     * Header of a data set: column names and their positions, shared by all rows.
+     */
+    static final class Columns {
+        static final Columns NONE = new Columns(new String[0]);
+        private final List<String> names;
+        private final Map<String, Integer> index = new HashMap<>();
+
+        Columns(String[] names) {
+            this.names = Collections.unmodifiableList(Arrays.asList(names.clone()));
+            for (int i = names.length - 1; i >= 0; i--) {
+                index.put(names[i].trim(), i);
+            }
+        }
+
+        int indexOf(String column) {
+            Integer position = index.get(column);
+            if (position == null) {
+                throw new IllegalArgumentException("No column '" + column + "' in " + names);
+            }
+            return position;
+        }
+
+        boolean contains(String column) {
+            return index.containsKey(column);
+        }
+
+        List<String> names() {
+            return names;
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
@@ -4,8 +4,10 @@ import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import gui.automation.utils.ConfigUtils;
@@ -13,10 +15,18 @@ import gui.automation.utils.ConfigUtils;
 import java.nio.file.Paths;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DriverUtils {
     private static final Logger logger = LoggerFactory.getLogger(DriverUtils.class);
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<EmulationProfile> emulationProfile = new ThreadLocal<>();
+    // Drivers holding a ConcurrencyController admission, so each is released exactly once
+    private static final Set<WebDriver> admitted = ConcurrentHashMap.newKeySet();
+    private static final int IMPLICIT_WAIT_SECONDS = 10;
 
     /**
      * Returns a WebDriver instance for the specified browser and navigates to the given URL.
@@ -27,17 +37,46 @@ public class DriverUtils {
      * @return WebDriver instance
      */
     public static WebDriver getDriver(String browser, String url) {
+        return getDriver(browser, url, "true".equalsIgnoreCase(ConfigUtils.get("headless")));
+    }
+
+    /**
+     * Same as getDriver(browser, url) but overrides the headless config value, e.g. for load-test virtual users.
+     * Firefox ignores the flag. With perf.command.trace on, the returned driver is wrapped so that CommandTrace
+     * sees every command. Waits while ConcurrencyController holds back new browsers (memory ceiling reached).
+     *
+     * @param browser  Browser name (chrome/firefox)
+     * @param url      URL to navigate to
+     * @param headless Whether to start Chrome without a window
+     * @return WebDriver instance
+     */
+    public static WebDriver getDriver(String browser, String url, boolean headless) {
+        ConcurrencyController.global().admit();
+        long start = System.nanoTime();
+        long span = TraceTimeline.start();
         WebDriver webDriver;
-        switch (browser.toLowerCase()) {
-            case "chrome":
-                webDriver = createChromeDriver(url);
-                break;
-            case "firefox":
-                webDriver = createFirefoxDriver(url);
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        try {
+            switch (browser.toLowerCase()) {
+                case "chrome":
+                    webDriver = createChromeDriver(url, headless);
+                    break;
+                case "firefox":
+                    webDriver = createFirefoxDriver(url);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported browser: " + browser);
+            }
+        } catch (RuntimeException e) {
+            ConcurrencyController.global().release();
+            throw e;
         }
+        MetricsRegistry.global().timer("webassure_driver_startup_seconds", "browser", browser.toLowerCase())
+                .recordNanos(System.nanoTime() - start);
+        TraceTimeline.span("driver launch", TraceTimeline.CATEGORY_DRIVER, span);
+        if (CommandTrace.isEnabled()) {
+            webDriver = new EventFiringDecorator<>(CommandTrace.listener()).decorate(webDriver);
+        }
+        admitted.add(webDriver);
         driver.set(webDriver);
         return webDriver;
     }
@@ -51,16 +90,105 @@ public class DriverUtils {
 
     /**
      * Quits the WebDriver instance for the current thread and removes it from ThreadLocal.
+     * Any network mocks registered for the session are detached and its screencast is stopped first.
      */
     public static void quitDriver() {
+        NetworkMockUtils.clearMocks();
+        ScreencastRecorder.stop();
+        emulationProfile.remove();
         WebDriver webDriver = driver.get();
         if (webDriver != null) {
+            long span = TraceTimeline.start();
+            try {
+                quit(webDriver);
+            } finally {
+                driver.remove();
+            }
+            TraceTimeline.span("driver quit", TraceTimeline.CATEGORY_DRIVER, span);
+        }
+    }
+
+    /**
+     * Quits a driver that need not belong to the current thread (a pooled or kept browser) and lets
+     * ConcurrencyController admit another one. Safe to call twice for the same driver.
+     */
+    public static void quit(WebDriver webDriver) {
+        try {
+            WebVitalsRecorder.forget(webDriver);
             webDriver.quit();
-            driver.remove();
+        } finally {
+            if (admitted.remove(webDriver)) {
+                ConcurrencyController.global().release();
+            }
+        }
+    }
+
+    /**
+     * Forgets the current thread's driver without quitting it, for callers that manage the session themselves
+     * (e.g. BrowserPool) or whose session was already quit from another thread. The thread's emulation profile
+     * stays selected.
+     */
+    public static void detachDriver() {
+        ScreencastRecorder.stop();
+        driver.remove();
+    }
+
+    /**
+     * Selects the network/CPU emulation profile for the current thread.
+     * <p>
+     * Call this before getDriver(browser, url) so the first page load is already throttled; if a driver is
+     * already running on this thread the profile is applied to it immediately. The selection is cleared by
+     * quitDriver(). Only Chrome supports emulation; other browsers log a warning and run unthrottled.
+     *
+     * @param profile The profile to apply, or null to fall back to the emulation.profile config value.
+     */
+    public static void setEmulationProfile(EmulationProfile profile) {
+        if (profile == null) {
+            emulationProfile.remove();
+        } else {
+            emulationProfile.set(profile);
+        }
+        WebDriver webDriver = driver.get();
+        if (webDriver != null) {
+            applyEmulation(webDriver, getEmulationProfile());
         }
     }
 
-    private static WebDriver createChromeDriver(String url) {
+    /**
+     * Gets the emulation profile active for the current thread, defaulting to the emulation.profile config value.
+     */
+    public static EmulationProfile getEmulationProfile() {
+        EmulationProfile profile = emulationProfile.get();
+        return profile != null ? profile : EmulationProfile.fromName(ConfigUtils.get("emulation.profile"));
+    }
+
+    private static void applyEmulation(WebDriver webDriver, EmulationProfile profile) {
+        if (!(webDriver instanceof HasCdp)) {
+            if (profile != EmulationProfile.NONE) {
+                logger.warn("Emulation profile '{}' ignored: browser does not support DevTools", profile);
+            }
+            return;
+        }
+        HasCdp cdp = (HasCdp) webDriver;
+        Map<String, Object> network = new HashMap<>();
+        network.put("offline", false);
+        network.put("latency", profile.getLatencyMillis());
+        network.put("downloadThroughput", profile.getDownloadBytesPerSecond());
+        network.put("uploadThroughput", profile.getUploadBytesPerSecond());
+        cdp.executeCdpCommand("Network.enable", new HashMap<>());
+        cdp.executeCdpCommand("Network.emulateNetworkConditions", network);
+        Map<String, Object> cpu = new HashMap<>();
+        cpu.put("rate", profile.getCpuThrottlingRate());
+        cdp.executeCdpCommand("Emulation.setCPUThrottlingRate", cpu);
+        webDriver.manage().timeouts().implicitlyWait(
+                Duration.ofMillis(Math.round(IMPLICIT_WAIT_SECONDS * 1000 * profile.getSlowdownFactor())));
+        if (profile != EmulationProfile.NONE) {
+            logger.info("Applied emulation profile '{}' (latency={}ms, cpu={}x, wait factor={})", profile,
+                    profile.getLatencyMillis(), profile.getCpuThrottlingRate(), profile.getSlowdownFactor());
+        }
+    }
+
+    private static WebDriver createChromeDriver(String url, boolean headless) {
         try {
             boolean useBundled = Boolean.parseBoolean(ConfigUtils.get("use.bundled.driver"));
             if (useBundled) {
@@ -84,8 +212,7 @@ public class DriverUtils {
             options.addArguments("--disable-features=VizDisplayCompositor");
             // Removed non-standard flags: --disable-images, --disable-javascript
 
-            String headless = ConfigUtils.get("headless");
-            if (headless != null && headless.equalsIgnoreCase("true")) {
+            if (headless) {
                 options.addArguments("--headless=new"); // For Chrome 109+; use --headless for older
                 logger.info("Running in headless mode");
             } else {
@@ -93,9 +220,17 @@ public class DriverUtils {
             }
 
             WebDriver driver = new ChromeDriver(options);
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT_SECONDS));
             driver.manage().window().maximize();
+            EmulationProfile profile = getEmulationProfile();
+            if (profile != EmulationProfile.NONE) {
+                applyEmulation(driver, profile);
+            }
+            WebVitalsRecorder.install(driver);
+            FlightRecorder.install(driver);
+            ScreencastRecorder.start(driver);
             driver.get(url);
+            PageTimingRecorder.recordNavigation(driver);
             logger.info("Successfully created Chrome driver and navigated to: {}", url);
             return driver;
         } catch (Exception e) {
@@ -111,7 +246,11 @@ public class DriverUtils {
             // Add Firefox-specific options here if needed
             WebDriver driver = new FirefoxDriver(options);
             driver.manage().window().maximize();
+            applyEmulation(driver, getEmulationProfile());
+            WebVitalsRecorder.install(driver);
+            FlightRecorder.install(driver);
             driver.get(url);
+            PageTimingRecorder.recordNavigation(driver);
             logger.info("Successfully created Firefox driver and navigated to: {}", url);
             return driver;
         } catch (Exception e) {
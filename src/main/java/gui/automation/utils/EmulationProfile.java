@@ -0,0 +1,90 @@
+package gui.automation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named network and CPU emulation profiles applied to Chrome through DevTools.
+ * <p>
+ * Throughput values are in bytes per second (the unit Network.emulateNetworkConditions expects); -1 disables
+ * throttling. The slowdown factor is what SeleniumUtil multiplies its wait timeouts by while a profile is active.
+ * Profiles are selected by name in config.properties (emulation.profile), a testng.xml parameter of the same
+ * name, or the {@code @Emulation} annotation on a test class or method.
+ */
+public enum EmulationProfile {
+    NONE("none", 0, -1, -1, 1, 1.0),
+    THREE_G("3G", 300, 750 * 1024 / 8, 250 * 1024 / 8, 1, 3.0),
+    SLOW_4G("slow-4G", 150, 1600 * 1024 / 8, 750 * 1024 / 8, 1, 2.0),
+    CPU_4X("4x-cpu", 0, -1, -1, 4, 2.0),
+    LOW_END_MOBILE("low-end-mobile", 150, 1600 * 1024 / 8, 750 * 1024 / 8, 4, 4.0);
+
+    private final String profileName;
+    private final int latencyMillis;
+    private final long downloadBytesPerSecond;
+    private final long uploadBytesPerSecond;
+    private final int cpuThrottlingRate;
+    private final double slowdownFactor;
+
+    EmulationProfile(String profileName, int latencyMillis, long downloadBytesPerSecond, long uploadBytesPerSecond,
+                     int cpuThrottlingRate, double slowdownFactor) {
+        this.profileName = profileName;
+        this.latencyMillis = latencyMillis;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.cpuThrottlingRate = cpuThrottlingRate;
+        this.slowdownFactor = slowdownFactor;
+    }
+
+    /**
+     * Looks up a profile by its name (case-insensitive), e.g. "3G", "slow-4G" or "4x-cpu".
+     * A null or empty name yields {@link #NONE}.
+     *
+     * @throws IllegalArgumentException if no profile has that name.
+     */
+    public static EmulationProfile fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return NONE;
+        }
+        List<String> known = new ArrayList<>();
+        for (EmulationProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name.trim()) || profile.name().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+            known.add(profile.profileName);
+        }
+        throw new IllegalArgumentException("Unknown emulation profile: " + name + " (known: " + known + ")");
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public long getDownloadBytesPerSecond() {
+        return downloadBytesPerSecond;
+    }
+
+    public long getUploadBytesPerSecond() {
+        return uploadBytesPerSecond;
+    }
+
+    public int getCpuThrottlingRate() {
+        return cpuThrottlingRate;
+    }
+
+    public double getSlowdownFactor() {
+        return slowdownFactor;
+    }
+
+    public boolean throttlesNetwork() {
+        return latencyMillis > 0 || downloadBytesPerSecond > 0 || uploadBytesPerSecond > 0;
+    }
+
+    @Override
+    public String toString() {
+        return profileName;
+    }
+}
@@ -0,0 +1,364 @@
+package gui.automation.utils;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams one sheet of an Excel workbook as test data (see TestDataSource for filtering, sampling and data
+ * providers).
+ * <p>
+ * XLSX files are read with POI's XSSF event API: XSSFReader opens the package parts, and the sheet XML is pulled
+ * one row at a time with a StAX reader, so memory does not grow with the number of rows (unlike WorkbookFactory,
+ * which builds the whole workbook). The shared strings table is read once per iteration into a plain String[]
+ * (no rich-text objects) and cells refer to it by index. Cells are returned as Excel displays them (number and
+ * date formats applied via DataFormatter); formulas return their cached result. Blank rows are skipped.
+ * Legacy XLS files are supported but loaded whole.
+ * <p>
+ * Example:
+ *   &#64;DataProvider(name = "users")
+ *   public Iterator&lt;Object[]&gt; users() {
+ *       return ExcelDataSource.of("src/test/resources/testdata/users.xlsx").sheet("Users").asDataProvider(User.class);
+ *   }
+ */
+public class ExcelDataSource extends TestDataSource<ExcelDataSource> {
+    private String sheetName;
+    private int sheetIndex;
+
+    private ExcelDataSource(Path path) {
+        super(path);
+    }
+
+    public static ExcelDataSource of(String path) {
+        return of(Paths.get(path));
+    }
+
+    public static ExcelDataSource of(Path path) {
+        return new ExcelDataSource(path);
+    }
+
+    /**
+     * Reads the sheet of that name (default: the first sheet).
+     */
+    public ExcelDataSource sheet(String name) {
+        this.sheetName = name;
+        return this;
+    }
+
+    /**
+     * Reads the sheet at that 0-based position.
+     */
+    public ExcelDataSource sheet(int index) {
+        this.sheetName = null;
+        this.sheetIndex = index;
+        return this;
+    }
+
+    /**
+     * The selected sheet as given: its name, or "#index".
+     */
+    public String getSheet() {
+        return sheetName != null ? sheetName : "#" + sheetIndex;
+    }
+
+    @Override
+    protected String formatKey() {
+        return getSheet();
+    }
+
+    @Override
+    protected Records open() throws IOException {
+        if (FileMagic.valueOf(path.toFile()) == FileMagic.OLE2) {
+            return openLegacy();
+        }
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(path.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Not an Excel workbook: " + path, e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            InputStream sheet = findSheet(reader);
+            return new SheetRecords(pkg, sheet, readSharedStrings(reader), reader.getStylesTable());
+        } catch (OpenXML4JException | XMLStreamException | RuntimeException e) {
+            pkg.revert();
+            throw new IOException("Could not open sheet " + getSheet() + " of " + path, e);
+        } catch (IOException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    private InputStream findSheet(XSSFReader reader) throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        List<String> names = new ArrayList<>();
+        for (int index = 0; sheets.hasNext(); index++) {
+            InputStream sheet = sheets.next();
+            if (sheetName != null ? sheetName.equals(sheets.getSheetName()) : index == sheetIndex) {
+                return sheet;
+            }
+            names.add(sheets.getSheetName());
+            sheet.close();
+        }
+        throw new IllegalArgumentException("No sheet " + getSheet() + " in " + path + "; sheets: " + names);
+    }
+
+    /**
+     * Reads the shared strings part into a plain array, keeping only the text (phonetic runs are skipped).
+     */
+    private static String[] readSharedStrings(XSSFReader reader) throws IOException, XMLStreamException {
+        InputStream data;
+        try {
+            data = reader.getSharedStringsData();
+        } catch (OpenXML4JException | IllegalArgumentException e) {
+            return new String[0];
+        }
+        if (data == null) {
+            return new String[0];
+        }
+        try (InputStream in = data) {
+            XMLStreamReader xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(in);
+            List<String> strings = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            int phonetic = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("sst".equals(name)) {
+                        String count = xml.getAttributeValue(null, "uniqueCount");
+                        if (count != null) {
+                            strings = new ArrayList<>(Integer.parseInt(count));
+                        }
+                    } else if ("si".equals(name)) {
+                        text.setLength(0);
+                    } else if ("rPh".equals(name)) {
+                        phonetic++;
+                    } else if ("t".equals(name) && phonetic == 0) {
+                        text.append(xml.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("si".equals(xml.getLocalName())) {
+                        strings.add(text.toString());
+                    } else if ("rPh".equals(xml.getLocalName())) {
+                        phonetic--;
+                    }
+                }
+            }
+            xml.close();
+            return strings.toArray(new String[0]);
+        }
+    }
+
+    private Records openLegacy() throws IOException {
+        HSSFWorkbook workbook = new HSSFWorkbook(new POIFSFileSystem(path.toFile(), true));
+        Sheet sheet = sheetName != null ? workbook.getSheet(sheetName) : sheetIndex < workbook.getNumberOfSheets() ? workbook.getSheetAt(sheetIndex) : null;
+        if (sheet == null) {
+            workbook.close();
+            throw new IllegalArgumentException("No sheet " + getSheet() + " in " + path);
+        }
+        DataFormatter formatter = new DataFormatter();
+        Iterator<Row> rows = sheet.iterator();
+        return new Records() {
+            @Override
+            public String[] next() {
+                while (rows.hasNext()) {
+                    Row row = rows.next();
+                    if (row.getLastCellNum() <= 0) {
+                        continue;
+                    }
+                    String[] values = new String[row.getLastCellNum()];
+                    for (int i = 0; i < values.length; i++) {
+                        Cell cell = row.getCell(i);
+                        values[i] = cell != null ? formatter.formatCellValue(cell) : "";
+                    }
+                    return values;
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                workbook.close();
+            }
+        };
+    }
+
+    /**
+     * Pulls the rows of one sheet's XML. A cell is &lt;c r="B2" t="s" s="3"&gt;&lt;v&gt;7&lt;/v&gt;&lt;/c&gt;: t is the
+     * type (s = shared string index, inlineStr, str = formula text, b = boolean, e = error, otherwise a number) and
+     * s the style, which holds the number format.
+     */
+    private static final class SheetRecords implements Records {
+        private final OPCPackage pkg;
+        private final InputStream sheet;
+        private final XMLStreamReader xml;
+        private final String[] sharedStrings;
+        private final StylesTable styles;
+        private final DataFormatter formatter = new DataFormatter();
+        private final StringBuilder text = new StringBuilder();
+        private final List<String> cells = new ArrayList<>();
+
+        private SheetRecords(OPCPackage pkg, InputStream sheet, String[] sharedStrings, StylesTable styles) throws XMLStreamException {
+            this.pkg = pkg;
+            this.sheet = sheet;
+            this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheet);
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                        String[] row = readRow();
+                        if (row.length > 0) {
+                            return row;
+                        }
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new IOException("Malformed sheet XML", e);
+            }
+        }
+
+        private String[] readRow() throws XMLStreamException {
+            cells.clear();
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                    String reference = xml.getAttributeValue(null, "r");
+                    int column = reference != null ? columnIndex(reference) : cells.size();
+                    String value = readCell(xml.getAttributeValue(null, "t"), xml.getAttributeValue(null, "s"));
+                    while (cells.size() < column) {
+                        cells.add("");
+                    }
+                    cells.add(value);
+                } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            // Trailing empty cells (styled but blank) do not widen the row
+            int width = cells.size();
+            while (width > 0 && cells.get(width - 1).isEmpty()) {
+                width--;
+            }
+            return cells.subList(0, width).toArray(new String[0]);
+        }
+
+        private String readCell(String type, String style) throws XMLStreamException {
+            String raw = null;
+            text.setLength(0);
+            int phonetic = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("v".equals(name)) {
+                        raw = xml.getElementText();
+                    } else if ("rPh".equals(name)) {
+                        phonetic++;
+                    } else if ("t".equals(name) && phonetic == 0) {
+                        text.append(xml.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = xml.getLocalName();
+                    if ("rPh".equals(name)) {
+                        phonetic--;
+                    } else if ("c".equals(name)) {
+                        break;
+                    }
+                }
+            }
+            if ("inlineStr".equals(type)) {
+                return text.toString();
+            }
+            if (raw == null) {
+                return "";
+            }
+            if (type == null || "n".equals(type)) {
+                return formatNumber(raw, style);
+            }
+            switch (type) {
+                case "s":
+                    int index = Integer.parseInt(raw.trim());
+                    return index < sharedStrings.length ? sharedStrings[index] : "";
+                case "b":
+                    return "1".equals(raw) ? "TRUE" : "FALSE";
+                default:
+                    // str (formula result), e (error such as #DIV/0!), d (ISO date)
+                    return raw;
+            }
+        }
+
+        private String formatNumber(String raw, String style) {
+            double value;
+            try {
+                value = Double.parseDouble(raw);
+            } catch (NumberFormatException e) {
+                return raw;
+            }
+            if (style == null || styles == null) {
+                return formatter.formatRawCellContents(value, 0, "General");
+            }
+            XSSFCellStyle cellStyle = styles.getStyleAt(Integer.parseInt(style));
+            if (cellStyle == null) {
+                return formatter.formatRawCellContents(value, 0, "General");
+            }
+            String format = cellStyle.getDataFormatString();
+            return formatter.formatRawCellContents(value, cellStyle.getDataFormat(), format != null ? format : "General");
+        }
+
+        /**
+         * 0-based column of a cell reference such as "AB12".
+         */
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                sheet.close();
+                pkg.revert();
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flight recorder for failures: remembers the last actions of each session and writes them out only when a test
+ * fails, so the steps leading up to the failure can be seen, not just the final screen.
+ * <p>
+ * Every SeleniumUtil operation is recorded (through ActionMetrics) into a fixed-size ring buffer owned by the test
+ * thread: time, operation, locator and outcome, which costs a few array stores. Every
+ * perf.flight.recorder.snapshot.every actions, and after every failed action, the entry also gets a DOM digest
+ * (URL, title, readyState, node count, a hash of the visible text, the focused element) and the console messages
+ * logged since the previous snapshot, read with one script call; with perf.flight.recorder.screenshots on, Chrome
+ * adds a scaled-down JPEG. Snapshots go to the unwrapped driver, so they don't count against command budgets.
+ * Memory per thread is bounded by perf.flight.recorder.actions entries plus
+ * perf.flight.recorder.max.screenshot.bytes of screenshots (the oldest are dropped first).
+ * <p>
+ * Off by default; enable with perf.flight.recorder=true. TestListener and CucumberHooks call spill() for failed
+ * tests, which writes flight-recorder.json (and frame-N.jpg files) to the test's screenshot directory.
+ * <p>
+ * Example:
+ *   FlightRecorder.clear();                                  // test start
+ *   ... SeleniumUtil actions are recorded automatically ...
+ *   FlightRecorder.spill("TextBoxComponentTest.testSubmit"); // on failure
+ */
+public class FlightRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorder.class);
+    private static final boolean ENABLED = ConfigUtils.getBoolean("perf.flight.recorder", false);
+    private static final int CAPACITY = Math.max(1, ConfigUtils.getInt("perf.flight.recorder.actions", 50));
+    private static final int SNAPSHOT_EVERY = Math.max(1, ConfigUtils.getInt("perf.flight.recorder.snapshot.every", 5));
+    private static final boolean SCREENSHOTS = ConfigUtils.getBoolean("perf.flight.recorder.screenshots", false);
+    private static final double SCREENSHOT_SCALE = ConfigUtils.getDouble("perf.flight.recorder.screenshot.scale", 0.5);
+    private static final int SCREENSHOT_QUALITY = ConfigUtils.getInt("perf.flight.recorder.screenshot.quality", 40);
+    private static final long MAX_SCREENSHOT_BYTES = ConfigUtils.getLong("perf.flight.recorder.max.screenshot.bytes", 8L << 20);
+    private static final int MAX_CONSOLE_MESSAGES = 50;
+
+    private static final String CONSOLE_SCRIPT =
+            "(function () {"
+            + "  if (window.__webassureConsole) { return; }"
+            + "  var log = window.__webassureConsole = [];"
+            + "  function push(level, args) {"
+            + "    try {"
+            + "      var text = Array.prototype.map.call(args, function (a) {"
+            + "        try { return typeof a === 'string' ? a : JSON.stringify(a); } catch (e) { return String(a); }"
+            + "      }).join(' ');"
+            + "      log.push(level + ': ' + text.substring(0, 500));"
+            + "      if (log.length > " + MAX_CONSOLE_MESSAGES + ") { log.shift(); }"
+            + "    } catch (e) {}"
+            + "  }"
+            + "  ['log', 'info', 'warn', 'error'].forEach(function (level) {"
+            + "    var original = console[level];"
+            + "    console[level] = function () { push(level, arguments); return original.apply(console, arguments); };"
+            + "  });"
+            + "  window.addEventListener('error', function (e) { push('uncaught', [e.message]); });"
+            + "  window.addEventListener('unhandledrejection', function (e) { push('unhandledrejection', [String(e.reason)]); });"
+            + "})();";
+
+    private static final String DIGEST_SCRIPT =
+            "var text = document.body ? document.body.innerText || '' : '';"
+            + "var hash = 0;"
+            + "for (var i = 0; i < text.length; i++) { hash = (hash * 31 + text.charCodeAt(i)) | 0; }"
+            + "var active = document.activeElement;"
+            + "var focus = active ? active.tagName.toLowerCase() + (active.id ? '#' + active.id : '') : '';"
+            + "var messages = window.__webassureConsole ? window.__webassureConsole.splice(0) : [];"
+            + "return {digest: location.href + ' | ' + document.title + ' | ' + document.readyState"
+            + "  + ' | nodes=' + document.getElementsByTagName('*').length + ' | text#' + (hash >>> 0).toString(16)"
+            + "  + ' | focus=' + focus,"
+            + "  console: messages, width: window.innerWidth, height: window.innerHeight};";
+
+    private static final ThreadLocal<Recording> ring =
+            ThreadLocal.withInitial(() -> new Recording(CAPACITY, SNAPSHOT_EVERY, MAX_SCREENSHOT_BYTES));
+
+    private FlightRecorder() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Prepares a new session: captures console messages from the first page on (Chrome only).
+     */
+    public static void install(WebDriver webDriver) {
+        if (!ENABLED) {
+            return;
+        }
+        ring.get().clear();
+        if (!(webDriver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("source", CONSOLE_SCRIPT);
+            ((HasCdp) webDriver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+        } catch (Exception e) {
+            logger.warn("Could not install console capture for the flight recorder: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records a finished SeleniumUtil operation (called by ActionMetrics).
+     */
+    public static void record(String operation, By locator, boolean failed) {
+        if (!ENABLED) {
+            return;
+        }
+        Recording own = ring.get();
+        if (own.add(System.currentTimeMillis(), operation, locator, failed)) {
+            snapshot(own);
+        }
+    }
+
+    /**
+     * Forgets everything recorded on the calling thread, e.g. when a test passes or a new one starts.
+     */
+    public static void clear() {
+        if (ENABLED) {
+            ring.get().clear();
+        }
+    }
+
+    /**
+     * Writes the calling thread's recording to the test's screenshot directory and clears it. A final snapshot of
+     * the current page is added first.
+     *
+     * @return The flight-recorder.json path, or null if the recorder is off or nothing was recorded.
+     */
+    public static Path spill(String testName) {
+        if (!ENABLED) {
+            return null;
+        }
+        Recording own = ring.get();
+        if (own.getCount() == 0) {
+            return null;
+        }
+        snapshot(own);
+        Path path = own.write(testName, ScreenshotService.testDirectory(testName).resolve("flight-recorder"));
+        own.clear();
+        logger.info("Flight recorder written for {}: {}", testName, path);
+        return path;
+    }
+
+    private static void snapshot(Recording own) {
+        WebDriver webDriver = unwrap(SeleniumUtil.getDriver());
+        if (!(webDriver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            Object raw = ((JavascriptExecutor) webDriver).executeScript(DIGEST_SCRIPT);
+            if (!(raw instanceof Map)) {
+                return;
+            }
+            Map<?, ?> map = (Map<?, ?>) raw;
+            List<String> console = new ArrayList<>();
+            if (map.get("console") instanceof List) {
+                for (Object message : (List<?>) map.get("console")) {
+                    console.add(String.valueOf(message));
+                }
+            }
+            String screenshot = SCREENSHOTS && webDriver instanceof HasCdp
+                    ? lowResScreenshot((HasCdp) webDriver, map.get("width"), map.get("height")) : null;
+            own.attach(String.valueOf(map.get("digest")), console, screenshot);
+        } catch (Exception e) {
+            logger.debug("Flight recorder snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    private static String lowResScreenshot(HasCdp cdp, Object width, Object height) {
+        if (!(width instanceof Number) || !(height instanceof Number)) {
+            return null;
+        }
+        Map<String, Object> clip = new HashMap<>();
+        clip.put("x", 0);
+        clip.put("y", 0);
+        clip.put("width", width);
+        clip.put("height", height);
+        clip.put("scale", SCREENSHOT_SCALE);
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", "jpeg");
+        params.put("quality", SCREENSHOT_QUALITY);
+        params.put("clip", clip);
+        Object data = cdp.executeCdpCommand("Page.captureScreenshot", params).get("data");
+        return data instanceof String ? (String) data : null;
+    }
+
+    private static WebDriver unwrap(WebDriver webDriver) {
+        return webDriver instanceof WrapsDriver ? ((WrapsDriver) webDriver).getWrappedDriver() : webDriver;
+    }
+
+    private static final class Snapshot {
+        private final String digest;
+        private final List<String> console;
+        private String screenshot;
+
+        private Snapshot(String digest, List<String> console) {
+            this.digest = digest;
+            this.console = console.isEmpty() ? Collections.emptyList() : console;
+        }
+    }
+
+    /**
+     * The last actions of one thread in a ring buffer, with snapshots and a screenshot budget. Only the owning
+     * thread reads and writes it.
+     */
+    public static final class Recording {
+        private final int capacity;
+        private final int snapshotEvery;
+        private final long maxScreenshotBytes;
+        private final long[] times;
+        private final String[] operations;
+        private final By[] locators;
+        private final boolean[] failed;
+        private final Snapshot[] snapshots;
+        private long count;
+        private int sinceSnapshot;
+        private long screenshotBytes;
+
+        /**
+         * @param capacity           Actions kept; older ones are overwritten.
+         * @param snapshotEvery      Every how many actions add() asks for a snapshot (failures always do).
+         * @param maxScreenshotBytes Budget for the Base64 screenshots of all snapshots; the oldest are dropped first.
+         */
+        public Recording(int capacity, int snapshotEvery, long maxScreenshotBytes) {
+            this.capacity = capacity;
+            this.snapshotEvery = snapshotEvery;
+            this.maxScreenshotBytes = maxScreenshotBytes;
+            this.times = new long[capacity];
+            this.operations = new String[capacity];
+            this.locators = new By[capacity];
+            this.failed = new boolean[capacity];
+            this.snapshots = new Snapshot[capacity];
+        }
+
+        /**
+         * Appends an action, overwriting the oldest once the buffer is full.
+         *
+         * @return True if the action should get a snapshot: the first one, every snapshotEvery-th and failures.
+         */
+        public boolean add(long timeMillis, String operation, By locator, boolean failed) {
+            int slot = (int) (count++ % capacity);
+            times[slot] = timeMillis;
+            operations[slot] = operation;
+            locators[slot] = locator;
+            this.failed[slot] = failed;
+            dropScreenshot(slot);
+            snapshots[slot] = null;
+            boolean due = sinceSnapshot == 0 || sinceSnapshot >= snapshotEvery;
+            sinceSnapshot++;
+            if (failed || due) {
+                sinceSnapshot = 1;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Attaches a page snapshot to the newest action, replacing any earlier one.
+         *
+         * @param screenshot Base64 JPEG, or null.
+         */
+        public void attach(String digest, List<String> console, String screenshot) {
+            if (count == 0) {
+                return;
+            }
+            int slot = (int) ((count - 1) % capacity);
+            Snapshot snapshot = new Snapshot(digest, console);
+            snapshot.screenshot = screenshot;
+            dropScreenshot(slot);
+            snapshots[slot] = snapshot;
+            addScreenshotBytes(slot);
+        }
+
+        /**
+         * Actions recorded since the last clear(), including those already overwritten.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public long getScreenshotBytes() {
+            return screenshotBytes;
+        }
+
+        /**
+         * Writes flight-recorder.json and the frame-N.jpg screenshots to dir, oldest action first.
+         *
+         * @return The flight-recorder.json path.
+         */
+        public Path write(String testName, Path dir) {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            long first = count > capacity ? count - capacity : 0;
+            for (long i = first; i < count; i++) {
+                int slot = (int) (i % capacity);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("time", Instant.ofEpochMilli(times[slot]).toString());
+                entry.put("action", operations[slot]);
+                if (locators[slot] != null) {
+                    entry.put("locator", locators[slot].toString());
+                }
+                entry.put("failed", failed[slot]);
+                Snapshot snapshot = snapshots[slot];
+                if (snapshot != null) {
+                    entry.put("digest", snapshot.digest);
+                    if (!snapshot.console.isEmpty()) {
+                        entry.put("console", snapshot.console);
+                    }
+                    if (snapshot.screenshot != null) {
+                        String frame = "frame-" + i + ".jpg";
+                        ScreenshotService.save(Base64.getMimeDecoder().decode(snapshot.screenshot), dir.resolve(frame));
+                        entry.put("screenshot", frame);
+                    }
+                }
+                entries.add(entry);
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("test", testName);
+            report.put("spilledAt", Instant.now().toString());
+            report.put("entries", entries);
+            Path path = dir.resolve("flight-recorder.json");
+            ReportUtils.writeString(path, new Json().toJson(report));
+            return path;
+        }
+
+        private void addScreenshotBytes(int slot) {
+            Snapshot snapshot = snapshots[slot];
+            if (snapshot == null || snapshot.screenshot == null) {
+                return;
+            }
+            screenshotBytes += snapshot.screenshot.length();
+            // Drop the oldest screenshots until the recording fits its budget again
+            long first = count > capacity ? count - capacity : 0;
+            for (long i = first; i < count && screenshotBytes > maxScreenshotBytes; i++) {
+                int oldest = (int) (i % capacity);
+                if (oldest != slot) {
+                    dropScreenshot(oldest);
+                }
+            }
+        }
+
+        private void dropScreenshot(int slot) {
+            Snapshot snapshot = snapshots[slot];
+            if (snapshot != null && snapshot.screenshot != null) {
+                screenshotBytes -= snapshot.screenshot.length();
+                snapshot.screenshot = null;
+            }
+        }
+
+        /**
+         * Forgets all recorded actions.
+         */
+        public void clear() {
+            for (int i = 0; i < capacity; i++) {
+                snapshots[i] = null;
+                locators[i] = null;
+            }
+            count = 0;
+            sinceSnapshot = 0;
+            screenshotBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package gui.automation.utils;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A browser request that matched a {@link MockResponseRule}, captured so tests can assert on what was sent.
+ */
+public class InterceptedRequest {
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    private final String body;
+    private final long timestampMillis;
+
+    public InterceptedRequest(String method, String url, Map<String, String> headers, String body, long timestampMillis) {
+        this.method = method;
+        this.url = url;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The request body (e.g. form or JSON payload), or an empty string for requests without one.
+     */
+    public String getBody() {
+        return body;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url + (body.isEmpty() ? "" : " body=" + body);
+    }
+}
@@ -0,0 +1,150 @@
+package gui.automation.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * <p>
+ * Values are stored in microseconds. Values below 128 get one bucket each; above that every power of two is split
+ * into 64 linear sub-buckets, so any reported percentile is within about 1.6% of the true value. Recording is a
+ * couple of atomic increments and never allocates, so it is safe to call from many threads on hot paths.
+ * Values above {@link #MAX_VALUE_MICROS} (about 12 days) are clamped.
+ */
+public class LatencyHistogram {
+    public static final long MAX_VALUE_MICROS = 1L << 40;
+    private static final int LINEAR_LIMIT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (40 - 6) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Records a duration given in nanoseconds (e.g. the difference of two System.nanoTime() calls).
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    /**
+     * Records a duration in microseconds. Negative values are treated as zero.
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE_MICROS - 1));
+        counts.incrementAndGet(indexFor(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+        min.accumulateAndGet(value, Math::min);
+    }
+
+    /**
+     * Adds all recordings of another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+        min.accumulateAndGet(other.min.get(), Math::min);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalMicros() {
+        return sum.sum();
+    }
+
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    public long getMinMicros() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100) in microseconds, or 0 if nothing was recorded.
+     * The result is the midpoint of the bucket holding that rank, capped at the recorded maximum.
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long lower = lowerBound(i);
+                long mid = lower + (bucketWidth(i) - 1) / 2;
+                return Math.min(mid, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return getPercentileMicros(percentile) / 1000.0;
+    }
+
+    /**
+     * Clears all recordings. Not atomic with respect to concurrent writers.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+        min.set(Long.MAX_VALUE);
+    }
+
+    static int indexFor(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - 6;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return (long) subBucket << shift;
+    }
+
+    private static long bucketWidth(int index) {
+        return index < LINEAR_LIMIT ? 1 : 1L << ((index - LINEAR_LIMIT) / SUB_BUCKETS + 1);
+    }
+}
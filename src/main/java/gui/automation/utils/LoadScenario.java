@@ -0,0 +1,66 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A virtual-user script for {@link LoadTestRunner}: an ordered list of named steps run against one browser.
+ * <p>
+ * Steps usually delegate to the existing actions classes, so the same flows used in functional tests
+ * drive the load. Each step's latency is measured separately.
+ * <p>
+ * Example:
+ *   LoadScenario scenario = new LoadScenario("textbox-submit")
+ *           .step("open landing", driver -> SeleniumUtil.goTo(baseUrl))
+ *           .step("elements card", driver -> new LandingPageActions(driver).clickElementsCard())
+ *           .step("fill form", driver -> new TextBoxActions(driver).fillForm("A", "a@b.c", "x", "y"));
+ */
+public class LoadScenario {
+    private final String name;
+    private final List<Step> steps = new ArrayList<>();
+
+    public LoadScenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends a step. The action runs on the virtual user's thread with SeleniumUtil already bound to its driver.
+     */
+    public LoadScenario step(String stepName, Consumer<WebDriver> action) {
+        steps.add(new Step(stepName, action));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * One named, timed action of a scenario.
+     */
+    public static class Step {
+        private final String name;
+        private final Consumer<WebDriver> action;
+
+        public Step(String name, Consumer<WebDriver> action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Consumer<WebDriver> getAction() {
+            return action;
+        }
+    }
+}
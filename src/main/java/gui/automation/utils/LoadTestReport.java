@@ -0,0 +1,155 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-step latency histograms, error counts and throughput of one {@link LoadTestRunner} run.
+ * <p>
+ * Latencies from all phases go into the histograms; throughput is reported both over the whole run and over
+ * the steady-state window only, which is the figure to compare between runs.
+ */
+public class LoadTestReport {
+    private final String scenarioName;
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    private final List<String> stepOrder = Collections.synchronizedList(new ArrayList<>());
+    private volatile long totalMillis;
+    private volatile long steadyStateMillis;
+
+    public LoadTestReport(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    /**
+     * Returns the statistics for a step, creating them on first use.
+     */
+    public StepStats stats(String stepName) {
+        StepStats existing = steps.get(stepName);
+        if (existing != null) {
+            return existing;
+        }
+        return steps.computeIfAbsent(stepName, name -> {
+            stepOrder.add(name);
+            return new StepStats();
+        });
+    }
+
+    void setDurations(long totalMillis, long steadyStateMillis) {
+        this.totalMillis = totalMillis;
+        this.steadyStateMillis = steadyStateMillis;
+    }
+
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    public List<String> getStepNames() {
+        synchronized (stepOrder) {
+            return new ArrayList<>(stepOrder);
+        }
+    }
+
+    public long getTotalErrors() {
+        long errors = 0;
+        for (StepStats stats : steps.values()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+    /**
+     * Formats a fixed-width table: step, count, errors, p50/p95/p99/max in ms and throughput per second.
+     */
+    public String toTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Load test '%s' (%.1fs total, %.1fs steady state)%n", scenarioName,
+                totalMillis / 1000.0, steadyStateMillis / 1000.0));
+        sb.append(String.format(Locale.ROOT, "%-32s %8s %7s %9s %9s %9s %9s %9s %9s%n", "step", "count", "errors",
+                "p50 ms", "p95 ms", "p99 ms", "max ms", "rps", "rps(ss)"));
+        for (String name : getStepNames()) {
+            StepStats s = steps.get(name);
+            LatencyHistogram h = s.getHistogram();
+            sb.append(String.format(Locale.ROOT, "%-32s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.2f %9.2f%n", name,
+                    h.getCount(), s.getErrors(), h.getPercentileMillis(50), h.getPercentileMillis(95),
+                    h.getPercentileMillis(99), h.getMaxMicros() / 1000.0, rate(h.getCount(), totalMillis),
+                    rate(s.getSteadyStateCount(), steadyStateMillis)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes load-test-&lt;scenario&gt;.json with the same figures as {@link #toTable()}.
+     *
+     * @return The path of the written file.
+     */
+    public Path writeReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenarioName);
+        report.put("totalMillis", totalMillis);
+        report.put("steadyStateMillis", steadyStateMillis);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String name : getStepNames()) {
+            StepStats s = steps.get(name);
+            LatencyHistogram h = s.getHistogram();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("step", name);
+            row.put("count", h.getCount());
+            row.put("errors", s.getErrors());
+            row.put("p50Ms", h.getPercentileMillis(50));
+            row.put("p95Ms", h.getPercentileMillis(95));
+            row.put("p99Ms", h.getPercentileMillis(99));
+            row.put("maxMs", h.getMaxMicros() / 1000.0);
+            row.put("throughputPerSecond", rate(h.getCount(), totalMillis));
+            row.put("steadyStateThroughputPerSecond", rate(s.getSteadyStateCount(), steadyStateMillis));
+            rows.add(row);
+        }
+        report.put("steps", rows);
+        Path path = ReportUtils.reportPath("load-test-" + scenarioName.replaceAll("[^A-Za-z0-9_-]", "_") + ".json");
+        ReportUtils.writeString(path, new Json().toJson(report));
+        return path;
+    }
+
+    private static double rate(long count, long millis) {
+        return millis <= 0 ? 0 : count * 1000.0 / millis;
+    }
+
+    /**
+     * Counters for one step.
+     */
+    public static class StepStats {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder steadyStateCount = new LongAdder();
+
+        public void record(long nanos, boolean success, boolean inSteadyState) {
+            histogram.recordNanos(nanos);
+            if (!success) {
+                errors.increment();
+            }
+            if (inSteadyState) {
+                steadyStateCount.increment();
+            }
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getSteadyStateCount() {
+            return steadyStateCount.sum();
+        }
+    }
+}
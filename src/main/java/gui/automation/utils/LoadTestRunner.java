@@ -0,0 +1,252 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UI-level load generator: drives a {@link LoadScenario} with N concurrent headless browsers, optionally
+ * alongside lightweight HTTP-only users, through ramp-up, steady-state and ramp-down phases.
+ * <p>
+ * Users start evenly spread over the ramp-up, all run during steady state, and stop evenly spread over the
+ * ramp-down (last started, first stopped). A user finishes its current iteration before stopping. Every step's
+ * latency goes into a {@link LatencyHistogram}; see {@link LoadTestReport} for the output. Defaults come from the
+ * load.* keys in config.properties.
+ * <p>
+ * Example:
+ *   LoadTestReport report = new LoadTestRunner(scenario, server.getBaseUrl())
+ *           .browserUsers(4).httpUsers(20, "/", "/text-box")
+ *           .rampUp(Duration.ofSeconds(10)).steadyState(Duration.ofSeconds(60)).rampDown(Duration.ofSeconds(5))
+ *           .run();
+ */
+public class LoadTestRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadScenario scenario;
+    private final String baseUrl;
+    private int browserUsers = ConfigUtils.getInt("load.browser.users", 2);
+    private int httpUsers = ConfigUtils.getInt("load.http.users", 0);
+    private List<String> httpPaths = new ArrayList<>(Arrays.asList("/"));
+    private Duration rampUp = Duration.ofSeconds(ConfigUtils.getLong("load.ramp.up.seconds", 10));
+    private Duration steadyState = Duration.ofSeconds(ConfigUtils.getLong("load.steady.seconds", 30));
+    private Duration rampDown = Duration.ofSeconds(ConfigUtils.getLong("load.ramp.down.seconds", 5));
+    private Duration thinkTime = Duration.ofMillis(ConfigUtils.getLong("load.think.time.millis", 500));
+
+    public LoadTestRunner(LoadScenario scenario, String baseUrl) {
+        this.scenario = scenario;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public LoadTestRunner browserUsers(int count) {
+        this.browserUsers = count;
+        return this;
+    }
+
+    /**
+     * Adds HTTP-only users that repeatedly GET the given paths (relative to the base URL) without a browser.
+     */
+    public LoadTestRunner httpUsers(int count, String... paths) {
+        this.httpUsers = count;
+        if (paths.length > 0) {
+            this.httpPaths = new ArrayList<>(Arrays.asList(paths));
+        }
+        return this;
+    }
+
+    public LoadTestRunner rampUp(Duration duration) {
+        this.rampUp = duration;
+        return this;
+    }
+
+    public LoadTestRunner steadyState(Duration duration) {
+        this.steadyState = duration;
+        return this;
+    }
+
+    public LoadTestRunner rampDown(Duration duration) {
+        this.rampDown = duration;
+        return this;
+    }
+
+    /**
+     * Pause between iterations of each user.
+     */
+    public LoadTestRunner thinkTime(Duration duration) {
+        this.thinkTime = duration;
+        return this;
+    }
+
+    /**
+     * Runs all phases and blocks until every user has stopped.
+     */
+    public LoadTestReport run() {
+        int totalUsers = browserUsers + httpUsers;
+        if (totalUsers == 0) {
+            throw new IllegalStateException("Load test needs at least one browser or HTTP user");
+        }
+        LoadTestReport report = new LoadTestReport(scenario.getName());
+        long start = System.nanoTime();
+        long steadyStart = start + rampUp.toNanos();
+        long steadyEnd = steadyStart + steadyState.toNanos();
+        HttpClient httpClient = httpUsers > 0 ? HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10)).build() : null;
+        ExecutorService executor = Executors.newFixedThreadPool(totalUsers);
+        logger.info("Load test '{}': {} browser users, {} HTTP users, ramp-up {}s, steady {}s, ramp-down {}s",
+                scenario.getName(), browserUsers, httpUsers, rampUp.getSeconds(), steadyState.getSeconds(),
+                rampDown.getSeconds());
+        for (int i = 0; i < totalUsers; i++) {
+            long startAt = start + rampUp.toNanos() * i / totalUsers;
+            long stopAt = steadyEnd + rampDown.toNanos() * (totalUsers - i) / totalUsers;
+            Window window = new Window(startAt, stopAt, steadyStart, steadyEnd);
+            if (i < browserUsers) {
+                executor.submit(() -> runBrowserUser(window, report));
+            } else {
+                executor.submit(() -> runHttpUser(window, report, httpClient));
+            }
+        }
+        executor.shutdown();
+        try {
+            long limit = rampUp.plus(steadyState).plus(rampDown).toMillis() + TimeUnit.MINUTES.toMillis(5);
+            if (!executor.awaitTermination(limit, TimeUnit.MILLISECONDS)) {
+                logger.warn("Load test users did not stop in time; interrupting");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        report.setDurations(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(steadyEnd - steadyStart));
+        logger.info("{}", report.toTable());
+        return report;
+    }
+
+    private void runBrowserUser(Window window, LoadTestReport report) {
+        if (!window.awaitStart()) {
+            return;
+        }
+        WebDriver driver;
+        try {
+            driver = DriverUtils.getDriver("chrome", baseUrl + "/", true);
+            SeleniumUtil.setDriver(driver);
+        } catch (Exception e) {
+            logger.error("Virtual user could not start a browser: {}", e.getMessage());
+            report.stats("browser start").record(0, false, false);
+            return;
+        }
+        try {
+            while (window.isRunning()) {
+                for (LoadScenario.Step step : scenario.getSteps()) {
+                    long stepStart = System.nanoTime();
+                    boolean success = true;
+                    try {
+                        step.getAction().accept(driver);
+                    } catch (Exception e) {
+                        success = false;
+                        logger.debug("Step '{}' failed: {}", step.getName(), e.getMessage());
+                    }
+                    long end = System.nanoTime();
+                    report.stats(step.getName()).record(end - stepStart, success, window.inSteadyState(end));
+                    if (!success) {
+                        break;
+                    }
+                }
+                pause();
+            }
+        } finally {
+            try {
+                DriverUtils.quitDriver();
+            } catch (Exception e) {
+                logger.debug("Could not quit virtual user browser: {}", e.getMessage());
+            }
+            SeleniumUtil.setDriver(null);
+        }
+    }
+
+    private void runHttpUser(Window window, LoadTestReport report, HttpClient client) {
+        if (!window.awaitStart()) {
+            return;
+        }
+        while (window.isRunning()) {
+            for (String path : httpPaths) {
+                String stepName = "GET " + path;
+                long stepStart = System.nanoTime();
+                boolean success;
+                try {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(30)).GET().build();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    success = response.statusCode() < 400;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    success = false;
+                }
+                long end = System.nanoTime();
+                report.stats(stepName).record(end - stepStart, success, window.inSteadyState(end));
+            }
+            pause();
+        }
+    }
+
+    private void pause() {
+        if (!thinkTime.isZero()) {
+            try {
+                Thread.sleep(thinkTime.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Start/stop instants of one virtual user, in System.nanoTime() terms.
+     */
+    private static final class Window {
+        private final long startAt;
+        private final long stopAt;
+        private final long steadyStart;
+        private final long steadyEnd;
+
+        private Window(long startAt, long stopAt, long steadyStart, long steadyEnd) {
+            this.startAt = startAt;
+            this.stopAt = stopAt;
+            this.steadyStart = steadyStart;
+            this.steadyEnd = steadyEnd;
+        }
+
+        private boolean awaitStart() {
+            long wait = startAt - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isRunning() {
+            return System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted();
+        }
+
+        private boolean inSteadyState(long nanoTime) {
+            return nanoTime >= steadyStart && nanoTime < steadyEnd;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leak-check mode: repeats an action sequence and watches the browser's JS heap and DOM node count.
+ * <p>
+ * After every iteration the detector forces a garbage collection and samples Performance.getMetrics through
+ * DevTools (Chrome only). A least-squares line is fitted to the samples after the warm-up iteration; the check
+ * fails when a metric grows monotonically and the fitted growth over the run exceeds its threshold.
+ * Defaults come from the leak.check.* keys in config.properties.
+ * <p>
+ * The sequence must move through the app with in-app navigation (link clicks, history.back()) and never load a
+ * new document: a reload throws the JS heap away, so a leak could never show. The detector marks the document
+ * before the first iteration and fails fast if an iteration replaced it.
+ * <p>
+ * Example:
+ *   MemoryLeakDetector.Result result = new MemoryLeakDetector(driver)
+ *           .run("landing-elements-textbox", () -> { ... one navigation round ... });
+ *   result.assertNoLeak();
+ */
+public class MemoryLeakDetector {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryLeakDetector.class);
+    private static final double HEAP_NOISE_RATIO = 0.01;
+    private static final String DOCUMENT_MARKER = "window.__webassureLeakCheck";
+
+    private final WebDriver webDriver;
+    private int iterations = ConfigUtils.getInt("leak.check.iterations", 10);
+    private long heapGrowthThresholdBytes = ConfigUtils.getLong("leak.check.heap.threshold.bytes", 2L * 1024 * 1024);
+    private long nodeGrowthThreshold = ConfigUtils.getLong("leak.check.nodes.threshold", 500);
+    private boolean heapSnapshot = ConfigUtils.getBoolean("leak.check.heap.snapshot", false);
+
+    public MemoryLeakDetector(WebDriver webDriver) {
+        if (!(webDriver instanceof HasCdp)) {
+            throw new IllegalStateException("Leak checks require a DevTools-capable (Chromium) driver");
+        }
+        this.webDriver = webDriver;
+    }
+
+    public MemoryLeakDetector iterations(int iterations) {
+        if (iterations < 3) {
+            throw new IllegalArgumentException("Leak checks need at least 3 iterations: " + iterations);
+        }
+        this.iterations = iterations;
+        return this;
+    }
+
+    public MemoryLeakDetector heapGrowthThresholdBytes(long bytes) {
+        this.heapGrowthThresholdBytes = bytes;
+        return this;
+    }
+
+    public MemoryLeakDetector nodeGrowthThreshold(long nodes) {
+        this.nodeGrowthThreshold = nodes;
+        return this;
+    }
+
+    /**
+     * Saves a .heapsnapshot file (loadable in Chrome DevTools' Memory tab) after the last iteration.
+     */
+    public MemoryLeakDetector saveHeapSnapshot(boolean save) {
+        this.heapSnapshot = save;
+        return this;
+    }
+
+    /**
+     * Runs the sequence the configured number of times, sampling memory after each iteration.
+     *
+     * @param name     A short name for logs and the snapshot file.
+     * @param sequence The user flow to repeat; it should end in the same state it started from, in the same document.
+     * @throws IllegalStateException If an iteration loaded a new document.
+     */
+    public Result run(String name, Runnable sequence) {
+        HasCdp cdp = (HasCdp) webDriver;
+        JavascriptExecutor js = (JavascriptExecutor) webDriver;
+        cdp.executeCdpCommand("Performance.enable", new HashMap<>());
+        js.executeScript(DOCUMENT_MARKER + " = arguments[0];", name);
+        List<Long> heap = new ArrayList<>();
+        List<Long> nodes = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            sequence.run();
+            if (!Boolean.TRUE.equals(js.executeScript("return " + DOCUMENT_MARKER + " === arguments[0];", name))) {
+                throw new IllegalStateException("Iteration " + (i + 1) + " of leak check '" + name + "' loaded a new document, "
+                        + "which resets the JS heap; navigate in-app (link clicks, history.back()) instead");
+            }
+            cdp.executeCdpCommand("HeapProfiler.collectGarbage", new HashMap<>());
+            Map<String, Double> metrics = readMetrics(cdp);
+            heap.add(Math.round(metrics.getOrDefault("JSHeapUsedSize", 0d)));
+            nodes.add(Math.round(metrics.getOrDefault("Nodes", 0d)));
+            logger.info("Leak check '{}' iteration {}/{}: heap={} bytes, nodes={}", name, i + 1, iterations,
+                    heap.get(i), nodes.get(i));
+        }
+        Path snapshot = heapSnapshot ? writeHeapSnapshot(name) : null;
+        Result result = new Result(name, heap, nodes, heapGrowthThresholdBytes, nodeGrowthThreshold, snapshot);
+        logger.info("Leak check '{}': {}", name, result.summary());
+        return result;
+    }
+
+    private static Map<String, Double> readMetrics(HasCdp cdp) {
+        Map<String, Double> values = new HashMap<>();
+        Object metrics = cdp.executeCdpCommand("Performance.getMetrics", new HashMap<>()).get("metrics");
+        if (metrics instanceof List) {
+            for (Object item : (List<?>) metrics) {
+                Map<?, ?> metric = (Map<?, ?>) item;
+                Object value = metric.get("value");
+                if (value instanceof Number) {
+                    values.put(String.valueOf(metric.get("name")), ((Number) value).doubleValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    private Path writeHeapSnapshot(String name) {
+        if (!(webDriver instanceof HasDevTools)) {
+            return null;
+        }
+        Path path = ReportUtils.reportPath("heap-" + name.replaceAll("[^A-Za-z0-9_-]", "_") + "-"
+                + System.currentTimeMillis() + ".heapsnapshot");
+        DevTools devTools = ((HasDevTools) webDriver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        AtomicLong lastChunk = new AtomicLong(System.currentTimeMillis());
+        // The DevTools session is shared with network mocks and the screencast, whose listeners must survive;
+        // DevTools cannot remove a single listener, so this one is switched off instead
+        AtomicBoolean active = new AtomicBoolean(true);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            devTools.addListener(new Event<>("HeapProfiler.addHeapSnapshotChunk", input -> {
+                String chunk = "";
+                input.beginObject();
+                while (input.hasNext()) {
+                    if ("chunk".equals(input.nextName())) {
+                        chunk = input.nextString();
+                    } else {
+                        input.skipValue();
+                    }
+                }
+                input.endObject();
+                return chunk;
+            }), chunk -> {
+                if (!active.get()) {
+                    return;
+                }
+                synchronized (writer) {
+                    try {
+                        writer.write(chunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                lastChunk.set(System.currentTimeMillis());
+            });
+            devTools.send(new Command<Void>("HeapProfiler.enable", Collections.emptyMap()));
+            devTools.send(new Command<Void>("HeapProfiler.takeHeapSnapshot",
+                    Collections.singletonMap("reportProgress", false)));
+            // Chunk events can still be in flight when the command returns; wait until they stop arriving
+            while (System.currentTimeMillis() - lastChunk.get() < 500) {
+                Thread.sleep(100);
+            }
+            synchronized (writer) {
+                writer.flush();
+            }
+            logger.info("Heap snapshot saved: {}", path);
+            return path;
+        } catch (Exception e) {
+            logger.warn("Could not save heap snapshot: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        } finally {
+            active.set(false);
+            try {
+                devTools.send(new Command<Void>("HeapProfiler.disable", Collections.emptyMap()));
+            } catch (Exception e) {
+                logger.debug("Could not disable heap profiler: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Samples and verdict of one leak check.
+     */
+    public static class Result {
+        private final String name;
+        private final List<Long> heapSamples;
+        private final List<Long> nodeSamples;
+        private final long heapThreshold;
+        private final long nodeThreshold;
+        private final Path heapSnapshot;
+
+        public Result(String name, List<Long> heapSamples, List<Long> nodeSamples, long heapThreshold, long nodeThreshold,
+               Path heapSnapshot) {
+            this.name = name;
+            this.heapSamples = Collections.unmodifiableList(heapSamples);
+            this.nodeSamples = Collections.unmodifiableList(nodeSamples);
+            this.heapThreshold = heapThreshold;
+            this.nodeThreshold = nodeThreshold;
+            this.heapSnapshot = heapSnapshot;
+        }
+
+        public List<Long> getHeapSamples() {
+            return heapSamples;
+        }
+
+        public List<Long> getNodeSamples() {
+            return nodeSamples;
+        }
+
+        /**
+         * Heap growth over the measured iterations according to the fitted trend line, in bytes.
+         */
+        public double getHeapGrowth() {
+            return fittedGrowth(heapSamples);
+        }
+
+        public double getNodeGrowth() {
+            return fittedGrowth(nodeSamples);
+        }
+
+        public boolean isHeapLeaking() {
+            return isMonotonic(heapSamples, HEAP_NOISE_RATIO) && getHeapGrowth() > heapThreshold;
+        }
+
+        public boolean isNodeLeaking() {
+            return isMonotonic(nodeSamples, 0) && getNodeGrowth() > nodeThreshold;
+        }
+
+        /**
+         * @return The saved heap snapshot, or null if none was requested or saving failed.
+         */
+        public Path getHeapSnapshot() {
+            return heapSnapshot;
+        }
+
+        /**
+         * @throws AssertionError if the JS heap or the DOM node count leaks.
+         */
+        public void assertNoLeak() {
+            if (isHeapLeaking() || isNodeLeaking()) {
+                throw new AssertionError("Memory leak detected in '" + name + "': " + summary()
+                        + (heapSnapshot != null ? " (heap snapshot: " + heapSnapshot + ")" : ""));
+            }
+        }
+
+        public String summary() {
+            return String.format("heap growth %.0f bytes (threshold %d, monotonic=%s), node growth %.0f (threshold %d, monotonic=%s)",
+                    getHeapGrowth(), heapThreshold, isMonotonic(heapSamples, HEAP_NOISE_RATIO),
+                    getNodeGrowth(), nodeThreshold, isMonotonic(nodeSamples, 0));
+        }
+
+        /**
+         * Least-squares slope times the measured span. The first sample is a warm-up (caches, lazy modules)
+         * and is left out of the fit.
+         */
+        public static double fittedGrowth(List<Long> samples) {
+            int n = samples.size() - 1;
+            if (n < 2) {
+                return 0;
+            }
+            double meanX = (n - 1) / 2.0;
+            double meanY = 0;
+            for (int i = 0; i < n; i++) {
+                meanY += samples.get(i + 1);
+            }
+            meanY /= n;
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < n; i++) {
+                covariance += (i - meanX) * (samples.get(i + 1) - meanY);
+                variance += (i - meanX) * (i - meanX);
+            }
+            return covariance / variance * (n - 1);
+        }
+
+        /**
+         * True if no step after the warm-up drops by more than the noise ratio of the previous value.
+         */
+        public static boolean isMonotonic(List<Long> samples, double noiseRatio) {
+            for (int i = 2; i < samples.size(); i++) {
+                long previous = samples.get(i - 1);
+                if (samples.get(i) < previous - previous * noiseRatio) {
+                    return false;
+                }
+            }
+            return samples.size() > 2;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free registry of run metrics: counters, timers and value histograms, identified by a Prometheus-style
+ * name plus label pairs.
+ * <p>
+ * Counters are LongAdders and timers/histograms are {@link LatencyHistogram}s, so recording from many test threads
+ * never blocks. Looking a metric up builds its key, so hot paths should keep the returned object. The framework
+ * records into {@link #global()}: test outcomes and durations (TestNG and Cucumber), driver startup time and wait
+ * time. writeReports() dumps everything as metrics.json and metrics.prom at suite end.
+ * <p>
+ * Example:
+ *   MetricsRegistry.global().counter("webassure_tests_total", "outcome", "passed").increment();
+ *   MetricsRegistry.global().timer("webassure_driver_startup_seconds", "browser", "chrome").recordNanos(nanos);
+ */
+public class MetricsRegistry {
+    public static final String TESTS_METRIC = "webassure_tests_total";
+    public static final String TEST_DURATION_METRIC = "webassure_test_duration_seconds";
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry()
+            .describe(TESTS_METRIC, "Finished tests and scenarios by runner and outcome")
+            .describe("webassure_tests_started_total", "Started TestNG test methods")
+            .describe(TEST_DURATION_METRIC, "Duration of each test method or scenario")
+            .describe("webassure_driver_startup_seconds", "Browser and driver startup including the first page load")
+            .describe("webassure_wait_seconds", "Time spent in explicit waits and sleeps by outcome");
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> help = new ConcurrentHashMap<>();
+
+    /**
+     * The process-wide registry the framework and listeners record into.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Sets the HELP text written for a metric name in the Prometheus output.
+     */
+    public MetricsRegistry describe(String name, String helpText) {
+        help.put(name, helpText);
+        return this;
+    }
+
+    /**
+     * Returns the counter with the given name and label pairs (key1, value1, key2, value2, ...), creating it if needed.
+     */
+    public Counter counter(String name, String... labels) {
+        String key = key(name, labels);
+        Counter counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new Counter(name, labelMap(labels)));
+    }
+
+    /**
+     * Returns the timer with the given name and label pairs, creating it if needed. Timers are reported in seconds.
+     */
+    public Timer timer(String name, String... labels) {
+        String key = key(name, labels);
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, k -> new Timer(name, labelMap(labels)));
+    }
+
+    /**
+     * Returns the histogram of plain (unit-less, non-negative) values with the given name and label pairs.
+     */
+    public Histogram histogram(String name, String... labels) {
+        String key = key(name, labels);
+        Histogram histogram = histograms.get(key);
+        return histogram != null ? histogram : histograms.computeIfAbsent(key, k -> new Histogram(name, labelMap(labels)));
+    }
+
+    /**
+     * Records the outcome and duration of a finished test method or Cucumber scenario.
+     *
+     * @param runner  "testng" or "cucumber".
+     * @param test    Test identifier, e.g. Class.method or the scenario name.
+     * @param outcome "passed", "failed" or "skipped".
+     */
+    public void recordTestOutcome(String runner, String test, String outcome, long durationMillis) {
+        counter(TESTS_METRIC, "runner", runner, "outcome", outcome).increment();
+        timer(TEST_DURATION_METRIC, "runner", runner, "test", test).recordMillis(durationMillis);
+    }
+
+    /**
+     * Sum of all counters with the given name, across label values.
+     */
+    public long sum(String name) {
+        long total = 0;
+        for (Counter counter : counters.values()) {
+            if (counter.getName().equals(name)) {
+                total += counter.get();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Removes every metric. Intended for tests of the registry itself and for long-running processes.
+     */
+    public void clear() {
+        counters.clear();
+        timers.clear();
+        histograms.clear();
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format. Timers and histograms become summaries
+     * with 0.5/0.95/0.99 quantiles plus _sum and _count.
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        Map<String, List<Metric>> byName = new TreeMap<>();
+        for (Metric metric : allMetrics()) {
+            byName.computeIfAbsent(metric.getName(), n -> new ArrayList<>()).add(metric);
+        }
+        for (Map.Entry<String, List<Metric>> entry : byName.entrySet()) {
+            String name = entry.getKey();
+            List<Metric> series = entry.getValue();
+            series.sort((a, b) -> a.labelText().compareTo(b.labelText()));
+            if (help.containsKey(name)) {
+                sb.append("# HELP ").append(name).append(' ').append(help.get(name)).append('\n');
+            }
+            sb.append("# TYPE ").append(name).append(' ')
+                    .append(series.get(0) instanceof Counter ? "counter" : "summary").append('\n');
+            for (Metric metric : series) {
+                metric.appendPrometheus(sb);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns all metrics as plain maps and lists, ready for JSON serialisation.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("counters", toMaps(counters));
+        map.put("timers", toMaps(timers));
+        map.put("histograms", toMaps(histograms));
+        return map;
+    }
+
+    /**
+     * Writes metrics.json and metrics.prom to the report directory.
+     */
+    public void writeReports() {
+        ReportUtils.writeString(ReportUtils.reportPath("metrics.json"), new Json().toJson(toMap()));
+        Path prom = ReportUtils.reportPath("metrics.prom");
+        ReportUtils.writeStringAtomically(prom, toPrometheus());
+    }
+
+    private List<Metric> allMetrics() {
+        List<Metric> all = new ArrayList<>(counters.values());
+        all.addAll(timers.values());
+        all.addAll(histograms.values());
+        return all;
+    }
+
+    private static List<Map<String, Object>> toMaps(Map<String, ? extends Metric> metrics) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        new TreeMap<>(metrics).values().forEach(metric -> list.add(metric.toMap()));
+        return list;
+    }
+
+    static String key(String name, String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs: " + String.join(",", labels));
+        }
+        if (labels.length == 0) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(ReportUtils.escapePrometheusLabel(labels[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static Map<String, String> labelMap(String... labels) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            map.put(labels[i], labels[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    /**
+     * Common part of all metric types: name and labels.
+     */
+    public abstract static class Metric {
+        private final String name;
+        private final Map<String, String> labels;
+
+        Metric(String name, Map<String, String> labels) {
+            this.name = name;
+            this.labels = labels;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        String labelText() {
+            return labelText(null);
+        }
+
+        String labelText(String quantile) {
+            if (labels.isEmpty() && quantile == null) {
+                return "";
+            }
+            StringBuilder sb = new StringBuilder("{");
+            labels.forEach((k, v) -> {
+                if (sb.length() > 1) {
+                    sb.append(',');
+                }
+                sb.append(k).append("=\"").append(ReportUtils.escapePrometheusLabel(v)).append('"');
+            });
+            if (quantile != null) {
+                sb.append(sb.length() > 1 ? "," : "").append("quantile=\"").append(quantile).append('"');
+            }
+            return sb.append('}').toString();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("labels", labels);
+            return map;
+        }
+
+        abstract void appendPrometheus(StringBuilder sb);
+    }
+
+    /**
+     * Monotonic counter.
+     */
+    public static class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        Counter(String name, Map<String, String> labels) {
+            super(name, labels);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        Map<String, Object> toMap() {
+            Map<String, Object> map = super.toMap();
+            map.put("value", get());
+            return map;
+        }
+
+        @Override
+        void appendPrometheus(StringBuilder sb) {
+            sb.append(getName()).append(labelText()).append(' ').append(get()).append('\n');
+        }
+    }
+
+    /**
+     * Distribution of durations. Recorded in nanoseconds, reported in seconds.
+     */
+    public static class Timer extends Metric {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Timer(String name, Map<String, String> labels) {
+            super(name, labels);
+        }
+
+        public void recordNanos(long nanos) {
+            histogram.recordNanos(nanos);
+        }
+
+        public void recordMillis(long millis) {
+            histogram.recordMicros(millis * 1000);
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        Map<String, Object> toMap() {
+            Map<String, Object> map = super.toMap();
+            map.put("count", histogram.getCount());
+            map.put("totalSeconds", histogram.getTotalMicros() / 1e6);
+            map.put("p50Seconds", histogram.getPercentileMicros(50) / 1e6);
+            map.put("p95Seconds", histogram.getPercentileMicros(95) / 1e6);
+            map.put("p99Seconds", histogram.getPercentileMicros(99) / 1e6);
+            map.put("maxSeconds", histogram.getMaxMicros() / 1e6);
+            return map;
+        }
+
+        @Override
+        void appendPrometheus(StringBuilder sb) {
+            appendSummary(sb, this, histogram, 1e6);
+        }
+    }
+
+    /**
+     * Distribution of plain values (e.g. bytes, element counts).
+     */
+    public static class Histogram extends Metric {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Histogram(String name, Map<String, String> labels) {
+            super(name, labels);
+        }
+
+        public void record(long value) {
+            histogram.recordMicros(value);
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        Map<String, Object> toMap() {
+            Map<String, Object> map = super.toMap();
+            map.put("count", histogram.getCount());
+            map.put("sum", histogram.getTotalMicros());
+            map.put("p50", histogram.getPercentileMicros(50));
+            map.put("p95", histogram.getPercentileMicros(95));
+            map.put("p99", histogram.getPercentileMicros(99));
+            map.put("max", histogram.getMaxMicros());
+            return map;
+        }
+
+        @Override
+        void appendPrometheus(StringBuilder sb) {
+            appendSummary(sb, this, histogram, 1);
+        }
+    }
+
+    private static void appendSummary(StringBuilder sb, Metric metric, LatencyHistogram histogram, double divisor) {
+        for (String q : new String[]{"0.5", "0.95", "0.99"}) {
+            double value = histogram.getPercentileMicros(Double.parseDouble(q) * 100) / divisor;
+            sb.append(metric.getName()).append(metric.labelText(q)).append(' ').append(format(value)).append('\n');
+        }
+        sb.append(metric.getName()).append("_sum").append(metric.labelText()).append(' ')
+                .append(format(histogram.getTotalMicros() / divisor)).append('\n');
+        sb.append(metric.getName()).append("_count").append(metric.labelText()).append(' ')
+                .append(histogram.getCount()).append('\n');
+    }
+}
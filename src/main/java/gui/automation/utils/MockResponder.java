@@ -0,0 +1,144 @@
+package gui.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The mock rules of one browser session and what they decide for each request: let it through, or answer it with
+ * the canned response of the most recently added matching rule.
+ * <p>
+ * Requests no rule mocks are let through at once, on the calling thread. Mocked answers go to a timer thread of
+ * this responder's own, started with the first of them, and a rule's delay is a scheduled task rather than a sleep,
+ * so a slow mock holds up only its own request while the rest of the page keeps loading, and parallel sessions
+ * never wait for each other. NetworkMockUtils feeds it the requests paused by the DevTools Fetch domain, and asks
+ * it which URL patterns to pause (getFetchUrlPatterns).
+ * <p>
+ * Example:
+ *   MockResponder responder = new MockResponder();
+ *   responder.addRule(new MockResponseRule("*&#47;api/users*").withStatus(503).withDelayMillis(300));
+ *   responder.handle(request, exchange); // exchange.fulfill(rule) about 300 ms later
+ */
+public class MockResponder {
+    private static final Logger logger = LoggerFactory.getLogger(MockResponder.class);
+    private static final AtomicInteger timers = new AtomicInteger();
+
+    private final List<MockResponseRule> rules = new CopyOnWriteArrayList<>();
+    private final List<InterceptedRequest> captured = new CopyOnWriteArrayList<>();
+    // Per session: its DevTools round-trips and delays never hold up another session's requests
+    private ScheduledExecutorService timer;
+
+    /**
+     * Adds a rule. Rules added later take precedence.
+     */
+    public void addRule(MockResponseRule rule) {
+        rules.add(0, rule);
+    }
+
+    /**
+     * Returns the rule that applies to a request, or null if none does.
+     */
+    public MockResponseRule findRule(String method, String url) {
+        for (MockResponseRule rule : rules) {
+            if (rule.matches(method, url)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * URL patterns, in the syntax of the DevTools Fetch domain, of the requests a rule may apply to; only those
+     * need to be paused.
+     */
+    public List<String> getFetchUrlPatterns() {
+        Set<String> patterns = new LinkedHashSet<>();
+        for (MockResponseRule rule : rules) {
+            patterns.add(rule.getFetchUrlPattern());
+        }
+        return new ArrayList<>(patterns);
+    }
+
+    /**
+     * Captures the request if a rule matches and answers it: exchange.proceed() right away for unmatched and
+     * pass-through requests, exchange.fulfill(rule) on the timer thread after the rule's delay otherwise.
+     *
+     * @return The matching rule, or null.
+     */
+    public MockResponseRule handle(InterceptedRequest request, Exchange exchange) {
+        MockResponseRule rule = findRule(request.getMethod(), request.getUrl());
+        if (rule != null) {
+            captured.add(request);
+        }
+        if (rule == null || rule.isPassThrough()) {
+            answer(request, exchange::proceed);
+        } else {
+            timer().schedule(() -> answer(request, () -> exchange.fulfill(rule)), rule.getDelayMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        return rule;
+    }
+
+    /**
+     * Requests matched by a rule so far, in arrival order.
+     */
+    public List<InterceptedRequest> getCaptured() {
+        return new ArrayList<>(captured);
+    }
+
+    /**
+     * Removes the rules and captured requests and stops the timer thread; mocked answers still pending are dropped.
+     */
+    public synchronized void clear() {
+        rules.clear();
+        captured.clear();
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    private synchronized ScheduledExecutorService timer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "network-mock-" + timers.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return timer;
+    }
+
+    private static void answer(InterceptedRequest request, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            // Typically the page navigated away and the browser dropped the request
+            logger.debug("Could not answer {}: {}", request, e.getMessage());
+        }
+    }
+
+    /**
+     * Where the answer to one paused request goes.
+     */
+    public interface Exchange {
+        /**
+         * Lets the request continue to the real server.
+         */
+        void proceed();
+
+        /**
+         * Answers the request with the rule's status, headers and body.
+         */
+        void fulfill(MockResponseRule rule);
+    }
+}
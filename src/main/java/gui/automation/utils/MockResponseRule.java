@@ -0,0 +1,157 @@
+package gui.automation.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A canned response for requests whose URL matches a glob pattern.
+ * <p>
+ * Register rules through {@link SeleniumUtil#mockResponse(MockResponseRule)}. The pattern uses '*' as a wildcard,
+ * e.g. "*&#47;api/users*". A rule can also be marked as pass-through: matching requests are captured for later
+ * assertions but still go to the real server.
+ * <p>
+ * Example:
+ *   SeleniumUtil.mockResponse(new MockResponseRule("*&#47;api/submit*")
+ *           .withStatus(500)
+ *           .withHeader("Content-Type", "application/json")
+ *           .withBody("{\"error\":\"boom\"}")
+ *           .withDelayMillis(300));
+ */
+public class MockResponseRule {
+    private final String urlPattern;
+    private final Pattern compiledPattern;
+    private String method;
+    private int status = 200;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private String body = "";
+    private long delayMillis;
+    private boolean passThrough;
+
+    /**
+     * @param urlPattern Glob pattern matched against the full request URL ('*' matches any characters).
+     */
+    public MockResponseRule(String urlPattern) {
+        if (urlPattern == null || urlPattern.isEmpty()) {
+            throw new IllegalArgumentException("URL pattern must not be empty");
+        }
+        this.urlPattern = urlPattern;
+        this.compiledPattern = globToPattern(urlPattern);
+    }
+
+    /**
+     * Restricts the rule to one HTTP method (e.g. "POST"). By default all methods match.
+     */
+    public MockResponseRule forMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public MockResponseRule withStatus(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public MockResponseRule withHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public MockResponseRule withBody(String body) {
+        this.body = body != null ? body : "";
+        return this;
+    }
+
+    /**
+     * Adds an artificial delay before the canned response is returned to the browser.
+     */
+    public MockResponseRule withDelayMillis(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative: " + delayMillis);
+        }
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    /**
+     * Captures matching requests without stubbing them; the request continues to the real server.
+     */
+    public MockResponseRule passThrough() {
+        this.passThrough = true;
+        return this;
+    }
+
+    /**
+     * Returns true if this rule applies to the given request.
+     */
+    public boolean matches(String requestMethod, String url) {
+        if (method != null && !method.equalsIgnoreCase(requestMethod)) {
+            return false;
+        }
+        return url != null && compiledPattern.matcher(url).matches();
+    }
+
+    public String getUrlPattern() {
+        return urlPattern;
+    }
+
+    /**
+     * The URL pattern in the syntax of the DevTools Fetch domain, where '?' (any one character) and the
+     * backslash (escape) are special and therefore escaped here.
+     */
+    public String getFetchUrlPattern() {
+        return urlPattern.replace("\\", "\\\\").replace("?", "\\?");
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    public boolean isPassThrough() {
+        return passThrough;
+    }
+
+    /**
+     * Converts a '*' glob into an anchored regular expression; every other character is matched literally.
+     */
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            if (glob.charAt(i) == '*') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append(".*");
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    @Override
+    public String toString() {
+        return (method != null ? method + " " : "") + urlPattern + " -> "
+                + (passThrough ? "pass-through" : status + (delayMillis > 0 ? " after " + delayMillis + "ms" : ""));
+    }
+}
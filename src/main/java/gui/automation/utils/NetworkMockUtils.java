@@ -0,0 +1,188 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Per-session network response mocking on top of the DevTools Fetch domain.
+ * <p>
+ * Rules and captured requests live in a session object bound to the current thread's driver, so parallel
+ * tests never see each other's stubs. Interception is enabled lazily on the first registered rule, for the URL
+ * patterns of the registered rules only, so other requests are never paused; it is disabled by
+ * {@link #clearMocks()}, which {@link DriverUtils#quitDriver()} calls automatically. Paused requests are answered
+ * through the session's {@link MockResponder}, which applies rule delays without blocking the DevTools thread.
+ * Only Chromium-based drivers expose DevTools; other browsers fail fast with an {@link IllegalStateException}.
+ */
+public class NetworkMockUtils {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkMockUtils.class);
+    private static final ThreadLocal<MockSession> session = new ThreadLocal<>();
+
+    private NetworkMockUtils() {
+    }
+
+    /**
+     * Registers a rule for the current thread's browser session. Rules registered later take precedence.
+     *
+     * @param webDriver The driver of the current session.
+     * @param rule      The rule to add.
+     */
+    public static void addRule(WebDriver webDriver, MockResponseRule rule) {
+        sessionFor(webDriver).addRule(rule);
+        logger.info("Registered network mock: {}", rule);
+    }
+
+    /**
+     * Returns every request captured by a rule in the current session, in arrival order.
+     */
+    public static List<InterceptedRequest> getInterceptedRequests() {
+        MockSession current = session.get();
+        return current != null ? current.responder.getCaptured() : new ArrayList<>();
+    }
+
+    /**
+     * Returns the captured requests whose URL matches the given glob pattern.
+     */
+    public static List<InterceptedRequest> getInterceptedRequests(String urlPattern) {
+        Pattern pattern = MockResponseRule.globToPattern(urlPattern);
+        List<InterceptedRequest> matching = new ArrayList<>();
+        for (InterceptedRequest request : getInterceptedRequests()) {
+            if (pattern.matcher(request.getUrl()).matches()) {
+                matching.add(request);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Removes all rules and captured requests for the current thread and detaches the interceptor.
+     */
+    public static void clearMocks() {
+        MockSession current = session.get();
+        if (current != null) {
+            session.remove();
+            current.close();
+        }
+    }
+
+    private static MockSession sessionFor(WebDriver webDriver) {
+        if (webDriver == null) {
+            throw new IllegalStateException("No WebDriver set for the current thread");
+        }
+        MockSession current = session.get();
+        if (current != null && current.webDriver == webDriver) {
+            return current;
+        }
+        if (current != null) {
+            // The thread moved on to a new browser; rules of the old session must not leak into it
+            current.close();
+        }
+        if (!(webDriver instanceof HasDevTools)) {
+            throw new IllegalStateException("Network mocking requires a DevTools-capable (Chromium) driver");
+        }
+        MockSession created = new MockSession(webDriver);
+        session.set(created);
+        return created;
+    }
+
+    private static final class MockSession {
+        private final WebDriver webDriver;
+        private final DevTools devTools;
+        private final MockResponder responder = new MockResponder();
+        // DevTools cannot remove a single listener; a closed session's listener stays registered but inert
+        private volatile boolean closed;
+
+        private MockSession(WebDriver webDriver) {
+            this.webDriver = webDriver;
+            this.devTools = ((HasDevTools) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    this::onRequestPaused);
+        }
+
+        private void addRule(MockResponseRule rule) {
+            responder.addRule(rule);
+            // Enabling again replaces the patterns: pause exactly the requests some rule may apply to
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String urlPattern : responder.getFetchUrlPatterns()) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("urlPattern", urlPattern);
+                pattern.put("requestStage", "Request");
+                patterns.add(pattern);
+            }
+            devTools.send(new Command<Void>("Fetch.enable", Collections.singletonMap("patterns", patterns)));
+        }
+
+        private void onRequestPaused(Map<String, Object> paused) {
+            if (closed) {
+                return;
+            }
+            Object requestId = paused.get("requestId");
+            responder.handle(capture(paused), new MockResponder.Exchange() {
+                @Override
+                public void proceed() {
+                    devTools.send(new Command<Void>("Fetch.continueRequest", Collections.singletonMap("requestId", requestId)));
+                }
+
+                @Override
+                public void fulfill(MockResponseRule rule) {
+                    devTools.send(new Command<Void>("Fetch.fulfillRequest", fulfillParams(requestId, rule)));
+                }
+            });
+        }
+
+        private void close() {
+            closed = true;
+            try {
+                devTools.send(new Command<Void>("Fetch.disable", Collections.emptyMap()));
+            } catch (Exception e) {
+                logger.debug("Could not disable request interception: {}", e.getMessage());
+            }
+            responder.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InterceptedRequest capture(Map<String, Object> paused) {
+        Map<String, Object> request = (Map<String, Object>) paused.getOrDefault("request", Collections.emptyMap());
+        Map<String, String> headers = new LinkedHashMap<>();
+        Object sent = request.get("headers");
+        if (sent instanceof Map) {
+            ((Map<?, ?>) sent).forEach((name, value) -> headers.put(String.valueOf(name), String.valueOf(value)));
+        }
+        Object body = request.get("postData");
+        return new InterceptedRequest(String.valueOf(request.get("method")), String.valueOf(request.get("url")), headers,
+                body != null ? body.toString() : "", System.currentTimeMillis());
+    }
+
+    private static Map<String, Object> fulfillParams(Object requestId, MockResponseRule rule) {
+        List<Map<String, String>> headers = new ArrayList<>();
+        for (Map.Entry<String, String> header : rule.getHeaders().entrySet()) {
+            Map<String, String> entry = new HashMap<>();
+            entry.put("name", header.getKey());
+            entry.put("value", header.getValue());
+            headers.add(entry);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestId", requestId);
+        params.put("responseCode", rule.getStatus());
+        params.put("responseHeaders", headers);
+        params.put("body", Base64.getEncoder().encodeToString(rule.getBody().getBytes(StandardCharsets.UTF_8)));
+        return params;
+    }
+}
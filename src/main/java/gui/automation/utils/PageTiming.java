@@ -0,0 +1,139 @@
+package gui.automation.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Navigation Timing and Resource Timing figures of one page load, in milliseconds since navigation start.
+ */
+public class PageTiming {
+    private final String url;
+    private final long timestampMillis;
+    private final double ttfb;
+    private final double domContentLoaded;
+    private final double load;
+    private final long transferSize;
+    private final int resourceCount;
+    private final long resourceTransferSize;
+    private final List<Resource> slowestResources;
+    private final boolean complete;
+
+    public PageTiming(String url, long timestampMillis, double ttfb, double domContentLoaded, double load,
+                      long transferSize, int resourceCount, long resourceTransferSize, List<Resource> slowestResources) {
+        this(url, timestampMillis, ttfb, domContentLoaded, load, transferSize, resourceCount, resourceTransferSize,
+                slowestResources, true);
+    }
+
+    /**
+     * @param complete False if the load event had not finished when the sample was taken; load is then 0.
+     */
+    public PageTiming(String url, long timestampMillis, double ttfb, double domContentLoaded, double load,
+                      long transferSize, int resourceCount, long resourceTransferSize, List<Resource> slowestResources,
+                      boolean complete) {
+        this.url = url;
+        this.timestampMillis = timestampMillis;
+        this.ttfb = ttfb;
+        this.domContentLoaded = domContentLoaded;
+        this.load = load;
+        this.transferSize = transferSize;
+        this.resourceCount = resourceCount;
+        this.resourceTransferSize = resourceTransferSize;
+        this.slowestResources = Collections.unmodifiableList(slowestResources);
+        this.complete = complete;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Time to first byte: responseStart relative to navigation start.
+     */
+    public double getTtfb() {
+        return ttfb;
+    }
+
+    public double getDomContentLoaded() {
+        return domContentLoaded;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    /**
+     * Bytes transferred for the main document (0 when served from cache).
+     */
+    public long getTransferSize() {
+        return transferSize;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    /**
+     * Bytes transferred for all sub-resources (scripts, styles, images, XHR).
+     */
+    public long getResourceTransferSize() {
+        return resourceTransferSize;
+    }
+
+    /**
+     * The slowest sub-resources of this load, slowest first.
+     */
+    public List<Resource> getSlowestResources() {
+        return slowestResources;
+    }
+
+    /**
+     * Whether the load event had finished when the sample was taken. Incomplete samples have no load time and are
+     * left out of the load percentiles.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * One Resource Timing entry.
+     */
+    public static class Resource {
+        private final String name;
+        private final String initiatorType;
+        private final double startTime;
+        private final double duration;
+        private final long transferSize;
+
+        public Resource(String name, String initiatorType, double startTime, double duration, long transferSize) {
+            this.name = name;
+            this.initiatorType = initiatorType;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.transferSize = transferSize;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getInitiatorType() {
+            return initiatorType;
+        }
+
+        public double getStartTime() {
+            return startTime;
+        }
+
+        public double getDuration() {
+            return duration;
+        }
+
+        public long getTransferSize() {
+            return transferSize;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Records Navigation Timing and Resource Timing for every page load made through the framework and aggregates
+ * them per URL across the whole run.
+ * <p>
+ * Collection is a single asynchronous script call that waits in the page for loadEventEnd, at most
+ * perf.page.timing.load.wait.ms; a page still loading after that is recorded as incomplete (no load time) and
+ * left out of the load percentiles. Samples are grouped by URL without query string or fragment, keeping the
+ * newest perf.page.timing.max.samples per URL for at most perf.page.timing.max.urls URLs. At the end of the run
+ * {@link #writeReports()} produces a percentile table (CSV) and an HTML report with a waterfall of the slowest
+ * resources for the median load of each URL.
+ * Controlled by perf.page.timing (on/off) and perf.page.timing.top.resources in config.properties.
+ */
+public class PageTimingRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(PageTimingRecorder.class);
+    private static final boolean ENABLED = ConfigUtils.getBoolean("perf.page.timing", true);
+    private static final int TOP_RESOURCES = ConfigUtils.getInt("perf.page.timing.top.resources", 10);
+    private static final long LOAD_WAIT_MILLIS = ConfigUtils.getLong("perf.page.timing.load.wait.ms", 5000);
+    private static final int MAX_SAMPLES = ConfigUtils.getInt("perf.page.timing.max.samples", 500);
+    private static final int MAX_URLS = ConfigUtils.getInt("perf.page.timing.max.urls", 200);
+    private static final Map<String, Queue<PageTiming>> samples = new ConcurrentHashMap<>();
+    private static final AtomicBoolean urlLimitLogged = new AtomicBoolean();
+    private static final ThreadLocal<List<PageTiming>> scope = new ThreadLocal<>();
+
+    private static final String COLLECT_SCRIPT =
+            "var top = arguments[0], deadline = Date.now() + arguments[1], done = arguments[arguments.length - 1];"
+            + "function loaded() {"
+            + "  var n = performance.getEntriesByType('navigation')[0];"
+            + "  return (n ? n.loadEventEnd : performance.timing.loadEventEnd) > 0;"
+            + "}"
+            + "function collect() {"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "var t = performance.timing;"
+            + "var res = performance.getEntriesByType('resource');"
+            + "var list = [], total = 0;"
+            + "for (var i = 0; i < res.length; i++) {"
+            + "  var r = res[i]; total += r.transferSize || 0;"
+            + "  list.push({name: r.name, type: r.initiatorType, start: r.startTime, duration: r.duration,"
+            + "             size: r.transferSize || 0});"
+            + "}"
+            + "list.sort(function (a, b) { return b.duration - a.duration; });"
+            + "var complete = loaded();"
+            + "done({"
+            + "  url: location.href,"
+            + "  complete: complete,"
+            + "  ttfb: nav ? nav.responseStart - nav.startTime : t.responseStart - t.navigationStart,"
+            + "  dcl: nav ? nav.domContentLoadedEventEnd - nav.startTime : t.domContentLoadedEventEnd - t.navigationStart,"
+            + "  load: !complete ? 0 : nav ? nav.loadEventEnd - nav.startTime : t.loadEventEnd - t.navigationStart,"
+            + "  size: nav ? nav.transferSize || 0 : 0,"
+            + "  count: res.length,"
+            + "  resourceSize: total,"
+            + "  slowest: list.slice(0, top)"
+            + "});"
+            + "}"
+            + "(function poll() { if (loaded() || Date.now() >= deadline) collect(); else setTimeout(poll, 50); })();";
+
+    private PageTimingRecorder() {
+    }
+
+    /**
+     * Captures the timing of the page currently loaded in the driver. Failures are logged and never break a test.
+     *
+     * @param webDriver The driver that just finished a navigation.
+     * @return The captured timing, or null if disabled or not available.
+     */
+    public static PageTiming recordNavigation(WebDriver webDriver) {
+        if (!ENABLED || !(webDriver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        try {
+            Object result = ((JavascriptExecutor) webDriver).executeAsyncScript(COLLECT_SCRIPT, TOP_RESOURCES, LOAD_WAIT_MILLIS);
+            if (!(result instanceof Map)) {
+                return null;
+            }
+            PageTiming timing = toPageTiming((Map<?, ?>) result);
+            if (!timing.isComplete()) {
+                logger.debug("Page {} still loading after {} ms; load time not recorded", timing.getUrl(), LOAD_WAIT_MILLIS);
+            }
+            record(timing);
+            logger.debug("Page timing {}: ttfb={}ms dcl={}ms load={}ms", timing.getUrl(),
+                    Math.round(timing.getTtfb()), Math.round(timing.getDomContentLoaded()), Math.round(timing.getLoad()));
+            return timing;
+        } catch (Exception e) {
+            logger.warn("Could not collect page timing: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds a sample under its URL (without query string or fragment). Only the newest perf.page.timing.max.samples
+     * per URL are kept, and samples of URLs beyond the first perf.page.timing.max.urls are dropped.
+     */
+    public static void record(PageTiming timing) {
+        String key = urlKey(timing.getUrl());
+        Queue<PageTiming> queue = samples.get(key);
+        if (queue == null) {
+            if (samples.size() >= MAX_URLS) {
+                if (urlLimitLogged.compareAndSet(false, true)) {
+                    logger.warn("Page timing kept for {} URLs (perf.page.timing.max.urls); further URLs are not recorded", MAX_URLS);
+                }
+                return;
+            }
+            queue = samples.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        }
+        queue.add(timing);
+        List<PageTiming> scoped = scope.get();
+        if (scoped != null) {
+            scoped.add(timing);
+        }
+        while (queue.size() > MAX_SAMPLES) {
+            queue.poll();
+        }
+    }
+
+    /**
+     * Returns a snapshot of all samples recorded so far, keyed by URL (without query string or fragment).
+     */
+    public static Map<String, List<PageTiming>> getSamples() {
+        Map<String, List<PageTiming>> copy = new TreeMap<>();
+        for (Map.Entry<String, Queue<PageTiming>> entry : samples.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * Writes page-load-percentiles.csv and page-load-report.html to the report directory.
+     * Does nothing if no page loads were recorded.
+     */
+    public static void writeReports() {
+        Map<String, List<PageTiming>> snapshot = getSamples();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        Path csv = ReportUtils.reportPath("page-load-percentiles.csv");
+        ReportUtils.writeString(csv, toCsv(snapshot));
+        Path html = ReportUtils.reportPath("page-load-report.html");
+        ReportUtils.writeString(html, toHtml(snapshot));
+        logger.info("Page load reports written: {}, {}", csv, html);
+    }
+
+    static String urlKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            return new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), null, null).toString();
+        } catch (Exception e) {
+            return url;
+        }
+    }
+
+    private static PageTiming toPageTiming(Map<?, ?> raw) {
+        List<PageTiming.Resource> resources = new ArrayList<>();
+        Object slowest = raw.get("slowest");
+        if (slowest instanceof List) {
+            for (Object item : (List<?>) slowest) {
+                Map<?, ?> r = (Map<?, ?>) item;
+                resources.add(new PageTiming.Resource(String.valueOf(r.get("name")), String.valueOf(r.get("type")),
+                        number(r.get("start")), number(r.get("duration")), (long) number(r.get("size"))));
+            }
+        }
+        return new PageTiming(String.valueOf(raw.get("url")), System.currentTimeMillis(),
+                number(raw.get("ttfb")), number(raw.get("dcl")), number(raw.get("load")),
+                (long) number(raw.get("size")), (int) number(raw.get("count")),
+                (long) number(raw.get("resourceSize")), resources, !Boolean.FALSE.equals(raw.get("complete")));
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static double[] values(List<PageTiming> timings, ToDoubleFunction<PageTiming> metric) {
+        double[] values = new double[timings.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = metric.applyAsDouble(timings.get(i));
+        }
+        return values;
+    }
+
+    private static String toCsv(Map<String, List<PageTiming>> snapshot) {
+        StringBuilder sb = new StringBuilder("url,metric,samples,p50,p90,p95,max\n");
+        for (Map.Entry<String, List<PageTiming>> entry : snapshot.entrySet()) {
+            List<PageTiming> timings = entry.getValue();
+            appendCsvRow(sb, entry.getKey(), "ttfb_ms", values(timings, PageTiming::getTtfb));
+            appendCsvRow(sb, entry.getKey(), "dom_content_loaded_ms", values(timings, PageTiming::getDomContentLoaded));
+            appendCsvRow(sb, entry.getKey(), "load_ms", values(completed(timings), PageTiming::getLoad));
+            appendCsvRow(sb, entry.getKey(), "document_bytes", values(timings, t -> t.getTransferSize()));
+            appendCsvRow(sb, entry.getKey(), "resource_bytes", values(timings, t -> t.getResourceTransferSize()));
+        }
+        return sb.toString();
+    }
+
+    private static void appendCsvRow(StringBuilder sb, String url, String metric, double[] values) {
+        if (values.length == 0) {
+            return;
+        }
+        sb.append('"').append(url.replace("\"", "\"\"")).append("\",").append(metric).append(',')
+                .append(values.length).append(',')
+                .append(format(ReportUtils.percentile(values, 50))).append(',')
+                .append(format(ReportUtils.percentile(values, 90))).append(',')
+                .append(format(ReportUtils.percentile(values, 95))).append(',')
+                .append(format(ReportUtils.percentile(values, 100))).append('\n');
+    }
+
+    private static String toHtml(Map<String, List<PageTiming>> snapshot) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>Page Load Report</title><style>")
+                .append("body{font-family:sans-serif;font-size:13px}table{border-collapse:collapse;margin-bottom:16px}")
+                .append("td,th{border:1px solid #ccc;padding:3px 8px;text-align:right}td.l,th.l{text-align:left}")
+                .append(".row{display:flex;align-items:center;height:16px}.lbl{width:420px;overflow:hidden;")
+                .append("white-space:nowrap;text-overflow:ellipsis}.track{position:relative;flex:1;height:10px;")
+                .append("background:#f3f3f3}.bar{position:absolute;height:10px;background:#4a90d9}")
+                .append(".mark{position:absolute;top:-3px;width:2px;height:16px}</style></head><body>")
+                .append("<h1>Page Load Report</h1><h2>Percentiles (ms)</h2><table><tr><th class=\"l\">URL</th>")
+                .append("<th>Samples</th><th>TTFB p50</th><th>TTFB p95</th><th>DCL p50</th><th>DCL p95</th>")
+                .append("<th>Load p50</th><th>Load p90</th><th>Load p95</th><th>Load max</th><th>Bytes p50</th></tr>");
+        for (Map.Entry<String, List<PageTiming>> entry : snapshot.entrySet()) {
+            List<PageTiming> timings = entry.getValue();
+            double[] load = values(completed(timings), PageTiming::getLoad);
+            double[] ttfb = values(timings, PageTiming::getTtfb);
+            double[] dcl = values(timings, PageTiming::getDomContentLoaded);
+            double[] bytes = values(timings, t -> t.getTransferSize() + t.getResourceTransferSize());
+            sb.append("<tr><td class=\"l\">").append(ReportUtils.escapeHtml(entry.getKey())).append("</td><td>")
+                    .append(timings.size()).append("</td><td>").append(format(ReportUtils.percentile(ttfb, 50)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(ttfb, 95)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(dcl, 50)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(dcl, 95)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(load, 50)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(load, 90)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(load, 95)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(load, 100)))
+                    .append("</td><td>").append(format(ReportUtils.percentile(bytes, 50))).append("</td></tr>");
+        }
+        sb.append("</table><h2>Waterfalls (median load per URL, slowest resources)</h2>");
+        for (Map.Entry<String, List<PageTiming>> entry : snapshot.entrySet()) {
+            appendWaterfall(sb, entry.getKey(), medianSample(entry.getValue()));
+        }
+        return sb.append("</body></html>").toString();
+    }
+
+    private static void appendWaterfall(StringBuilder sb, String url, PageTiming timing) {
+        List<PageTiming.Resource> resources = new ArrayList<>(timing.getSlowestResources());
+        resources.sort(Comparator.comparingDouble(PageTiming.Resource::getStartTime));
+        double end = timing.getLoad();
+        for (PageTiming.Resource resource : resources) {
+            end = Math.max(end, resource.getStartTime() + resource.getDuration());
+        }
+        end = Math.max(end, 1);
+        sb.append("<h3>").append(ReportUtils.escapeHtml(url)).append("</h3><p>TTFB ").append(format(timing.getTtfb()))
+                .append(" ms, DOMContentLoaded ").append(format(timing.getDomContentLoaded()))
+                .append(" ms, load ").append(format(timing.getLoad())).append(" ms, ")
+                .append(timing.getResourceCount()).append(" resources</p>");
+        for (PageTiming.Resource resource : resources) {
+            sb.append("<div class=\"row\"><div class=\"lbl\" title=\"").append(ReportUtils.escapeHtml(resource.getName()))
+                    .append("\">").append(ReportUtils.escapeHtml(resource.getInitiatorType())).append(" ")
+                    .append(ReportUtils.escapeHtml(resource.getName())).append("</div><div class=\"track\">")
+                    .append("<div class=\"bar\" style=\"left:").append(pct(resource.getStartTime(), end))
+                    .append("%;width:").append(Math.max(0.2, pct(resource.getDuration(), end)))
+                    .append("%\" title=\"").append(format(resource.getDuration())).append(" ms, ")
+                    .append(resource.getTransferSize()).append(" bytes\"></div>")
+                    .append("<div class=\"mark\" style=\"left:").append(pct(timing.getDomContentLoaded(), end))
+                    .append("%;background:#2a2\"></div><div class=\"mark\" style=\"left:")
+                    .append(pct(timing.getLoad(), end)).append("%;background:#d33\"></div></div></div>");
+        }
+    }
+
+    private static List<PageTiming> completed(List<PageTiming> timings) {
+        List<PageTiming> completed = new ArrayList<>();
+        for (PageTiming timing : timings) {
+            if (timing.isComplete()) {
+                completed.add(timing);
+            }
+        }
+        return completed;
+    }
+
+    private static PageTiming medianSample(List<PageTiming> timings) {
+        List<PageTiming> completed = completed(timings);
+        List<PageTiming> sorted = new ArrayList<>(completed.isEmpty() ? timings : completed);
+        sorted.sort(Comparator.comparingDouble(PageTiming::getLoad));
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static double pct(double value, double total) {
+        return Math.round(Math.max(0, Math.min(100, value / total * 100)) * 100) / 100.0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    /**
+     * Starts remembering the samples the calling thread records, so that discardScope() can drop exactly those.
+     */
+    public static void beginScope() {
+        scope.set(new ArrayList<>());
+    }
+
+    /**
+     * Removes the samples the calling thread recorded since beginScope(); samples of other threads stay.
+     */
+    public static void discardScope() {
+        List<PageTiming> scoped = scope.get();
+        scope.remove();
+        if (scoped == null) {
+            return;
+        }
+        for (PageTiming timing : scoped) {
+            Queue<PageTiming> queue = samples.get(urlKey(timing.getUrl()));
+            if (queue != null) {
+                queue.remove(timing);
+            }
+        }
+    }
+
+    /**
+     * Clears all recorded samples (mainly for tooling that runs several suites in one JVM).
+     */
+    public static void reset() {
+        samples.clear();
+    }
+}
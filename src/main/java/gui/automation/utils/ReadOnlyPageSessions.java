@@ -0,0 +1,213 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loaded pages shared between tests that only read them (visibility, labels, placeholders).
+ * <p>
+ * Each URL and emulation profile gets a BrowserPool of up to readonly.page.browsers browsers (default: the browser
+ * parallelism, see ConcurrencyController) that stay on that page; a test only borrows a browser started under its
+ * own profile (DriverUtils.setEmulationProfile before acquire), so throttled and unthrottled tests never share one.
+ * A test borrows a browser already showing the page instead of launching one and loading it; before and after the
+ * test the page is fingerprinted (SeleniumUtil.pageFingerprint). The browser goes back to the pool only if the test
+ * passed and the fingerprint is unchanged; otherwise it is quit and the next test gets a fresh page, so an
+ * accidental mutation costs one reload, never a wrong result in another test. When the scheduler has announced how
+ * many tests use a page (expect), the pool is closed after the last of them; closeAll() ends the rest.
+ * <p>
+ * Example:
+ *   DriverUtils.setEmulationProfile(EmulationProfile.SLOW_4G);
+ *   ReadOnlyPageSessions.Session session = ReadOnlyPageSessions.acquire("https://demoqa.com/text-box", "#userForm");
+ *   try { ... SeleniumUtil.getDriver() ... } finally { ReadOnlyPageSessions.release(session, passed); }
+ */
+public class ReadOnlyPageSessions {
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyPageSessions.class);
+    private static final String SESSIONS_METRIC = "webassure_readonly_page_total";
+    private static final int BROWSERS_PER_PAGE = ConfigUtils.getInt("readonly.page.browsers",
+            ConcurrencyController.recommendedParallelism());
+    // Keyed by poolKey(url, profile)
+    private static final Map<String, BrowserPool> pools = new ConcurrentHashMap<>();
+    private static final Countdown remaining = new Countdown();
+
+    private ReadOnlyPageSessions() {
+    }
+
+    /**
+     * Announces that the given number of tests will use a pool, so its browsers can be quit after the last one.
+     *
+     * @param poolKey The pool's poolKey(url, profile).
+     */
+    public static void expect(String poolKey, int tests) {
+        remaining.expect(poolKey, tests);
+    }
+
+    /**
+     * How many announced tests of a pool have not been released yet.
+     */
+    public static int expected(String poolKey) {
+        return remaining.remaining(poolKey);
+    }
+
+    /**
+     * The pool a URL's tests share under an emulation profile (null for the emulation.profile config value).
+     */
+    public static String poolKey(String url, EmulationProfile profile) {
+        EmulationProfile effective = profile != null ? profile
+                : EmulationProfile.fromName(ConfigUtils.get("emulation.profile"));
+        return url + " [" + effective.getProfileName() + "]";
+    }
+
+    /**
+     * Borrows a browser showing the URL under the current thread's emulation profile, starting one if none is free,
+     * and binds it to SeleniumUtil. Blocks while all readonly.page.browsers browsers of the pool are in use.
+     *
+     * @param guardCss CSS selector of the part of the page to watch for mutations (see SeleniumUtil.pageFingerprint).
+     */
+    public static Session acquire(String url, String guardCss) throws InterruptedException {
+        String key = poolKey(url, DriverUtils.getEmulationProfile());
+        BrowserPool pool = pools.computeIfAbsent(key, k -> new BrowserPool("chrome", url, BROWSERS_PER_PAGE)
+                .headless(ConfigUtils.getBoolean("headless", false)));
+        BrowserPool.Lease lease = pool.acquire();
+        try {
+            WebDriver driver = lease.getDriver();
+            if (lease.getUses() > 1 && !isAt(driver, url)) {
+                // Left elsewhere by a test whose navigation the guard could not see (e.g. a new tab); start over
+                SeleniumUtil.goTo(url);
+            }
+            MetricsRegistry.global().counter(SESSIONS_METRIC, "result", lease.getUses() > 1 ? "reused" : "loaded").increment();
+            return new Session(url, key, guardCss, pool, lease, SeleniumUtil.pageFingerprint(guardCss));
+        } catch (RuntimeException e) {
+            pool.release(lease, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a browser. It is kept for the next test only if the test passed and the page is unchanged.
+     *
+     * @return true if the browser was kept.
+     */
+    public static boolean release(Session session, boolean passed) {
+        return release(session, passed, true);
+    }
+
+    /**
+     * Returns a browser like release(session, passed).
+     *
+     * @param countsDown false for an attempt that will be retried, so it does not use up one of the tests announced
+     *                   by expect and close the pool before the retry.
+     */
+    public static boolean release(Session session, boolean passed, boolean countsDown) {
+        boolean unchanged = false;
+        if (passed) {
+            try {
+                unchanged = session.fingerprint.equals(SeleniumUtil.pageFingerprint(session.guardCss));
+            } catch (WebDriverException e) {
+                logger.warn("Could not check read-only page {}: {}", session.key, e.getMessage());
+            }
+            if (!unchanged) {
+                logger.warn("Read-only test changed {}; its browser is replaced", session.key);
+                MetricsRegistry.global().counter(SESSIONS_METRIC, "result", "mutated").increment();
+            }
+        } else {
+            MetricsRegistry.global().counter(SESSIONS_METRIC, "result", "failed").increment();
+        }
+        session.pool.release(session.lease, unchanged);
+        if (countsDown && remaining.finished(session.key)) {
+            close(session.key);
+        }
+        return unchanged;
+    }
+
+    /**
+     * Quits every shared browser, e.g. at the end of the suite.
+     */
+    public static void closeAll() {
+        pools.keySet().forEach(ReadOnlyPageSessions::close);
+        remaining.clear();
+    }
+
+    private static void close(String key) {
+        BrowserPool pool = pools.remove(key);
+        if (pool != null) {
+            logger.info("Closing shared browsers for {}", key);
+            pool.close();
+        }
+    }
+
+    private static boolean isAt(WebDriver driver, String url) {
+        String current = driver.getCurrentUrl();
+        return current != null && current.replaceAll("[/#]+$", "").equals(url.replaceAll("[/#]+$", ""));
+    }
+
+    /**
+     * Counts down the tests announced for each pool. A pool is finished when its last announced test is released;
+     * releases nobody announced (data-provider rows, retries) are ignored rather than driving the count negative,
+     * so they can never close a pool that a later expect() announces tests for.
+     */
+    public static final class Countdown {
+        private final Map<String, AtomicInteger> remaining = new ConcurrentHashMap<>();
+
+        public void expect(String key, int tests) {
+            remaining.computeIfAbsent(key, k -> new AtomicInteger()).addAndGet(tests);
+        }
+
+        /**
+         * Counts one released test.
+         *
+         * @return true exactly once per announcement, when its last test has been released.
+         */
+        public boolean finished(String key) {
+            AtomicInteger left = remaining.get(key);
+            if (left == null || left.decrementAndGet() != 0) {
+                return false;
+            }
+            return remaining.remove(key, left);
+        }
+
+        public int remaining(String key) {
+            AtomicInteger left = remaining.get(key);
+            return left != null ? left.get() : 0;
+        }
+
+        public void clear() {
+            remaining.clear();
+        }
+    }
+
+    /**
+     * One borrowed browser and the fingerprint of its page when it was handed out.
+     */
+    public static final class Session {
+        private final String url;
+        private final String key;
+        private final String guardCss;
+        private final BrowserPool pool;
+        private final BrowserPool.Lease lease;
+        private final String fingerprint;
+
+        private Session(String url, String key, String guardCss, BrowserPool pool, BrowserPool.Lease lease,
+                        String fingerprint) {
+            this.url = url;
+            this.key = key;
+            this.guardCss = guardCss;
+            this.pool = pool;
+            this.lease = lease;
+            this.fingerprint = fingerprint;
+        }
+
+        public WebDriver getDriver() {
+            return lease.getDriver();
+        }
+
+        public String getUrl() {
+            return url;
+        }
+    }
+}
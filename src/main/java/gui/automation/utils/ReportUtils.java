@@ -0,0 +1,101 @@
+package gui.automation.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Shared helpers for the run reports written by the framework (performance tables, metrics, traces).
+ * <p>
+ * All reports go to the directory configured as report.dir in config.properties
+ * (default: target/webassure-reports/).
+ */
+public class ReportUtils {
+
+    private ReportUtils() {
+    }
+
+    /**
+     * Returns the path of a report file inside the report directory, creating the directory if needed.
+     *
+     * @param fileName The report file name, e.g. "page-load-report.html".
+     */
+    public static Path reportPath(String fileName) {
+        Path dir = Paths.get(ConfigUtils.get("report.dir", "target/webassure-reports/"));
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create report directory " + dir, e);
+        }
+        return dir.resolve(fileName);
+    }
+
+    /**
+     * Writes a UTF-8 text report, replacing any previous content.
+     */
+    public static void writeString(Path path, String content) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write report " + path, e);
+        }
+    }
+
+    /**
+     * Writes a UTF-8 text file via a temporary file and an atomic rename, so readers (e.g. a Prometheus
+     * textfile collector) never see a half-written file.
+     */
+    public static void writeStringAtomically(Path path, String content) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        writeString(tmp, content);
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write report " + path, e);
+        }
+    }
+
+    /**
+     * Returns the nearest-rank percentile of the given values (the array is sorted in place).
+     *
+     * @param values     Sample values; may be empty.
+     * @param percentile Percentile between 0 and 100.
+     * @return The percentile value, or 0 for an empty array.
+     */
+    public static double percentile(double[] values, double percentile) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int rank = (int) Math.ceil(percentile / 100.0 * values.length);
+        return values[Math.max(0, Math.min(values.length - 1, rank - 1))];
+    }
+
+    /**
+     * Escapes text for inclusion in an HTML report.
+     */
+    public static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Escapes a Prometheus label value (backslash, double quote and newline).
+     */
+    public static String escapePrometheusLabel(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,151 @@
+package gui.automation.utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Maps data rows onto objects of a plain class (POJO) by matching column names to field names.
+ * <p>
+ * Names are compared ignoring case, spaces, dashes and underscores, so a "Full Name" or "full_name" column fills a
+ * fullName field. Cells are converted to the field type: String, primitives and their wrappers, BigDecimal,
+ * LocalDate and LocalDateTime (ISO format) and enums (by constant name, ignoring case). Empty cells leave the
+ * field at its default; columns without a field are ignored. The class needs a no-argument constructor (it may
+ * be private). Mappers are cached per class and thread-safe.
+ * <p>
+ * Example:
+ *   public class TextBoxData { String fullName; String email; int age; }
+ *   TextBoxData data = RowMapper.of(TextBoxData.class).map(row);
+ */
+public class RowMapper<T> {
+    private static final Map<Class<?>, RowMapper<?>> mappers = new ConcurrentHashMap<>();
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final Map<String, Field> fields = new HashMap<>();
+    // Column name as written in the file -> field; saves normalizing names for every row
+    private final Map<String, Optional<Field>> byColumn = new ConcurrentHashMap<>();
+
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        try {
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a no-argument constructor", e);
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.putIfAbsent(normalize(field.getName()), field);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        return (RowMapper<T>) mappers.computeIfAbsent(type, RowMapper::new);
+    }
+
+    /**
+     * Creates an object and fills its fields from the row.
+     *
+     * @throws IllegalArgumentException If a cell cannot be converted to its field type.
+     */
+    public T map(DataRow row) {
+        T target;
+        try {
+            target = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + type.getName(), e);
+        }
+        for (int i = 0; i < row.getColumns().size(); i++) {
+            Field field = byColumn.computeIfAbsent(row.getColumns().get(i),
+                    column -> Optional.ofNullable(fields.get(normalize(column)))).orElse(null);
+            String value = row.get(i);
+            if (field == null || value.isEmpty()) {
+                continue;
+            }
+            try {
+                field.set(target, converter(field.getType()).apply(value.trim()));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Could not set " + field, e);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Row " + row.getRowNumber() + ": cannot convert '" + value
+                        + "' in column '" + row.getColumns().get(i) + "' to " + field.getType().getSimpleName(), e);
+            }
+        }
+        return target;
+    }
+
+    private static String normalize(String name) {
+        return name.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converter(Class<?> type) {
+        if (type == String.class) {
+            return value -> value;
+        } else if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        } else if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        } else if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        } else if (type == float.class || type == Float.class) {
+            return Float::valueOf;
+        } else if (type == short.class || type == Short.class) {
+            return Short::valueOf;
+        } else if (type == byte.class || type == Byte.class) {
+            return Byte::valueOf;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return RowMapper::toBoolean;
+        } else if (type == char.class || type == Character.class) {
+            return value -> value.charAt(0);
+        } else if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        } else if (type == LocalDate.class) {
+            return LocalDate::parse;
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime::parse;
+        } else if (type.isEnum()) {
+            return value -> {
+                for (Object constant : type.getEnumConstants()) {
+                    if (((Enum) constant).name().equalsIgnoreCase(value)) {
+                        return constant;
+                    }
+                }
+                throw new IllegalArgumentException("No " + type.getSimpleName() + " constant " + value);
+            };
+        }
+        throw new IllegalArgumentException("Unsupported field type for test data: " + type.getName());
+    }
+
+    private static Boolean toBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "y":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "n":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Not a boolean: " + value);
+        }
+    }
+}
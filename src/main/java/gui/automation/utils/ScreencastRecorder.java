@@ -0,0 +1,272 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Video-like evidence for flaky failures: keeps the last few seconds of the page as a CDP screencast in memory and
+ * writes them out only when the test fails.
+ * <p>
+ * With screencast.enabled=true, DriverUtils starts Page.startScreencast on every new Chrome session (JPEG frames
+ * of at most screencast.max.width x screencast.max.height). Frames arriving faster than screencast.fps are
+ * dropped, frames older than screencast.seconds are evicted, and the buffer never holds more than
+ * screencast.max.bytes. On failure TestListener/CucumberHooks call saveFailure(), which writes the frames as
+ * screencast.mjpeg (concatenated JPEGs, playable with VLC or ffplay) to the test's screenshot directory; on success
+ * discard() drops them. TestListener and CucumberHooks also call discard() when a test starts, so a reused browser
+ * (@WarmSession, @ReadOnlyPage) never hands the previous test's frames to the next one. Other browsers are not
+ * recorded.
+ * <p>
+ * Example:
+ *   ScreencastRecorder.start(driver);                         // done by DriverUtils
+ *   ...
+ *   ScreencastRecorder.saveFailure("TextBoxComponentTest.testSubmit");
+ */
+public class ScreencastRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastRecorder.class);
+    private static final boolean ENABLED = ConfigUtils.getBoolean("screencast.enabled", false);
+    private static final ThreadLocal<Session> session = new ThreadLocal<>();
+    // Frames must be acknowledged or Chrome stops sending them; acks are sent off the DevTools event thread
+    private static final ExecutorService acks = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screencast-ack");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScreencastRecorder() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts recording the given browser for the calling thread, replacing any previous recording.
+     */
+    public static void start(WebDriver webDriver) {
+        stop();
+        if (!ENABLED || !(webDriver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            Session created = new Session(((HasDevTools) webDriver).getDevTools());
+            created.start();
+            session.set(created);
+        } catch (Exception e) {
+            logger.warn("Could not start screencast: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the buffered frames of the calling thread's browser as screencast.mjpeg in the test's screenshot
+     * directory and empties the buffer.
+     *
+     * @return The file, or null if nothing was recorded.
+     */
+    public static Path saveFailure(String testName) {
+        Session current = session.get();
+        if (current == null) {
+            return null;
+        }
+        byte[] mjpeg = current.drain();
+        if (mjpeg.length == 0) {
+            return null;
+        }
+        Path path = ScreenshotService.testDirectory(testName).resolve("screencast.mjpeg");
+        ScreenshotService.save(mjpeg, path);
+        logger.info("Screencast saved for {}: {}", testName, path);
+        return path;
+    }
+
+    /**
+     * Drops the buffered frames of the calling thread's browser, e.g. when a test starts or after it passed.
+     */
+    public static void discard() {
+        Session current = session.get();
+        if (current != null) {
+            current.drain();
+        }
+    }
+
+    /**
+     * Stops recording for the calling thread (called when the driver is quit).
+     */
+    public static void stop() {
+        Session current = session.get();
+        if (current != null) {
+            session.remove();
+            current.stop();
+        }
+    }
+
+    /**
+     * The frames of one screencast: frames arriving faster than the frame rate are dropped, frames older than the
+     * window and the oldest frames over the byte budget are evicted. Thread-safe.
+     */
+    public static final class FrameBuffer {
+        private final long minFrameIntervalMillis;
+        private final long windowMillis;
+        private final long maxBytes;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private long bytes;
+        private long lastFrameMillis = Long.MIN_VALUE;
+
+        /**
+         * @param fps          Frames kept per second at most.
+         * @param windowMillis How far back frames are kept, measured from the newest frame.
+         * @param maxBytes     Upper bound for the JPEG bytes held.
+         */
+        public FrameBuffer(int fps, long windowMillis, long maxBytes) {
+            this.minFrameIntervalMillis = 1000L / Math.max(1, fps);
+            this.windowMillis = windowMillis;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Adds a Base64 JPEG frame received at the given time unless it comes too soon after the previous one.
+         * The frame is only decoded if it is kept.
+         *
+         * @return False if the frame was dropped.
+         */
+        public synchronized boolean offer(long receivedMillis, String base64Jpeg) {
+            if (base64Jpeg == null || lastFrameMillis != Long.MIN_VALUE
+                    && receivedMillis - lastFrameMillis < minFrameIntervalMillis) {
+                return false;
+            }
+            lastFrameMillis = receivedMillis;
+            Frame frame = new Frame(receivedMillis, Base64.getMimeDecoder().decode(base64Jpeg));
+            frames.addLast(frame);
+            bytes += frame.jpeg.length;
+            while (!frames.isEmpty() && (bytes > maxBytes || frame.receivedMillis - frames.peekFirst().receivedMillis > windowMillis)) {
+                bytes -= frames.removeFirst().jpeg.length;
+            }
+            return true;
+        }
+
+        public synchronized int size() {
+            return frames.size();
+        }
+
+        public synchronized long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the buffered frames, oldest first, as concatenated JPEGs and empties the buffer.
+         */
+        public synchronized byte[] drain() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(bytes, Integer.MAX_VALUE));
+            for (Frame frame : frames) {
+                out.write(frame.jpeg, 0, frame.jpeg.length);
+            }
+            frames.clear();
+            bytes = 0;
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Frame {
+        private final long receivedMillis;
+        private final byte[] jpeg;
+
+        private Frame(long receivedMillis, byte[] jpeg) {
+            this.receivedMillis = receivedMillis;
+            this.jpeg = jpeg;
+        }
+    }
+
+    private static final class FrameEvent {
+        private String data;
+        private Object sessionId;
+    }
+
+    /**
+     * Screencast of one browser. Frames are added on the DevTools thread and drained on the test thread.
+     */
+    private static final class Session {
+        private final DevTools devTools;
+        private final FrameBuffer buffer = new FrameBuffer(ConfigUtils.getInt("screencast.fps", 5),
+                ConfigUtils.getLong("screencast.seconds", 10) * 1000, ConfigUtils.getLong("screencast.max.bytes", 16L << 20));
+        private volatile boolean stopped;
+
+        private Session(DevTools devTools) {
+            this.devTools = devTools;
+        }
+
+        private void start() {
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(new Event<>("Page.screencastFrame", ScreencastRecorder.Session::parse), this::onFrame);
+            Map<String, Object> params = new HashMap<>();
+            params.put("format", "jpeg");
+            params.put("quality", ConfigUtils.getInt("screencast.quality", 50));
+            params.put("maxWidth", ConfigUtils.getInt("screencast.max.width", 800));
+            params.put("maxHeight", ConfigUtils.getInt("screencast.max.height", 600));
+            params.put("everyNthFrame", 1);
+            devTools.send(new Command<Void>("Page.startScreencast", params));
+        }
+
+        private void onFrame(FrameEvent event) {
+            if (stopped) {
+                return;
+            }
+            acks.execute(() -> {
+                try {
+                    devTools.send(new Command<Void>("Page.screencastFrameAck",
+                            Collections.singletonMap("sessionId", event.sessionId)));
+                } catch (Exception e) {
+                    logger.debug("Could not acknowledge screencast frame: {}", e.getMessage());
+                }
+            });
+            buffer.offer(System.currentTimeMillis(), event.data);
+        }
+
+        private byte[] drain() {
+            return buffer.drain();
+        }
+
+        private void stop() {
+            stopped = true;
+            try {
+                devTools.send(new Command<Void>("Page.stopScreencast", Collections.emptyMap()));
+            } catch (Exception e) {
+                logger.debug("Could not stop screencast: {}", e.getMessage());
+            }
+            drain();
+        }
+
+        private static FrameEvent parse(JsonInput input) {
+            FrameEvent event = new FrameEvent();
+            input.beginObject();
+            while (input.hasNext()) {
+                switch (input.nextName()) {
+                    case "data":
+                        event.data = input.nextString();
+                        break;
+                    case "sessionId":
+                        event.sessionId = input.read(Object.class);
+                        break;
+                    default:
+                        input.skipValue();
+                }
+            }
+            input.endObject();
+            return event;
+        }
+    }
+}
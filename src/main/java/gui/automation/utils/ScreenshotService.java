@@ -0,0 +1,199 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes screenshots on the test thread and writes them to disk in the background.
+ * <p>
+ * The browser is asked for the screenshot once, as the base64 string the driver returns anyway; decoding it and
+ * writing the PNG happen on a small pool of writer threads (screenshot.writer.threads), so the test carries on as
+ * soon as the capture returns. At most screenshot.queue.limit screenshots wait for a writer; when the queue is
+ * full the capturing thread writes its own screenshot, which slows the producers down instead of piling up
+ * memory. Set screenshot.async=false to always write inline. Call flush() before reading the files, e.g. at
+ * suite end.
+ * <p>
+ * Writes go through a ScreenshotStore, which scales captures down to screenshot.max.width, stores near-duplicate
+ * captures of a run only once and keeps screenshot.dir within screenshot.storage.budget.mb.
+ * <p>
+ * Example:
+ *   Path file = ScreenshotService.testDirectory("TextBoxComponentTest.testSubmit").resolve("after-submit.png");
+ *   ScreenshotService.capture(driver, file);
+ *   ...
+ *   ScreenshotService.flush(Duration.ofSeconds(30));
+ */
+public class ScreenshotService {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotService.class);
+    private static final String SCREENSHOTS_METRIC = "webassure_screenshots_total";
+    private static final boolean ASYNC = ConfigUtils.getBoolean("screenshot.async", true);
+    private static final ThreadPoolExecutor writers = newWriterPool();
+    private static final ScreenshotStore store = ScreenshotStore.fromConfig();
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final Object flushLock = new Object();
+
+    private ScreenshotService() {
+    }
+
+    /**
+     * Returns the screenshot directory of a test (screenshot.dir/&lt;test name&gt;/). The directory is created when
+     * the first screenshot is written.
+     */
+    public static Path testDirectory(String testName) {
+        return screenshotDirectory().resolve(testName.replaceAll("[^A-Za-z0-9_.-]", "_"));
+    }
+
+    /**
+     * Returns the configured screenshot.dir.
+     */
+    public static Path screenshotDirectory() {
+        return Paths.get(ConfigUtils.get("screenshot.dir", "target/screenshots/"));
+    }
+
+    /**
+     * Captures the current browser view and queues it to be written to the given file. The file extension follows
+     * screenshot.format (see pathFor).
+     *
+     * @return The file the screenshot will be written to.
+     * @throws IllegalArgumentException If the driver cannot take screenshots.
+     */
+    public static Path capture(WebDriver driver, Path target) {
+        if (!(driver instanceof TakesScreenshot)) {
+            throw new IllegalArgumentException("Driver does not support screenshots: " + driver);
+        }
+        String base64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        submit(() -> {
+            try {
+                store.storeCapture(target, Base64.getMimeDecoder().decode(base64));
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write screenshot: {}", target, e);
+            }
+        });
+        return pathFor(target);
+    }
+
+    /**
+     * Queues a capture that was already taken (PNG bytes, e.g. an element or full-page screenshot) to be written
+     * like capture() does: scaled, deduplicated and counted against the storage budget.
+     *
+     * @return The file the screenshot will be written to.
+     */
+    public static Path saveCapture(byte[] png, Path target) {
+        submit(() -> {
+            try {
+                store.storeCapture(target, png);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write screenshot: {}", target, e);
+            }
+        });
+        return pathFor(target);
+    }
+
+    /**
+     * Queues already-encoded bytes to be written to the given file as they are.
+     */
+    public static Path save(byte[] image, Path target) {
+        submit(() -> {
+            try {
+                store.storeFile(target, image);
+            } catch (IOException e) {
+                logger.error("Failed to write screenshot: {}", target, e);
+            }
+        });
+        return target;
+    }
+
+    /**
+     * The file a capture requested at target ends up in (the extension of screenshot.format).
+     */
+    public static Path pathFor(Path target) {
+        return store.pathFor(target);
+    }
+
+    /**
+     * Waits until every queued screenshot has been written.
+     *
+     * @return False if writes were still pending when the timeout ran out.
+     */
+    public static boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushLock) {
+            while (pending.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    logger.warn("{} screenshot(s) still being written after {}", pending.get(), timeout);
+                    return false;
+                }
+                try {
+                    flushLock.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of screenshots queued or being written.
+     */
+    public static int getPending() {
+        return pending.get();
+    }
+
+    private static void submit(Runnable write) {
+        pending.incrementAndGet();
+        Runnable task = () -> {
+            try {
+                write.run();
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (flushLock) {
+                        flushLock.notifyAll();
+                    }
+                }
+            }
+        };
+        if (writers == null) {
+            MetricsRegistry.global().counter(SCREENSHOTS_METRIC, "mode", "inline").increment();
+            task.run();
+        } else if (writers.getQueue().remainingCapacity() == 0) {
+            // Back-pressure: the writers are behind, so this thread writes its own screenshot
+            MetricsRegistry.global().counter(SCREENSHOTS_METRIC, "mode", "caller").increment();
+            task.run();
+        } else {
+            MetricsRegistry.global().counter(SCREENSHOTS_METRIC, "mode", "async").increment();
+            writers.execute(task);
+        }
+    }
+
+    private static ThreadPoolExecutor newWriterPool() {
+        if (!ASYNC) {
+            return null;
+        }
+        int threads = Math.max(1, ConfigUtils.getInt("screenshot.writer.threads", 2));
+        int queueLimit = Math.max(1, ConfigUtils.getInt("screenshot.queue.limit", 32));
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueLimit), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
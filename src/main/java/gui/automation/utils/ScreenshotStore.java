@@ -0,0 +1,353 @@
+package gui.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Disk side of ScreenshotService: shrinks captures, stores near-identical captures once and keeps the screenshot
+ * directory within a size budget.
+ * <p>
+ * Captures wider than screenshot.max.width are scaled down and written as PNG or JPEG (screenshot.format,
+ * screenshot.jpeg.quality). Each capture gets a 64-bit difference hash (dHash) of its 9x8 grey thumbnail; a
+ * capture whose hash is within screenshot.dedup.distance bits of an earlier capture of this run in the same
+ * directory (the same test, e.g. its retries) is not written again but hard-linked to the stored file (or, where
+ * the file system has no hard links, replaced by a "&lt;name&gt;.ref" text file naming it). Captures of different
+ * tests are always stored separately, so a small but real difference is never hidden behind another test's image.
+ * All files written through the store, plus the files already in screenshot.dir from earlier runs, count against
+ * screenshot.storage.budget.mb; when a write goes over budget the oldest files are deleted first. screenshot.dir
+ * is therefore a scratch directory (target/screenshots/ by default) and must not point at checked-in files.
+ * <p>
+ * Methods are thread-safe; ScreenshotService calls them from its writer threads.
+ */
+public class ScreenshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+    private static final String DUPLICATES_METRIC = "webassure_screenshot_duplicates_total";
+    private static final String EVICTIONS_METRIC = "webassure_screenshot_evictions_total";
+    private final Path root;
+    private final int maxWidth;
+    private final boolean jpeg;
+    private final float jpegQuality;
+    private final int dedupDistance;
+    private final long budgetBytes;
+    // Oldest first; each entry is a stored file and the paths linked to it
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private long storedBytes;
+    private boolean scanned;
+
+    /**
+     * @param root          Directory whose existing files count against the budget.
+     * @param maxWidth      Captures wider than this are scaled down; 0 keeps the original size.
+     * @param format        "png" or "jpg".
+     * @param jpegQuality   JPEG quality from 0 to 1.
+     * @param dedupDistance Largest hash distance (bits) treated as a duplicate; negative disables deduplication.
+     * @param budgetBytes   Storage budget; 0 for none.
+     */
+    public ScreenshotStore(Path root, int maxWidth, String format, float jpegQuality, int dedupDistance, long budgetBytes) {
+        this.root = root;
+        this.maxWidth = maxWidth;
+        this.jpeg = format.equalsIgnoreCase("jpg") || format.equalsIgnoreCase("jpeg");
+        this.jpegQuality = jpegQuality;
+        this.dedupDistance = dedupDistance;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * The store configured by the screenshot.* keys.
+     */
+    public static ScreenshotStore fromConfig() {
+        return new ScreenshotStore(ScreenshotService.screenshotDirectory(),
+                ConfigUtils.getInt("screenshot.max.width", 1280),
+                ConfigUtils.get("screenshot.format", "png"),
+                (float) ConfigUtils.getDouble("screenshot.jpeg.quality", 0.75),
+                ConfigUtils.getBoolean("screenshot.dedup", true) ? ConfigUtils.getInt("screenshot.dedup.distance", 4) : -1,
+                ConfigUtils.getLong("screenshot.storage.budget.mb", 512) << 20);
+    }
+
+    /**
+     * The file a capture requested at target is written to: the same path with the extension of the configured
+     * format.
+     */
+    public Path pathFor(Path target) {
+        String name = target.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return target.resolveSibling(base + (jpeg ? ".jpg" : ".png"));
+    }
+
+    /**
+     * Stores a browser capture (PNG bytes) at pathFor(target): scaled, re-encoded, and linked to an earlier capture
+     * if it is a near-duplicate.
+     *
+     * @return The path written.
+     */
+    public Path storeCapture(Path target, byte[] png) throws IOException {
+        Path path = pathFor(target);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            store(path, png, 0, false);
+            return path;
+        }
+        long hash = differenceHash(image);
+        if (dedupDistance >= 0 && linkDuplicate(path, hash)) {
+            return path;
+        }
+        store(path, encode(scale(image)), hash, dedupDistance >= 0);
+        return path;
+    }
+
+    /**
+     * Stores bytes as they are (no scaling or deduplication), counting them against the budget.
+     */
+    public void storeFile(Path target, byte[] bytes) throws IOException {
+        store(target, bytes, 0, false);
+    }
+
+    /**
+     * Bytes currently counted against the budget.
+     */
+    public synchronized long getStoredBytes() {
+        scanExisting();
+        return storedBytes;
+    }
+
+    /**
+     * 64-bit difference hash: the image is reduced to a 9x8 grey thumbnail (area average) and each bit says
+     * whether a cell is brighter than its right neighbour. Similar images have hashes a few bits apart.
+     */
+    public static long differenceHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        double[] sums = new double[9 * 8];
+        int[] counts = new int[9 * 8];
+        for (int y = 0; y < height; y++) {
+            int cellRow = y * 8 / height * 9;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[y * width + x];
+                int cell = cellRow + x * 9 / width;
+                sums[cell] += (rgb >> 16 & 0xFF) * 0.299 + (rgb >> 8 & 0xFF) * 0.587 + (rgb & 0xFF) * 0.114;
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                int cell = row * 9 + column;
+                double left = counts[cell] == 0 ? 0 : sums[cell] / counts[cell];
+                double right = counts[cell + 1] == 0 ? 0 : sums[cell + 1] / counts[cell + 1];
+                hash = hash << 1 | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Number of differing bits of two hashes.
+     */
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    private synchronized boolean linkDuplicate(Path path, long hash) throws IOException {
+        // Newest first: a retry is most likely to repeat the capture just before it
+        for (Iterator<Entry> it = entries.descendingIterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (!entry.hashed || !sameDirectory(entry.path, path) || distance(entry.hash, hash) > dedupDistance
+                    || !Files.exists(entry.path)) {
+                continue;
+            }
+            if (entry.path.equals(path)) {
+                return true;
+            }
+            createDirectories(path);
+            Files.deleteIfExists(path);
+            Path reference;
+            try {
+                reference = Files.createLink(path, entry.path);
+            } catch (IOException | UnsupportedOperationException e) {
+                reference = path.resolveSibling(path.getFileName() + ".ref");
+                Files.write(reference, entry.path.toAbsolutePath().toString().getBytes());
+            }
+            if (!reference.equals(entry.path)) {
+                entry.links.add(reference);
+            }
+            MetricsRegistry.global().counter(DUPLICATES_METRIC).increment();
+            logger.debug("Screenshot {} is a near-duplicate of {}", path, entry.path);
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void store(Path path, byte[] bytes, long hash, boolean hashed) throws IOException {
+        scanExisting();
+        createDirectories(path);
+        // The path may be a hard link to another capture; replace it rather than write through it
+        Files.deleteIfExists(path);
+        Files.write(path, bytes);
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+            Entry replaced = it.next();
+            if (replaced.path.equals(path)) {
+                storedBytes -= replaced.bytes;
+                it.remove();
+            }
+        }
+        entries.addLast(new Entry(path, bytes.length, hash, hashed));
+        storedBytes += bytes.length;
+        evict();
+    }
+
+    /**
+     * Deletes the oldest files until the store is within budget. The file just written is never deleted.
+     */
+    private void evict() {
+        while (budgetBytes > 0 && storedBytes > budgetBytes && entries.size() > 1) {
+            Entry oldest = entries.removeFirst();
+            storedBytes -= oldest.bytes;
+            delete(oldest.path);
+            for (Path link : oldest.links) {
+                delete(link);
+            }
+            MetricsRegistry.global().counter(EVICTIONS_METRIC).increment();
+            logger.debug("Evicted screenshot {} ({} bytes) to stay within the storage budget", oldest.path, oldest.bytes);
+        }
+    }
+
+    /**
+     * Counts the files left by earlier runs, oldest first, so they are the first to go.
+     */
+    private void scanExisting() {
+        if (scanned) {
+            return;
+        }
+        scanned = true;
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Entry> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    Entry entry = new Entry(file, attributes.size(), 0, false);
+                    entry.modified = attributes.lastModifiedTime().toMillis();
+                    existing.add(entry);
+                } catch (IOException e) {
+                    logger.debug("Could not read {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not scan screenshot directory {}: {}", root, e.getMessage());
+        }
+        existing.sort(Comparator.comparingLong(entry -> entry.modified));
+        for (Entry entry : existing) {
+            entries.addLast(entry);
+            storedBytes += entry.bytes;
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        boolean opaque = jpeg || !image.getColorModel().hasAlpha();
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        if ((maxWidth <= 0 || image.getWidth() <= maxWidth) && image.getType() == type) {
+            return image;
+        }
+        int width = maxWidth > 0 ? Math.min(maxWidth, image.getWidth()) : image.getWidth();
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!jpeg) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean sameDirectory(Path first, Path second) {
+        Path parent = first.toAbsolutePath().normalize().getParent();
+        return parent != null && parent.equals(second.toAbsolutePath().normalize().getParent());
+    }
+
+    private static void createDirectories(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            // Drop test directories emptied by eviction
+            Path dir = path.getParent();
+            while (dir != null && !dir.equals(root) && dir.startsWith(root) && isEmpty(dir)) {
+                Files.delete(dir);
+                dir = dir.getParent();
+            }
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+            return !children.iterator().hasNext();
+        }
+    }
+
+    private static final class Entry {
+        private final Path path;
+        private final long bytes;
+        private final long hash;
+        private final boolean hashed;
+        private final List<Path> links = new ArrayList<>();
+        private long modified;
+
+        private Entry(Path path, long bytes, long hash, boolean hashed) {
+            this.path = path;
+            this.bytes = bytes;
+            this.hash = hash;
+            this.hashed = hashed;
+        }
+    }
+}
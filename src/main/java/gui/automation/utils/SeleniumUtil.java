@@ -1,6 +1,8 @@
 package gui.automation.utils;
 
 import org.openqa.selenium.*;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.HasFullPageScreenshot;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
@@ -8,9 +10,22 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Utility class for Selenium WebDriver actions.
@@ -18,6 +33,7 @@ import java.util.List;
  */
 public class SeleniumUtil {
     private static final int DEFAULT_WAIT = 10;
+    private static final String WAIT_METRIC = "webassure_wait_seconds";
     private static final Logger logger = LoggerFactory.getLogger(SeleniumUtil.class);
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
 
@@ -45,6 +61,21 @@ public class SeleniumUtil {
         return driver.get();
     }
 
+    /**
+     * Converts a nominal wait in seconds into the timeout actually used, scaled by the slowdown factor of the
+     * active emulation profile (e.g. a 10 second wait becomes 30 seconds under the "3G" profile).
+     * <p>
+     * All waits in this class go through this method, so callers keep writing the timeouts they would use
+     * on a fast machine.
+     *
+     * @param seconds The nominal timeout in seconds.
+     * @return The scaled timeout.
+     */
+    public static Duration waitTimeout(int seconds) {
+        double factor = DriverUtils.getEmulationProfile().getSlowdownFactor();
+        return Duration.ofMillis(Math.round(seconds * 1000L * factor));
+    }
+
     // ===== Element Find/Wait =====
     /**
      * Finds a web element by locator.
@@ -56,11 +87,21 @@ public class SeleniumUtil {
      * @return The found WebElement, or null if not found.
      */
     public static WebElement find(By by) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            return getDriver().findElement(by);
-        } catch (NoSuchElementException e) {
-            logger.warn("Element not found: {}", by, e);
-            return null;
+            try {
+                return getDriver().findElement(by);
+            } catch (NoSuchElementException e) {
+                failed = true;
+                logger.warn("Element not found: {}", by, e);
+                return null;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("find", by, start, failed);
         }
     }
 
@@ -80,12 +121,22 @@ public class SeleniumUtil {
      *   }
      */
     public static WebElement waitForVisible(By by) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(DEFAULT_WAIT));
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
-        } catch (TimeoutException e) {
-            logger.warn("Element not visible after {} seconds: {}", DEFAULT_WAIT, by);
-            return null;
+            try {
+                WebDriverWait wait = newWait(DEFAULT_WAIT);
+                return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
+            } catch (TimeoutException e) {
+                failed = true;
+                logger.warn("Element not visible after {}: {}", waitTimeout(DEFAULT_WAIT), by);
+                return null;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForVisible", by, start, failed);
         }
     }
 
@@ -99,12 +150,22 @@ public class SeleniumUtil {
      * @return The clickable WebElement if found, or null if not clickable in time.
      */
     public static WebElement waitForClickable(By by) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(DEFAULT_WAIT));
-            return wait.until(ExpectedConditions.elementToBeClickable(by));
-        } catch (TimeoutException e) {
-            logger.warn("Element not clickable after {} seconds: {}", DEFAULT_WAIT, by);
-            return null;
+            try {
+                WebDriverWait wait = newWait(DEFAULT_WAIT);
+                return wait.until(ExpectedConditions.elementToBeClickable(by));
+            } catch (TimeoutException e) {
+                failed = true;
+                logger.warn("Element not clickable after {}: {}", waitTimeout(DEFAULT_WAIT), by);
+                return null;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForClickable", by, start, failed);
         }
     }
 
@@ -116,8 +177,17 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to wait for disappearance.
      */
     public static void waitForDisappear(By by) {
-        new WebDriverWait(getDriver(), Duration.ofSeconds(DEFAULT_WAIT))
-                .until(ExpectedConditions.invisibilityOfElementLocated(by));
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            newWait(DEFAULT_WAIT)
+                    .until(ExpectedConditions.invisibilityOfElementLocated(by));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForDisappear", by, start, failed);
+        }
     }
 
     /**
@@ -130,12 +200,22 @@ public class SeleniumUtil {
      * @return The visible WebElement if found, or null if not visible in time.
      */
     public static WebElement waitForElementVisibleWithTimeout(By by, int timeoutSeconds) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds));
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
-        } catch (TimeoutException e) {
-            logger.warn("Element not visible after {} seconds: {}", timeoutSeconds, by);
-            return null;
+            try {
+                WebDriverWait wait = newWait(timeoutSeconds);
+                return wait.until(ExpectedConditions.visibilityOfElementLocated(by));
+            } catch (TimeoutException e) {
+                failed = true;
+                logger.warn("Element not visible after {}: {}", waitTimeout(timeoutSeconds), by);
+                return null;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForElementVisibleWithTimeout", by, start, failed);
         }
     }
 
@@ -149,15 +229,25 @@ public class SeleniumUtil {
      * @return true if enabled within timeout, false otherwise.
      */
     public static boolean waitForElementEnabled(By by, int timeoutSeconds) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds));
-            return wait.until(driver -> {
-                WebElement el = driver.findElement(by);
-                return el.isEnabled();
-            });
-        } catch (TimeoutException e) {
-            logger.warn("Element not enabled after {} seconds: {}", timeoutSeconds, by);
-            return false;
+            try {
+                WebDriverWait wait = newWait(timeoutSeconds);
+                return wait.until(driver -> {
+                    WebElement el = driver.findElement(by);
+                    return el.isEnabled();
+                });
+            } catch (TimeoutException e) {
+                failed = true;
+                logger.warn("Element not enabled after {}: {}", waitTimeout(timeoutSeconds), by);
+                return false;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForElementEnabled", by, start, failed);
         }
     }
 
@@ -172,16 +262,26 @@ public class SeleniumUtil {
      * @return true if color changed within timeout, false otherwise.
      */
     public static boolean waitForElementColorChange(By by, String initialColor, int timeoutSeconds) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds));
-            return wait.until(driver -> {
-                WebElement el = driver.findElement(by);
-                String color = el.getCssValue("color");
-                return !color.equals(initialColor);
-            });
-        } catch (TimeoutException e) {
-            logger.warn("Element color did not change after {} seconds: {}", timeoutSeconds, by);
-            return false;
+            try {
+                WebDriverWait wait = newWait(timeoutSeconds);
+                return wait.until(driver -> {
+                    WebElement el = driver.findElement(by);
+                    String color = el.getCssValue("color");
+                    return !color.equals(initialColor);
+                });
+            } catch (TimeoutException e) {
+                failed = true;
+                logger.warn("Element color did not change after {}: {}", waitTimeout(timeoutSeconds), by);
+                return false;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForElementColorChange", by, start, failed);
         }
     }
 
@@ -194,8 +294,17 @@ public class SeleniumUtil {
      * @param timeoutSeconds How many seconds to wait before timing out.
      */
     public static void waitForUrlDoesNotContain(String fragment, int timeoutSeconds) {
-        org.openqa.selenium.support.ui.WebDriverWait wait = new org.openqa.selenium.support.ui.WebDriverWait(getDriver(), java.time.Duration.ofSeconds(timeoutSeconds));
-        wait.until(driver -> !driver.getCurrentUrl().contains(fragment));
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebDriverWait wait = newWait(timeoutSeconds);
+            wait.until(driver -> !driver.getCurrentUrl().contains(fragment));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForUrlDoesNotContain", null, start, failed);
+        }
     }
 
     /**
@@ -204,8 +313,17 @@ public class SeleniumUtil {
      * Use this after navigation or refresh to ensure the page is fully loaded before interacting with elements.
      */
     public static void waitForPageLoad() {
-        new WebDriverWait(getDriver(), Duration.ofSeconds(DEFAULT_WAIT)).until(
-                wd -> ((JavascriptExecutor) wd).executeScript("return document.readyState").equals("complete"));
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            newWait(DEFAULT_WAIT).until(
+                    wd -> ((JavascriptExecutor) wd).executeScript("return document.readyState").equals("complete"));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForPageLoad", null, start, failed);
+        }
     }
 
     /**
@@ -216,13 +334,36 @@ public class SeleniumUtil {
      * @param seconds How many seconds to pause the test.
      */
     public static void waitSeconds(int seconds) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            Thread.sleep(seconds * 1000L);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            long sleepStart = System.nanoTime();
+            long profile = WaitProfiler.beginWait();
+            try {
+                Thread.sleep(seconds * 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                MetricsRegistry.global().timer(WAIT_METRIC, "outcome", "sleep").recordNanos(System.nanoTime() - sleepStart);
+                WaitProfiler.endWait(WaitProfiler.Kind.SLEEP, profile);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitSeconds", null, start, failed);
         }
     }
 
+    /**
+     * Creates an explicit wait for the current driver whose time is recorded in the webassure_wait_seconds metric
+     * (outcome "satisfied", "timeout" or "error"). All waits in this class go through here.
+     */
+    private static WebDriverWait newWait(int seconds) {
+        return new TimedWait(getDriver(), waitTimeout(seconds));
+    }
+
+
     // ===== Element Actions (Click, Type, Hover, Scroll, etc.) =====
     /**
      * Clicks an element after waiting for it to be clickable.
@@ -232,11 +373,21 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to click.
      */
     public static void click(By by) {
-        WebElement element = waitForClickable(by);
-        if (element != null) {
-            element.click();
-        } else {
-            logger.error("Unable to click element: {}", by);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForClickable(by);
+            if (element != null) {
+                element.click();
+            } else {
+                failed = true;
+                logger.error("Unable to click element: {}", by);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("click", by, start, failed);
         }
     }
 
@@ -249,12 +400,22 @@ public class SeleniumUtil {
      * @param text The text to type into the element.
      */
     public static void type(By by, String text) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            element.clear();
-            element.sendKeys(text);
-        } else {
-            logger.error("Unable to type in element: {}", by);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                element.clear();
+                element.sendKeys(text);
+            } else {
+                failed = true;
+                logger.error("Unable to type in element: {}", by);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("type", by, start, failed);
         }
     }
 
@@ -266,9 +427,20 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to hover over.
      */
     public static void hover(By by) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            new Actions(getDriver()).moveToElement(element).perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                new Actions(getDriver()).moveToElement(element).perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("hover", by, start, failed);
         }
     }
 
@@ -280,9 +452,20 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to scroll to.
      */
     public static void scrollTo(By by) {
-        WebElement element = find(by);
-        if (element != null) {
-            ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            if (element != null) {
+                ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("scrollTo", by, start, failed);
         }
     }
 
@@ -294,9 +477,20 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to double-click.
      */
     public static void doubleClick(By by) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            new Actions(getDriver()).doubleClick(element).perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                new Actions(getDriver()).doubleClick(element).perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("doubleClick", by, start, failed);
         }
     }
 
@@ -308,9 +502,20 @@ public class SeleniumUtil {
      * @param by The locator (By) of the element to right-click.
      */
     public static void rightClick(By by) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            new Actions(getDriver()).contextClick(element).perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                new Actions(getDriver()).contextClick(element).perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("rightClick", by, start, failed);
         }
     }
 
@@ -325,9 +530,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.selectByText(By.id("dropdown"), "Option 1");
      */
     public static void selectByText(By by, String text) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            new Select(element).selectByVisibleText(text);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                new Select(element).selectByVisibleText(text);
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectByText", by, start, failed);
         }
     }
 
@@ -341,9 +557,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.selectByValue(By.id("dropdown"), "1");
      */
     public static void selectByValue(By by, String value) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            new Select(element).selectByValue(value);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                new Select(element).selectByValue(value);
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectByValue", by, start, failed);
         }
     }
 
@@ -356,13 +583,22 @@ public class SeleniumUtil {
      * @return The visible text of the selected option, or empty string if not found.
      */
     public static String getSelectedOptionText(By by) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            Select select = new Select(element);
-            WebElement selected = select.getFirstSelectedOption();
-            return selected != null ? selected.getText() : "";
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                Select select = new Select(element);
+                WebElement selected = select.getFirstSelectedOption();
+                return selected != null ? selected.getText() : "";
+            }
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getSelectedOptionText", by, start, failed);
         }
-        return "";
     }
 
     /**
@@ -374,13 +610,22 @@ public class SeleniumUtil {
      * @return The value of the selected option, or empty string if not found.
      */
     public static String getSelectedOptionValue(By by) {
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            Select select = new Select(element);
-            WebElement selected = select.getFirstSelectedOption();
-            return selected != null ? selected.getAttribute("value") : "";
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                Select select = new Select(element);
+                WebElement selected = select.getFirstSelectedOption();
+                return selected != null ? selected.getAttribute("value") : "";
+            }
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getSelectedOptionValue", by, start, failed);
         }
-        return "";
     }
 
     /**
@@ -392,15 +637,24 @@ public class SeleniumUtil {
      * @return List of visible option texts.
      */
     public static List<String> getAllDropdownOptions(By by) {
-        List<String> options = new ArrayList<>();
-        WebElement element = waitForVisible(by);
-        if (element != null) {
-            Select select = new Select(element);
-            for (WebElement option : select.getOptions()) {
-                options.add(option.getText());
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> options = new ArrayList<>();
+            WebElement element = waitForVisible(by);
+            if (element != null) {
+                Select select = new Select(element);
+                for (WebElement option : select.getOptions()) {
+                    options.add(option.getText());
+                }
             }
+            return options;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getAllDropdownOptions", by, start, failed);
         }
-        return options;
     }
 
     // ===== Checkboxes, Radio Buttons, Buttons =====
@@ -413,13 +667,22 @@ public class SeleniumUtil {
      * @return true if checked, false otherwise.
      */
     public static boolean isCheckboxChecked(By by) {
-        WebElement element = find(by);
-        if (element != null) {
-            String clazz = element.getAttribute("class");
-            // TODO: Update class name as per actual checked state in demoqa
-            return clazz != null && clazz.contains("checked");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            if (element != null) {
+                String clazz = element.getAttribute("class");
+                // TODO: Update class name as per actual checked state in demoqa
+                return clazz != null && clazz.contains("checked");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isCheckboxChecked", by, start, failed);
         }
-        return false;
     }
 
     /**
@@ -431,13 +694,22 @@ public class SeleniumUtil {
      * @return true if partially checked, false otherwise.
      */
     public static boolean isCheckboxPartiallyChecked(By by) {
-        WebElement element = find(by);
-        if (element != null) {
-            String clazz = element.getAttribute("class");
-            // TODO: Update class name as per actual partial state in demoqa
-            return clazz != null && clazz.contains("indeterminate");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            if (element != null) {
+                String clazz = element.getAttribute("class");
+                // TODO: Update class name as per actual partial state in demoqa
+                return clazz != null && clazz.contains("indeterminate");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isCheckboxPartiallyChecked", by, start, failed);
         }
-        return false;
     }
 
     /**
@@ -449,13 +721,22 @@ public class SeleniumUtil {
      * @return true if expanded, false otherwise.
      */
     public static boolean isFolderExpanded(By by) {
-        WebElement element = find(by);
-        if (element != null) {
-            String clazz = element.getAttribute("class");
-            // TODO: Update class name as per actual expanded state in demoqa
-            return clazz != null && clazz.contains("expanded");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            if (element != null) {
+                String clazz = element.getAttribute("class");
+                // TODO: Update class name as per actual expanded state in demoqa
+                return clazz != null && clazz.contains("expanded");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isFolderExpanded", by, start, failed);
         }
-        return false;
     }
 
     /**
@@ -467,13 +748,22 @@ public class SeleniumUtil {
      * @return true if collapsed, false otherwise.
      */
     public static boolean isFolderCollapsed(By by) {
-        WebElement element = find(by);
-        if (element != null) {
-            String clazz = element.getAttribute("class");
-            // TODO: Update class name as per actual collapsed state in demoqa
-            return clazz != null && clazz.contains("collapsed");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            if (element != null) {
+                String clazz = element.getAttribute("class");
+                // TODO: Update class name as per actual collapsed state in demoqa
+                return clazz != null && clazz.contains("collapsed");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isFolderCollapsed", by, start, failed);
         }
-        return false;
     }
 
     /**
@@ -485,12 +775,21 @@ public class SeleniumUtil {
      * @return List of names (text) of checked checkboxes.
      */
     public static List<String> getAllCheckedCheckboxNames(By by) {
-        List<String> names = new ArrayList<>();
-        List<WebElement> elements = getDriver().findElements(by);
-        for (WebElement el : elements) {
-            names.add(el.getText());
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> names = new ArrayList<>();
+            List<WebElement> elements = getDriver().findElements(by);
+            for (WebElement el : elements) {
+                names.add(el.getText());
+            }
+            return names;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getAllCheckedCheckboxNames", by, start, failed);
         }
-        return names;
     }
 
     /**
@@ -502,12 +801,21 @@ public class SeleniumUtil {
      * @return List of names (text) of partially checked checkboxes.
      */
     public static List<String> getAllPartiallyCheckedCheckboxNames(By by) {
-        List<String> names = new ArrayList<>();
-        List<WebElement> elements = getDriver().findElements(by);
-        for (WebElement el : elements) {
-            names.add(el.getText());
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> names = new ArrayList<>();
+            List<WebElement> elements = getDriver().findElements(by);
+            for (WebElement el : elements) {
+                names.add(el.getText());
+            }
+            return names;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getAllPartiallyCheckedCheckboxNames", by, start, failed);
         }
-        return names;
     }
 
     /**
@@ -518,9 +826,20 @@ public class SeleniumUtil {
      * @param by The locator (By) for the radio button input element.
      */
     public static void selectRadioButton(By by) {
-        WebElement radio = waitForVisible(by);
-        if (radio != null && !radio.isSelected()) {
-            radio.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement radio = waitForVisible(by);
+            if (radio == null) {
+                failed = true;
+            } else if (!radio.isSelected()) {
+                radio.click();
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectRadioButton", by, start, failed);
         }
     }
 
@@ -533,8 +852,17 @@ public class SeleniumUtil {
      * @return true if selected, false otherwise.
      */
     public static boolean isRadioButtonSelected(By by) {
-        WebElement radio = find(by);
-        return radio != null && radio.isSelected();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement radio = find(by);
+            return radio != null && radio.isSelected();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isRadioButtonSelected", by, start, failed);
+        }
     }
 
     // ===== Tables & Web Data =====
@@ -547,11 +875,20 @@ public class SeleniumUtil {
      * @return Number of rows in tbody.
      */
     public static int getTableRowCount(By tableBy) {
-        WebElement table = waitForVisible(tableBy);
-        if (table != null) {
-            return table.findElements(By.cssSelector("tbody tr")).size();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement table = waitForVisible(tableBy);
+            if (table != null) {
+                return table.findElements(By.cssSelector("tbody tr")).size();
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getTableRowCount", tableBy, start, failed);
         }
-        return 0;
     }
 
     /**
@@ -563,12 +900,21 @@ public class SeleniumUtil {
      * @return Number of columns.
      */
     public static int getTableColumnCount(By tableBy) {
-        WebElement table = waitForVisible(tableBy);
-        if (table != null) {
-            WebElement firstRow = table.findElement(By.cssSelector("tbody tr"));
-            return firstRow.findElements(By.cssSelector("td")).size();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement table = waitForVisible(tableBy);
+            if (table != null) {
+                WebElement firstRow = table.findElement(By.cssSelector("tbody tr"));
+                return firstRow.findElements(By.cssSelector("td")).size();
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getTableColumnCount", tableBy, start, failed);
         }
-        return 0;
     }
 
     /**
@@ -582,14 +928,23 @@ public class SeleniumUtil {
      * @return Cell text, or empty string if not found.
      */
     public static String getCellText(By tableBy, int row, int col) {
-        WebElement table = waitForVisible(tableBy);
-        if (table != null) {
-            try {
-                WebElement cell = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") td:nth-child(" + col + ")"));
-                return cell.getText();
-            } catch (NoSuchElementException ignored) {}
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement table = waitForVisible(tableBy);
+            if (table != null) {
+                try {
+                    WebElement cell = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") td:nth-child(" + col + ")"));
+                    return cell.getText();
+                } catch (NoSuchElementException ignored) {}
+            }
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getCellText", tableBy, start, failed);
         }
-        return "";
     }
 
     /**
@@ -601,12 +956,23 @@ public class SeleniumUtil {
      * @param row 1-based row index (first row is 1).
      */
     public static void clickEditButtonInRow(By tableBy, int row) {
-        WebElement table = waitForVisible(tableBy);
-        if (table != null) {
-            try {
-                WebElement editBtn = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") .edit"));
-                editBtn.click();
-            } catch (NoSuchElementException ignored) {}
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement table = waitForVisible(tableBy);
+            if (table != null) {
+                try {
+                    WebElement editBtn = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") .edit"));
+                    editBtn.click();
+                } catch (NoSuchElementException ignored) {}
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("clickEditButtonInRow", tableBy, start, failed);
         }
     }
 
@@ -621,15 +987,26 @@ public class SeleniumUtil {
      * @param newValue The new value to enter.
      */
     public static void updateCellValue(By tableBy, int row, int col, String newValue) {
-        WebElement table = waitForVisible(tableBy);
-        if (table != null) {
-            try {
-                WebElement cell = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") td:nth-child(" + col + ")"));
-                new Actions(getDriver()).doubleClick(cell).perform();
-                cell.clear();
-                cell.sendKeys(newValue);
-                cell.sendKeys(Keys.ENTER);
-            } catch (NoSuchElementException ignored) {}
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement table = waitForVisible(tableBy);
+            if (table != null) {
+                try {
+                    WebElement cell = table.findElement(By.cssSelector("tbody tr:nth-child(" + row + ") td:nth-child(" + col + ")"));
+                    new Actions(getDriver()).doubleClick(cell).perform();
+                    cell.clear();
+                    cell.sendKeys(newValue);
+                    cell.sendKeys(Keys.ENTER);
+                } catch (NoSuchElementException ignored) {}
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("updateCellValue", tableBy, start, failed);
         }
     }
 
@@ -645,8 +1022,17 @@ public class SeleniumUtil {
      * @return true if the cell text matches expected, false otherwise.
      */
     public static boolean verifyCellValue(By tableBy, int row, int col, String expected) {
-        String actual = getCellText(tableBy, row, col);
-        return actual.equals(expected);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            String actual = getCellText(tableBy, row, col);
+            return actual.equals(expected);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("verifyCellValue", tableBy, start, failed);
+        }
     }
 
     // ===== Links =====
@@ -659,9 +1045,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.clickLinkByText("Login");
      */
     public static void clickLinkByText(String linkText) {
-        WebElement link = waitForVisible(By.linkText(linkText));
-        if (link != null) {
-            link.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement link = waitForVisible(By.linkText(linkText));
+            if (link != null) {
+                link.click();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("clickLinkByText", null, start, failed);
         }
     }
 
@@ -675,8 +1072,17 @@ public class SeleniumUtil {
      * @return true if the href matches, false otherwise.
      */
     public static boolean verifyLinkHref(By by, String expectedHref) {
-        String actualHref = getAttribute(by, "href");
-        return actualHref.equals(expectedHref);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            String actualHref = getAttribute(by, "href");
+            return actualHref.equals(expectedHref);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("verifyLinkHref", by, start, failed);
+        }
     }
 
     // ===== File Upload/Download =====
@@ -690,9 +1096,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.uploadFile(By.id("upload"), "/path/to/file.txt");
      */
     public static void uploadFile(By by, String filePath) {
-        WebElement fileInput = waitForVisible(by);
-        if (fileInput != null) {
-            fileInput.sendKeys(filePath);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement fileInput = waitForVisible(by);
+            if (fileInput != null) {
+                fileInput.sendKeys(filePath);
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("uploadFile", by, start, failed);
         }
     }
 
@@ -706,8 +1123,17 @@ public class SeleniumUtil {
      * @return true if the file exists, false otherwise.
      */
     public static boolean isFileDownloaded(String downloadDir, String fileName) {
-        java.io.File file = new java.io.File(downloadDir, fileName);
-        return file.exists();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            java.io.File file = new java.io.File(downloadDir, fileName);
+            return file.exists();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isFileDownloaded", null, start, failed);
+        }
     }
 
     // ===== Form Handling =====
@@ -721,11 +1147,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.fillForm(new By[]{By.id("name"), By.id("email")}, new String[]{"John", "john@email.com"});
      */
     public static void fillForm(By[] fieldBys, String[] values) {
-        if (fieldBys.length != values.length) {
-            throw new IllegalArgumentException("Field and value array lengths do not match");
-        }
-        for (int i = 0; i < fieldBys.length; i++) {
-            type(fieldBys[i], values[i]);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            if (fieldBys.length != values.length) {
+                throw new IllegalArgumentException("Field and value array lengths do not match");
+            }
+            for (int i = 0; i < fieldBys.length; i++) {
+                type(fieldBys[i], values[i]);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("fillForm", null, start, failed);
         }
     }
 
@@ -738,7 +1173,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.submitForm(By.id("submit"));
      */
     public static void submitForm(By submitButtonBy) {
-        click(submitButtonBy);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            click(submitButtonBy);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("submitForm", submitButtonBy, start, failed);
+        }
     }
 
     /**
@@ -749,11 +1193,123 @@ public class SeleniumUtil {
      * @param fieldBys Array of locators (By[]) for the form fields.
      */
     public static void clearForm(By[] fieldBys) {
-        for (By by : fieldBys) {
-            WebElement field = find(by);
-            if (field != null) {
-                field.clear();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            for (By by : fieldBys) {
+                WebElement field = find(by);
+                if (field != null) {
+                    field.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("clearForm", null, start, failed);
+        }
+    }
+
+    /**
+     * Resets every form on the page to its initial values by script, without reloading the page.
+     * <p>
+     * Use this to start the next data-driven row on a page that is already open. Values are set through the
+     * native setter and input/change events are fired, so frameworks such as React see the change. Output that
+     * the page shows after a submit is not touched; pass its locators to check that it is gone.
+     * @param transientContent Locators of elements that must be absent or empty after the reset (e.g. submit output).
+     * @return true if the page is back in its initial state, false if a reload is needed.
+     * Example: if (!SeleniumUtil.resetForms(By.id("output"))) { SeleniumUtil.goTo(url); }
+     */
+    public static boolean resetForms(By... transientContent) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            ((JavascriptExecutor) getDriver()).executeScript(
+                    "var skip = ['hidden', 'submit', 'button', 'reset', 'image', 'file'];"
+                    + "document.querySelectorAll('form').forEach(function (form) {"
+                    + "  form.querySelectorAll('input, textarea, select').forEach(function (e) {"
+                    + "    var type = (e.type || '').toLowerCase();"
+                    + "    if (skip.indexOf(type) >= 0) return;"
+                    + "    if (type === 'checkbox' || type === 'radio') {"
+                    + "      if (e.checked !== e.defaultChecked) e.click();"
+                    + "      return;"
+                    + "    }"
+                    + "    if (e.tagName === 'SELECT') {"
+                    + "      var changed = false;"
+                    + "      for (var i = 0; i < e.options.length; i++) {"
+                    + "        if (e.options[i].selected !== e.options[i].defaultSelected) {"
+                    + "          e.options[i].selected = e.options[i].defaultSelected; changed = true;"
+                    + "        }"
+                    + "      }"
+                    + "      if (changed) e.dispatchEvent(new Event('change', {bubbles: true}));"
+                    + "      return;"
+                    + "    }"
+                    + "    if (e.value === e.defaultValue) return;"
+                    + "    var proto = e.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+                    + "    Object.getOwnPropertyDescriptor(proto, 'value').set.call(e, e.defaultValue);"
+                    + "    e.dispatchEvent(new Event('input', {bubbles: true}));"
+                    + "    e.dispatchEvent(new Event('change', {bubbles: true}));"
+                    + "  });"
+                    + "});");
+            if (transientContent.length == 0) {
+                return true;
+            }
+            // Absent elements are the expected case; do not sit out the implicit wait for each of them
+            WebDriver.Timeouts timeouts = getDriver().manage().timeouts();
+            Duration implicitWait = timeouts.getImplicitWaitTimeout();
+            timeouts.implicitlyWait(Duration.ZERO);
+            try {
+                for (By by : transientContent) {
+                    for (WebElement element : getDriver().findElements(by)) {
+                        if (!element.getText().trim().isEmpty()) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            } finally {
+                timeouts.implicitlyWait(implicitWait);
             }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("resetForms", null, start, failed);
+        }
+    }
+
+    /**
+     * Returns a fingerprint of the page state a read-only check could disturb: URL, title, scroll position, form
+     * values, and the number of elements and visible text under the guard element.
+     * <p>
+     * Use this before and after an action that should not change the page; equal fingerprints mean it did not.
+     * Attribute-only changes (e.g. a rotating carousel) and content inside iframes (ads) are not included.
+     * @param guardCss CSS selector of the element to watch; the whole body if it matches nothing.
+     * @return An opaque string; compare it with equals.
+     * Example: String before = SeleniumUtil.pageFingerprint("#userForm");
+     */
+    public static String pageFingerprint(String guardCss) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            return String.valueOf(((JavascriptExecutor) getDriver()).executeScript(
+                    "var root = document.querySelector(arguments[0]) || document.body;"
+                    + "var parts = [location.href, document.title, window.scrollX, window.scrollY];"
+                    + "document.querySelectorAll('input, textarea, select').forEach(function (e) {"
+                    + "  parts.push(e.type === 'checkbox' || e.type === 'radio' ? e.checked : e.value);"
+                    + "});"
+                    + "parts.push(root.getElementsByTagName('*').length, root.innerText);"
+                    + "var text = parts.join('\\u0000'), hash = 0x811c9dc5;"
+                    + "for (var i = 0; i < text.length; i++) {"
+                    + "  hash = Math.imul(hash ^ text.charCodeAt(i), 0x01000193) >>> 0;"
+                    + "}"
+                    + "return parts.slice(0, 4).join('|') + '|' + text.length + '|' + hash.toString(16);",
+                    guardCss));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("pageFingerprint", null, start, failed);
         }
     }
 
@@ -766,54 +1322,73 @@ public class SeleniumUtil {
      * @return true if the field is empty, false otherwise.
      */
     public static boolean isFormFieldEmpty(By by) {
-        WebElement field = find(by);
-        return field != null && field.getAttribute("value").isEmpty();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement field = find(by);
+            return field != null && field.getAttribute("value").isEmpty();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isFormFieldEmpty", by, start, failed);
+        }
     }
 
     /**
      * Reads the first row of a CSV file and returns the values as a String array.
      * <p>
-     * Use this for data-driven testing with CSV files.
+     * Use this for data-driven testing with CSV files. Quoted fields (with commas, quotes or line breaks) are
+     * parsed as in RFC 4180; only the first record is read. For whole files use CsvDataSource.
      *
      * @param csvPath The path to the CSV file.
-     * @return String[] of values, or null if error.
+     * @return String[] of values, or null if the file is empty or cannot be read.
      */
     public static String[] readFirstRowFromCSV(String csvPath) {
-        try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(csvPath))) {
-            String line = br.readLine();
-            if (line != null) {
-                return line.split(",");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try (Stream<DataRow> rows = CsvDataSource.of(csvPath).header(false).stream()) {
+            return rows.findFirst()
+                    .map(row -> Arrays.copyOf(row.toArray(), row.size(), String[].class))
+                    .orElse(null);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            failed = true;
+            logger.error("Could not read CSV file {}", csvPath, e);
+            return null;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("readFirstRowFromCSV", null, start, failed);
         }
-        return null;
     }
 
     /**
      * Reads the first row of the first sheet in an Excel file and returns the values as a String array.
      * <p>
-     * Use this for data-driven testing with Excel files (XLS/XLSX).
+     * Use this for data-driven testing with Excel files (XLS/XLSX). XLSX files are streamed, so only the first row
+     * is parsed however large the workbook is. For whole sheets use ExcelDataSource.
      *
      * @param excelPath The path to the Excel file.
-     * @return String[] of values, or null if error.
+     * @return String[] of values, or null if the sheet is empty or the file cannot be read.
      */
     public static String[] readFirstRowFromExcel(String excelPath) {
-        try (org.apache.poi.ss.usermodel.Workbook workbook = org.apache.poi.ss.usermodel.WorkbookFactory.create(new java.io.File(excelPath))) {
-            org.apache.poi.ss.usermodel.Sheet sheet = workbook.getSheetAt(0);
-            org.apache.poi.ss.usermodel.Row row = sheet.getRow(0);
-            if (row != null) {
-                String[] values = new String[row.getLastCellNum()];
-                for (int i = 0; i < row.getLastCellNum(); i++) {
-                    org.apache.poi.ss.usermodel.Cell cell = row.getCell(i);
-                    values[i] = cell != null ? cell.toString() : "";
-                }
-                return values;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try (Stream<DataRow> rows = ExcelDataSource.of(excelPath).header(false).stream()) {
+            return rows.findFirst()
+                    .map(row -> Arrays.copyOf(row.toArray(), row.size(), String[].class))
+                    .orElse(null);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            failed = true;
+            logger.error("Could not read Excel file {}", excelPath, e);
+            return null;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("readFirstRowFromExcel", null, start, failed);
         }
-        return null;
     }
 
     // ===== Alerts, Windows, Frames =====
@@ -824,7 +1399,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.acceptAlert();
      */
     public static void acceptAlert() {
-        getDriver().switchTo().alert().accept();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().switchTo().alert().accept();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("acceptAlert", null, start, failed);
+        }
     }
 
     /**
@@ -834,7 +1418,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.dismissAlert();
      */
     public static void dismissAlert() {
-        getDriver().switchTo().alert().dismiss();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().switchTo().alert().dismiss();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("dismissAlert", null, start, failed);
+        }
     }
 
     /**
@@ -845,7 +1438,16 @@ public class SeleniumUtil {
      * Example: String msg = SeleniumUtil.getAlertText();
      */
     public static String getAlertText() {
-        return getDriver().switchTo().alert().getText();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            return getDriver().switchTo().alert().getText();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getAlertText", null, start, failed);
+        }
     }
 
     /**
@@ -856,7 +1458,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.switchToFrameByIndex(1);
      */
     public static void switchToFrameByIndex(int index) {
-        getDriver().switchTo().frame(index);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().switchTo().frame(index);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("switchToFrameByIndex", null, start, failed);
+        }
     }
 
     /**
@@ -867,7 +1478,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.switchToFrameByNameOrId("myFrame");
      */
     public static void switchToFrameByNameOrId(String nameOrId) {
-        getDriver().switchTo().frame(nameOrId);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().switchTo().frame(nameOrId);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("switchToFrameByNameOrId", null, start, failed);
+        }
     }
 
     /**
@@ -877,7 +1497,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.switchToDefaultContent();
      */
     public static void switchToDefaultContent() {
-        getDriver().switchTo().defaultContent();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().switchTo().defaultContent();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("switchToDefaultContent", null, start, failed);
+        }
     }
 
     /**
@@ -887,12 +1516,21 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.switchToNewWindow();
      */
     public static void switchToNewWindow() {
-        String current = getDriver().getWindowHandle();
-        for (String handle : getDriver().getWindowHandles()) {
-            if (!handle.equals(current)) {
-                getDriver().switchTo().window(handle);
-                break;
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            String current = getDriver().getWindowHandle();
+            for (String handle : getDriver().getWindowHandles()) {
+                if (!handle.equals(current)) {
+                    getDriver().switchTo().window(handle);
+                    break;
+                }
             }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("switchToNewWindow", null, start, failed);
         }
     }
 
@@ -903,9 +1541,18 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.closeCurrentWindowAndSwitchBack();
      */
     public static void closeCurrentWindowAndSwitchBack() {
-        String first = getDriver().getWindowHandles().iterator().next();
-        getDriver().close();
-        getDriver().switchTo().window(first);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            String first = getDriver().getWindowHandles().iterator().next();
+            getDriver().close();
+            getDriver().switchTo().window(first);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("closeCurrentWindowAndSwitchBack", null, start, failed);
+        }
     }
 
     // ===== UI Widgets (Tabs, Accordions, Sliders, Progress Bars, Tooltips, Menus, Drag/Drop, Resize, Selectable, Sortable) =====
@@ -918,10 +1565,21 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.selectTabByText(By.id("tabs"), "Profile");
      */
     public static void selectTabByText(By tabContainerBy, String tabText) {
-        WebElement tab = waitForVisible(tabContainerBy);
-        if (tab != null) {
-            WebElement item = tab.findElement(By.xpath(".//*[text()='" + tabText + "']"));
-            item.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement tab = waitForVisible(tabContainerBy);
+            if (tab != null) {
+                WebElement item = tab.findElement(By.xpath(".//*[text()='" + tabText + "']"));
+                item.click();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectTabByText", tabContainerBy, start, failed);
         }
     }
 
@@ -933,8 +1591,17 @@ public class SeleniumUtil {
      * @return true if the tab is selected, false otherwise.
      */
     public static boolean isTabSelected(By tabBy) {
-        WebElement tab = find(tabBy);
-        return tab != null && tab.isSelected();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement tab = find(tabBy);
+            return tab != null && tab.isSelected();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isTabSelected", tabBy, start, failed);
+        }
     }
 
     /**
@@ -946,13 +1613,24 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.expandAccordionSection(By.id("accordion"), "Section 1");
      */
     public static void expandAccordionSection(By accordionBy, String sectionText) {
-        WebElement accordion = waitForVisible(accordionBy);
-        if (accordion != null) {
-            WebElement section = accordion.findElement(By.xpath(".//*[text()='" + sectionText + "']"));
-            new Actions(getDriver()).moveToElement(section).perform();
-            // Wait for section to expand (assume class change or attribute change)
-            // This is a placeholder, actual implementation might involve waiting for a specific class
-            // or checking if the section is visible and not collapsed.
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement accordion = waitForVisible(accordionBy);
+            if (accordion != null) {
+                WebElement section = accordion.findElement(By.xpath(".//*[text()='" + sectionText + "']"));
+                new Actions(getDriver()).moveToElement(section).perform();
+                // Wait for section to expand (assume class change or attribute change)
+                // This is a placeholder, actual implementation might involve waiting for a specific class
+                // or checking if the section is visible and not collapsed.
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("expandAccordionSection", accordionBy, start, failed);
         }
     }
 
@@ -964,13 +1642,22 @@ public class SeleniumUtil {
      * @return true if expanded, false otherwise.
      */
     public static boolean isAccordionSectionExpanded(By sectionBy) {
-        WebElement section = find(sectionBy);
-        if (section != null) {
-            String clazz = section.getAttribute("class");
-            // TODO: Update class name as per actual expanded state in demoqa
-            return clazz != null && clazz.contains("expanded");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement section = find(sectionBy);
+            if (section != null) {
+                String clazz = section.getAttribute("class");
+                // TODO: Update class name as per actual expanded state in demoqa
+                return clazz != null && clazz.contains("expanded");
+            }
+            return false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isAccordionSectionExpanded", sectionBy, start, failed);
         }
-        return false;
     }
 
     /**
@@ -982,12 +1669,23 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.setSliderValue(By.id("slider"), 50);
      */
     public static void setSliderValue(By sliderBy, int value) {
-        WebElement slider = waitForVisible(sliderBy);
-        if (slider != null) {
-            // This is a placeholder. Actual implementation depends on the slider's HTML structure.
-            // It might involve moving the slider thumb to a specific position or using a range input.
-            // For a simple example, we'll just click and hope for the best.
-            new Actions(getDriver()).clickAndHold(slider).moveByOffset(value, 0).release().perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement slider = waitForVisible(sliderBy);
+            if (slider != null) {
+                // This is a placeholder. Actual implementation depends on the slider's HTML structure.
+                // It might involve moving the slider thumb to a specific position or using a range input.
+                // For a simple example, we'll just click and hope for the best.
+                new Actions(getDriver()).clickAndHold(slider).moveByOffset(value, 0).release().perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("setSliderValue", sliderBy, start, failed);
         }
     }
 
@@ -999,15 +1697,24 @@ public class SeleniumUtil {
      * @return The slider value as a string.
      */
     public static String getSliderValue(By sliderBy) {
-        WebElement slider = find(sliderBy);
-        if (slider != null) {
-            String val = slider.getAttribute("value");
-            if (val == null || val.isEmpty()) {
-                val = slider.getText();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement slider = find(sliderBy);
+            if (slider != null) {
+                String val = slider.getAttribute("value");
+                if (val == null || val.isEmpty()) {
+                    val = slider.getText();
+                }
+                return val;
             }
-            return val;
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getSliderValue", sliderBy, start, failed);
         }
-        return "";
     }
 
     /**
@@ -1018,12 +1725,21 @@ public class SeleniumUtil {
      * @return The progress value as a string.
      */
     public static String getProgressBarValue(By progressBarBy) {
-        WebElement bar = waitForVisible(progressBarBy);
-        if (bar != null) {
-            String val = bar.getAttribute("aria-valuenow");
-            return val != null ? val : bar.getText();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement bar = waitForVisible(progressBarBy);
+            if (bar != null) {
+                String val = bar.getAttribute("aria-valuenow");
+                return val != null ? val : bar.getText();
+            }
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getProgressBarValue", progressBarBy, start, failed);
         }
-        return "";
     }
 
     /**
@@ -1036,16 +1752,25 @@ public class SeleniumUtil {
      * @return true if the value is reached, false otherwise.
      */
     public static boolean waitForProgressBarToReach(By progressBarBy, int targetValue, int timeoutSeconds) {
-        WebDriverWait wait = new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds));
-        return wait.until(driver -> {
-            WebElement bar = driver.findElement(progressBarBy);
-            String val = bar.getAttribute("aria-valuenow");
-            try {
-                return val != null && Integer.parseInt(val) >= targetValue;
-            } catch (Exception e) {
-                return false;
-            }
-        });
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebDriverWait wait = newWait(timeoutSeconds);
+            return wait.until(driver -> {
+                WebElement bar = driver.findElement(progressBarBy);
+                String val = bar.getAttribute("aria-valuenow");
+                try {
+                    return val != null && Integer.parseInt(val) >= targetValue;
+                } catch (Exception e) {
+                    return false;
+                }
+            });
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("waitForProgressBarToReach", progressBarBy, start, failed);
+        }
     }
 
     /**
@@ -1056,18 +1781,27 @@ public class SeleniumUtil {
      * @return The tooltip text, or empty string if not found.
      */
     public static String getTooltipText(By elementBy) {
-        WebElement element = waitForVisible(elementBy);
-        if (element != null) {
-            Actions actions = new Actions(getDriver());
-            actions.moveToElement(element).perform();
-            // Wait for tooltip to appear (assume title attribute or aria-label)
-            String tooltip = element.getAttribute("title");
-            if (tooltip == null || tooltip.isEmpty()) {
-                tooltip = element.getAttribute("aria-label");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(elementBy);
+            if (element != null) {
+                Actions actions = new Actions(getDriver());
+                actions.moveToElement(element).perform();
+                // Wait for tooltip to appear (assume title attribute or aria-label)
+                String tooltip = element.getAttribute("title");
+                if (tooltip == null || tooltip.isEmpty()) {
+                    tooltip = element.getAttribute("aria-label");
+                }
+                return tooltip != null ? tooltip : "";
             }
-            return tooltip != null ? tooltip : "";
+            return "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getTooltipText", elementBy, start, failed);
         }
-        return "";
     }
 
     /**
@@ -1079,10 +1813,21 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.selectMenuItemByText(By.id("menu"), "Settings");
      */
     public static void selectMenuItemByText(By menuBy, String itemText) {
-        WebElement menu = waitForVisible(menuBy);
-        if (menu != null) {
-            WebElement item = menu.findElement(By.xpath(".//*[text()='" + itemText + "']"));
-            item.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement menu = waitForVisible(menuBy);
+            if (menu != null) {
+                WebElement item = menu.findElement(By.xpath(".//*[text()='" + itemText + "']"));
+                item.click();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectMenuItemByText", menuBy, start, failed);
         }
     }
 
@@ -1095,11 +1840,22 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.dragAndDrop(By.id("item1"), By.id("target"));
      */
     public static void dragAndDrop(By sourceBy, By targetBy) {
-        WebElement source = waitForVisible(sourceBy);
-        WebElement target = waitForVisible(targetBy);
-        if (source != null && target != null) {
-            Actions actions = new Actions(getDriver());
-            actions.dragAndDrop(source, target).perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement source = waitForVisible(sourceBy);
+            WebElement target = waitForVisible(targetBy);
+            if (source != null && target != null) {
+                Actions actions = new Actions(getDriver());
+                actions.dragAndDrop(source, target).perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("dragAndDrop", sourceBy, start, failed);
         }
     }
 
@@ -1113,10 +1869,21 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.resizeElement(By.id("panel"), 50, 0);
      */
     public static void resizeElement(By resizableBy, int xOffset, int yOffset) {
-        WebElement resizable = waitForVisible(resizableBy);
-        if (resizable != null) {
-            Actions actions = new Actions(getDriver());
-            actions.clickAndHold(resizable).moveByOffset(xOffset, yOffset).release().perform();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement resizable = waitForVisible(resizableBy);
+            if (resizable != null) {
+                Actions actions = new Actions(getDriver());
+                actions.clickAndHold(resizable).moveByOffset(xOffset, yOffset).release().perform();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("resizeElement", resizableBy, start, failed);
         }
     }
 
@@ -1129,10 +1896,21 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.selectItemByText(By.id("list"), "Item 2");
      */
     public static void selectItemByText(By containerBy, String itemText) {
-        WebElement container = waitForVisible(containerBy);
-        if (container != null) {
-            WebElement item = container.findElement(By.xpath(".//*[text()='" + itemText + "']"));
-            item.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement container = waitForVisible(containerBy);
+            if (container != null) {
+                WebElement item = container.findElement(By.xpath(".//*[text()='" + itemText + "']"));
+                item.click();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("selectItemByText", containerBy, start, failed);
         }
     }
 
@@ -1145,7 +1923,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.sortItem(By.id("item1"), By.id("item3"));
      */
     public static void sortItem(By itemBy, By targetBy) {
-        dragAndDrop(itemBy, targetBy);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            dragAndDrop(itemBy, targetBy);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("sortItem", itemBy, start, failed);
+        }
     }
 
     /**
@@ -1156,8 +1943,17 @@ public class SeleniumUtil {
      * @return true if visible, false otherwise.
      */
     public static boolean isModalDialogVisible(By dialogBy) {
-        WebElement dialog = waitForVisible(dialogBy);
-        return dialog != null && dialog.isDisplayed();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement dialog = waitForVisible(dialogBy);
+            return dialog != null && dialog.isDisplayed();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("isModalDialogVisible", dialogBy, start, failed);
+        }
     }
 
     /**
@@ -1168,9 +1964,20 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.closeModalDialog(By.className("close"));
      */
     public static void closeModalDialog(By closeBtnBy) {
-        WebElement closeBtn = waitForVisible(closeBtnBy);
-        if (closeBtn != null) {
-            closeBtn.click();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement closeBtn = waitForVisible(closeBtnBy);
+            if (closeBtn != null) {
+                closeBtn.click();
+            } else {
+                failed = true;
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("closeModalDialog", closeBtnBy, start, failed);
         }
     }
 
@@ -1183,25 +1990,34 @@ public class SeleniumUtil {
      * Example: List<String> broken = SeleniumUtil.checkBrokenLinks();
      */
     public static List<String> checkBrokenLinks() {
-        List<String> brokenLinks = new ArrayList<>();
-        List<WebElement> links = getDriver().findElements(By.tagName("a"));
-        for (WebElement link : links) {
-            String url = link.getAttribute("href");
-            if (url != null && !url.trim().isEmpty() && !url.startsWith("javascript")) {
-                try {
-                    java.net.HttpURLConnection connection = (java.net.HttpURLConnection) java.net.URI.create(url).toURL().openConnection();
-                    connection.setRequestMethod("HEAD");
-                    connection.connect();
-                    int code = connection.getResponseCode();
-                    if (code >= 400) {
-                        brokenLinks.add(url + " (Status: " + code + ")");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> brokenLinks = new ArrayList<>();
+            List<WebElement> links = getDriver().findElements(By.tagName("a"));
+            for (WebElement link : links) {
+                String url = link.getAttribute("href");
+                if (url != null && !url.trim().isEmpty() && !url.startsWith("javascript")) {
+                    try {
+                        java.net.HttpURLConnection connection = (java.net.HttpURLConnection) java.net.URI.create(url).toURL().openConnection();
+                        connection.setRequestMethod("HEAD");
+                        connection.connect();
+                        int code = connection.getResponseCode();
+                        if (code >= 400) {
+                            brokenLinks.add(url + " (Status: " + code + ")");
+                        }
+                    } catch (Exception e) {
+                        brokenLinks.add(url + " (Exception: " + e.getMessage() + ")");
                     }
-                } catch (Exception e) {
-                    brokenLinks.add(url + " (Exception: " + e.getMessage() + ")");
                 }
             }
+            return brokenLinks;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("checkBrokenLinks", null, start, failed);
         }
-        return brokenLinks;
     }
 
     /**
@@ -1212,44 +2028,213 @@ public class SeleniumUtil {
      * Example: List<String> broken = SeleniumUtil.checkBrokenImages();
      */
     public static List<String> checkBrokenImages() {
-        List<String> brokenImages = new ArrayList<>();
-        List<WebElement> images = getDriver().findElements(By.tagName("img"));
-        for (WebElement img : images) {
-            String url = img.getAttribute("src");
-            if (url != null && !url.trim().isEmpty()) {
-                try {
-                    java.net.HttpURLConnection connection = (java.net.HttpURLConnection) java.net.URI.create(url).toURL().openConnection();
-                    connection.setRequestMethod("HEAD");
-                    connection.connect();
-                    int code = connection.getResponseCode();
-                    if (code >= 400) {
-                        brokenImages.add(url + " (Status: " + code + ")");
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> brokenImages = new ArrayList<>();
+            List<WebElement> images = getDriver().findElements(By.tagName("img"));
+            for (WebElement img : images) {
+                String url = img.getAttribute("src");
+                if (url != null && !url.trim().isEmpty()) {
+                    try {
+                        java.net.HttpURLConnection connection = (java.net.HttpURLConnection) java.net.URI.create(url).toURL().openConnection();
+                        connection.setRequestMethod("HEAD");
+                        connection.connect();
+                        int code = connection.getResponseCode();
+                        if (code >= 400) {
+                            brokenImages.add(url + " (Status: " + code + ")");
+                        }
+                    } catch (Exception e) {
+                        brokenImages.add(url + " (Exception: " + e.getMessage() + ")");
                     }
-                } catch (Exception e) {
-                    brokenImages.add(url + " (Exception: " + e.getMessage() + ")");
                 }
             }
+            return brokenImages;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("checkBrokenImages", null, start, failed);
         }
-        return brokenImages;
     }
 
     // ===== Screenshots & Utilities =====
     /**
      * Takes a screenshot and saves it to the given path.
      * <p>
-     * Use this to capture the current browser view for debugging or reporting.
+     * Use this to capture the current browser view for debugging or reporting. The file is written in the
+     * background by ScreenshotService; it is complete after ScreenshotService.flush() (done at suite end).
      * @param path The file path to save the screenshot (e.g., "screenshots/test.png").
      * Example: SeleniumUtil.screenshot("screenshots/home.png");
      */
     public static void screenshot(String path) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            try {
+                ScreenshotService.capture(getDriver(), Paths.get(path));
+            } catch (Exception e) {
+                logger.error("Failed to take screenshot: {}", path, e);
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("screenshot", null, start, failed);
+        }
+    }
+
+    /**
+     * Captures a single element as PNG bytes, without encoding the rest of the page.
+     * <p>
+     * Use this when a check only cares about one widget (a progress bar, a tooltip). On Chrome the element is
+     * clipped out of the page with CDP Page.captureScreenshot, so the window is not scrolled even if the element is
+     * off screen; other browsers use WebElement.getScreenshotAs.
+     * @param by The locator of the element.
+     * @return The PNG image of the element.
+     * @throws NoSuchElementException if the element is not visible within the default timeout.
+     * Example: byte[] png = SeleniumUtil.getElementScreenshot(By.id("progressBar"));
+     */
+    public static byte[] getElementScreenshot(By by) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = waitForVisible(by);
+            if (element == null) {
+                throw new NoSuchElementException("Element not visible for screenshot: " + by);
+            }
+            if (!(getDriver() instanceof HasCdp)) {
+                return element.getScreenshotAs(OutputType.BYTES);
+            }
+            List<?> rect = (List<?>) ((JavascriptExecutor) getDriver()).executeScript(
+                    "var r = arguments[0].getBoundingClientRect();"
+                            + "return [r.left + window.scrollX, r.top + window.scrollY, r.width, r.height];", element);
+            return captureClip(number(rect, 0), number(rect, 1), number(rect, 2), number(rect, 3));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getElementScreenshot", by, start, failed);
+        }
+    }
+
+    /**
+     * Captures a rectangle of the page as PNG bytes.
+     * <p>
+     * Coordinates are CSS pixels relative to the top-left corner of the document, so the region may lie outside
+     * the viewport on Chrome (CDP clip, no scrolling). Other browsers crop a viewport screenshot, so the region
+     * must be visible there.
+     * @param x Left edge in CSS pixels.
+     * @param y Top edge in CSS pixels.
+     * @param width Width in CSS pixels.
+     * @param height Height in CSS pixels.
+     * @return The PNG image of the region.
+     * Example: byte[] png = SeleniumUtil.getRegionScreenshot(0, 0, 800, 120);
+     */
+    public static byte[] getRegionScreenshot(int x, int y, int width, int height) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            if (getDriver() instanceof HasCdp) {
+                return captureClip(x, y, width, height);
+            }
+            List<?> viewport = (List<?>) ((JavascriptExecutor) getDriver()).executeScript(
+                    "return [window.scrollX, window.scrollY, window.devicePixelRatio || 1];");
+            double ratio = number(viewport, 2);
+            BufferedImage page = ImageIO.read(new ByteArrayInputStream(((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.BYTES)));
+            int left = Math.max(0, (int) Math.round((x - number(viewport, 0)) * ratio));
+            int top = Math.max(0, (int) Math.round((y - number(viewport, 1)) * ratio));
+            int right = Math.min(page.getWidth(), (int) Math.round((x - number(viewport, 0) + width) * ratio));
+            int bottom = Math.min(page.getHeight(), (int) Math.round((y - number(viewport, 1) + height) * ratio));
+            if (right <= left || bottom <= top) {
+                throw new IllegalArgumentException("Region is outside the viewport: " + x + "," + y + " " + width + "x" + height);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(page.getSubimage(left, top, right - left, bottom - top), "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            failed = true;
+            throw new UncheckedIOException("Could not crop screenshot", e);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getRegionScreenshot", null, start, failed);
+        }
+    }
+
+    /**
+     * Captures the whole page, including the parts below the fold, as PNG bytes.
+     * <p>
+     * Chrome renders the full content size in one CDP capture (captureBeyondViewport) and Firefox uses its native
+     * full-page screenshot, so the window is never scrolled and the page is not stitched from viewport pieces.
+     * Other browsers fall back to the visible viewport.
+     * @return The PNG image of the page.
+     * Example: byte[] png = SeleniumUtil.getFullPageScreenshot();
+     */
+    public static byte[] getFullPageScreenshot() {
+        long start = ActionMetrics.start();
+        boolean failed = false;
         try {
-            ((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.FILE);
-            org.apache.commons.io.FileUtils.copyFile(((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.FILE), new java.io.File(path));
-        } catch (Exception e) {
-            logger.error("Failed to take screenshot: {}", path, e);
+            WebDriver webDriver = getDriver();
+            if (webDriver instanceof HasCdp) {
+                Map<String, Object> metrics = ((HasCdp) webDriver).executeCdpCommand("Page.getLayoutMetrics", new HashMap<>());
+                Object size = metrics.containsKey("cssContentSize") ? metrics.get("cssContentSize") : metrics.get("contentSize");
+                Map<?, ?> content = (Map<?, ?>) size;
+                return captureClip(0, 0, ((Number) content.get("width")).doubleValue(), ((Number) content.get("height")).doubleValue());
+            }
+            if (webDriver instanceof HasFullPageScreenshot) {
+                return ((HasFullPageScreenshot) webDriver).getFullPageScreenshotAs(OutputType.BYTES);
+            }
+            return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getFullPageScreenshot", null, start, failed);
         }
     }
 
+    /**
+     * Captures a single element and saves it to the given path (see getElementScreenshot).
+     * <p>
+     * The file is written in the background by ScreenshotService, like screenshot().
+     * @param by The locator of the element.
+     * @param path The file path to save the screenshot.
+     * Example: SeleniumUtil.screenshotElement(By.id("userForm"), "screenshots/form.png");
+     */
+    public static void screenshotElement(By by, String path) {
+        ScreenshotService.saveCapture(getElementScreenshot(by), Paths.get(path));
+    }
+
+    /**
+     * Captures the whole page and saves it to the given path (see getFullPageScreenshot).
+     * @param path The file path to save the screenshot.
+     * Example: SeleniumUtil.fullPageScreenshot("screenshots/landing-full.png");
+     */
+    public static void fullPageScreenshot(String path) {
+        ScreenshotService.saveCapture(getFullPageScreenshot(), Paths.get(path));
+    }
+
+    private static byte[] captureClip(double x, double y, double width, double height) {
+        Map<String, Object> clip = new HashMap<>();
+        clip.put("x", x);
+        clip.put("y", y);
+        clip.put("width", Math.max(1, width));
+        clip.put("height", Math.max(1, height));
+        clip.put("scale", 1);
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", "png");
+        params.put("clip", clip);
+        params.put("captureBeyondViewport", true);
+        Map<String, Object> result = ((HasCdp) getDriver()).executeCdpCommand("Page.captureScreenshot", params);
+        return Base64.getDecoder().decode((String) result.get("data"));
+    }
+
+    private static double number(List<?> values, int index) {
+        return ((Number) values.get(index)).doubleValue();
+    }
+
     /**
      * Generates a random screenshot name with a timestamp.
      * <p>
@@ -1269,7 +2254,96 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.captureScreenShot("screenshots/error.png");
      */
     public static void captureScreenShot(String pathToStore) {
-        screenshot(pathToStore);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            screenshot(pathToStore);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("captureScreenShot", null, start, failed);
+        }
+    }
+
+    /**
+     * Compares the visible part of the page with the named baseline image (see BaselineStore).
+     * <p>
+     * Use this for visual regression checks of a page or form. Elements matching maskedElements (ads, carousels,
+     * clocks) are left out of the comparison. A failing check leaves the actual screenshot and a diff image under
+     * visual/ in the report directory; a missing baseline fails and is left pending for approval unless
+     * visual.missing.baseline=approve.
+     * @param name The baseline name, e.g. "landing-page".
+     * @param maskedElements Locators of regions to ignore; elements that are not present are skipped.
+     * @return True if the page matches the baseline within the visual.* tolerances.
+     * Example: boolean same = SeleniumUtil.matchesBaseline("landing-page", By.className("swiper"));
+     */
+    public static boolean matchesBaseline(String name, By... maskedElements) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            VisualDiffOptions options = VisualDiffOptions.defaults();
+            addMasks(options, null, maskedElements);
+            byte[] png = ((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.BYTES);
+            return BaselineStore.defaultStore().check(name, png, options).isPassed();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("matchesBaseline", null, start, failed);
+        }
+    }
+
+    /**
+     * Compares one element with the named baseline image (see matchesBaseline).
+     * <p>
+     * Only the element is captured (getElementScreenshot) and compared, which is faster and less noisy than a
+     * viewport check when the test is about a single widget or form.
+     * @param name The baseline name, e.g. "text-box-form".
+     * @param by The locator of the element to compare.
+     * @param maskedElements Locators of regions inside the element to ignore.
+     * @return True if the element matches the baseline within the visual.* tolerances.
+     * Example: boolean same = SeleniumUtil.elementMatchesBaseline("text-box-form", By.id("userForm"));
+     */
+    public static boolean elementMatchesBaseline(String name, By by, By... maskedElements) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            VisualDiffOptions options = VisualDiffOptions.defaults();
+            byte[] png = getElementScreenshot(by);
+            addMasks(options, find(by), maskedElements);
+            return BaselineStore.defaultStore().check(name, png, options).isPassed();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("elementMatchesBaseline", by, start, failed);
+        }
+    }
+
+    /**
+     * Adds the device-pixel rectangles of the masked elements to the options, relative to the top-left corner of
+     * origin (or of the viewport if origin is null). Elements that are not present are skipped.
+     */
+    private static void addMasks(VisualDiffOptions options, WebElement origin, By... maskedElements) {
+        List<WebElement> masked = new ArrayList<>();
+        for (By by : maskedElements) {
+            masked.addAll(getDriver().findElements(by));
+        }
+        if (masked.isEmpty()) {
+            return;
+        }
+        List<?> rects = (List<?>) ((JavascriptExecutor) getDriver()).executeScript(
+                "var dpr = window.devicePixelRatio || 1;"
+                        + "var o = arguments[1] ? arguments[1].getBoundingClientRect() : {left: 0, top: 0};"
+                        + "return arguments[0].map(function (e) { var r = e.getBoundingClientRect();"
+                        + " return [(r.left - o.left) * dpr, (r.top - o.top) * dpr, r.width * dpr, r.height * dpr]; });",
+                masked, origin);
+        for (Object rect : rects) {
+            List<?> values = (List<?>) rect;
+            options.mask((int) Math.floor(number(values, 0)), (int) Math.floor(number(values, 1)),
+                    (int) Math.ceil(number(values, 2)) + 1, (int) Math.ceil(number(values, 3)) + 1);
+        }
     }
 
     /**
@@ -1279,78 +2353,175 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.closeKnownPopups();
      */
     public static void closeKnownPopups() {
-        // Common close button locators (example)
-        List<By> closeButtons = new ArrayList<>();
-        closeButtons.add(By.xpath("//button[contains(text(), 'Close')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Dismiss')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Cancel')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'No')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'OK')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Yes')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Continue')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Proceed')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Accept')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Reject')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Decline')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Deny')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Ignore')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Skip')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Next')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Previous')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Back')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Finish')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Complete')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Confirm')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Accept All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Reject All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Decline All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Deny All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Skip All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Next All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Previous All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Back All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Finish All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Complete All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Accept All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Reject All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Decline All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Deny All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Skip All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Next All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Previous All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Back All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Finish All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Complete All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Accept All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Reject All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Decline All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Deny All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Skip All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Next All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Previous All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Back All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Finish All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Complete All Cookies')]"));
-        closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All Cookies')]"));
-
-        for (By closeButton : closeButtons) {
-            WebElement button = find(closeButton);
-            if (button != null) {
-                try {
-                    button.click();
-                    logger.info("Closed popup/ad using locator: {}", closeButton);
-                    return; // Exit after closing one
-                } catch (Exception e) {
-                    logger.debug("Could not close popup/ad with locator: {}", closeButton, e);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            // Common close button locators (example)
+            List<By> closeButtons = new ArrayList<>();
+            closeButtons.add(By.xpath("//button[contains(text(), 'Close')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Dismiss')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Cancel')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'No')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'OK')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Yes')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Continue')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Proceed')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Accept')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Reject')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Decline')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Deny')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Ignore')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Skip')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Next')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Previous')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Back')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Finish')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Complete')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Confirm')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Accept All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Reject All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Decline All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Deny All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Skip All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Next All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Previous All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Back All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Finish All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Complete All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Accept All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Reject All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Decline All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Deny All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Skip All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Next All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Previous All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Back All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Finish All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Complete All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Accept All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Reject All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Decline All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Deny All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Ignore All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Skip All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Next All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Previous All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Back All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Finish All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Complete All Cookies')]"));
+            closeButtons.add(By.xpath("//button[contains(text(), 'Confirm All Cookies')]"));
+
+            for (By closeButton : closeButtons) {
+                WebElement button = find(closeButton);
+                if (button != null) {
+                    try {
+                        button.click();
+                        logger.info("Closed popup/ad using locator: {}", closeButton);
+                        return; // Exit after closing one
+                    } catch (Exception e) {
+                        logger.debug("Could not close popup/ad with locator: {}", closeButton, e);
+                    }
                 }
             }
+            logger.info("No known popup/ad found to close.");
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("closeKnownPopups", null, start, failed);
+        }
+    }
+
+    // ===== Network Mocking =====
+    /**
+     * Stubs responses for requests matching a URL pattern in the current browser session (Chrome only).
+     * <p>
+     * Use this to make form submissions and error paths deterministic without a real backend.
+     * Rules are scoped to this thread's session, so parallel tests do not affect each other.
+     * @param rule The canned response rule (status, headers, body, delay).
+     * Example: SeleniumUtil.mockResponse(new MockResponseRule("*&#47;api/users*").withStatus(503));
+     */
+    public static void mockResponse(MockResponseRule rule) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            NetworkMockUtils.addRule(getDriver(), rule);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("mockResponse", null, start, failed);
+        }
+    }
+
+    /**
+     * Stubs responses for requests matching a URL pattern with the given status and body.
+     * <p>
+     * Shortcut for the most common case; use {@link #mockResponse(MockResponseRule)} for headers or delays.
+     * @param urlPattern Glob pattern for the request URL ('*' matches anything).
+     * @param status The HTTP status code to return.
+     * @param body The response body to return.
+     * Example: SeleniumUtil.mockResponse("*&#47;api/submit", 500, "{\"error\":\"down\"}");
+     */
+    public static void mockResponse(String urlPattern, int status, String body) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            mockResponse(new MockResponseRule(urlPattern).withStatus(status).withBody(body));
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("mockResponse", null, start, failed);
+        }
+    }
+
+    /**
+     * Gets the bodies of all intercepted requests whose URL matches the pattern, in arrival order.
+     * <p>
+     * Use this to assert on what the page sent to a mocked endpoint.
+     * @param urlPattern Glob pattern for the request URL.
+     * @return List of request bodies (empty strings for requests without a body).
+     * Example: List<String> sent = SeleniumUtil.getInterceptedRequestBodies("*&#47;api/submit");
+     */
+    public static List<String> getInterceptedRequestBodies(String urlPattern) {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            List<String> bodies = new ArrayList<>();
+            for (InterceptedRequest request : NetworkMockUtils.getInterceptedRequests(urlPattern)) {
+                bodies.add(request.getBody());
+            }
+            return bodies;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getInterceptedRequestBodies", null, start, failed);
+        }
+    }
+
+    /**
+     * Removes all network mocks and captured requests for the current session.
+     * <p>
+     * Called automatically when the driver is quit through DriverUtils.quitDriver().
+     * Example: SeleniumUtil.clearResponseMocks();
+     */
+    public static void clearResponseMocks() {
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            NetworkMockUtils.clearMocks();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("clearResponseMocks", null, start, failed);
         }
-        logger.info("No known popup/ad found to close.");
     }
 
     // ===== Miscellaneous/Other =====
@@ -1362,8 +2533,17 @@ public class SeleniumUtil {
      * @return The text content, or empty string if not found.
      */
     public static String getText(By by) {
-        WebElement element = find(by);
-        return element != null ? element.getText() : "";
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            return element != null ? element.getText() : "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getText", by, start, failed);
+        }
     }
 
     /**
@@ -1375,8 +2555,17 @@ public class SeleniumUtil {
      * @return The attribute value, or empty string if not found.
      */
     public static String getAttribute(By by, String attribute) {
-        WebElement element = find(by);
-        return element != null ? element.getAttribute(attribute) : "";
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            WebElement element = find(by);
+            return element != null ? element.getAttribute(attribute) : "";
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getAttribute", by, start, failed);
+        }
     }
 
     /**
@@ -1387,7 +2576,18 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.goTo("https://demoqa.com");
      */
     public static void goTo(String url) {
-        getDriver().get(url);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().get(url);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("goTo", null, start, failed);
+        }
+        // Outside the timed block: waiting for loadEventEnd and reading the timings is not part of goTo's latency
+        PageTimingRecorder.recordNavigation(getDriver());
     }
 
     /**
@@ -1398,7 +2598,16 @@ public class SeleniumUtil {
      * Example: String title = SeleniumUtil.getTitle();
      */
     public static String getTitle() {
-        return getDriver().getTitle();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            return getDriver().getTitle();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getTitle", null, start, failed);
+        }
     }
 
     /**
@@ -1409,7 +2618,16 @@ public class SeleniumUtil {
      * Example: String url = SeleniumUtil.getUrl();
      */
     public static String getUrl() {
-        return getDriver().getCurrentUrl();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            return getDriver().getCurrentUrl();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("getUrl", null, start, failed);
+        }
     }
 
     /**
@@ -1419,7 +2637,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.maximize();
      */
     public static void maximize() {
-        getDriver().manage().window().maximize();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().manage().window().maximize();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("maximize", null, start, failed);
+        }
     }
 
     /**
@@ -1429,7 +2656,16 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.clearCookies();
      */
     public static void clearCookies() {
-        getDriver().manage().deleteAllCookies();
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            getDriver().manage().deleteAllCookies();
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("clearCookies", null, start, failed);
+        }
     }
 
     /**
@@ -1441,7 +2677,49 @@ public class SeleniumUtil {
      * Example: SeleniumUtil.addCookie("token", "abc123");
      */
     public static void addCookie(String name, String value) {
-        Cookie cookie = new Cookie.Builder(name, value).build();
-        getDriver().manage().addCookie(cookie);
+        long start = ActionMetrics.start();
+        boolean failed = false;
+        try {
+            Cookie cookie = new Cookie.Builder(name, value).build();
+            getDriver().manage().addCookie(cookie);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            ActionMetrics.stop("addCookie", null, start, failed);
+        }
+    }
+
+    /**
+     * WebDriverWait that records how long each until() call took and how it ended.
+     */
+    private static class TimedWait extends WebDriverWait {
+        TimedWait(WebDriver driver, Duration timeout) {
+            super(driver, timeout);
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            long start = System.nanoTime();
+            long profile = WaitProfiler.beginWait();
+            String outcome = "error";
+            String span = "wait error";
+            WaitProfiler.Kind kind = WaitProfiler.Kind.WAIT;
+            try {
+                V value = super.until(isTrue);
+                outcome = "satisfied";
+                span = "wait satisfied";
+                return value;
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+                span = "wait timeout";
+                kind = WaitProfiler.Kind.WAIT_TIMEOUT;
+                throw e;
+            } finally {
+                MetricsRegistry.global().timer(WAIT_METRIC, "outcome", outcome).recordNanos(System.nanoTime() - start);
+                TraceTimeline.span(span, TraceTimeline.CATEGORY_WAIT, start);
+                WaitProfiler.endWait(kind, profile);
+            }
+        }
     }
 }
@@ -0,0 +1,93 @@
+package gui.automation.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal local HTTP server that serves static HTML fixtures from the classpath, so load and monitoring flows
+ * can run without touching the real site.
+ * <p>
+ * A request for "/" is answered with &lt;root&gt;index.html and "/text-box" with &lt;root&gt;text-box.html;
+ * anything not found on the classpath gets a 404. The server binds to the loopback interface on a free port.
+ * <p>
+ * Example:
+ *   StandInServer server = new StandInServer("standin/").start();
+ *   String baseUrl = server.getBaseUrl(); // e.g. http://127.0.0.1:53121
+ *   ...
+ *   server.stop();
+ */
+public class StandInServer {
+    private static final Logger logger = LoggerFactory.getLogger(StandInServer.class);
+
+    private final String resourceRoot;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param resourceRoot Classpath folder holding the fixtures, e.g. "standin/".
+     */
+    public StandInServer(String resourceRoot) {
+        this.resourceRoot = resourceRoot.endsWith("/") ? resourceRoot : resourceRoot + "/";
+    }
+
+    public StandInServer start() {
+        // Without TCP_NODELAY every small response stalls ~40ms on delayed ACKs, which would swamp the timings
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stand-in server", e);
+        }
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Stand-in server serving '{}' at {}", resourceRoot, getBaseUrl());
+        return this;
+    }
+
+    public String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Stand-in server is not running");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String name = "/".equals(path) ? "index.html" : path.substring(1).replace("..", "") + ".html";
+        try (InputStream in = StandInServer.class.getClassLoader().getResourceAsStream(resourceRoot + name)) {
+            byte[] body = in != null ? in.readAllBytes() : ("Not found: " + path).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type",
+                    in != null ? "text/html; charset=utf-8" : "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(in != null ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-running synthetic monitor: runs a few critical {@link LoadScenario}s on a schedule against a warm
+ * {@link BrowserPool} and exports the results.
+ * <p>
+ * Each scenario is rescheduled only after its previous run finished, with the interval randomly stretched or
+ * shortened by the jitter ratio, so runs never pile up and scenarios drift apart instead of firing together.
+ * After every run the monitor rewrites a Prometheus text file (runs, failures, last result, step latency
+ * quantiles) and appends one JSON line to a size-rolled log. Only the last history.size results are kept in
+ * memory. Defaults come from the monitor.* keys in config.properties.
+ * <p>
+ * Example:
+ *   SyntheticMonitor monitor = new SyntheticMonitor(new BrowserPool("chrome", baseUrl, 2).warmUp())
+ *           .monitor(textBoxScenario, Duration.ofMinutes(5))
+ *           .monitor(landingCardsScenario, Duration.ofMinutes(5))
+ *           .start();
+ */
+public class SyntheticMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticMonitor.class);
+
+    private final BrowserPool pool;
+    private final Map<String, ScenarioStats> scenarios = new LinkedHashMap<>();
+    private final Deque<RunResult> history = new ArrayDeque<>();
+    private double jitter = ConfigUtils.getDouble("monitor.jitter", 0.2);
+    private int historySize = ConfigUtils.getInt("monitor.history.size", 500);
+    private long logMaxBytes = ConfigUtils.getLong("monitor.log.max.bytes", 10L * 1024 * 1024);
+    private int logMaxFiles = ConfigUtils.getInt("monitor.log.max.files", 5);
+    private Path metricsFile = ReportUtils.reportPath("synthetic-metrics.prom");
+    private Path logFile = ReportUtils.reportPath("synthetic-log.jsonl");
+    private volatile ScheduledExecutorService scheduler;
+
+    public SyntheticMonitor(BrowserPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds a scenario to run every interval (plus or minus jitter). Call before start().
+     */
+    public SyntheticMonitor monitor(LoadScenario scenario, Duration interval) {
+        scenarios.put(scenario.getName(), new ScenarioStats(scenario, interval));
+        return this;
+    }
+
+    /**
+     * Fraction of the interval by which each delay is randomly varied, e.g. 0.2 for +/-20%.
+     */
+    public SyntheticMonitor jitter(double jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    public SyntheticMonitor historySize(int historySize) {
+        this.historySize = historySize;
+        return this;
+    }
+
+    public SyntheticMonitor metricsFile(Path metricsFile) {
+        this.metricsFile = metricsFile;
+        return this;
+    }
+
+    /**
+     * Sets the JSON-lines log and its rolling limits: the log is rotated to .1, .2, ... once it reaches
+     * maxBytes, keeping at most maxFiles rotated files.
+     */
+    public SyntheticMonitor logFile(Path logFile, long maxBytes, int maxFiles) {
+        this.logFile = logFile;
+        this.logMaxBytes = maxBytes;
+        this.logMaxFiles = maxFiles;
+        return this;
+    }
+
+    public synchronized SyntheticMonitor start() {
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No scenarios to monitor");
+        }
+        scheduler = Executors.newScheduledThreadPool(pool.getSize(), runnable -> {
+            Thread thread = new Thread(runnable, "synthetic-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ScenarioStats stats : scenarios.values()) {
+            // Spread the first runs so scenarios sharing an interval do not start together
+            long firstDelay = (long) (ThreadLocalRandom.current().nextDouble() * stats.interval.toMillis() * jitter);
+            scheduler.schedule(() -> runAndReschedule(stats), firstDelay, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Synthetic monitor started with {} scenarios: {}", scenarios.size(), scenarios.keySet());
+        return this;
+    }
+
+    /**
+     * Stops scheduling, waits briefly for runs in progress and closes the browser pool.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(60, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        pool.close();
+        logger.info("Synthetic monitor stopped");
+    }
+
+    /**
+     * Runs one scenario immediately on the calling thread and records the result.
+     */
+    public RunResult runOnce(String scenarioName) throws InterruptedException {
+        ScenarioStats stats = scenarios.get(scenarioName);
+        if (stats == null) {
+            throw new IllegalArgumentException("Unknown scenario: " + scenarioName);
+        }
+        return run(stats);
+    }
+
+    /**
+     * Returns the retained results, oldest first.
+     */
+    public List<RunResult> getHistory() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    private void runAndReschedule(ScenarioStats stats) {
+        try {
+            run(stats);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            logger.error("Synthetic run of '{}' could not be executed: {}", stats.scenario.getName(), e.getMessage());
+        }
+        ScheduledExecutorService current = scheduler;
+        if (current != null && !current.isShutdown()) {
+            double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            try {
+                current.schedule(() -> runAndReschedule(stats), Math.round(stats.interval.toMillis() * factor),
+                        TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Monitor stopped; '{}' not rescheduled", stats.scenario.getName());
+            }
+        }
+    }
+
+    private RunResult run(ScenarioStats stats) throws InterruptedException {
+        // Nobody consumes per-page samples in a daemon; this run's are dropped afterwards so memory stays flat
+        PageTimingRecorder.beginScope();
+        BrowserPool.Lease lease;
+        try {
+            lease = pool.acquire();
+        } catch (InterruptedException | RuntimeException e) {
+            PageTimingRecorder.discardScope();
+            throw e;
+        }
+        long startedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Map<String, Double> stepMillis = new LinkedHashMap<>();
+        String failedStep = null;
+        String error = null;
+        try {
+            for (LoadScenario.Step step : stats.scenario.getSteps()) {
+                long stepStart = System.nanoTime();
+                try {
+                    step.getAction().accept(lease.getDriver());
+                } catch (Exception e) {
+                    failedStep = step.getName();
+                    error = e.getClass().getSimpleName() + ": " + String.valueOf(e.getMessage()).split("\n")[0];
+                    break;
+                } finally {
+                    long nanos = System.nanoTime() - stepStart;
+                    stats.steps.get(step.getName()).recordNanos(nanos);
+                    stepMillis.put(step.getName(), nanos / 1_000_000.0);
+                }
+            }
+        } finally {
+            WebVitalsRecorder.drainPageSamples(lease.getDriver());
+            pool.release(lease, failedStep == null);
+            PageTimingRecorder.discardScope();
+        }
+        long nanos = System.nanoTime() - start;
+        RunResult result = new RunResult(stats.scenario.getName(), startedAt, nanos / 1_000_000.0, failedStep == null,
+                failedStep, error, stepMillis);
+        stats.record(result, nanos);
+        synchronized (history) {
+            history.addLast(result);
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        if (result.isSuccess()) {
+            logger.info("Synthetic run '{}' passed in {} ms", result.getScenario(), Math.round(result.getDurationMillis()));
+        } else {
+            logger.warn("Synthetic run '{}' failed at step '{}': {}", result.getScenario(), failedStep, error);
+        }
+        export(result);
+        return result;
+    }
+
+    private void export(RunResult result) {
+        try {
+            ReportUtils.writeStringAtomically(metricsFile, toPrometheus());
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput out = new Json().newOutput(line)) {
+                out.setPrettyPrint(false).write(result.toMap());
+            }
+            appendLog(line.toString());
+        } catch (UncheckedIOException e) {
+            logger.warn("Could not export synthetic monitoring results: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void appendLog(String line) {
+        try {
+            if (Files.exists(logFile) && Files.size(logFile) >= logMaxBytes) {
+                rollLog();
+            }
+            Files.write(logFile, (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rollLog() throws IOException {
+        Files.deleteIfExists(rolled(logMaxFiles));
+        for (int i = logMaxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (logMaxFiles > 0) {
+            Files.move(logFile, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(logFile);
+        }
+    }
+
+    private Path rolled(int index) {
+        return logFile.resolveSibling(logFile.getFileName() + "." + index);
+    }
+
+    /**
+     * Renders the current counters in the Prometheus text exposition format.
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        header(sb, "webassure_synthetic_runs_total", "counter", "Synthetic runs per scenario");
+        for (ScenarioStats s : scenarios.values()) {
+            line(sb, "webassure_synthetic_runs_total", s, null, null, s.runs.sum());
+        }
+        header(sb, "webassure_synthetic_failures_total", "counter", "Failed synthetic runs per scenario");
+        for (ScenarioStats s : scenarios.values()) {
+            line(sb, "webassure_synthetic_failures_total", s, null, null, s.failures.sum());
+        }
+        header(sb, "webassure_synthetic_last_success", "gauge", "1 if the last run passed, 0 if it failed");
+        for (ScenarioStats s : scenarios.values()) {
+            if (s.runs.sum() > 0) {
+                line(sb, "webassure_synthetic_last_success", s, null, null, s.lastSuccess ? 1 : 0);
+            }
+        }
+        header(sb, "webassure_synthetic_last_run_timestamp_seconds", "gauge", "Start time of the last run");
+        for (ScenarioStats s : scenarios.values()) {
+            if (s.runs.sum() > 0) {
+                line(sb, "webassure_synthetic_last_run_timestamp_seconds", s, null, null, s.lastRunEpochMillis / 1000.0);
+            }
+        }
+        header(sb, "webassure_synthetic_duration_seconds", "summary", "Scenario duration since start");
+        for (ScenarioStats s : scenarios.values()) {
+            quantiles(sb, "webassure_synthetic_duration_seconds", s, null, s.total);
+        }
+        header(sb, "webassure_synthetic_step_duration_seconds", "summary", "Step duration since start");
+        for (ScenarioStats s : scenarios.values()) {
+            for (Map.Entry<String, LatencyHistogram> step : s.steps.entrySet()) {
+                quantiles(sb, "webassure_synthetic_step_duration_seconds", s, step.getKey(), step.getValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void quantiles(StringBuilder sb, String name, ScenarioStats s, String step, LatencyHistogram h) {
+        if (h.getCount() == 0) {
+            return;
+        }
+        for (double q : new double[]{0.5, 0.95, 0.99}) {
+            line(sb, name, s, step, q, h.getPercentileMicros(q * 100) / 1_000_000.0);
+        }
+        line(sb, name + "_sum", s, step, null, h.getTotalMicros() / 1_000_000.0);
+        line(sb, name + "_count", s, step, null, h.getCount());
+    }
+
+    private static void line(StringBuilder sb, String name, ScenarioStats s, String step, Double quantile, double value) {
+        sb.append(name).append("{scenario=\"").append(ReportUtils.escapePrometheusLabel(s.scenario.getName())).append('"');
+        if (step != null) {
+            sb.append(",step=\"").append(ReportUtils.escapePrometheusLabel(step)).append('"');
+        }
+        if (quantile != null) {
+            sb.append(",quantile=\"").append(quantile).append('"');
+        }
+        sb.append("} ").append(value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value))
+                .append('\n');
+    }
+
+    /**
+     * Counters and histograms of one monitored scenario. Histograms cover every run since start.
+     */
+    private static final class ScenarioStats {
+        private final LoadScenario scenario;
+        private final Duration interval;
+        private final Map<String, LatencyHistogram> steps;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean lastSuccess;
+        private volatile long lastRunEpochMillis;
+
+        private ScenarioStats(LoadScenario scenario, Duration interval) {
+            this.scenario = scenario;
+            this.interval = interval;
+            Map<String, LatencyHistogram> stepMap = new LinkedHashMap<>();
+            for (LoadScenario.Step step : scenario.getSteps()) {
+                stepMap.put(step.getName(), new LatencyHistogram());
+            }
+            this.steps = Collections.unmodifiableMap(stepMap);
+        }
+
+        private void record(RunResult result, long nanos) {
+            total.recordNanos(nanos);
+            runs.increment();
+            if (!result.isSuccess()) {
+                failures.increment();
+            }
+            lastSuccess = result.isSuccess();
+            lastRunEpochMillis = result.getStartedAtMillis();
+        }
+    }
+
+    /**
+     * Outcome and step timings of one synthetic run.
+     */
+    public static class RunResult {
+        private final String scenario;
+        private final long startedAtMillis;
+        private final double durationMillis;
+        private final boolean success;
+        private final String failedStep;
+        private final String error;
+        private final Map<String, Double> stepMillis;
+
+        RunResult(String scenario, long startedAtMillis, double durationMillis, boolean success, String failedStep,
+                  String error, Map<String, Double> stepMillis) {
+            this.scenario = scenario;
+            this.startedAtMillis = startedAtMillis;
+            this.durationMillis = durationMillis;
+            this.success = success;
+            this.failedStep = failedStep;
+            this.error = error;
+            this.stepMillis = Collections.unmodifiableMap(stepMillis);
+        }
+
+        public String getScenario() {
+            return scenario;
+        }
+
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        public double getDurationMillis() {
+            return durationMillis;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getFailedStep() {
+            return failedStep;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public Map<String, Double> getStepMillis() {
+            return stepMillis;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("timestamp", Instant.ofEpochMilli(startedAtMillis).toString());
+            map.put("scenario", scenario);
+            map.put("success", success);
+            map.put("durationMs", Math.round(durationMillis));
+            if (failedStep != null) {
+                map.put("failedStep", failedStep);
+                map.put("error", error);
+            }
+            Map<String, Object> steps = new LinkedHashMap<>();
+            stepMillis.forEach((name, millis) -> steps.put(name, Math.round(millis)));
+            map.put("steps", steps);
+            return map;
+        }
+    }
+}
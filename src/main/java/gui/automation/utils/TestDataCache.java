@@ -0,0 +1,169 @@
+package gui.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of parsed test data, so a CSV or Excel file used by several test classes or parallel
+ * threads is read and parsed once.
+ * <p>
+ * Entries are keyed by the absolute file path, its modification time and size, the sheet and the parse options;
+ * an edited file is therefore read again, and the old version dropped. Loading is single-flight: when several
+ * threads ask for the same file at once, one parses it and the others wait for its result. Tables are stored
+ * column by column (TestDataTable) and kept up to testdata.cache.max.mb of estimated heap, least recently used
+ * first out; a table bigger than the whole limit is handed out but not kept.
+ * <p>
+ * Sources opt in with cached(); rows then come from the cached table as views, without copying:
+ *   return CsvDataSource.of("src/test/resources/testdata/text-box.csv").cached().asDataProvider(...);
+ */
+public class TestDataCache {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataCache.class);
+    private static final String CACHE_METRIC = "webassure_testdata_cache_total";
+    private static final long MAX_BYTES = ConfigUtils.getLong("testdata.cache.max.mb", 256) << 20;
+    private static final Map<String, CompletableFuture<TestDataTable>> loading = new ConcurrentHashMap<>();
+    // Access order: the first entry is the least recently used
+    private static final LinkedHashMap<String, TestDataTable> tables = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes;
+
+    private TestDataCache() {
+    }
+
+    /**
+     * The parsed table of a source, from the cache or read now. Filters and sampling of the source are not
+     * applied here; they work on the rows of the table.
+     *
+     * @throws UncheckedIOException If the file cannot be read.
+     */
+    public static TestDataTable get(TestDataSource<?> source) {
+        String key = key(source);
+        synchronized (TestDataCache.class) {
+            TestDataTable table = tables.get(key);
+            if (table != null) {
+                MetricsRegistry.global().counter(CACHE_METRIC, "result", "hit").increment();
+                return table;
+            }
+        }
+        CompletableFuture<TestDataTable> created = new CompletableFuture<>();
+        CompletableFuture<TestDataTable> pending = loading.putIfAbsent(key, created);
+        if (pending != null) {
+            MetricsRegistry.global().counter(CACHE_METRIC, "result", "wait").increment();
+            return join(pending);
+        }
+        MetricsRegistry.global().counter(CACHE_METRIC, "result", "miss").increment();
+        try {
+            TestDataTable table = load(source);
+            store(key, source.getPath(), table);
+            created.complete(table);
+            return table;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    /**
+     * Estimated heap held by cached tables.
+     */
+    public static synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public static synchronized int size() {
+        return tables.size();
+    }
+
+    /**
+     * Drops all cached tables.
+     */
+    public static synchronized void clear() {
+        tables.clear();
+        cachedBytes = 0;
+    }
+
+    private static TestDataTable load(TestDataSource<?> source) {
+        long started = System.nanoTime();
+        TestDataTable.Builder builder = new TestDataTable.Builder();
+        try (TestDataSource.Records records = source.open()) {
+            String[] record = records.next();
+            if (record != null && source.hasHeader()) {
+                builder.header(record);
+                record = records.next();
+            }
+            for (; record != null; record = records.next()) {
+                builder.add(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read test data " + source.getPath(), e);
+        }
+        TestDataTable table = builder.build();
+        logger.debug("Loaded {} rows x {} columns from {} in {} ms", table.getRowCount(), table.getColumnCount(),
+                source.getPath(), (System.nanoTime() - started) / 1_000_000);
+        return table;
+    }
+
+    private static synchronized void store(String key, Path path, TestDataTable table) {
+        String pathPrefix = path.toAbsolutePath().normalize() + "|";
+        // Older versions of the same file can no longer be asked for
+        for (Iterator<Map.Entry<String, TestDataTable>> it = tables.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, TestDataTable> entry = it.next();
+            if (entry.getKey().startsWith(pathPrefix) && !entry.getKey().equals(key)) {
+                cachedBytes -= entry.getValue().getEstimatedBytes();
+                it.remove();
+            }
+        }
+        if (table.getEstimatedBytes() > MAX_BYTES) {
+            logger.warn("Test data {} (~{} MB) is larger than testdata.cache.max.mb; not cached", path,
+                    table.getEstimatedBytes() >> 20);
+            return;
+        }
+        TestDataTable replaced = tables.put(key, table);
+        if (replaced != null) {
+            cachedBytes -= replaced.getEstimatedBytes();
+        }
+        cachedBytes += table.getEstimatedBytes();
+        for (Iterator<TestDataTable> it = tables.values().iterator(); cachedBytes > MAX_BYTES && it.hasNext(); ) {
+            TestDataTable evicted = it.next();
+            it.remove();
+            cachedBytes -= evicted.getEstimatedBytes();
+            MetricsRegistry.global().counter(CACHE_METRIC, "result", "evicted").increment();
+        }
+    }
+
+    private static String key(TestDataSource<?> source) {
+        Path path = source.getPath().toAbsolutePath().normalize();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return path + "|" + attributes.lastModifiedTime().toMillis() + "|" + attributes.size() + "|"
+                    + source.getClass().getSimpleName() + "|" + source.hasHeader() + "|" + source.formatKey();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read test data " + path, e);
+        }
+    }
+
+    private static TestDataTable join(CompletableFuture<TestDataTable> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = Objects.requireNonNullElse(e.getCause(), e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
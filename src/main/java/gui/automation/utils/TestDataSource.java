@@ -0,0 +1,280 @@
+package gui.automation.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily read tabular test data (see CsvDataSource), with filtering and sampling, ready for TestNG data
+ * providers.
+ * <p>
+ * Nothing is read until a row is requested, and rows are read one at a time, so files of any size need constant
+ * memory. Every iterator opens its own reader, and its methods are synchronized, so a source can feed several
+ * (also parallel) data providers at once. An iterator closes its file when it runs out; close streams from
+ * stream() with try-with-resources. With cached(), the file is parsed once per process instead (see
+ * TestDataCache) and rows are views over the cached table.
+ * <p>
+ * Example:
+ *   &#64;DataProvider(name = "users", parallel = true)
+ *   public Iterator&lt;Object[]&gt; users() {
+ *       return CsvDataSource.of("src/test/resources/testdata/users.csv")
+ *               .filter(row -&gt; row.get("country").equals("LK"))
+ *               .sample(0.1, 42)
+ *               .asDataProvider(User.class);
+ *   }
+ */
+public abstract class TestDataSource<S extends TestDataSource<S>> implements Iterable<DataRow> {
+    protected final Path path;
+    private boolean header = true;
+    private Predicate<DataRow> filter = row -> true;
+    private double sampleFraction = 1;
+    private long sampleSeed;
+    private int every = 1;
+    private long limit = Long.MAX_VALUE;
+    private boolean cached;
+
+    protected TestDataSource(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the raw records of the file, header row included.
+     */
+    protected abstract Records open() throws IOException;
+
+    /**
+     * Whether the first record holds the column names (default true). Without a header, rows are read by position
+     * only.
+     */
+    public S header(boolean header) {
+        this.header = header;
+        return self();
+    }
+
+    /**
+     * Keeps only rows matching the predicate. Several filters must all match.
+     */
+    public S filter(Predicate<DataRow> predicate) {
+        this.filter = filter.and(predicate);
+        return self();
+    }
+
+    /**
+     * Keeps a random share of the (filtered) rows, e.g. 0.1 for about 10%. The choice depends only on the seed and
+     * the row number, so the same seed always selects the same rows.
+     */
+    public S sample(double fraction, long seed) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction must be in (0, 1]: " + fraction);
+        }
+        this.sampleFraction = fraction;
+        this.sampleSeed = seed;
+        return self();
+    }
+
+    /**
+     * Keeps every n-th (filtered, sampled) row, starting with the first.
+     */
+    public S every(int n) {
+        this.every = Math.max(1, n);
+        return self();
+    }
+
+    /**
+     * Stops after the given number of rows.
+     */
+    public S limit(long rows) {
+        this.limit = rows;
+        return self();
+    }
+
+    /**
+     * Reads rows from the process-wide TestDataCache instead of the file: the file is parsed once, and every later
+     * iterator (any thread, any test class) reuses the parsed table until the file changes. Suited to small and
+     * medium files shared by several data providers; very large files are better streamed.
+     */
+    public S cached() {
+        this.cached = true;
+        return self();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    boolean hasHeader() {
+        return header;
+    }
+
+    /**
+     * Parse options that change the resulting rows (delimiter, sheet, ...), as part of the cache key.
+     */
+    protected String formatKey() {
+        return "";
+    }
+
+    /**
+     * A new lazy iterator over the selected rows. It closes the file when exhausted.
+     */
+    @Override
+    public Iterator<DataRow> iterator() {
+        return new RowIterator<>(Function.identity());
+    }
+
+    /**
+     * The selected rows as a stream; close it (try-with-resources) if it is not consumed to the end.
+     */
+    public Stream<DataRow> stream() {
+        RowIterator<DataRow> rows = new RowIterator<>(Function.identity());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(rows::close);
+    }
+
+    /**
+     * Rows for a TestNG data provider: all cells of each row, as strings.
+     */
+    public Iterator<Object[]> asDataProvider() {
+        return new RowIterator<>(DataRow::toArray);
+    }
+
+    /**
+     * Rows for a TestNG data provider: the named columns, in that order (matching the test method parameters).
+     */
+    public Iterator<Object[]> asDataProvider(String... columns) {
+        return new RowIterator<>(row -> row.toArray(columns));
+    }
+
+    /**
+     * Rows for a TestNG data provider: each row mapped onto one object of the given class (see RowMapper).
+     */
+    public Iterator<Object[]> asDataProvider(Class<?> type) {
+        RowMapper<?> mapper = RowMapper.of(type);
+        return new RowIterator<>(row -> new Object[]{mapper.map(row)});
+    }
+
+    @SuppressWarnings("unchecked")
+    private S self() {
+        return (S) this;
+    }
+
+    private boolean selected(long rowNumber) {
+        if (sampleFraction >= 1) {
+            return true;
+        }
+        return new SplittableRandom(sampleSeed ^ rowNumber * 0x9E3779B97F4A7C15L).nextDouble() < sampleFraction;
+    }
+
+    /**
+     * Raw records of a file: one String[] per record, null at the end.
+     */
+    protected interface Records extends Closeable {
+        String[] next() throws IOException;
+    }
+
+    /**
+     * Reads ahead one selected row; opens the file on first use and closes it at the end.
+     */
+    private final class RowIterator<T> implements Iterator<T>, Closeable {
+        private final Function<DataRow, T> mapping;
+        private Records records;
+        private TestDataTable table;
+        private DataRow.Columns columns;
+        private DataRow nextRow;
+        private long rowNumber;
+        private long matched;
+        private long returned;
+        private boolean done;
+
+        private RowIterator(Function<DataRow, T> mapping) {
+            this.mapping = mapping;
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (nextRow == null && !done) {
+                nextRow = advance();
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public synchronized T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DataRow row = nextRow;
+            nextRow = null;
+            returned++;
+            return mapping.apply(row);
+        }
+
+        @Override
+        public synchronized void close() {
+            done = true;
+            if (records != null) {
+                try {
+                    records.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not close " + path, e);
+                } finally {
+                    records = null;
+                }
+            }
+        }
+
+        private DataRow advance() {
+            if (cached) {
+                return advanceCached();
+            }
+            try {
+                if (records == null) {
+                    records = open();
+                    String[] first = header ? records.next() : null;
+                    columns = first != null ? new DataRow.Columns(first) : DataRow.Columns.NONE;
+                }
+                while (returned < limit) {
+                    String[] values = records.next();
+                    if (values == null) {
+                        break;
+                    }
+                    DataRow row = DataRow.of(columns, values, ++rowNumber);
+                    if (filter.test(row) && selected(rowNumber) && matched++ % every == 0) {
+                        return row;
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Could not read test data " + path, e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            close();
+            return null;
+        }
+
+        private DataRow advanceCached() {
+            if (table == null) {
+                table = TestDataCache.get(TestDataSource.this);
+            }
+            while (returned < limit && rowNumber < table.getRowCount()) {
+                DataRow row = table.row((int) rowNumber++);
+                if (filter.test(row) && selected(rowNumber) && matched++ % every == 0) {
+                    return row;
+                }
+            }
+            done = true;
+            return null;
+        }
+    }
+}
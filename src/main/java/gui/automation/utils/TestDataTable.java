@@ -0,0 +1,166 @@
+package gui.automation.utils;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fully parsed data set held column by column (one String[] per column), as kept by TestDataCache.
+ * <p>
+ * Rows and columns handed out are views over the column arrays; nothing is copied. Repeated values within a
+ * column (countries, flags, environments) are stored once. Instances are immutable and safe to share between
+ * threads.
+ */
+public final class TestDataTable {
+    // Columns with more distinct values than this are not deduplicated (ids, e-mail addresses)
+    private static final int MAX_DISTINCT_TRACKED = 4096;
+    private final DataRow.Columns header;
+    private final String[][] columns;
+    private final int rows;
+    private final long estimatedBytes;
+
+    private TestDataTable(DataRow.Columns header, String[][] columns, int rows, long estimatedBytes) {
+        this.header = header;
+        this.columns = columns;
+        this.rows = rows;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public List<String> getColumns() {
+        return header.names();
+    }
+
+    /**
+     * The row at a 0-based position, as a view.
+     */
+    public DataRow row(int index) {
+        if (index < 0 || index >= rows) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + rows);
+        }
+        return new DataRow(header, index + 1L) {
+            @Override
+            protected String cell(int column) {
+                return column < columns.length ? columns[column][index] : null;
+            }
+
+            @Override
+            public int size() {
+                return columns.length;
+            }
+        };
+    }
+
+    /**
+     * All values of the named column, as a read-only view.
+     */
+    public List<String> column(String name) {
+        String[] values = columns[header.indexOf(name)];
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index >= rows) {
+                    throw new IndexOutOfBoundsException("Row " + index + " of " + rows);
+                }
+                String value = values[index];
+                return value == null ? "" : value;
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    /**
+     * Approximate heap size of the table, used for the cache's size limit.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Collects records into columns while a file is read.
+     */
+    static final class Builder {
+        private DataRow.Columns header = DataRow.Columns.NONE;
+        private String[][] columns = new String[0][];
+        private final Map<Integer, Map<String, String>> distinct = new HashMap<>();
+        private int rows;
+        private int capacity = 64;
+        private long bytes;
+
+        Builder header(String[] names) {
+            header = new DataRow.Columns(names);
+            bytes += stringBytes(names);
+            return this;
+        }
+
+        void add(String[] record) {
+            if (record.length > columns.length) {
+                String[][] wider = new String[record.length][];
+                System.arraycopy(columns, 0, wider, 0, columns.length);
+                for (int c = columns.length; c < record.length; c++) {
+                    wider[c] = new String[capacity];
+                }
+                columns = wider;
+            }
+            if (rows == capacity) {
+                capacity = capacity * 2;
+                for (int c = 0; c < columns.length; c++) {
+                    String[] grown = new String[capacity];
+                    System.arraycopy(columns[c], 0, grown, 0, rows);
+                    columns[c] = grown;
+                }
+            }
+            for (int c = 0; c < record.length; c++) {
+                columns[c][rows] = deduplicate(c, record[c]);
+            }
+            rows++;
+        }
+
+        TestDataTable build() {
+            int width = Math.max(columns.length, header.size());
+            String[][] trimmed = new String[width][];
+            for (int c = 0; c < width; c++) {
+                trimmed[c] = new String[rows];
+                if (c < columns.length) {
+                    System.arraycopy(columns[c], 0, trimmed[c], 0, rows);
+                }
+            }
+            // Reference per cell plus array headers
+            long total = bytes + (long) width * rows * 8 + width * 16L;
+            return new TestDataTable(header, trimmed, rows, total);
+        }
+
+        private String deduplicate(int column, String value) {
+            Map<String, String> values = distinct.computeIfAbsent(column, c -> new HashMap<>());
+            String known = values.get(value);
+            if (known != null) {
+                return known;
+            }
+            if (values.size() < MAX_DISTINCT_TRACKED) {
+                values.put(value, value);
+            }
+            bytes += 40 + 2L * value.length();
+            return value;
+        }
+
+        private static long stringBytes(String[] values) {
+            long total = 0;
+            for (String value : values) {
+                total += 40 + 2L * value.length();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Past durations and outcomes of each test, kept in a small JSON file between runs (test.history.file, outside
+ * target/ so that mvn clean keeps it), for scheduling the longest tests first (see TestSchedule).
+ * <p>
+ * A test's duration covers its setup (browser start, first page load) and the test method; data-provider rows
+ * of one method are added up, since they run one after another. After a run, each test's estimate moves 30% of
+ * the way towards the new duration, so one slow run does not reorder the suite but a lasting change shows within
+ * a few runs. Tests without history are estimated at the median of the known ones. The schedule report
+ * (test-schedule.json) compares the planned makespan with the actual one, i.e. the time from the first test's
+ * start to the last test's end.
+ * <p>
+ * Example:
+ *   long estimate = TestHistory.global().estimateMillis("TextBoxComponentTest.testEmailField");
+ *   TestHistory.global().record("TextBoxComponentTest.testEmailField", start, end, passed);
+ */
+public class TestHistory {
+    private static final Logger logger = LoggerFactory.getLogger(TestHistory.class);
+    private static final double WEIGHT = 0.3;
+    private static final int RECENT_OUTCOMES = 20;
+    private static volatile TestHistory global;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, RunEntry> run = new ConcurrentHashMap<>();
+    // Estimates handed out for this run, for the report
+    private final Map<String, Long> estimated = new ConcurrentHashMap<>();
+    private long plannedMakespanMillis;
+    private int plannedWorkers;
+    private int plannedTests;
+    private long firstStartMillis = Long.MAX_VALUE;
+    private long lastEndMillis = Long.MIN_VALUE;
+
+    public TestHistory(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * The history shared by the scheduler and listeners, read from test.history.file on first use.
+     */
+    public static TestHistory global() {
+        if (global == null) {
+            synchronized (TestHistory.class) {
+                if (global == null) {
+                    global = new TestHistory(Paths.get(ConfigUtils.get("test.history.file", ".webassure/test-history.json")));
+                }
+            }
+        }
+        return global;
+    }
+
+    /**
+     * Expected duration of a test: its history, or the median of all known tests, or test.history.default.seconds.
+     */
+    public long estimateMillis(String testId) {
+        Entry entry = entries.get(testId);
+        long estimate;
+        if (entry != null) {
+            estimate = Math.round(entry.estimateMillis);
+        } else if (entries.isEmpty()) {
+            estimate = ConfigUtils.getLong("test.history.default.seconds", 20) * 1000;
+        } else {
+            double[] known = entries.values().stream().mapToDouble(e -> e.estimateMillis).toArray();
+            estimate = Math.round(ReportUtils.percentile(known, 50));
+        }
+        estimated.put(testId, estimate);
+        return estimate;
+    }
+
+    /**
+     * Records one finished test (or data-provider row) of the current run.
+     */
+    public synchronized void record(String testId, long startMillis, long endMillis, boolean passed) {
+        RunEntry entry = run.computeIfAbsent(testId, id -> new RunEntry());
+        entry.millis += Math.max(0, endMillis - startMillis);
+        entry.passed &= passed;
+        firstStartMillis = Math.min(firstStartMillis, startMillis);
+        lastEndMillis = Math.max(lastEndMillis, endMillis);
+    }
+
+    /**
+     * Adds a planned schedule (one per TestNG &lt;test&gt;; they run one after another) to the run's estimate.
+     */
+    public synchronized void planned(TestSchedule<?> schedule) {
+        plannedMakespanMillis += schedule.getEstimatedMakespanMillis();
+        plannedWorkers = Math.max(plannedWorkers, schedule.getWorkers());
+        plannedTests += schedule.getOrder().size();
+    }
+
+    public synchronized long getPlannedMakespanMillis() {
+        return plannedMakespanMillis;
+    }
+
+    /**
+     * Time from the first recorded test's start to the last one's end; 0 before any test finished.
+     */
+    public synchronized long getActualMakespanMillis() {
+        return lastEndMillis < firstStartMillis ? 0 : lastEndMillis - firstStartMillis;
+    }
+
+    /**
+     * Folds the current run into the history and writes the file.
+     */
+    public synchronized void save() {
+        for (Map.Entry<String, RunEntry> result : run.entrySet()) {
+            Entry entry = entries.get(result.getKey());
+            RunEntry current = result.getValue();
+            if (entry == null) {
+                entry = new Entry(current.millis, 0, 0, "");
+                entries.put(result.getKey(), entry);
+            } else {
+                entry.estimateMillis += WEIGHT * (current.millis - entry.estimateMillis);
+            }
+            entry.runs++;
+            if (!current.passed) {
+                entry.failures++;
+            }
+            String recent = entry.recent + (current.passed ? "P" : "F");
+            entry.recent = recent.substring(Math.max(0, recent.length() - RECENT_OUTCOMES));
+        }
+        run.clear();
+        estimated.clear();
+        Map<String, Object> tests = new TreeMap<>();
+        entries.forEach((id, entry) -> tests.put(id, entry.toMap()));
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", 1);
+        root.put("tests", tests);
+        ReportUtils.writeStringAtomically(file, new Json().toJson(root));
+    }
+
+    /**
+     * Writes test-schedule.json with the planned and actual makespan and each test's estimated and actual time.
+     *
+     * @return The report path, or null if no test was recorded.
+     */
+    public synchronized Path writeReport() {
+        if (run.isEmpty()) {
+            return null;
+        }
+        long actual = getActualMakespanMillis();
+        logger.info("Makespan: estimated {} s over {} threads for {} tests, actual {} s", plannedMakespanMillis / 1000,
+                plannedWorkers, plannedTests, actual / 1000);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        run.forEach((id, current) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("test", id);
+            row.put("estimatedMs", estimated.get(id));
+            row.put("actualMs", current.millis);
+            row.put("passed", current.passed);
+            rows.add(row);
+        });
+        rows.sort((a, b) -> Long.compare((Long) b.get("actualMs"), (Long) a.get("actualMs")));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", plannedWorkers);
+        report.put("estimatedMakespanMs", plannedMakespanMillis);
+        report.put("actualMakespanMs", actual);
+        report.put("tests", rows);
+        Path path = ReportUtils.reportPath("test-schedule.json");
+        ReportUtils.writeString(path, new Json().toJson(report));
+        return path;
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Map<String, Object> root = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            Object tests = root.get("tests");
+            if (tests instanceof Map) {
+                for (Map.Entry<?, ?> test : ((Map<?, ?>) tests).entrySet()) {
+                    if (test.getValue() instanceof Map) {
+                        entries.put(String.valueOf(test.getKey()), Entry.fromMap((Map<?, ?>) test.getValue()));
+                    }
+                }
+            }
+        } catch (IOException | JsonException | ClassCastException e) {
+            // The history only tunes the order; a damaged file is started afresh
+            logger.warn("Ignoring unreadable test history {}: {}", file, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    /**
+     * What is known about one test from earlier runs.
+     */
+    private static final class Entry {
+        private double estimateMillis;
+        private int runs;
+        private int failures;
+        private String recent;
+
+        private Entry(double estimateMillis, int runs, int failures, String recent) {
+            this.estimateMillis = estimateMillis;
+            this.runs = runs;
+            this.failures = failures;
+            this.recent = recent;
+        }
+
+        private static Entry fromMap(Map<?, ?> map) {
+            return new Entry(((Number) map.get("estimateMs")).doubleValue(), ((Number) map.get("runs")).intValue(),
+                    ((Number) map.get("failures")).intValue(), String.valueOf(map.get("recent")));
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("estimateMs", Math.round(estimateMillis));
+            map.put("runs", runs);
+            map.put("failures", failures);
+            map.put("recent", recent);
+            return map;
+        }
+    }
+
+    /**
+     * One test's time and outcome in the current run.
+     */
+    private static final class RunEntry {
+        private long millis;
+        private boolean passed = true;
+    }
+}
@@ -0,0 +1,140 @@
+package gui.automation.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Longest-processing-time-first plan of jobs (tests) over a number of workers (threads).
+ * <p>
+ * Jobs are taken longest first and each goes to the worker that becomes free first, which keeps a long job from
+ * starting last while the other workers sit idle. A job prefers a worker that already ran a job with the same
+ * affinity key (e.g. the same start page) if that worker is free at most half the job's length later. The plan
+ * is returned as a dispatch order: jobs sorted by planned start, which is the order a shared queue feeding
+ * free threads must hand them out to reproduce the plan.
+ * <p>
+ * Example:
+ *   TestSchedule&lt;String&gt; plan = TestSchedule.plan(jobs, 4);
+ *   plan.getOrder(); plan.getEstimatedMakespanMillis();
+ *
+ * @param <T> The job payload, e.g. a TestNG method instance.
+ */
+public final class TestSchedule<T> {
+    // A job accepts a worker with its affinity key if that worker is free within this share of the job's length
+    private static final double AFFINITY_SLACK = 0.5;
+    private final List<Job<T>> order;
+    private final long makespanMillis;
+    private final int workers;
+
+    private TestSchedule(List<Job<T>> order, long makespanMillis, int workers) {
+        this.order = order;
+        this.makespanMillis = makespanMillis;
+        this.workers = workers;
+    }
+
+    /**
+     * Plans the jobs over the given number of workers (at least 1).
+     */
+    public static <T> TestSchedule<T> plan(List<Job<T>> jobs, int workers) {
+        int threads = Math.max(1, workers);
+        List<Job<T>> longestFirst = new ArrayList<>(jobs);
+        // Stable: equal estimates keep their original order
+        longestFirst.sort(Comparator.comparingLong((Job<T> job) -> job.estimateMillis).reversed());
+        long[] load = new long[threads];
+        List<Set<String>> keys = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            keys.add(new HashSet<>());
+        }
+        for (Job<T> job : longestFirst) {
+            int earliest = 0;
+            for (int i = 1; i < threads; i++) {
+                if (load[i] < load[earliest]) {
+                    earliest = i;
+                }
+            }
+            int chosen = earliest;
+            if (job.affinity != null && !keys.get(earliest).contains(job.affinity)) {
+                long allowed = load[earliest] + (long) (job.estimateMillis * AFFINITY_SLACK);
+                for (int i = 0; i < threads; i++) {
+                    if (keys.get(i).contains(job.affinity) && load[i] <= allowed && (chosen == earliest || load[i] < load[chosen])) {
+                        chosen = i;
+                    }
+                }
+            }
+            job.worker = chosen;
+            job.plannedStartMillis = load[chosen];
+            load[chosen] += job.estimateMillis;
+            if (job.affinity != null) {
+                keys.get(chosen).add(job.affinity);
+            }
+        }
+        List<Job<T>> order = new ArrayList<>(longestFirst);
+        order.sort(Comparator.comparingLong((Job<T> job) -> job.plannedStartMillis).thenComparingInt(job -> job.worker));
+        long makespan = 0;
+        for (long workerLoad : load) {
+            makespan = Math.max(makespan, workerLoad);
+        }
+        return new TestSchedule<>(Collections.unmodifiableList(order), makespan, threads);
+    }
+
+    /**
+     * The jobs in dispatch order.
+     */
+    public List<Job<T>> getOrder() {
+        return order;
+    }
+
+    /**
+     * Planned end of the last job, if the estimates hold.
+     */
+    public long getEstimatedMakespanMillis() {
+        return makespanMillis;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * One job: its payload, estimated duration and affinity key (null for none).
+     */
+    public static final class Job<T> {
+        private final T payload;
+        private final long estimateMillis;
+        private final String affinity;
+        private int worker;
+        private long plannedStartMillis;
+
+        public Job(T payload, long estimateMillis, String affinity) {
+            this.payload = payload;
+            this.estimateMillis = Math.max(0, estimateMillis);
+            this.affinity = affinity;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getEstimateMillis() {
+            return estimateMillis;
+        }
+
+        public String getAffinity() {
+            return affinity;
+        }
+
+        /**
+         * The worker (0-based) the job is planned on.
+         */
+        public int getWorker() {
+            return worker;
+        }
+
+        public long getPlannedStartMillis() {
+            return plannedStartMillis;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeline of the run in Chrome trace-event format, to see idle gaps, serialization and stragglers when tests run
+ * in parallel. Open trace-timeline.json in chrome://tracing or https://ui.perfetto.dev.
+ * <p>
+ * Each thread gets its own row with spans for driver launch/quit, test methods, SeleniumUtil actions, waits and
+ * screenshots; spans nest by time, so an action shows under its test. Spans are written into a fixed-size ring
+ * buffer owned by the recording thread (perf.timeline.buffer.events per thread; the oldest spans are overwritten
+ * when it is full), so recording takes no locks and does not allocate. writeReport() reads the buffers after the
+ * suite has finished; spans still being written at that moment may be missing. Switch it off with
+ * perf.timeline=false.
+ * <p>
+ * Example:
+ *   long start = TraceTimeline.start();
+ *   ... work ...
+ *   TraceTimeline.span("driver launch", TraceTimeline.CATEGORY_DRIVER, start);
+ */
+public class TraceTimeline {
+    public static final String CATEGORY_DRIVER = "driver";
+    public static final String CATEGORY_TEST = "test";
+    public static final String CATEGORY_ACTION = "action";
+    public static final String CATEGORY_WAIT = "wait";
+    public static final String CATEGORY_SCREENSHOT = "screenshot";
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = ConfigUtils.getBoolean("perf.timeline", true);
+    private static final int CAPACITY = Math.max(16, ConfigUtils.getInt("perf.timeline.buffer.events", 32768));
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final AtomicInteger nextThreadId = new AtomicInteger(1);
+    private static final Queue<ThreadBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<ThreadBuffer> buffer = ThreadLocal.withInitial(() -> {
+        ThreadBuffer created = new ThreadBuffer(Thread.currentThread().getName());
+        buffers.add(created);
+        return created;
+    });
+
+    private TraceTimeline() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        TraceTimeline.enabled = enabled;
+    }
+
+    /**
+     * Marks the start of a span.
+     *
+     * @return A token to pass to span().
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Records a span from start until now on the calling thread's row.
+     *
+     * @param name     Span name; use a constant or an already-built string so nothing is allocated per call.
+     * @param category One of the CATEGORY_ constants.
+     * @param start    The value returned by start().
+     */
+    public static void span(String name, String category, long start) {
+        if (enabled && start != NOT_STARTED) {
+            buffer.get().add(name, category, start, System.nanoTime());
+        }
+    }
+
+    /**
+     * Opens the test span of the calling thread; endTest() closes it. Used by the test listeners, whose start and
+     * end callbacks are separate methods.
+     */
+    public static void beginTest(String testName) {
+        if (enabled) {
+            ThreadBuffer own = buffer.get();
+            own.testName = testName;
+            own.testStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes the test span opened by beginTest() on the calling thread.
+     */
+    public static void endTest() {
+        ThreadBuffer own = buffer.get();
+        if (own.testName != null) {
+            own.add(own.testName, CATEGORY_TEST, own.testStart, System.nanoTime());
+            own.testName = null;
+        }
+    }
+
+    /**
+     * Returns the recorded spans as a trace-event document: {"traceEvents": [...], "displayTimeUnit": "ms"} with
+     * one thread_name metadata event per thread and one complete ("X") event per span, times in microseconds.
+     */
+    public static Map<String, Object> toTraceEvents() {
+        List<Object> events = new ArrayList<>();
+        for (ThreadBuffer threadBuffer : buffers) {
+            threadBuffer.appendEvents(events);
+        }
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("traceEvents", events);
+        trace.put("displayTimeUnit", "ms");
+        return trace;
+    }
+
+    /**
+     * Writes trace-timeline.json.
+     *
+     * @return The report path, or null if nothing was recorded.
+     */
+    public static Path writeReport() {
+        Map<String, Object> trace = toTraceEvents();
+        List<?> events = (List<?>) trace.get("traceEvents");
+        if (events.isEmpty()) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput out = new Json().newOutput(json)) {
+            out.setPrettyPrint(false).write(trace);
+        }
+        Path path = ReportUtils.reportPath("trace-timeline.json");
+        ReportUtils.writeString(path, json.toString());
+        return path;
+    }
+
+    /**
+     * Discards all recorded spans. Only call while no thread is recording.
+     */
+    public static void reset() {
+        for (ThreadBuffer threadBuffer : buffers) {
+            threadBuffer.written = 0;
+        }
+    }
+
+    /**
+     * Ring buffer of one thread's spans. Only the owning thread writes; the volatile count publishes the slots
+     * written before it to the report writer.
+     */
+    private static final class ThreadBuffer {
+        private final int threadId = nextThreadId.getAndIncrement();
+        private final String threadName;
+        private final String[] names = new String[CAPACITY];
+        private final String[] categories = new String[CAPACITY];
+        private final long[] starts = new long[CAPACITY];
+        private final long[] ends = new long[CAPACITY];
+        private volatile long written;
+        private String testName;
+        private long testStart;
+
+        private ThreadBuffer(String threadName) {
+            this.threadName = threadName;
+        }
+
+        private void add(String name, String category, long start, long end) {
+            long count = written;
+            int slot = (int) (count % CAPACITY);
+            names[slot] = name;
+            categories[slot] = category;
+            starts[slot] = start;
+            ends[slot] = end;
+            written = count + 1;
+        }
+
+        private void appendEvents(List<Object> events) {
+            long count = written;
+            if (count == 0) {
+                return;
+            }
+            Map<String, Object> threadNameEvent = event("thread_name", null, "M");
+            Map<String, Object> args = new LinkedHashMap<>();
+            args.put("name", threadName);
+            threadNameEvent.put("args", args);
+            events.add(threadNameEvent);
+            for (long i = Math.max(0, count - CAPACITY); i < count; i++) {
+                int slot = (int) (i % CAPACITY);
+                Map<String, Object> span = event(names[slot], categories[slot], "X");
+                span.put("ts", (starts[slot] - ORIGIN_NANOS) / 1000.0);
+                span.put("dur", (ends[slot] - starts[slot]) / 1000.0);
+                events.add(span);
+            }
+        }
+
+        private Map<String, Object> event(String name, String category, String phase) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", name);
+            if (category != null) {
+                event.put("cat", category);
+            }
+            event.put("ph", phase);
+            event.put("pid", 1);
+            event.put("tid", threadId);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package gui.automation.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Pixel comparison of two screenshots.
+ * <p>
+ * Both images are read once into int[] ARGB buffers and cut into square tiles (VisualDiffOptions.tileSize) that
+ * are compared in parallel on a ForkJoinPool (visual.diff.parallelism threads, default one per core). Two pixels
+ * are equal when their YIQ colour distance is below the threshold; a differing pixel whose neighbourhood looks
+ * like an anti-aliased edge in either image is counted separately and does not fail the comparison. Pixels in
+ * masked regions are skipped. The approach follows the widely used pixelmatch algorithm.
+ * <p>
+ * Example:
+ *   VisualDiffResult result = VisualDiff.compare(baselinePng, actualPng, VisualDiffOptions.defaults());
+ *   if (!result.isPassed()) { result.writeDiffImage(diffPath); }
+ */
+public class VisualDiff {
+    // Largest possible YIQ delta between two colours
+    private static final double MAX_YIQ_DELTA = 35215;
+    private static final int TILES_PER_TASK = 4;
+    private static final ForkJoinPool pool = newPool();
+
+    private VisualDiff() {
+    }
+
+    /**
+     * Compares two PNG (or any ImageIO-readable) images.
+     */
+    public static VisualDiffResult compare(byte[] expectedImage, byte[] actualImage, VisualDiffOptions options) {
+        return compare(read(expectedImage), read(actualImage), options);
+    }
+
+    /**
+     * Compares two images of the same size. Images of different size fail without a pixel comparison.
+     */
+    public static VisualDiffResult compare(BufferedImage expected, BufferedImage actual, VisualDiffOptions options) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] actualPixels = actual.getRGB(0, 0, width, height, null, 0, width);
+        if (expected.getWidth() != width || expected.getHeight() != height) {
+            return new VisualDiffResult(width, height, actualPixels, null, (long) width * height, 0,
+                    (long) width * height, true, options.getMaxDiffRatio());
+        }
+        int[] expectedPixels = expected.getRGB(0, 0, width, height, null, 0, width);
+        byte[] classes = new byte[width * height];
+        for (Rectangle mask : options.getMasks()) {
+            Rectangle clipped = mask.intersection(new Rectangle(0, 0, width, height));
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                for (int x = clipped.x; x < clipped.x + clipped.width; x++) {
+                    classes[y * width + x] = VisualDiffResult.MASKED;
+                }
+            }
+        }
+        Comparison comparison = new Comparison(expectedPixels, actualPixels, classes, width, height, options);
+        long[] counts = pool.invoke(new TileTask(comparison, 0, comparison.tileCount()));
+        return new VisualDiffResult(width, height, actualPixels, classes, counts[0], counts[1], counts[2], false,
+                options.getMaxDiffRatio());
+    }
+
+    static BufferedImage read(byte[] image) {
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+            if (decoded == null) {
+                throw new IllegalArgumentException("Not a readable image");
+            }
+            return decoded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode image", e);
+        }
+    }
+
+    private static ForkJoinPool newPool() {
+        int parallelism = ConfigUtils.getInt("visual.diff.parallelism", 0);
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Splits a range of tiles until it is small enough to compare directly. Returns {different, anti-aliased,
+     * compared} pixel counts.
+     */
+    private static final class TileTask extends RecursiveTask<long[]> {
+        private final Comparison comparison;
+        private final int fromTile;
+        private final int toTile;
+
+        private TileTask(Comparison comparison, int fromTile, int toTile) {
+            this.comparison = comparison;
+            this.fromTile = fromTile;
+            this.toTile = toTile;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toTile - fromTile <= TILES_PER_TASK) {
+                long[] counts = new long[3];
+                for (int tile = fromTile; tile < toTile; tile++) {
+                    comparison.compareTile(tile, counts);
+                }
+                return counts;
+            }
+            int middle = (fromTile + toTile) >>> 1;
+            TileTask left = new TileTask(comparison, fromTile, middle);
+            left.fork();
+            long[] right = new TileTask(comparison, middle, toTile).compute();
+            long[] counts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += right[i];
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Shared read-only input of one comparison. Each tile writes only its own pixels of classes.
+     */
+    private static final class Comparison {
+        private final int[] expected;
+        private final int[] actual;
+        private final byte[] classes;
+        private final int width;
+        private final int height;
+        private final int tileSize;
+        private final int tilesAcross;
+        private final double maxDelta;
+        private final boolean detectAntiAliasing;
+
+        private Comparison(int[] expected, int[] actual, byte[] classes, int width, int height, VisualDiffOptions options) {
+            this.expected = expected;
+            this.actual = actual;
+            this.classes = classes;
+            this.width = width;
+            this.height = height;
+            this.tileSize = options.getTileSize();
+            this.tilesAcross = (width + tileSize - 1) / tileSize;
+            this.maxDelta = MAX_YIQ_DELTA * options.getThreshold() * options.getThreshold();
+            this.detectAntiAliasing = options.isDetectAntiAliasing();
+        }
+
+        private int tileCount() {
+            return tilesAcross * ((height + tileSize - 1) / tileSize);
+        }
+
+        private void compareTile(int tile, long[] counts) {
+            int x0 = (tile % tilesAcross) * tileSize;
+            int y0 = (tile / tilesAcross) * tileSize;
+            int x1 = Math.min(width, x0 + tileSize);
+            int y1 = Math.min(height, y0 + tileSize);
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                for (int x = x0; x < x1; x++) {
+                    int i = row + x;
+                    if (classes[i] == VisualDiffResult.MASKED) {
+                        continue;
+                    }
+                    counts[2]++;
+                    if (expected[i] == actual[i] || Math.abs(colorDelta(expected[i], actual[i], false)) <= maxDelta) {
+                        continue;
+                    }
+                    if (detectAntiAliasing && (antiAliased(expected, actual, x, y) || antiAliased(actual, expected, x, y))) {
+                        classes[i] = VisualDiffResult.ANTI_ALIASED;
+                        counts[1]++;
+                    } else {
+                        classes[i] = VisualDiffResult.DIFFERENT;
+                        counts[0]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * True if the pixel at (x, y) of image looks like part of an anti-aliased edge: it sits between a darker
+         * and a brighter neighbour, and one of those belongs to a solid area in both images.
+         */
+        private boolean antiAliased(int[] image, int[] other, int x, int y) {
+            int xFrom = Math.max(x - 1, 0);
+            int yFrom = Math.max(y - 1, 0);
+            int xTo = Math.min(x + 1, width - 1);
+            int yTo = Math.min(y + 1, height - 1);
+            int center = image[y * width + x];
+            int zeroes = x == xFrom || x == xTo || y == yFrom || y == yTo ? 1 : 0;
+            double min = 0;
+            double max = 0;
+            int minX = 0, minY = 0, maxX = 0, maxY = 0;
+            for (int ny = yFrom; ny <= yTo; ny++) {
+                for (int nx = xFrom; nx <= xTo; nx++) {
+                    if (nx == x && ny == y) {
+                        continue;
+                    }
+                    double delta = colorDelta(center, image[ny * width + nx], true);
+                    if (delta == 0) {
+                        zeroes++;
+                        if (zeroes > 2) {
+                            return false;
+                        }
+                    } else if (delta < min) {
+                        min = delta;
+                        minX = nx;
+                        minY = ny;
+                    } else if (delta > max) {
+                        max = delta;
+                        maxX = nx;
+                        maxY = ny;
+                    }
+                }
+            }
+            if (min == 0 || max == 0) {
+                return false;
+            }
+            return (hasManySiblings(image, minX, minY) && hasManySiblings(other, minX, minY))
+                    || (hasManySiblings(image, maxX, maxY) && hasManySiblings(other, maxX, maxY));
+        }
+
+        private boolean hasManySiblings(int[] image, int x, int y) {
+            int xFrom = Math.max(x - 1, 0);
+            int yFrom = Math.max(y - 1, 0);
+            int xTo = Math.min(x + 1, width - 1);
+            int yTo = Math.min(y + 1, height - 1);
+            int value = image[y * width + x];
+            int zeroes = x == xFrom || x == xTo || y == yFrom || y == yTo ? 1 : 0;
+            for (int ny = yFrom; ny <= yTo; ny++) {
+                for (int nx = xFrom; nx <= xTo; nx++) {
+                    if ((nx != x || ny != y) && image[ny * width + nx] == value) {
+                        zeroes++;
+                        if (zeroes > 2) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Perceived colour difference of two ARGB pixels (blended over white), signed by which one is brighter.
+     * With brightnessOnly, just the difference in luma.
+     */
+    private static double colorDelta(int first, int second, boolean brightnessOnly) {
+        double r1 = blend(first >> 16 & 0xFF, first >>> 24);
+        double g1 = blend(first >> 8 & 0xFF, first >>> 24);
+        double b1 = blend(first & 0xFF, first >>> 24);
+        double r2 = blend(second >> 16 & 0xFF, second >>> 24);
+        double g2 = blend(second >> 8 & 0xFF, second >>> 24);
+        double b2 = blend(second & 0xFF, second >>> 24);
+        double y = luma(r1, g1, b1) - luma(r2, g2, b2);
+        if (brightnessOnly) {
+            return y;
+        }
+        double i = (r1 * 0.59597799 - g1 * 0.27417610 - b1 * 0.32180189) - (r2 * 0.59597799 - g2 * 0.27417610 - b2 * 0.32180189);
+        double q = (r1 * 0.21147017 - g1 * 0.52261711 + b1 * 0.31114694) - (r2 * 0.21147017 - g2 * 0.52261711 + b2 * 0.31114694);
+        double delta = 0.5053 * y * y + 0.299 * i * i + 0.1957 * q * q;
+        return y > 0 ? -delta : delta;
+    }
+
+    private static double luma(double r, double g, double b) {
+        return r * 0.29889531 + g * 0.58662247 + b * 0.11448223;
+    }
+
+    private static double blend(int channel, int alpha) {
+        return 255 + (channel - 255) * alpha / 255.0;
+    }
+}
@@ -0,0 +1,105 @@
+package gui.automation.utils;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Settings of one visual comparison: per-pixel colour tolerance, how many differing pixels are allowed,
+ * anti-aliasing detection and regions to ignore. defaults() reads the visual.* keys from config.properties.
+ * <p>
+ * Example:
+ *   VisualDiffOptions options = VisualDiffOptions.defaults().threshold(0.2).mask(new Rectangle(0, 600, 1280, 120));
+ */
+public class VisualDiffOptions {
+    private double threshold = 0.1;
+    private double maxDiffRatio = 0.001;
+    private boolean detectAntiAliasing = true;
+    private int tileSize = 64;
+    private final List<Rectangle> masks = new ArrayList<>();
+
+    /**
+     * Options from config.properties (visual.threshold, visual.max.diff.ratio, visual.anti.aliasing,
+     * visual.tile.size).
+     */
+    public static VisualDiffOptions defaults() {
+        return new VisualDiffOptions()
+                .threshold(ConfigUtils.getDouble("visual.threshold", 0.1))
+                .maxDiffRatio(ConfigUtils.getDouble("visual.max.diff.ratio", 0.001))
+                .detectAntiAliasing(ConfigUtils.getBoolean("visual.anti.aliasing", true))
+                .tileSize(ConfigUtils.getInt("visual.tile.size", 64));
+    }
+
+    /**
+     * Colour difference below which two pixels count as equal, from 0 (exact) to 1 (anything matches), measured
+     * in YIQ space so that it follows perceived difference.
+     */
+    public VisualDiffOptions threshold(double threshold) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("threshold must be between 0 and 1: " + threshold);
+        }
+        this.threshold = threshold;
+        return this;
+    }
+
+    /**
+     * Share of (unmasked) pixels that may differ before the comparison fails, e.g. 0.001 for 0.1%.
+     */
+    public VisualDiffOptions maxDiffRatio(double maxDiffRatio) {
+        this.maxDiffRatio = maxDiffRatio;
+        return this;
+    }
+
+    /**
+     * If true, differing pixels that look like anti-aliased edges are reported separately and do not fail the
+     * comparison.
+     */
+    public VisualDiffOptions detectAntiAliasing(boolean detectAntiAliasing) {
+        this.detectAntiAliasing = detectAntiAliasing;
+        return this;
+    }
+
+    /**
+     * Edge length in pixels of the tiles compared in parallel.
+     */
+    public VisualDiffOptions tileSize(int tileSize) {
+        this.tileSize = Math.max(8, tileSize);
+        return this;
+    }
+
+    /**
+     * Adds a region (in image pixels) that is ignored, e.g. a rotating ad.
+     */
+    public VisualDiffOptions mask(Rectangle region) {
+        masks.add(region);
+        return this;
+    }
+
+    /**
+     * Adds a region given by its top-left corner and size in image pixels.
+     */
+    public VisualDiffOptions mask(int x, int y, int width, int height) {
+        return mask(new Rectangle(x, y, width, height));
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public double getMaxDiffRatio() {
+        return maxDiffRatio;
+    }
+
+    public boolean isDetectAntiAliasing() {
+        return detectAntiAliasing;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public List<Rectangle> getMasks() {
+        return Collections.unmodifiableList(masks);
+    }
+}
@@ -0,0 +1,124 @@
+package gui.automation.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Outcome of a visual comparison. The per-pixel classification is kept so a diff image can be drawn, but only
+ * on request (writeDiffImage), which callers do for failures only.
+ */
+public class VisualDiffResult {
+    static final byte SAME = 0;
+    static final byte DIFFERENT = 1;
+    static final byte ANTI_ALIASED = 2;
+    static final byte MASKED = 3;
+
+    private final int width;
+    private final int height;
+    private final int[] actual;
+    private final byte[] classes;
+    private final long diffPixels;
+    private final long antiAliasedPixels;
+    private final long comparedPixels;
+    private final boolean sizeMismatch;
+    private final boolean passed;
+
+    VisualDiffResult(int width, int height, int[] actual, byte[] classes, long diffPixels, long antiAliasedPixels,
+                     long comparedPixels, boolean sizeMismatch, double maxDiffRatio) {
+        this.width = width;
+        this.height = height;
+        this.actual = actual;
+        this.classes = classes;
+        this.diffPixels = diffPixels;
+        this.antiAliasedPixels = antiAliasedPixels;
+        this.comparedPixels = comparedPixels;
+        this.sizeMismatch = sizeMismatch;
+        this.passed = !sizeMismatch && getDiffRatio() <= maxDiffRatio;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    /**
+     * True if the images have different dimensions; they are then not compared pixel by pixel.
+     */
+    public boolean isSizeMismatch() {
+        return sizeMismatch;
+    }
+
+    public long getDiffPixels() {
+        return diffPixels;
+    }
+
+    public long getAntiAliasedPixels() {
+        return antiAliasedPixels;
+    }
+
+    /**
+     * Pixels compared, i.e. all pixels outside masked regions.
+     */
+    public long getComparedPixels() {
+        return comparedPixels;
+    }
+
+    public double getDiffRatio() {
+        return comparedPixels == 0 ? 0 : (double) diffPixels / comparedPixels;
+    }
+
+    /**
+     * Draws the diff image: the actual screenshot faded to grey, differing pixels in red, anti-aliased pixels in
+     * yellow and masked regions in blue.
+     *
+     * @return False if there is nothing to draw (size mismatch).
+     */
+    public boolean writeDiffImage(Path path) {
+        if (sizeMismatch) {
+            return false;
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] out = new int[width * height];
+        for (int i = 0; i < out.length; i++) {
+            switch (classes[i]) {
+                case DIFFERENT:
+                    out[i] = 0xFF0000;
+                    break;
+                case ANTI_ALIASED:
+                    out[i] = 0xFFFF00;
+                    break;
+                case MASKED:
+                    out[i] = 0x3366CC;
+                    break;
+                default:
+                    int rgb = actual[i];
+                    int grey = (int) (((rgb >> 16 & 0xFF) * 0.299 + (rgb >> 8 & 0xFF) * 0.587 + (rgb & 0xFF) * 0.114));
+                    int faded = 255 - (255 - grey) / 4;
+                    out[i] = faded << 16 | faded << 8 | faded;
+            }
+        }
+        image.setRGB(0, 0, width, height, out, 0, width);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            ImageIO.write(image, "png", path.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write diff image " + path, e);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (sizeMismatch) {
+            return "size mismatch";
+        }
+        return String.format(Locale.ROOT, "%d of %d pixels differ (%.4f%%), %d anti-aliased", diffPixels,
+                comparedPixels, getDiffRatio() * 100, antiAliasedPixels);
+    }
+}
@@ -0,0 +1,317 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes each test's wall time to active WebDriver commands, waits that succeeded, waits that timed out and
+ * unconditional sleeps, and ranks the call sites that lose the most time.
+ * <p>
+ * Explicit waits (SeleniumUtil's waits, including waitForVisible) and SeleniumUtil.waitSeconds report here
+ * directly. Commands come from CommandTrace (perf.command.trace must be on); a findElement that fails, or a
+ * findElements that comes back empty, has sat out the implicit wait and counts as a timed-out wait. Commands
+ * issued while a wait polls belong to the wait. Whatever is left of the wall time (test code, raw Thread.sleep
+ * calls the framework cannot see) is reported as "other". The call site of a wait or sleep is the first frame
+ * outside the framework, Selenium and the test runners, i.e. usually the page-object or actions method. Switch it
+ * off with perf.wait.profiler=false.
+ * <p>
+ * Example:
+ *   long start = WaitProfiler.beginWait();
+ *   ... wait ...
+ *   WaitProfiler.endWait(WaitProfiler.Kind.WAIT_TIMEOUT, start);
+ */
+public class WaitProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(WaitProfiler.class);
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static volatile boolean enabled = ConfigUtils.getBoolean("perf.wait.profiler", true);
+    private static final ThreadLocal<TestProfile> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> waitDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private static final Queue<TestProfile> finishedTests = new ConcurrentLinkedQueue<>();
+    private static final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+
+    /**
+     * How time was spent.
+     */
+    public enum Kind {
+        COMMAND("active command"),
+        WAIT("wait"),
+        WAIT_TIMEOUT("wait timeout"),
+        IMPLICIT_WAIT_TIMEOUT("implicit wait timeout"),
+        SLEEP("sleep");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private WaitProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        WaitProfiler.enabled = enabled;
+    }
+
+    /**
+     * Starts attributing time on the calling thread to the given test.
+     */
+    public static void beginTest(String testName) {
+        if (enabled) {
+            currentTest.set(new TestProfile(testName));
+        }
+    }
+
+    /**
+     * Finishes the calling thread's current test and keeps its breakdown for the report.
+     *
+     * @return The test's breakdown as written to the report (wallMs, activeMs, waitMs, waitTimeoutMs, sleepMs,
+     * otherMs, ...), or null if no test was started on this thread.
+     */
+    public static Map<String, Object> endTest() {
+        TestProfile test = currentTest.get();
+        if (test == null) {
+            return null;
+        }
+        currentTest.remove();
+        test.wallNanos = System.nanoTime() - test.startNanos;
+        finishedTests.add(test);
+        return test.toMap();
+    }
+
+    /**
+     * Marks the start of a wait or sleep. Waits nested in another wait are not counted separately.
+     *
+     * @return A token to pass to endWait().
+     */
+    public static long beginWait() {
+        if (!enabled) {
+            return NOT_STARTED;
+        }
+        waitDepth.get()[0]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a finished wait or sleep against the current test and its call site.
+     *
+     * @param kind  WAIT, WAIT_TIMEOUT or SLEEP.
+     * @param start The value returned by beginWait().
+     */
+    public static void endWait(Kind kind, long start) {
+        if (start == NOT_STARTED) {
+            return;
+        }
+        int[] depth = waitDepth.get();
+        depth[0]--;
+        if (depth[0] == 0) {
+            record(kind, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a WebDriver command (called by CommandTrace). Commands issued while a wait is in progress are part
+     * of that wait and are ignored.
+     *
+     * @param nanos          Time the command took.
+     * @param elementMissing True if it was a findElement(s) call that found nothing, i.e. waited out the
+     *                       implicit wait.
+     */
+    public static void command(long nanos, boolean elementMissing) {
+        if (!enabled || waitDepth.get()[0] > 0) {
+            return;
+        }
+        if (elementMissing) {
+            record(Kind.IMPLICIT_WAIT_TIMEOUT, nanos);
+        } else {
+            TestProfile test = currentTest.get();
+            if (test != null) {
+                test.add(Kind.COMMAND, nanos);
+            }
+        }
+    }
+
+    /**
+     * Writes wait-profile.json (per-test breakdown and call sites ranked by time lost) and logs the top-N call
+     * sites. N comes from perf.wait.profiler.top.
+     *
+     * @return The report path, or null if nothing was recorded.
+     */
+    public static Path writeReport() {
+        if (finishedTests.isEmpty() && sites.isEmpty()) {
+            return null;
+        }
+        int top = ConfigUtils.getInt("perf.wait.profiler.top", 20);
+        List<SiteStats> ranked = new ArrayList<>(sites.values());
+        ranked.sort(Comparator.comparingLong((SiteStats s) -> s.totalNanos.sum()).reversed());
+        logger.info("{}", toTable(ranked, top));
+
+        List<Map<String, Object>> offenders = new ArrayList<>();
+        for (SiteStats site : ranked) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("callSite", site.callSite);
+            row.put("kind", site.kind.getLabel());
+            row.put("count", site.count.sum());
+            row.put("totalMs", site.totalNanos.sum() / 1e6);
+            row.put("maxMs", site.maxNanos.get() / 1e6);
+            offenders.add(row);
+        }
+        List<TestProfile> tests = new ArrayList<>(finishedTests);
+        tests.sort(Comparator.comparingLong((TestProfile t) -> t.lostNanos()).reversed());
+        long[] totals = new long[Kind.values().length];
+        long totalWall = 0;
+        List<Map<String, Object>> testRows = new ArrayList<>();
+        for (TestProfile test : tests) {
+            testRows.add(test.toMap());
+            totalWall += test.wallNanos;
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += test.nanos[i];
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totals", breakdown(totalWall, totals));
+        report.put("offenders", offenders);
+        report.put("tests", testRows);
+        Path path = ReportUtils.reportPath("wait-profile.json");
+        ReportUtils.writeString(path, new Json().toJson(report));
+        return path;
+    }
+
+    /**
+     * Clears all recorded data.
+     */
+    public static void reset() {
+        finishedTests.clear();
+        sites.clear();
+    }
+
+    private static String toTable(List<SiteStats> ranked, int top) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "Top %d call sites by time spent waiting%n", top));
+        sb.append(String.format(Locale.ROOT, "%-60s %-22s %7s %11s %9s%n", "call site", "kind", "count", "total ms", "max ms"));
+        for (SiteStats site : ranked.subList(0, Math.min(top, ranked.size()))) {
+            sb.append(String.format(Locale.ROOT, "%-60s %-22s %7d %11.1f %9.1f%n", site.callSite, site.kind.getLabel(),
+                    site.count.sum(), site.totalNanos.sum() / 1e6, site.maxNanos.get() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static void record(Kind kind, long nanos) {
+        TestProfile test = currentTest.get();
+        if (test != null) {
+            test.add(kind, nanos);
+        }
+        String callSite = callSite();
+        sites.computeIfAbsent(kind.getLabel() + " " + callSite, key -> new SiteStats(callSite, kind)).record(nanos);
+    }
+
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isFrameworkClass(frame.getClassName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isFrameworkClass(String className) {
+        return className.startsWith("gui.automation.utils.") || className.startsWith("gui.automation.listeners.")
+                || className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.startsWith("com.sun.") || className.startsWith("org.openqa.")
+                || className.startsWith("org.testng.") || className.startsWith("io.cucumber.")
+                || className.startsWith("net.bytebuddy.");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static Map<String, Object> breakdown(long wallNanos, long[] nanos) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long attributed = 0;
+        for (long value : nanos) {
+            attributed += value;
+        }
+        map.put("wallMs", wallNanos / 1e6);
+        map.put("activeMs", nanos[Kind.COMMAND.ordinal()] / 1e6);
+        map.put("waitMs", nanos[Kind.WAIT.ordinal()] / 1e6);
+        map.put("waitTimeoutMs", (nanos[Kind.WAIT_TIMEOUT.ordinal()] + nanos[Kind.IMPLICIT_WAIT_TIMEOUT.ordinal()]) / 1e6);
+        map.put("implicitWaitTimeoutMs", nanos[Kind.IMPLICIT_WAIT_TIMEOUT.ordinal()] / 1e6);
+        map.put("sleepMs", nanos[Kind.SLEEP.ordinal()] / 1e6);
+        map.put("otherMs", Math.max(0, wallNanos - attributed) / 1e6);
+        return map;
+    }
+
+    /**
+     * Time per kind for one test. Only written by the test's own thread.
+     */
+    private static final class TestProfile {
+        private final String test;
+        private final long startNanos = System.nanoTime();
+        private final long[] nanos = new long[Kind.values().length];
+        private long wallNanos;
+
+        private TestProfile(String test) {
+            this.test = test;
+        }
+
+        private void add(Kind kind, long value) {
+            nanos[kind.ordinal()] += value;
+        }
+
+        private long lostNanos() {
+            return nanos[Kind.WAIT_TIMEOUT.ordinal()] + nanos[Kind.IMPLICIT_WAIT_TIMEOUT.ordinal()]
+                    + nanos[Kind.SLEEP.ordinal()];
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("test", test);
+            map.putAll(breakdown(wallNanos, nanos));
+            return map;
+        }
+    }
+
+    private static final class SiteStats {
+        private final String callSite;
+        private final Kind kind;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private SiteStats(String callSite, Kind kind) {
+            this.callSite = callSite;
+            this.kind = kind;
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+    }
+}
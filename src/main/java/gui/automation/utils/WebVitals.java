@@ -0,0 +1,57 @@
+package gui.automation.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Core Web Vitals gathered for one page over its lifetime.
+ * <p>
+ * Times are in milliseconds; CLS is unitless. A value of -1 means the browser reported no entry for that metric
+ * (e.g. no user interaction happened, so there is no INP or FID).
+ */
+public class WebVitals {
+    public static final String LCP = "lcp";
+    public static final String CLS = "cls";
+    public static final String INP = "inp";
+    public static final String FID = "fid";
+    public static final String TBT = "tbt";
+
+    private final String url;
+    private final Map<String, Double> metrics;
+
+    public WebVitals(String url, double lcp, double cls, double inp, double fid, double tbt) {
+        this.url = url;
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put(LCP, lcp);
+        values.put(CLS, cls);
+        values.put(INP, inp);
+        values.put(FID, fid);
+        values.put(TBT, tbt);
+        this.metrics = values;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @param metric One of {@link #LCP}, {@link #CLS}, {@link #INP}, {@link #FID}, {@link #TBT}.
+     * @return The metric value, or -1 if not reported.
+     */
+    public double get(String metric) {
+        Double value = metrics.get(metric);
+        return value != null ? value : -1;
+    }
+
+    /**
+     * Returns all metrics in a stable order (lcp, cls, inp, fid, tbt).
+     */
+    public Map<String, Double> asMap() {
+        return new LinkedHashMap<>(metrics);
+    }
+
+    @Override
+    public String toString() {
+        return url + " " + metrics;
+    }
+}
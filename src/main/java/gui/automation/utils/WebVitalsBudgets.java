@@ -0,0 +1,195 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Core Web Vitals budgets keyed by URL pattern, loaded from a JSON file on the classpath.
+ * <p>
+ * The file (perf.web.vitals.budgets, default web-vitals-budgets.json) looks like:
+ * <pre>
+ * {"budgets": [
+ *   {"urlPattern": "*demoqa.com/text-box*", "mode": "fail", "lcp": 2500, "cls": 0.1, "inp": 200, "tbt": 300},
+ *   {"urlPattern": "*", "mode": "warn", "lcp": 4000, "cls": 0.25}
+ * ]}
+ * </pre>
+ * The first budget whose pattern matches the page URL applies. Metrics left out of a budget are not checked.
+ * "mode" is "fail" (the test fails) or "warn" (the violation is only reported).
+ */
+public class WebVitalsBudgets {
+    private final List<Budget> budgets;
+
+    public WebVitalsBudgets(List<Budget> budgets) {
+        this.budgets = Collections.unmodifiableList(new ArrayList<>(budgets));
+    }
+
+    /**
+     * Loads budgets from a classpath resource. A missing resource yields an empty budget set.
+     *
+     * @throws IllegalArgumentException if the file exists but is malformed.
+     */
+    public static WebVitalsBudgets load(String resource) {
+        try (InputStream input = WebVitalsBudgets.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                return new WebVitalsBudgets(Collections.emptyList());
+            }
+            return parse(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read Web Vitals budgets from " + resource, e);
+        }
+    }
+
+    /**
+     * Parses the JSON budget format described in the class comment.
+     */
+    public static WebVitalsBudgets parse(String json) {
+        List<Budget> parsed = new ArrayList<>();
+        Map<String, Object> root = new Json().toType(json, Json.MAP_TYPE);
+        Object entries = root.get("budgets");
+        if (!(entries instanceof List)) {
+            throw new IllegalArgumentException("Web Vitals budget file must contain a 'budgets' array");
+        }
+        for (Object entry : (List<?>) entries) {
+            Map<?, ?> map = (Map<?, ?>) entry;
+            Object pattern = map.get("urlPattern");
+            if (pattern == null) {
+                throw new IllegalArgumentException("Budget entry without urlPattern: " + map);
+            }
+            boolean fail = !"warn".equalsIgnoreCase(String.valueOf(map.get("mode")));
+            Map<String, Double> limits = new LinkedHashMap<>();
+            for (String metric : new String[]{WebVitals.LCP, WebVitals.CLS, WebVitals.INP, WebVitals.FID, WebVitals.TBT}) {
+                Object limit = map.get(metric);
+                if (limit instanceof Number) {
+                    limits.put(metric, ((Number) limit).doubleValue());
+                }
+            }
+            parsed.add(new Budget(String.valueOf(pattern), fail, limits));
+        }
+        return new WebVitalsBudgets(parsed);
+    }
+
+    /**
+     * Returns the budget that applies to the URL, or null if none matches.
+     */
+    public Budget budgetFor(String url) {
+        for (Budget budget : budgets) {
+            if (budget.matches(url)) {
+                return budget;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks the vitals against the matching budget. Metrics the browser did not report are skipped.
+     *
+     * @return The violations, empty if the page is within budget or no budget applies.
+     */
+    public List<Violation> evaluate(WebVitals vitals) {
+        List<Violation> violations = new ArrayList<>();
+        Budget budget = budgetFor(vitals.getUrl());
+        if (budget == null) {
+            return violations;
+        }
+        for (Map.Entry<String, Double> limit : budget.limits.entrySet()) {
+            double actual = vitals.get(limit.getKey());
+            if (actual >= 0 && actual > limit.getValue()) {
+                violations.add(new Violation(vitals.getUrl(), limit.getKey(), actual, limit.getValue(), budget.fail));
+            }
+        }
+        return violations;
+    }
+
+    public boolean isEmpty() {
+        return budgets.isEmpty();
+    }
+
+    /**
+     * Limits for all pages matching one URL pattern.
+     */
+    public static class Budget {
+        private final String urlPattern;
+        private final Pattern pattern;
+        private final boolean fail;
+        private final Map<String, Double> limits;
+
+        public Budget(String urlPattern, boolean fail, Map<String, Double> limits) {
+            this.urlPattern = urlPattern;
+            this.pattern = MockResponseRule.globToPattern(urlPattern);
+            this.fail = fail;
+            this.limits = Collections.unmodifiableMap(new LinkedHashMap<>(limits));
+        }
+
+        public boolean matches(String url) {
+            return url != null && pattern.matcher(url).matches();
+        }
+
+        public String getUrlPattern() {
+            return urlPattern;
+        }
+
+        public boolean isFail() {
+            return fail;
+        }
+
+        public Map<String, Double> getLimits() {
+            return limits;
+        }
+    }
+
+    /**
+     * A metric that exceeded its budget on one page.
+     */
+    public static class Violation {
+        private final String url;
+        private final String metric;
+        private final double actual;
+        private final double limit;
+        private final boolean fail;
+
+        public Violation(String url, String metric, double actual, double limit, boolean fail) {
+            this.url = url;
+            this.metric = metric;
+            this.actual = actual;
+            this.limit = limit;
+            this.fail = fail;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public double getActual() {
+            return actual;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        /**
+         * @return true if the budget is in "fail" mode, false for "warn".
+         */
+        public boolean isFail() {
+            return fail;
+        }
+
+        @Override
+        public String toString() {
+            return metric.toUpperCase() + " " + actual + " exceeds budget " + limit + " on " + url;
+        }
+    }
+}
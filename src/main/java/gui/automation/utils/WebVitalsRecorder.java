@@ -0,0 +1,234 @@
+package gui.automation.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Gathers Core Web Vitals (LCP, CLS, INP, FID, total blocking time) with a PerformanceObserver that is injected
+ * into every document of a Chrome session, and keeps per-test results for the end-of-run report.
+ * <p>
+ * The observer is installed once per session with Page.addScriptToEvaluateOnNewDocument, so it sees the whole
+ * lifetime of each page. The page itself reports its final values on pagehide through a DevTools binding, so
+ * every page left is recorded however the navigation happened (goTo, a link click, a form submit, history.back);
+ * the page still open when a test finishes is read by {@link #capturePage(WebDriver)}. Samples are kept per
+ * browser. Budgets are evaluated by the TestNG listener against {@link #getBudgets()}.
+ * Controlled by perf.web.vitals and perf.web.vitals.budgets in config.properties.
+ */
+public class WebVitalsRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(WebVitalsRecorder.class);
+    private static final boolean ENABLED = ConfigUtils.getBoolean("perf.web.vitals", true);
+    private static final String BINDING = "__webassureReportVitals";
+    private static final Map<WebDriver, Queue<WebVitals>> pageSamples = new ConcurrentHashMap<>();
+    private static final Queue<Map<String, Object>> results = new ConcurrentLinkedQueue<>();
+    private static volatile WebVitalsBudgets budgets;
+
+    private static final String OBSERVER_SCRIPT =
+            "(function () {"
+            + "  if (window.__webassureVitals) { return; }"
+            + "  var v = window.__webassureVitals = {lcp: -1, cls: 0, inp: -1, fid: -1, tbt: 0};"
+            + "  var observers = window.__webassureObservers = [];"
+            + "  var sessionValue = 0, sessionFirst = 0, sessionLast = 0;"
+            + "  function observe(type, onEntry, extra) {"
+            + "    try {"
+            + "      var options = {type: type, buffered: true};"
+            + "      for (var k in extra) { options[k] = extra[k]; }"
+            + "      var o = new PerformanceObserver(function (list) { list.getEntries().forEach(onEntry); });"
+            + "      o.observe(options); observers.push({o: o, cb: onEntry});"
+            + "    } catch (e) { }"
+            + "  }"
+            + "  observe('largest-contentful-paint', function (e) { v.lcp = e.startTime; });"
+            + "  observe('layout-shift', function (e) {"
+            + "    if (e.hadRecentInput) { return; }"
+            + "    if (sessionValue && e.startTime - sessionLast < 1000 && e.startTime - sessionFirst < 5000) {"
+            + "      sessionValue += e.value;"
+            + "    } else { sessionValue = e.value; sessionFirst = e.startTime; }"
+            + "    sessionLast = e.startTime;"
+            + "    if (sessionValue > v.cls) { v.cls = sessionValue; }"
+            + "  });"
+            + "  observe('first-input', function (e) { if (v.fid < 0) { v.fid = e.processingStart - e.startTime; } });"
+            + "  observe('event', function (e) {"
+            + "    if (e.interactionId && e.duration > v.inp) { v.inp = e.duration; }"
+            + "  }, {durationThreshold: 16});"
+            + "  observe('longtask', function (e) { if (e.duration > 50) { v.tbt += e.duration - 50; } });"
+            + "  v.take = function () {"
+            + "    observers.forEach(function (x) { x.o.takeRecords().forEach(x.cb); });"
+            + "    var s = JSON.stringify({url: location.href, lcp: v.lcp, cls: v.cls, inp: v.inp, fid: v.fid, tbt: v.tbt});"
+            + "    if (s === v.last) { return null; }"
+            + "    v.last = s; return s;"
+            + "  };"
+            + "  addEventListener('pagehide', function () {"
+            + "    var s = v.take();"
+            + "    if (s && typeof window." + BINDING + " === 'function') { window." + BINDING + "(s); }"
+            + "  });"
+            + "})();";
+
+    private static final String READ_SCRIPT =
+            "var v = window.__webassureVitals; if (!v) { return null; }"
+            + "var s = v.take(); return s ? JSON.parse(s) : null;";
+
+    private WebVitalsRecorder() {
+    }
+
+    /**
+     * Injects the Web Vitals observer into every future document of the session and subscribes to the values
+     * pages report when they are left (Chrome only).
+     */
+    public static void install(WebDriver webDriver) {
+        if (!ENABLED || !(webDriver instanceof HasCdp) || !(webDriver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            Queue<WebVitals> samples = pageSamples.computeIfAbsent(webDriver, d -> new ConcurrentLinkedQueue<>());
+            DevTools devTools = ((HasDevTools) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(new Event<>("Runtime.bindingCalled", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    call -> {
+                        if (BINDING.equals(call.get("name"))) {
+                            WebVitals vitals = parse(new Json().toType(String.valueOf(call.get("payload")), Json.MAP_TYPE));
+                            samples.add(vitals);
+                        }
+                    });
+            devTools.send(new Command<Void>("Runtime.enable", Collections.emptyMap()));
+            devTools.send(new Command<Void>("Runtime.addBinding", Collections.singletonMap("name", BINDING)));
+            Map<String, Object> params = new HashMap<>();
+            params.put("source", OBSERVER_SCRIPT);
+            ((HasCdp) webDriver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+        } catch (Exception e) {
+            logger.warn("Could not install Web Vitals observer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the vitals of the page currently loaded and remembers them for the browser, e.g. when a test
+     * finishes. Pages that were left have already reported themselves; a page reports again (here or on pagehide)
+     * only if its values changed since.
+     *
+     * @return The vitals, or null if the observer is not present on the page or nothing changed.
+     */
+    public static WebVitals capturePage(WebDriver webDriver) {
+        if (!ENABLED || !(webDriver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        try {
+            Object raw = ((JavascriptExecutor) webDriver).executeScript(READ_SCRIPT);
+            if (!(raw instanceof Map)) {
+                return null;
+            }
+            WebVitals vitals = parse((Map<?, ?>) raw);
+            pageSamples.computeIfAbsent(webDriver, d -> new ConcurrentLinkedQueue<>()).add(vitals);
+            return vitals;
+        } catch (Exception e) {
+            logger.debug("Could not read Web Vitals: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns and clears the vitals of all pages the browser visited since the last call.
+     */
+    public static List<WebVitals> drainPageSamples(WebDriver webDriver) {
+        List<WebVitals> drained = new ArrayList<>();
+        Queue<WebVitals> samples = webDriver != null ? pageSamples.get(webDriver) : null;
+        if (samples != null) {
+            WebVitals vitals;
+            while ((vitals = samples.poll()) != null) {
+                drained.add(vitals);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Drops the samples of a browser that is being quit.
+     */
+    public static void forget(WebDriver webDriver) {
+        pageSamples.remove(webDriver);
+    }
+
+    /**
+     * Returns the budgets loaded from the configured budget file (loaded once per run).
+     */
+    public static WebVitalsBudgets getBudgets() {
+        WebVitalsBudgets loaded = budgets;
+        if (loaded == null) {
+            synchronized (WebVitalsRecorder.class) {
+                loaded = budgets;
+                if (loaded == null) {
+                    loaded = WebVitalsBudgets.load(ConfigUtils.get("perf.web.vitals.budgets", "web-vitals-budgets.json"));
+                    budgets = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Stores the outcome of a budget check for one page of one test.
+     */
+    public static void recordResult(String testName, WebVitals vitals, List<WebVitalsBudgets.Violation> violations) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("test", testName);
+        result.put("url", vitals.getUrl());
+        result.put("metrics", vitals.asMap());
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (WebVitalsBudgets.Violation violation : violations) {
+            Map<String, Object> v = new LinkedHashMap<>();
+            v.put("metric", violation.getMetric());
+            v.put("actual", violation.getActual());
+            v.put("limit", violation.getLimit());
+            v.put("mode", violation.isFail() ? "fail" : "warn");
+            list.add(v);
+        }
+        result.put("violations", list);
+        results.add(result);
+    }
+
+    /**
+     * Writes web-vitals.json to the report directory. Entries are sorted by test and URL so reports of
+     * different builds can be diffed directly. Does nothing if nothing was recorded.
+     */
+    public static void writeReport() {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing((Map<String, Object> r) -> String.valueOf(r.get("test")))
+                .thenComparing(r -> String.valueOf(r.get("url"))));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("results", sorted);
+        Path path = ReportUtils.reportPath("web-vitals.json");
+        ReportUtils.writeString(path, new Json().toJson(report));
+        logger.info("Web Vitals report written: {}", path);
+    }
+
+    private static WebVitals parse(Map<?, ?> map) {
+        return new WebVitals(String.valueOf(map.get("url")), number(map.get("lcp")), number(map.get("cls")),
+                number(map.get("inp")), number(map.get("fid")), number(map.get("tbt")));
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
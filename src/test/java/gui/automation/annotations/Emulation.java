@@ -0,0 +1,23 @@
+package gui.automation.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test method, or every test in a class, under a named network/CPU emulation profile.
+ * <p>
+ * The value is a profile name from {@link gui.automation.utils.EmulationProfile}, e.g. "3G", "slow-4G" or "4x-cpu".
+ * A method annotation wins over a class annotation, which wins over the suite-level "emulation.profile"
+ * parameter in testng.xml and the emulation.profile value in config.properties.
+ * <p>
+ * Example:
+ *   &#64;Emulation("slow-4G")
+ *   public class TextBoxComponentTest extends BaseTest { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Emulation {
+    String value();
+}
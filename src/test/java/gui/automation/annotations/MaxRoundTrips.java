@@ -0,0 +1,23 @@
+package gui.automation.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test method, or every test in a class, that sends more WebDriver commands than allowed.
+ * <p>
+ * Commands are counted by {@link gui.automation.utils.CommandTrace} while the test method runs (setup and teardown
+ * are not included), so perf.command.trace must be on. A method annotation wins over a class annotation.
+ * <p>
+ * Example:
+ *   &#64;MaxRoundTrips(50)
+ *   &#64;Test
+ *   public void testSubmitForm() { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MaxRoundTrips {
+    int value();
+}
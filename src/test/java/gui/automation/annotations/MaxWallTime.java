@@ -0,0 +1,22 @@
+package gui.automation.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test method, or every test in a class, whose body takes longer than the given number of milliseconds.
+ * <p>
+ * Unlike TestNG's timeOut the test is not interrupted; it runs to completion and is then failed with the measured
+ * time and its most frequent WebDriver commands. A method annotation wins over a class annotation.
+ * <p>
+ * Example:
+ *   &#64;MaxWallTime(15000)
+ *   public class TextBoxComponentTest extends BaseTest { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MaxWallTime {
+    long value();
+}
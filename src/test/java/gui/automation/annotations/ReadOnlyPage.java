@@ -0,0 +1,32 @@
+package gui.automation.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that only reads a page, so it can run on a browser already showing that page instead of its own.
+ * <p>
+ * BaseTest borrows the browser from ReadOnlyPageSessions and ReadOnlyPageScheduler runs tests of the same page
+ * back to back. If the test changes the page after all (typing, navigating, scrolling; see guard) or fails, its
+ * browser is discarded and the next test gets a freshly loaded page.
+ * <p>
+ * Example:
+ *   &#64;ReadOnlyPage(value = "https://demoqa.com/text-box", guard = "#userForm")
+ *   &#64;Test
+ *   public void testFullNameLabel() { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnlyPage {
+    /**
+     * URL of the page; empty for the base.url config value.
+     */
+    String value() default "";
+
+    /**
+     * CSS selector of the part of the page whose content must not change (default the whole body).
+     */
+    String guard() default "body";
+}
@@ -0,0 +1,24 @@
+package gui.automation.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs all data-provider rows of a test method in one browser session instead of starting a browser per row.
+ * <p>
+ * BaseTest keeps the driver after a passing row and hands it to the next row of the same method on the same
+ * thread; the test's setup is then expected to reset the page cheaply (e.g. TextBoxActions.openEmptyForm, which
+ * clears the form by script). A failing row quits its browser, so the next row starts clean and every row is
+ * still reported on its own. The session is quit when another method runs on the thread or the class finishes.
+ * <p>
+ * Example:
+ *   &#64;WarmSession
+ *   &#64;Test(dataProvider = "textBoxData")
+ *   public void testFieldsAndOutputClearedAfterReload(String name, ...) { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WarmSession {
+}
@@ -1,20 +1,58 @@
 package gui.automation.base;
 
+import gui.automation.annotations.Emulation;
+import gui.automation.annotations.ReadOnlyPage;
+import gui.automation.annotations.WarmSession;
 import gui.automation.utils.ConfigUtils;
 import gui.automation.utils.DriverUtils;
+import gui.automation.utils.EmulationProfile;
+import gui.automation.utils.NetworkMockUtils;
+import gui.automation.utils.ReadOnlyPageSessions;
 import gui.automation.utils.SeleniumUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Method;
 
 public abstract class BaseTest {
     protected WebDriver driver;
     private static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
+    // The shared page a @ReadOnlyPage test on the current thread has borrowed
+    private static final ThreadLocal<ReadOnlyPageSessions.Session> readOnlySession = new ThreadLocal<>();
+    // Browsers this class's @WarmSession methods kept for their next row, on any thread
+    private final WarmSessions warmSessions = new WarmSessions();
 
     @BeforeMethod
-    public void startDriver() {
+    public void startDriver(Method method, ITestContext context) throws InterruptedException {
+        ReadOnlyPage readOnly = method.getAnnotation(ReadOnlyPage.class);
+        if (readOnly != null) {
+            releaseWarmSession();
+            // Selects the pool of browsers started under this test's profile, and the profile a new one starts with
+            DriverUtils.setEmulationProfile(resolveEmulationProfile(method, getClass(), context));
+            String url = readOnly.value().isEmpty() ? ConfigUtils.get("base.url") : readOnly.value();
+            ReadOnlyPageSessions.Session session = ReadOnlyPageSessions.acquire(url, readOnly.guard());
+            readOnlySession.set(session);
+            driver = session.getDriver();
+            logger.info("Using shared read-only page {}", url);
+            return;
+        }
+        String sessionKey = warmSessionKey(method);
+        WebDriver reused = sessionKey != null ? warmSessions.reuse(sessionKey) : null;
+        if (reused != null && reused == DriverUtils.getDriver() && isAlive(reused)) {
+            driver = reused;
+            SeleniumUtil.setDriver(driver);
+            logger.info("Reusing warm session for {} at {}", sessionKey, driver.getCurrentUrl());
+            return;
+        }
+        releaseWarmSession();
+        DriverUtils.setEmulationProfile(resolveEmulationProfile(method, getClass(), context));
         String baseUrl = ConfigUtils.get("base.url");
         driver = DriverUtils.getDriver("chrome", baseUrl);
         SeleniumUtil.setDriver(driver);
@@ -22,10 +60,27 @@ public abstract class BaseTest {
     }
 
     @AfterMethod
-    public void closeDriver() {
+    public void closeDriver(ITestResult result, Method method) {
+        ReadOnlyPageSessions.Session session = readOnlySession.get();
+        if (session != null) {
+            readOnlySession.remove();
+            // A failed attempt that will be retried is not one of the tests the scheduler announced
+            ReadOnlyPageSessions.release(session, result.isSuccess(), !result.wasRetried());
+            return;
+        }
+        String sessionKey = warmSessionKey(method);
+        if (sessionKey != null && result.isSuccess() && SeleniumUtil.getDriver() != null) {
+            warmSessions.keep(sessionKey, SeleniumUtil.getDriver());
+            logger.info("Keeping session for the next row of {}", sessionKey);
+            return;
+        }
+        if (WarmSessions.isHolding() && WarmSessions.release() == null) {
+            discardClosedSession();
+            return;
+        }
         try {
             if (SeleniumUtil.getDriver() != null) {
-                SeleniumUtil.getDriver().quit();
+                DriverUtils.quitDriver();
                 SeleniumUtil.setDriver(null);
                 logger.info("Driver successfully closed and cleaned up");
             }
@@ -33,7 +88,7 @@ public abstract class BaseTest {
             logger.warn("Error during driver cleanup: {}", e.getMessage());
             try {
                 if (SeleniumUtil.getDriver() != null) {
-                    SeleniumUtil.getDriver().quit();
+                    DriverUtils.quit(SeleniumUtil.getDriver());
                 }
             } catch (Exception e2) {
                 logger.error("Failed to force quit driver: {}", e2.getMessage());
@@ -43,6 +98,83 @@ public abstract class BaseTest {
         }
     }
 
+    /**
+     * Quits browsers kept by @WarmSession methods once the class is done, including those kept on other threads.
+     * Those threads drop their references to the quit browser the next time they start or close a test.
+     */
+    @AfterClass(alwaysRun = true)
+    public void closeWarmSessions() {
+        releaseWarmSession();
+        for (WebDriver warmDriver : warmSessions.closeAll()) {
+            try {
+                DriverUtils.quit(warmDriver);
+            } catch (WebDriverException e) {
+                logger.warn("Could not quit warm session: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Quits the browser the current thread kept for another @WarmSession method, if any, or forgets it if
+     * another thread has already quit it.
+     */
+    private void releaseWarmSession() {
+        if (!WarmSessions.isHolding()) {
+            return;
+        }
+        if (WarmSessions.release() == null) {
+            discardClosedSession();
+            return;
+        }
+        try {
+            DriverUtils.quitDriver();
+        } catch (WebDriverException e) {
+            logger.warn("Could not quit warm session: {}", e.getMessage());
+        } finally {
+            SeleniumUtil.setDriver(null);
+        }
+    }
+
+    private static void discardClosedSession() {
+        NetworkMockUtils.clearMocks();
+        DriverUtils.detachDriver();
+        SeleniumUtil.setDriver(null);
+        logger.info("Dropped a warm session that was quit when its test class finished");
+    }
+
+    private String warmSessionKey(Method method) {
+        return method.isAnnotationPresent(WarmSession.class) ? getClass().getName() + "." + method.getName() : null;
+    }
+
+    private static boolean isAlive(WebDriver webDriver) {
+        if (webDriver == null) {
+            return false;
+        }
+        try {
+            webDriver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Picks the emulation profile for a test: method annotation, then class annotation, then the suite-level
+     * "emulation.profile" parameter. Returns null when none is set so DriverUtils falls back to config.properties.
+     * Also used by ReadOnlyPageScheduler, which must group read-only tests by the profile they will run under.
+     */
+    public static EmulationProfile resolveEmulationProfile(Method method, Class<?> testClass, ITestContext context) {
+        Emulation emulation = method.getAnnotation(Emulation.class);
+        if (emulation == null) {
+            emulation = testClass.getAnnotation(Emulation.class);
+        }
+        if (emulation != null) {
+            return EmulationProfile.fromName(emulation.value());
+        }
+        String suiteProfile = context.getCurrentXmlTest().getParameter("emulation.profile");
+        return suiteProfile != null ? EmulationProfile.fromName(suiteProfile) : null;
+    }
+
     protected WebDriver getDriver() {
         return gui.automation.utils.SeleniumUtil.getDriver();
     }
@@ -0,0 +1,105 @@
+package gui.automation.base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browsers kept by @WarmSession methods for their next row, one per thread.
+ * <p>
+ * A thread keeps its browser between rows of the same method and gives it up when it runs anything else. When a
+ * test class finishes, closeAll() hands back the browsers the class kept on any thread so they can be quit; the
+ * browsers of other threads are marked, and when such a thread next asks for its browser it learns the session is
+ * gone and only drops its references instead of reusing or quitting a dead session.
+ * <p>
+ * Example (BaseTest):
+ *   WebDriver reused = warmSessions.reuse(sessionKey);   // @BeforeMethod
+ *   warmSessions.keep(sessionKey, driver);               // @AfterMethod of a passing row
+ *   warmSessions.closeAll().forEach(DriverUtils::quit);  // @AfterClass
+ */
+public class WarmSessions {
+    // Static: a thread holds at most one kept browser, whichever test class kept it
+    private static final ThreadLocal<Kept> current = new ThreadLocal<>();
+    private final Set<Kept> kept = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Keeps the calling thread's browser for the next row of the given method.
+     */
+    public void keep(String sessionKey, WebDriver driver) {
+        Kept held = current.get();
+        if (held != null && held.owner == this && held.driver == driver) {
+            held.sessionKey = sessionKey;
+            return;
+        }
+        Kept created = new Kept(sessionKey, driver, this);
+        current.set(created);
+        kept.add(created);
+    }
+
+    /**
+     * The browser the calling thread kept for this method, or null if it kept none, kept it for another method or
+     * test class, or the browser has been closed by closeAll() since.
+     */
+    public WebDriver reuse(String sessionKey) {
+        Kept held = current.get();
+        boolean reusable = held != null && held.owner == this && !held.closed && held.sessionKey.equals(sessionKey);
+        return reusable ? held.driver : null;
+    }
+
+    /**
+     * Whether the calling thread holds a kept browser, open or closed.
+     */
+    public static boolean isHolding() {
+        return current.get() != null;
+    }
+
+    /**
+     * Gives up the calling thread's kept browser.
+     *
+     * @return The browser, to be quit by the caller, or null if there was none or closeAll() already quit it.
+     */
+    public static WebDriver release() {
+        Kept held = current.get();
+        if (held == null) {
+            return null;
+        }
+        current.remove();
+        held.owner.kept.remove(held);
+        return held.closed ? null : held.driver;
+    }
+
+    /**
+     * Marks every browser kept through this instance as closed, on whichever thread it was kept.
+     *
+     * @return The browsers to quit.
+     */
+    public List<WebDriver> closeAll() {
+        List<WebDriver> open = new ArrayList<>();
+        for (Kept held : kept) {
+            synchronized (held) {
+                if (!held.closed) {
+                    held.closed = true;
+                    open.add(held.driver);
+                }
+            }
+        }
+        kept.clear();
+        return open;
+    }
+
+    private static final class Kept {
+        private final WebDriver driver;
+        private final WarmSessions owner;
+        private volatile String sessionKey;
+        private volatile boolean closed;
+
+        private Kept(String sessionKey, WebDriver driver, WarmSessions owner) {
+            this.sessionKey = sessionKey;
+            this.driver = driver;
+            this.owner = owner;
+        }
+    }
+}
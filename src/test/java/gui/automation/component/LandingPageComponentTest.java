@@ -1,6 +1,7 @@
 package gui.automation.component;
 
 import gui.automation.actions.LandingPageActions;
+import gui.automation.annotations.ReadOnlyPage;
 import gui.automation.base.BaseTest;
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -15,16 +16,19 @@ public class LandingPageComponentTest extends BaseTest {
         landingPageActions = new LandingPageActions(getDriver());
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testLandingPageLoads() {
         Assert.assertTrue(landingPageActions.isBannerVisible(), "Landing page should be loaded (banner visible)");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testBannerIsVisible() {
         Assert.assertTrue(landingPageActions.isBannerVisible(), "Banner should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testJoinNowLinkIsPresent() {
         Assert.assertTrue(landingPageActions.isJoinNowLinkPresent(), "JOIN NOW link should be present");
@@ -36,11 +40,13 @@ public class LandingPageComponentTest extends BaseTest {
         // Optionally, add an assertion to verify navigation if needed
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testLogoIsVisible() {
         Assert.assertTrue(landingPageActions.isLogoVisible(), "ToolsQA logo should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testFooterAdIsVisible() {
         if (!landingPageActions.isFooterAdVisible()) {
@@ -49,6 +55,12 @@ public class LandingPageComponentTest extends BaseTest {
         Assert.assertTrue(true, "Footer ad is present on the landing page");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
+    @Test
+    public void testLandingPageMatchesVisualBaseline() {
+        Assert.assertTrue(landingPageActions.matchesVisualBaseline(), "Landing page should match its visual baseline (see visual/diff in the reports)");
+    }
+
     @Test
     public void testElementsCardNavigationAndBack() {
         landingPageActions.clickElementsCard();
@@ -100,31 +112,37 @@ public class LandingPageComponentTest extends BaseTest {
     // ----------------------
     // Card Visibility Tests
     // ----------------------
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testElementsCardVisible() {
         Assert.assertTrue(landingPageActions.isElementsCardVisible(), "Elements card should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testFormsCardVisible() {
         Assert.assertTrue(landingPageActions.isFormsCardVisible(), "Forms card should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testAlertsCardVisible() {
         Assert.assertTrue(landingPageActions.isAlertsCardVisible(), "Alerts card should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testWidgetsCardVisible() {
         Assert.assertTrue(landingPageActions.isWidgetsCardVisible(), "Widgets card should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testInteractionsCardVisible() {
         Assert.assertTrue(landingPageActions.isInteractionsCardVisible(), "Interactions card should be visible");
     }
 
+    @ReadOnlyPage(guard = ".home-body")
     @Test
     public void testBookStoreCardVisible() {
         Assert.assertTrue(landingPageActions.isBookStoreCardVisible(), "Book Store Application card should be visible");
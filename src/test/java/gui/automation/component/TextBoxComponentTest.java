@@ -1,12 +1,18 @@
 package gui.automation.component;
 
 import gui.automation.actions.TextBoxActions;
+import gui.automation.annotations.ReadOnlyPage;
+import gui.automation.annotations.WarmSession;
 import gui.automation.base.BaseTest;
+import gui.automation.utils.CsvDataSource;
+import gui.automation.utils.SeleniumUtil;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Iterator;
+
 public class TextBoxComponentTest extends BaseTest {
     private TextBoxActions textBoxActions;
     private static final String PAGE_URL = "https://demoqa.com/text-box";
@@ -14,68 +20,85 @@ public class TextBoxComponentTest extends BaseTest {
     @BeforeMethod
     public void setUpActions() {
         textBoxActions = new TextBoxActions(getDriver());
-        textBoxActions.navigateTo(PAGE_URL);
+        // Navigates on a fresh browser; rows of a @WarmSession test only reset the form already on screen
+        textBoxActions.openEmptyForm(PAGE_URL);
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testPageTitleVisible() {
         Assert.assertTrue(textBoxActions.isPageTitleVisible(), "Page title should be visible");
         Assert.assertEquals(textBoxActions.getPageTitleText(), "Text Box", "Page title text should be 'Text Box'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testFullNameLabel() {
         Assert.assertTrue(textBoxActions.isFullNameLabelVisible(), "Full Name label should be visible");
         Assert.assertEquals(textBoxActions.getFullNameLabelText(), "Full Name", "Full Name label text should be 'Full Name'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testFullNameField() {
         Assert.assertTrue(textBoxActions.isFullNameFieldVisible(), "Full Name field should be visible");
         Assert.assertEquals(textBoxActions.getFullNamePlaceholder(), "Full Name", "Full Name placeholder should be 'Full Name'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testEmailLabel() {
         Assert.assertTrue(textBoxActions.isEmailLabelVisible(), "Email label should be visible");
         Assert.assertEquals(textBoxActions.getEmailLabelText(), "Email", "Email label text should be 'Email'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testEmailField() {
         Assert.assertTrue(textBoxActions.isEmailFieldVisible(), "Email field should be visible");
         Assert.assertEquals(textBoxActions.getEmailPlaceholder(), "name@example.com", "Email placeholder should be 'name@example.com'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testCurrentAddressLabel() {
         Assert.assertTrue(textBoxActions.isCurrentAddressLabelVisible(), "Current Address label should be visible");
         Assert.assertEquals(textBoxActions.getCurrentAddressLabelText(), "Current Address", "Current Address label text should be 'Current Address'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testCurrentAddressField() {
         Assert.assertTrue(textBoxActions.isCurrentAddressFieldVisible(), "Current Address field should be visible");
         Assert.assertEquals(textBoxActions.getCurrentAddressPlaceholder(), "Current Address", "Current Address placeholder should be 'Current Address'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testPermanentAddressLabel() {
         Assert.assertTrue(textBoxActions.isPermanentAddressLabelVisible(), "Permanent Address label should be visible");
         Assert.assertEquals(textBoxActions.getPermanentAddressLabelText(), "Permanent Address", "Permanent Address label text should be 'Permanent Address'");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testPermanentAddressField() {
         Assert.assertTrue(textBoxActions.isPermanentAddressFieldVisible(), "Permanent Address field should be visible");
         // Placeholder may be empty, so just check visibility
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
     @Test
     public void testSubmitButtonVisible() {
         Assert.assertTrue(textBoxActions.isSubmitButtonVisible(), "Submit button should be visible");
     }
 
+    @ReadOnlyPage(value = PAGE_URL, guard = "#userForm")
+    @Test
+    public void testFormMatchesVisualBaseline() {
+        Assert.assertTrue(textBoxActions.matchesVisualBaseline(), "Text Box form should match its visual baseline (see visual/diff in the reports)");
+    }
+
     @Test
     public void testEnterDataAndSubmit() {
         String name = "John Doe";
@@ -105,18 +128,17 @@ public class TextBoxComponentTest extends BaseTest {
     }
 
     @DataProvider(name = "textBoxData")
-    public Object[][] textBoxData() {
-        return new Object[][] {
-            {"Husny", "husny@gmail.com", "Singapore", "Sri Lanka"},
-            {"Alice", "alice@example.com", "New York", "USA"}
-        };
+    public Iterator<Object[]> textBoxData() {
+        return CsvDataSource.of("src/test/resources/testdata/text-box.csv").cached()
+                .asDataProvider("name", "email", "currentAddress", "permanentAddress");
     }
 
+    @WarmSession
     @Test(dataProvider = "textBoxData")
     public void testFieldsAndOutputClearedAfterReload(String name, String email, String currentAddress, String permanentAddress) {
         // Fill and submit the form
         textBoxActions.fillForm(name, email, currentAddress, permanentAddress);
-        try { Thread.sleep(5000); } catch (InterruptedException ignored) {}
+        SeleniumUtil.waitSeconds(5);
         // Assert output is present and correct after submit
         String outputName = textBoxActions.getSubmittedNameOutput();
         String outputEmail = textBoxActions.getSubmittedEmailOutput();
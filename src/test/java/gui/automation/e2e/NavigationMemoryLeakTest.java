@@ -0,0 +1,37 @@
+package gui.automation.e2e;
+
+import gui.automation.actions.ElementsPageActions;
+import gui.automation.actions.LandingPageActions;
+import gui.automation.base.BaseTest;
+import gui.automation.utils.ConfigUtils;
+import gui.automation.utils.MemoryLeakDetector;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Leak check for the Landing -> Elements -> Text Box navigation.
+ * The page is loaded once; every round navigates in-app and returns with history.back(), so one document (and its
+ * JS heap) lives through all rounds.
+ * Not part of the default suite; run it with: mvn test -Dtestng.suite=src/test/resources/testng-leak-check.xml
+ */
+public class NavigationMemoryLeakTest extends BaseTest {
+
+    @Test
+    public void testLandingToTextBoxNavigationDoesNotLeak() {
+        LandingPageActions landingPageActions = new LandingPageActions(getDriver());
+        ElementsPageActions elementsPageActions = new ElementsPageActions(getDriver());
+        String baseUrl = ConfigUtils.get("base.url");
+        landingPageActions.navigateTo(baseUrl);
+
+        MemoryLeakDetector.Result result = new MemoryLeakDetector(getDriver())
+                .run("landing-elements-textbox", () -> {
+                    landingPageActions.clickElementsCard();
+                    elementsPageActions.clickMenuItem("Text Box");
+                    elementsPageActions.goBack();
+                    elementsPageActions.goBack();
+                });
+
+        Assert.assertTrue(landingPageActions.isAt(baseUrl), "Each round should end on the landing page");
+        result.assertNoLeak();
+    }
+}
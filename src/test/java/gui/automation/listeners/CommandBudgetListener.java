@@ -0,0 +1,72 @@
+package gui.automation.listeners;
+
+import gui.automation.annotations.MaxRoundTrips;
+import gui.automation.annotations.MaxWallTime;
+import gui.automation.utils.CommandTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TestNG listener that traces the WebDriver commands of every test method and enforces @MaxRoundTrips and
+ * &#64;MaxWallTime budgets.
+ * <p>
+ * The trace covers the test method only, not its @BeforeMethod/@AfterMethod. A budget overrun turns a passing
+ * test into a failure whose message names the most frequent commands.
+ */
+public class CommandBudgetListener implements IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(CommandBudgetListener.class);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            CommandTrace.beginTest(testResult.getTestClass().getRealClass().getSimpleName() + "."
+                    + testResult.getMethod().getMethodName());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        CommandTrace.TestTrace trace = CommandTrace.endTest();
+        if (trace == null) {
+            return;
+        }
+        Method testMethod = testResult.getMethod().getConstructorOrMethod().getMethod();
+        Class<?> testClass = testResult.getTestClass().getRealClass();
+        List<String> violations = new ArrayList<>();
+
+        MaxRoundTrips maxRoundTrips = annotation(testMethod, testClass, MaxRoundTrips.class);
+        if (maxRoundTrips != null && trace.getRoundTrips() > maxRoundTrips.value()) {
+            violations.add(String.format("%d WebDriver round trips (budget %d)", trace.getRoundTrips(),
+                    maxRoundTrips.value()));
+        }
+        MaxWallTime maxWallTime = annotation(testMethod, testClass, MaxWallTime.class);
+        long wallMillis = testResult.getEndMillis() - testResult.getStartMillis();
+        if (maxWallTime != null && wallMillis > maxWallTime.value()) {
+            violations.add(String.format("%d ms wall time (budget %d ms, %d ms in commands)", wallMillis,
+                    maxWallTime.value(), trace.getCommandMillis()));
+        }
+        if (!violations.isEmpty() && testResult.getStatus() == ITestResult.SUCCESS) {
+            String message = "Command budget exceeded: " + String.join("; ", violations)
+                    + ". Most frequent commands: " + trace.topCommands(5);
+            logger.error("{} in {}", message, trace.getTestName());
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(message));
+        }
+    }
+
+    private static <A extends Annotation> A annotation(Method method, Class<?> type, Class<A> annotationType) {
+        A annotation = method.getAnnotation(annotationType);
+        return annotation != null ? annotation : type.getAnnotation(annotationType);
+    }
+}
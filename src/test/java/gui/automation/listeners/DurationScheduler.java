@@ -0,0 +1,92 @@
+package gui.automation.listeners;
+
+import gui.automation.utils.TestHistory;
+import gui.automation.utils.TestSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TestNG listener that orders each &lt;test&gt;'s methods longest first from their past durations (TestHistory),
+ * and records this run's durations for the next one.
+ * <p>
+ * The plan (TestSchedule) spreads tests over the thread-count threads, keeping tests with the same start page
+ * (the @ReadOnlyPage URL, otherwise the test class) on the same thread where that costs little. A test's time runs
+ * from its first @BeforeMethod on its thread (browser start in BaseTest), or the test method itself if it has none,
+ * to the end of the test method; the previous test's @AfterMethod and anything run between tests are not counted.
+ * Register it after ReadOnlyPageScheduler; SuiteReportListener saves the history and writes the estimated vs actual
+ * makespan to test-schedule.json.
+ */
+public class DurationScheduler implements IMethodInterceptor, IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(DurationScheduler.class);
+    // When the current thread started working on its next test (its first @BeforeMethod or the test itself)
+    private static final ThreadLocal<Long> setupStart = new ThreadLocal<>();
+    private final TestHistory history;
+
+    public DurationScheduler() {
+        this(TestHistory.global());
+    }
+
+    public DurationScheduler(TestHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        int threads = xmlTest.getParallel() != null && xmlTest.getParallel().isParallel() ? xmlTest.getThreadCount() : 1;
+        List<TestSchedule.Job<IMethodInstance>> jobs = new ArrayList<>(methods.size());
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String page = ReadOnlyPageScheduler.poolKey(instance, context);
+            jobs.add(new TestSchedule.Job<>(instance, history.estimateMillis(testId(method)),
+                    page != null ? page : method.getRealClass().getName()));
+        }
+        TestSchedule<IMethodInstance> schedule = TestSchedule.plan(jobs, threads);
+        history.planned(schedule);
+        logger.info("Scheduled {} tests of '{}' longest first on {} threads; estimated makespan {} s", methods.size(),
+                xmlTest.getName(), schedule.getWorkers(), schedule.getEstimatedMakespanMillis() / 1000);
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (TestSchedule.Job<IMethodInstance> job : schedule.getOrder()) {
+            ordered.add(job.getPayload());
+        }
+        return ordered;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        boolean beforeMethod = method.isConfigurationMethod() && method.getTestMethod().isBeforeMethodConfiguration();
+        if ((beforeMethod || method.isTestMethod()) && setupStart.get() == null) {
+            setupStart.set(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            if (method.isConfigurationMethod() && method.getTestMethod().isAfterMethodConfiguration()) {
+                // A test whose @BeforeMethod failed never ran; its setup is not the next test's
+                setupStart.remove();
+            }
+            return;
+        }
+        Long start = setupStart.get();
+        setupStart.remove();
+        history.record(testId(testResult.getMethod()), start != null ? start : testResult.getStartMillis(),
+                System.currentTimeMillis(), testResult.isSuccess());
+    }
+
+    static String testId(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName();
+    }
+}
@@ -0,0 +1,62 @@
+package gui.automation.listeners;
+
+import gui.automation.utils.ConcurrencyController;
+import gui.automation.utils.ConfigUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * TestNG listener that sets the thread count of parallel suites to ConcurrencyController.recommendedParallelism(),
+ * i.e. to what this machine's CPUs and free memory can run, instead of the fixed thread-count in testng.xml.
+ * <p>
+ * Suites that do not run in parallel are left alone, as is every suite when parallel.browsers is "suite"; then the
+ * largest thread-count of testng.xml is recorded as the browser parallelism instead (e.g. the default of
+ * readonly.page.browsers). Must be registered in testng.xml (TestNG applies suite-altering listeners before the run
+ * starts).
+ */
+public class ParallelismListener implements IAlterSuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelismListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if ("suite".equalsIgnoreCase(ConfigUtils.get("parallel.browsers", "auto"))) {
+            int threads = suiteThreads(suites);
+            logger.info("Running {} browsers in parallel (testng.xml thread-count)", threads);
+            ConcurrencyController.useSuiteParallelism(threads);
+            return;
+        }
+        int threads = ConcurrencyController.recommendedParallelism();
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() == null || !suite.getParallel().isParallel()) {
+                continue;
+            }
+            logger.info("Running suite '{}' with {} threads (testng.xml: {}, {} CPUs, {} MB available)", suite.getName(),
+                    threads, suite.getThreadCount(), Runtime.getRuntime().availableProcessors(),
+                    ConcurrencyController.availableMemoryBytes() / (1024 * 1024));
+            suite.setThreadCount(threads);
+        }
+    }
+
+    /**
+     * The largest thread-count of the parallel suites and &lt;test&gt;s; 1 if nothing runs in parallel.
+     */
+    public static int suiteThreads(List<XmlSuite> suites) {
+        int threads = 1;
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() != null && suite.getParallel().isParallel()) {
+                threads = Math.max(threads, suite.getThreadCount());
+            }
+            for (XmlTest test : suite.getTests()) {
+                if (test.getParallel() != null && test.getParallel().isParallel()) {
+                    threads = Math.max(threads, test.getThreadCount());
+                }
+            }
+        }
+        return threads;
+    }
+}
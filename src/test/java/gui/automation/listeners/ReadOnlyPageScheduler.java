@@ -0,0 +1,108 @@
+package gui.automation.listeners;
+
+import gui.automation.annotations.ReadOnlyPage;
+import gui.automation.base.BaseTest;
+import gui.automation.utils.ConfigUtils;
+import gui.automation.utils.ReadOnlyPageSessions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TestNG listener that runs @ReadOnlyPage tests of the same URL and emulation profile back to back, so they share a
+ * few loaded pages (see ReadOnlyPageSessions) instead of each loading its own.
+ * <p>
+ * Each group of read-only tests takes the place of its first member in the run order; other tests keep their
+ * order. The group sizes are passed to ReadOnlyPageSessions so a page's browsers are quit after its last test,
+ * and any left over are quit when the suite finishes. Groups with data-provider methods are not announced, since
+ * their row count is unknown here; their browsers last until the suite finishes.
+ */
+public class ReadOnlyPageScheduler implements IMethodInterceptor, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyPageScheduler.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, List<IMethodInstance>> groups = new LinkedHashMap<>();
+        List<Object> order = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            String key = poolKey(instance, context);
+            if (key == null) {
+                order.add(instance);
+                continue;
+            }
+            List<IMethodInstance> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+                order.add(group);
+            }
+            group.add(instance);
+        }
+        List<IMethodInstance> scheduled = new ArrayList<>(methods.size());
+        for (Object entry : order) {
+            if (entry instanceof IMethodInstance) {
+                scheduled.add((IMethodInstance) entry);
+            } else {
+                @SuppressWarnings("unchecked")
+                List<IMethodInstance> group = (List<IMethodInstance>) entry;
+                scheduled.addAll(group);
+            }
+        }
+        groups.forEach((key, group) -> {
+            if (group.stream().noneMatch(instance -> instance.getMethod().isDataDriven())) {
+                ReadOnlyPageSessions.expect(key, invocations(group));
+            }
+            logger.info("{} read-only tests share {}", group.size(), key);
+        });
+        return scheduled;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ReadOnlyPageSessions.closeAll();
+    }
+
+    /**
+     * The page URL of a @ReadOnlyPage test, or null for other tests.
+     */
+    static String pageUrl(IMethodInstance instance) {
+        Method method = instance.getMethod().getConstructorOrMethod().getMethod();
+        ReadOnlyPage readOnly = method != null ? method.getAnnotation(ReadOnlyPage.class) : null;
+        if (readOnly == null) {
+            return null;
+        }
+        return readOnly.value().isEmpty() ? ConfigUtils.get("base.url") : readOnly.value();
+    }
+
+    /**
+     * The ReadOnlyPageSessions pool a @ReadOnlyPage test will use, or null for other tests.
+     */
+    static String poolKey(IMethodInstance instance, ITestContext context) {
+        String url = pageUrl(instance);
+        if (url == null) {
+            return null;
+        }
+        ITestNGMethod method = instance.getMethod();
+        return ReadOnlyPageSessions.poolKey(url, BaseTest.resolveEmulationProfile(
+                method.getConstructorOrMethod().getMethod(), method.getRealClass(), context));
+    }
+
+    private static int invocations(List<IMethodInstance> group) {
+        int total = 0;
+        for (IMethodInstance instance : group) {
+            total += Math.max(1, instance.getMethod().getInvocationCount());
+        }
+        return total;
+    }
+}
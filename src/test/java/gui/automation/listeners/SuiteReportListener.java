@@ -0,0 +1,75 @@
+package gui.automation.listeners;
+
+import gui.automation.utils.ActionMetrics;
+import gui.automation.utils.CommandTrace;
+import gui.automation.utils.ConfigUtils;
+import gui.automation.utils.MetricsRegistry;
+import gui.automation.utils.PageTimingRecorder;
+import gui.automation.utils.ScreenshotService;
+import gui.automation.utils.TestHistory;
+import gui.automation.utils.TraceTimeline;
+import gui.automation.utils.WaitProfiler;
+import gui.automation.utils.WebVitalsRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.time.Duration;
+
+/**
+ * TestNG suite listener that writes the framework's run-level reports once the whole suite has finished.
+ */
+public class SuiteReportListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(SuiteReportListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ScreenshotService.flush(Duration.ofSeconds(ConfigUtils.getLong("screenshot.flush.timeout.seconds", 60)));
+        try {
+            PageTimingRecorder.writeReports();
+        } catch (Exception e) {
+            logger.warn("Could not write page load reports: {}", e.getMessage());
+        }
+        try {
+            WebVitalsRecorder.writeReport();
+        } catch (Exception e) {
+            logger.warn("Could not write Web Vitals report: {}", e.getMessage());
+        }
+        try {
+            ActionMetrics.writeReport();
+        } catch (Exception e) {
+            logger.warn("Could not write action latency report: {}", e.getMessage());
+        }
+        try {
+            CommandTrace.writeReport();
+        } catch (Exception e) {
+            logger.warn("Could not write command trace report: {}", e.getMessage());
+        }
+        try {
+            TraceTimeline.writeReport();
+        } catch (Exception e) {
+            logger.warn("Could not write trace timeline: {}", e.getMessage());
+        }
+        try {
+            WaitProfiler.writeReport();
+        } catch (Exception e) {
+            logger.warn("Could not write wait profile: {}", e.getMessage());
+        }
+        try {
+            TestHistory.global().writeReport();
+            TestHistory.global().save();
+        } catch (Exception e) {
+            logger.warn("Could not write test schedule report: {}", e.getMessage());
+        }
+        try {
+            MetricsRegistry.global().writeReports();
+        } catch (Exception e) {
+            logger.warn("Could not write metrics reports: {}", e.getMessage());
+        }
+    }
+}
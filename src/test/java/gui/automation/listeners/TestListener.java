@@ -1,71 +1,105 @@
 package gui.automation.listeners;
 
-import gui.automation.utils.ConfigUtils;
+import gui.automation.utils.DriverUtils;
+import gui.automation.utils.ActionMetrics;
+import gui.automation.utils.FlightRecorder;
+import gui.automation.utils.MetricsRegistry;
+import gui.automation.utils.ScreencastRecorder;
+import gui.automation.utils.ScreenshotService;
 import gui.automation.utils.SeleniumUtil;
+import gui.automation.utils.TraceTimeline;
+import gui.automation.utils.WaitProfiler;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.nio.file.Path;
+
 /**
  * TestNG listener for logging, statistics, and screenshot capture on failure.
+ * <p>
+ * Outcomes and durations are recorded in MetricsRegistry.global() (runner="testng"), which is safe with
+ * parallel methods and survives TestNG creating several listener instances. Cucumber scenarios are counted by
+ * CucumberHooks instead, so the Cucumber runner's own TestNG invocations are skipped here.
  */
 public class TestListener implements ITestListener {
     private static final Logger logger = LoggerFactory.getLogger(TestListener.class);
-    static int totalTests;
-    static int successTests;
-    static int failureTests;
-    static int skippedTests;
-
-    public TestListener() {
-        totalTests = 0;
-        successTests = 0;
-        failureTests = 0;
-        skippedTests = 0;
+    private static final String STARTED_METRIC = "webassure_tests_started_total";
+
+    public static long getTotalTests() {
+        return MetricsRegistry.global().counter(STARTED_METRIC, "runner", "testng").get();
+    }
+
+    public static long getSuccessTests() {
+        return outcomeCount("passed");
+    }
+
+    public static long getFailureTests() {
+        return outcomeCount("failed");
     }
 
-    public static int getTotalTests() {
-        return totalTests;
+    public static long getSkippedTests() {
+        return outcomeCount("skipped");
     }
 
-    public static int getSuccessTests() {
-        return successTests;
+    private static long outcomeCount(String outcome) {
+        return MetricsRegistry.global().counter(MetricsRegistry.TESTS_METRIC, "runner", "testng", "outcome", outcome).get();
     }
 
-    public static int getFailureTests() {
-        return failureTests;
+    private static boolean isCucumberRunner(ITestResult result) {
+        return result.getInstance() instanceof AbstractTestNGCucumberTests;
     }
 
-    public static int getSkippedTests() {
-        return skippedTests;
+    private static void record(ITestResult result, String outcome) {
+        if (isCucumberRunner(result)) {
+            return;
+        }
+        ActionMetrics.endTest();
+        TraceTimeline.endTest();
+        WaitProfiler.endTest();
+        MetricsRegistry.global().recordTestOutcome("testng", testName(result), outcome,
+                Math.max(0, result.getEndMillis() - result.getStartMillis()));
+    }
+
+    private static String testName(ITestResult result) {
+        return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
     }
 
     @Override
     public void onTestStart(ITestResult iTestResult) {
         logger.info("Test Case Started: {}", iTestResult.getName());
-        totalTests += 1;
+        if (!isCucumberRunner(iTestResult)) {
+            MetricsRegistry.global().counter(STARTED_METRIC, "runner", "testng").increment();
+            ActionMetrics.beginTest(testName(iTestResult));
+            TraceTimeline.beginTest(testName(iTestResult));
+            WaitProfiler.beginTest(testName(iTestResult));
+            FlightRecorder.clear();
+            ScreencastRecorder.discard();
+        }
     }
 
     @Override
     public void onTestSuccess(ITestResult iTestResult) {
         logger.info("Test Case Passed: {}", iTestResult.getName());
-        successTests += 1;
+        record(iTestResult, "passed");
+        ScreencastRecorder.discard();
     }
 
     @Override
     public void onTestFailure(ITestResult iTestResult) {
         logger.error("Test Case Failed: {}", iTestResult.getName());
-        failureTests += 1;
+        record(iTestResult, "failed");
         try {
             if (SeleniumUtil.getDriver() != null) {
-                String screenshotDir = ConfigUtils.get("screenshot.dir");
-                if (screenshotDir == null || screenshotDir.isEmpty()) {
-                    screenshotDir = "src/test/resources/screenshots/";
-                }
-                String screenshotPath = screenshotDir + SeleniumUtil.generateRandomNameWithTimestamp() + ".png";
-                SeleniumUtil.captureScreenShot(screenshotPath);
-                logger.info("Screenshot captured: {}", screenshotPath);
+                FlightRecorder.spill(testName(iTestResult));
+                ScreencastRecorder.saveFailure(testName(iTestResult));
+                Path screenshotPath = ScreenshotService.testDirectory(testName(iTestResult))
+                        .resolve(SeleniumUtil.generateRandomNameWithTimestamp());
+                SeleniumUtil.captureScreenShot(screenshotPath.toString());
+                logger.info("Screenshot captured: {}", ScreenshotService.pathFor(screenshotPath));
             }
         } catch (Exception e) {
             logger.warn("Could not capture screenshot: {}", e.getMessage());
@@ -75,7 +109,8 @@ public class TestListener implements ITestListener {
     @Override
     public void onTestSkipped(ITestResult iTestResult) {
         logger.warn("Test Case Skipped: {}", iTestResult.getName());
-        skippedTests += 1;
+        record(iTestResult, "skipped");
+        ScreencastRecorder.discard();
     }
 
     @Override
@@ -92,7 +127,7 @@ public class TestListener implements ITestListener {
                 getTotalTests(), getSuccessTests(), getFailureTests(), getSkippedTests());
         try {
             if (SeleniumUtil.getDriver() != null) {
-                SeleniumUtil.getDriver().quit();
+                DriverUtils.quit(SeleniumUtil.getDriver());
                 SeleniumUtil.setDriver(null);
                 logger.info("Forced cleanup of remaining driver");
             }
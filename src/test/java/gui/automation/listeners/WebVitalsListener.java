@@ -0,0 +1,64 @@
+package gui.automation.listeners;
+
+import gui.automation.utils.SeleniumUtil;
+import gui.automation.utils.WebVitals;
+import gui.automation.utils.WebVitalsBudgets;
+import gui.automation.utils.WebVitalsRecorder;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TestNG listener that checks the Core Web Vitals of every page a test visited against the configured budgets.
+ * <p>
+ * Runs right after each test method, while the browser is still open. Violations of "fail" budgets turn a
+ * passing test into a failure; "warn" violations are logged and added to the TestNG report output.
+ */
+public class WebVitalsListener implements IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(WebVitalsListener.class);
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        WebDriver driver = SeleniumUtil.getDriver();
+        if (driver != null) {
+            WebVitalsRecorder.capturePage(driver);
+        }
+        WebVitalsBudgets budgets = WebVitalsRecorder.getBudgets();
+        String testName = testName(testResult);
+        List<WebVitalsBudgets.Violation> failures = new ArrayList<>();
+        for (WebVitals vitals : WebVitalsRecorder.drainPageSamples(driver)) {
+            List<WebVitalsBudgets.Violation> violations = budgets.evaluate(vitals);
+            WebVitalsRecorder.recordResult(testName, vitals, violations);
+            for (WebVitalsBudgets.Violation violation : violations) {
+                if (violation.isFail()) {
+                    failures.add(violation);
+                } else {
+                    logger.warn("Web Vitals budget warning in {}: {}", testName, violation);
+                    Reporter.log("Web Vitals budget warning: " + violation);
+                }
+            }
+        }
+        if (!failures.isEmpty() && testResult.getStatus() == ITestResult.SUCCESS) {
+            logger.error("Web Vitals budget exceeded in {}: {}", testName, failures);
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError("Web Vitals budget exceeded: " + failures));
+        }
+    }
+
+    private static String testName(ITestResult result) {
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters.length > 0 ? name + Arrays.toString(parameters) : name;
+    }
+}
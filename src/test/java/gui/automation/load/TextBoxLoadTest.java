@@ -0,0 +1,46 @@
+package gui.automation.load;
+
+import gui.automation.monitor.SyntheticScenarios;
+import gui.automation.utils.LoadScenario;
+import gui.automation.utils.LoadTestReport;
+import gui.automation.utils.LoadTestRunner;
+import gui.automation.utils.StandInServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Load run of the Landing -> Elements -> Text Box submit flow against the local stand-in pages, so it never
+ * puts load on the real site. Virtual users and phase lengths come from the load.* keys in config.properties.
+ * Not part of the default suite; run it with: mvn test -Dtestng.suite=src/test/resources/testng-load.xml
+ */
+public class TextBoxLoadTest {
+    private StandInServer server;
+
+    @BeforeClass
+    public void startServer() {
+        server = new StandInServer("standin/").start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testTextBoxSubmitUnderLoad() {
+        String baseUrl = server.getBaseUrl();
+        LoadScenario scenario = SyntheticScenarios.textBoxSubmit(baseUrl + "/");
+
+        LoadTestReport report = new LoadTestRunner(scenario, baseUrl)
+                .httpUsers(4, "/", "/elements", "/text-box")
+                .run();
+        report.writeReport();
+
+        Assert.assertFalse(report.getStepNames().isEmpty(), "Load run should record at least one step");
+        Assert.assertEquals(report.getTotalErrors(), 0, "Load run had failing steps:\n" + report.toTable());
+    }
+}
@@ -0,0 +1,44 @@
+package gui.automation.monitor;
+
+import gui.automation.utils.BrowserPool;
+import gui.automation.utils.ConfigUtils;
+import gui.automation.utils.StandInServer;
+import gui.automation.utils.SyntheticMonitor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point of the synthetic monitoring daemon. Runs the Text Box submit and landing-card flows every
+ * monitor.interval.seconds until the JVM is stopped, writing synthetic-metrics.prom and synthetic-log.jsonl to
+ * the report directory.
+ * <p>
+ * Run against base.url:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=gui.automation.monitor.SyntheticMonitorMain
+ * Add -Dexec.args=--standin to probe the local stand-in pages instead (useful to try the daemon out).
+ */
+public class SyntheticMonitorMain {
+
+    public static void main(String[] args) throws InterruptedException {
+        StandInServer standIn = Arrays.asList(args).contains("--standin") ? new StandInServer("standin/").start() : null;
+        String baseUrl = standIn != null ? standIn.getBaseUrl() + "/" : ConfigUtils.get("base.url");
+        Duration interval = Duration.ofSeconds(ConfigUtils.getLong("monitor.interval.seconds", 300));
+
+        BrowserPool pool = new BrowserPool("chrome", baseUrl, ConfigUtils.getInt("monitor.browser.pool.size", 2)).warmUp();
+        SyntheticMonitor monitor = new SyntheticMonitor(pool)
+                .monitor(SyntheticScenarios.textBoxSubmit(baseUrl), interval)
+                .monitor(SyntheticScenarios.landingCardNavigation(baseUrl), interval)
+                .start();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            monitor.stop();
+            if (standIn != null) {
+                standIn.stop();
+            }
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+}
@@ -0,0 +1,65 @@
+package gui.automation.monitor;
+
+import gui.automation.actions.ElementsPageActions;
+import gui.automation.actions.LandingPageActions;
+import gui.automation.actions.TextBoxActions;
+import gui.automation.utils.LoadScenario;
+import gui.automation.utils.SeleniumUtil;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * Critical user flows shared by the load tests and the synthetic monitor.
+ * Every step throws if the page does not end up in the expected state, so a run passes only if the flow works.
+ */
+public final class SyntheticScenarios {
+
+    private SyntheticScenarios() {
+    }
+
+    /**
+     * Landing -> Elements -> Text Box, then fill in and submit the form and check the echoed name.
+     * Uses clickMenuItemWithAdHandling because the popup sweep in clickMenuItem would dominate the timings.
+     */
+    public static LoadScenario textBoxSubmit(String baseUrl) {
+        return new LoadScenario("textbox-submit")
+                .step("open landing", driver -> SeleniumUtil.goTo(baseUrl))
+                .step("elements card", driver -> {
+                    new LandingPageActions(driver).clickElementsCard();
+                    awaitUrl(driver, "elements");
+                })
+                .step("text box menu", driver -> {
+                    new ElementsPageActions(driver).clickMenuItemWithAdHandling("Text Box");
+                    awaitUrl(driver, "text-box");
+                })
+                .step("fill and submit", driver -> {
+                    TextBoxActions textBoxActions = new TextBoxActions(driver);
+                    textBoxActions.fillForm("Synthetic User", "synthetic@example.com", "1 Probe St", "2 Probe St");
+                    if (!"Name:Synthetic User".equals(textBoxActions.getSubmittedNameOutput())) {
+                        throw new IllegalStateException("Submitted name was not echoed back");
+                    }
+                });
+    }
+
+    /**
+     * Landing page card navigation: the Elements and Forms cards must lead to their pages.
+     */
+    public static LoadScenario landingCardNavigation(String baseUrl) {
+        return new LoadScenario("landing-cards")
+                .step("open landing", driver -> SeleniumUtil.goTo(baseUrl))
+                .step("elements card", driver -> {
+                    new LandingPageActions(driver).clickElementsCard();
+                    awaitUrl(driver, "elements");
+                })
+                .step("back to landing", driver -> SeleniumUtil.goTo(baseUrl))
+                .step("forms card", driver -> {
+                    new LandingPageActions(driver).clickFormsCard();
+                    awaitUrl(driver, "forms");
+                });
+    }
+
+    private static void awaitUrl(WebDriver driver, String fragment) {
+        new WebDriverWait(driver, SeleniumUtil.waitTimeout(10)).until(ExpectedConditions.urlContains(fragment));
+    }
+}
@@ -1,23 +1,64 @@
 package gui.automation.stepdefs;
 
+import gui.automation.utils.ActionMetrics;
+import gui.automation.utils.CommandTrace;
 import gui.automation.utils.DriverUtils;
+import gui.automation.utils.FlightRecorder;
+import gui.automation.utils.MetricsRegistry;
+import gui.automation.utils.ScreencastRecorder;
 import gui.automation.utils.SeleniumUtil;
+import gui.automation.utils.TraceTimeline;
+import gui.automation.utils.WaitProfiler;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
 import org.openqa.selenium.WebDriver;
 
 public class CucumberHooks {
+    private long startMillis;
+
     @Before
-    public void setUp() {
+    public void setUp(Scenario scenario) {
+        ActionMetrics.beginTest(scenario.getName());
+        TraceTimeline.beginTest(scenario.getName());
+        WaitProfiler.beginTest(scenario.getName());
         WebDriver driver = DriverUtils.getDriver("chrome", "https://demoqa.com/");
         SeleniumUtil.setDriver(driver);
+        ScreencastRecorder.discard();
+        CommandTrace.beginTest(scenario.getName());
+        // Driver startup is recorded separately by DriverUtils; like TestNG, scenario time starts here
+        startMillis = System.currentTimeMillis();
     }
 
     @After
-    public void tearDown() {
+    public void tearDown(Scenario scenario) {
+        CommandTrace.endTest();
         if (SeleniumUtil.getDriver() != null) {
-            SeleniumUtil.getDriver().quit();
+            if (scenario.isFailed()) {
+                FlightRecorder.spill(scenario.getName());
+                ScreencastRecorder.saveFailure(scenario.getName());
+            }
+            DriverUtils.quitDriver();
             SeleniumUtil.setDriver(null);
         }
+        ActionMetrics.endTest();
+        TraceTimeline.endTest();
+        WaitProfiler.endTest();
+        MetricsRegistry.global().recordTestOutcome("cucumber", scenario.getName(), outcome(scenario.getStatus()),
+                System.currentTimeMillis() - startMillis);
+    }
+
+    private static String outcome(Status status) {
+        switch (status) {
+            case PASSED:
+                return "passed";
+            case SKIPPED:
+            case PENDING:
+            case UNDEFINED:
+                return "skipped";
+            default:
+                return "failed";
+        }
     }
 }
@@ -0,0 +1,49 @@
+package gui.automation.unit;
+
+import gui.automation.utils.ActionMetrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that stop() counts calls and failures per operation and per test, nested operations included.
+ */
+public class ActionMetricsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailuresAreCountedPerOperation() throws IOException {
+        By locator = By.id("action-metrics-test");
+        ActionMetrics.beginTest("ActionMetricsTest.failures");
+        try {
+            ActionMetrics.stop("unitPassing", locator, ActionMetrics.start(), false);
+            ActionMetrics.stop("unitGaveUp", locator, ActionMetrics.start(), true);
+            // An inner operation that gave up fails on its own; the outer one only fails if it says so too
+            long outer = ActionMetrics.start();
+            ActionMetrics.stop("unitInner", locator, ActionMetrics.start(), true);
+            ActionMetrics.stop("unitOuter", locator, outer, false);
+        } finally {
+            ActionMetrics.endTest();
+        }
+
+        Path report = ActionMetrics.writeReport();
+        Map<String, Object> json = new Json().toType(Files.readString(report), Json.MAP_TYPE);
+        Map<String, Object> test = ((List<Map<String, Object>>) json.get("tests")).stream()
+                .filter(row -> "ActionMetricsTest.failures".equals(row.get("test")))
+                .findFirst().orElseThrow();
+        List<Map<String, Object>> operations = (List<Map<String, Object>>) test.get("topOperations");
+        Assert.assertEquals(operations.size(), 4);
+        for (Map<String, Object> op : operations) {
+            boolean shouldFail = List.of("unitGaveUp", "unitInner").contains(op.get("operation"));
+            Assert.assertEquals(((Number) op.get("count")).longValue(), 1L, String.valueOf(op));
+            Assert.assertEquals(((Number) op.get("failures")).longValue(), shouldFail ? 1L : 0L, String.valueOf(op));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package gui.automation.unit;
+
+import gui.automation.utils.CommandTrace;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Browser-free checks of command tracing, using a stub driver behind the same decorator DriverUtils uses.
+ */
+public class CommandTraceTest {
+
+    @Test
+    public void testCountsRemoteCommandsOnly() {
+        WebDriver driver = new EventFiringDecorator<>(CommandTrace.listener()).decorate(stubDriver());
+        CommandTrace.beginTest("CommandTraceTest.remote");
+        driver.get("about:blank");
+        driver.getTitle();
+        driver.getTitle();
+        driver.manage();
+        CommandTrace.TestTrace trace = CommandTrace.endTest();
+
+        Assert.assertEquals(trace.getRoundTrips(), 3);
+        Assert.assertEquals(trace.topCommands(1), "getTitle x2");
+        Assert.assertNull(CommandTrace.getCurrent());
+    }
+
+    @Test
+    public void testFailedCommandsAreCounted() {
+        WebDriver driver = new EventFiringDecorator<>(CommandTrace.listener()).decorate(stubDriver());
+        CommandTrace.beginTest("CommandTraceTest.failed");
+        Assert.assertThrows(IllegalStateException.class, driver::getPageSource);
+        driver.getTitle();
+        CommandTrace.TestTrace trace = CommandTrace.endTest();
+
+        Assert.assertEquals(trace.getRoundTrips(), 2);
+    }
+
+    @Test
+    public void testCommandsOutsideATestAreIgnored() {
+        WebDriver driver = new EventFiringDecorator<>(CommandTrace.listener()).decorate(stubDriver());
+        // CommandBudgetListener may have started a trace for this method
+        CommandTrace.endTest();
+        driver.getTitle();
+        Assert.assertNull(CommandTrace.getCurrent());
+    }
+
+    private static WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTitle":
+                            return "stub";
+                        case "getPageSource":
+                            throw new IllegalStateException("no page");
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,117 @@
+package gui.automation.unit;
+
+import gui.automation.listeners.ParallelismListener;
+import gui.automation.utils.ConcurrencyController;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks of browser parallelism sizing and memory-based admission, with a fake memory reading.
+ */
+public class ConcurrencyControllerTest {
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testParallelismIsLimitedByCpusAndMemory() {
+        Assert.assertEquals(ConcurrencyController.parallelismFor(4, 16_384 * MB, 500 * MB, 1024 * MB), 4);
+        Assert.assertEquals(ConcurrencyController.parallelismFor(16, 3_072 * MB, 500 * MB, 1024 * MB), 4);
+        Assert.assertEquals(ConcurrencyController.parallelismFor(8, 512 * MB, 500 * MB, 1024 * MB), 1);
+        // Unknown memory: one per CPU
+        Assert.assertEquals(ConcurrencyController.parallelismFor(6, -1, 500 * MB, 1024 * MB), 6);
+    }
+
+    @Test
+    public void testFirstBrowserIsAlwaysAdmitted() {
+        ConcurrencyController controller = new ConcurrencyController(100 * MB, 500 * MB, 60_000, () -> 0);
+        controller.admit();
+        Assert.assertEquals(controller.getRunning(), 1);
+    }
+
+    @Test
+    public void testBrowserWaitsUntilMemoryIsFreed() throws Exception {
+        AtomicLong rss = new AtomicLong(0);
+        ConcurrencyController controller = new ConcurrencyController(1_000 * MB, 400 * MB, 60_000, rss::get);
+        controller.admit();
+        rss.set(500 * MB);
+        controller.admit();
+        rss.set(900 * MB);
+
+        CompletableFuture<Void> third = CompletableFuture.runAsync(controller::admit);
+        try {
+            third.get(700, TimeUnit.MILLISECONDS);
+            Assert.fail("Third browser was admitted above the ceiling");
+        } catch (TimeoutException expected) {
+            // Queued
+        }
+        rss.set(450 * MB);
+        controller.release();
+        third.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(controller.getRunning(), 2);
+    }
+
+    @Test
+    public void testWaitingBrowserIsAdmittedAfterTimeout() {
+        ConcurrencyController controller = new ConcurrencyController(100 * MB, 500 * MB, 200, () -> 900 * MB);
+        controller.admit();
+        long start = System.currentTimeMillis();
+        controller.admit();
+        Assert.assertTrue(System.currentTimeMillis() - start >= 200);
+        Assert.assertEquals(controller.getRunning(), 2);
+    }
+
+    @Test
+    public void testRunningBrowsersAreCountedWhenRssIsUnknown() throws Exception {
+        ConcurrencyController controller = new ConcurrencyController(1_000 * MB, 400 * MB, 60_000, () -> -1);
+        controller.admit();
+        controller.admit();
+        CompletableFuture<Void> third = CompletableFuture.runAsync(controller::admit);
+        try {
+            third.get(700, TimeUnit.MILLISECONDS);
+            Assert.fail("Third browser was admitted although 3 x 400 MB exceed the ceiling");
+        } catch (TimeoutException expected) {
+            // Queued
+        }
+        controller.release();
+        third.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(controller.getRunning(), 2);
+    }
+
+    @Test
+    public void testProcessMemoryIsProportionalWhereAvailable() throws IOException {
+        Path proc = Files.createTempDirectory("proc");
+        Files.write(proc.resolve("status"), List.of("Name:\tchrome", "VmRSS:\t  204800 kB", "Threads:\t12"));
+        Assert.assertEquals(ConcurrencyController.processMemoryBytes(proc), 200 * MB, "No smaps_rollup: RSS");
+
+        Files.write(proc.resolve("smaps_rollup"), List.of("55d0c0de0000-7ffd0000000 ---p 00000000 00:00 0 [rollup]",
+                "Rss:              204800 kB", "Pss:               61440 kB", "Pss_Anon:          40960 kB"));
+        Assert.assertEquals(ConcurrencyController.processMemoryBytes(proc), 60 * MB);
+
+        Assert.assertEquals(ConcurrencyController.processMemoryBytes(proc.resolve("ended")), 0);
+    }
+
+    @Test
+    public void testSuiteParallelismIsTheLargestParallelThreadCount() {
+        XmlSuite sequential = new XmlSuite();
+        sequential.setThreadCount(8);
+        Assert.assertEquals(ParallelismListener.suiteThreads(List.of(sequential)), 1, "Not parallel: one browser");
+
+        XmlSuite parallel = new XmlSuite();
+        parallel.setParallel(XmlSuite.ParallelMode.METHODS);
+        parallel.setThreadCount(3);
+        XmlTest wide = new XmlTest(parallel);
+        wide.setParallel(XmlSuite.ParallelMode.CLASSES);
+        wide.setThreadCount(6);
+        Assert.assertEquals(ParallelismListener.suiteThreads(List.of(sequential, parallel)), 6);
+    }
+}
@@ -0,0 +1,119 @@
+package gui.automation.unit;
+
+import gui.automation.utils.CsvDataSource;
+import gui.automation.utils.DataRow;
+import gui.automation.utils.SeleniumUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks of CSV parsing, POJO mapping and row selection.
+ */
+public class CsvDataSourceTest {
+
+    @Test
+    public void testQuotedFieldsFollowRfc4180() throws IOException {
+        Path csv = write("\uFEFFname,address,note\r\n"
+                + "\"Doe, John\",\"1 Main St\r\nApt 2\",\"says \"\"hi\"\"\"\r\n"
+                + "\r\n"
+                + "Alice,,5\" screen\n"
+                + "Bob,\"\",");
+        List<DataRow> rows = new ArrayList<>();
+        CsvDataSource.of(csv).forEach(rows::add);
+
+        Assert.assertEquals(rows.size(), 3);
+        Assert.assertEquals(rows.get(0).getColumns(), List.of("name", "address", "note"));
+        Assert.assertEquals(rows.get(0).get("name"), "Doe, John");
+        Assert.assertEquals(rows.get(0).get("address"), "1 Main St\r\nApt 2");
+        Assert.assertEquals(rows.get(0).get("note"), "says \"hi\"");
+        Assert.assertEquals(rows.get(1).get("address"), "");
+        Assert.assertEquals(rows.get(1).get("note"), "5\" screen");
+        Assert.assertEquals(rows.get(2).toArray(), new Object[]{"Bob", "", ""});
+        Assert.assertEquals(rows.get(2).getRowNumber(), 3);
+    }
+
+    @Test
+    public void testMalformedQuoteNamesTheLine() throws IOException {
+        Path csv = write("a,b\n1,2\n\"x\"y,3\n");
+        try {
+            CsvDataSource.of(csv).forEach(row -> { });
+            Assert.fail("Expected a parse error");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRowsMapOntoPojos() throws IOException {
+        Path csv = write("Full Name,age,active,level\nAda,36,yes,senior\nGrace,,no,JUNIOR\n");
+        Iterator<Object[]> provider = CsvDataSource.of(csv).asDataProvider(Person.class);
+        Person ada = (Person) provider.next()[0];
+        Person grace = (Person) provider.next()[0];
+        Assert.assertFalse(provider.hasNext());
+        Assert.assertEquals(ada.fullName, "Ada");
+        Assert.assertEquals(ada.age, 36);
+        Assert.assertTrue(ada.active);
+        Assert.assertEquals(ada.level, Level.SENIOR);
+        Assert.assertEquals(grace.age, 0, "Empty cell keeps the default");
+        Assert.assertEquals(grace.level, Level.JUNIOR);
+    }
+
+    @Test
+    public void testFilterSampleAndLimitAreLazyAndRepeatable() throws IOException {
+        Path csv = Files.createTempFile("rows", ".csv");
+        try (Writer writer = Files.newBufferedWriter(csv)) {
+            writer.write("id,group\n");
+            for (int i = 1; i <= 20000; i++) {
+                writer.write(i + "," + (i % 2 == 0 ? "even" : "odd") + "\n");
+            }
+        }
+        CsvDataSource even = CsvDataSource.of(csv).filter(row -> row.get("group").equals("even")).sample(0.1, 7);
+        List<String> first = ids(even.stream());
+        Assert.assertEquals(ids(even.stream()), first, "Same seed selects the same rows");
+        Assert.assertTrue(first.size() > 800 && first.size() < 1200, "About 10% of 10000: " + first.size());
+        Assert.assertTrue(first.stream().allMatch(id -> Integer.parseInt(id) % 2 == 0));
+
+        Assert.assertEquals(ids(CsvDataSource.of(csv).every(1000).limit(3).stream()), List.of("1", "1001", "2001"));
+        Iterator<Object[]> columns = CsvDataSource.of(csv).asDataProvider("group", "id");
+        Assert.assertEquals(columns.next(), new Object[]{"odd", "1"});
+    }
+
+    @Test
+    public void testReadFirstRowFromCsvKeepsQuotedCommas() throws IOException {
+        Path csv = write("\"Doe, John\",john@example.com\nother,row\n");
+        Assert.assertEquals(SeleniumUtil.readFirstRowFromCSV(csv.toString()), new String[]{"Doe, John", "john@example.com"});
+        Assert.assertNull(SeleniumUtil.readFirstRowFromCSV(csv.resolveSibling("missing.csv").toString()));
+    }
+
+    private static List<String> ids(Stream<DataRow> rows) {
+        try (rows) {
+            return rows.map(row -> row.get("id")).collect(Collectors.toList());
+        }
+    }
+
+    private static Path write(String content) throws IOException {
+        Path csv = Files.createTempFile("data", ".csv");
+        Files.write(csv, content.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+
+    enum Level { JUNIOR, SENIOR }
+
+    static class Person {
+        String fullName;
+        int age;
+        boolean active;
+        Level level;
+    }
+}
@@ -0,0 +1,131 @@
+package gui.automation.unit;
+
+import gui.automation.listeners.DurationScheduler;
+import gui.automation.utils.TestHistory;
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+
+/**
+ * Checks of which invocations DurationScheduler counts towards a test's recorded time.
+ */
+public class DurationSchedulerTest {
+    private static final long GAP_MILLIS = 300;
+
+    @Test
+    public void testPreviousTestsAfterMethodIsNotCounted() throws Exception {
+        TestHistory history = history();
+        DurationScheduler scheduler = new DurationScheduler(history);
+        ITestNGMethod test = method("test", "testLogin");
+
+        // The previous test's @AfterMethod quits its browser, then the thread idles before the next test
+        invoke(scheduler, method("afterMethod", "closeDriver"), GAP_MILLIS);
+        Thread.sleep(GAP_MILLIS);
+        invoke(scheduler, method("beforeMethod", "startDriver"), 0);
+        invoke(scheduler, test, 0);
+
+        Assert.assertTrue(history.getActualMakespanMillis() < GAP_MILLIS, history.getActualMakespanMillis() + " ms");
+    }
+
+    @Test
+    public void testSetupIsCountedFromTheFirstBeforeMethod() throws Exception {
+        TestHistory history = history();
+        DurationScheduler scheduler = new DurationScheduler(history);
+
+        invoke(scheduler, method("beforeMethod", "startDriver"), GAP_MILLIS);
+        invoke(scheduler, method("beforeMethod", "login"), 0);
+        invoke(scheduler, method("test", "testLogin"), 0);
+
+        Assert.assertTrue(history.getActualMakespanMillis() >= GAP_MILLIS, history.getActualMakespanMillis() + " ms");
+    }
+
+    @Test
+    public void testSetupOfASkippedTestIsNotCountedForTheNext() throws Exception {
+        TestHistory history = history();
+        DurationScheduler scheduler = new DurationScheduler(history);
+
+        // @BeforeMethod fails, so the test is skipped and only its @AfterMethod runs
+        invoke(scheduler, method("beforeMethod", "startDriver"), GAP_MILLIS);
+        invoke(scheduler, method("afterMethod", "closeDriver"), 0);
+        invoke(scheduler, method("test", "testLogout"), 0);
+
+        Assert.assertTrue(history.getActualMakespanMillis() < GAP_MILLIS, history.getActualMakespanMillis() + " ms");
+    }
+
+    private static TestHistory history() throws IOException {
+        return new TestHistory(Files.createTempDirectory("duration").resolve("test-history.json"));
+    }
+
+    private static void invoke(DurationScheduler scheduler, ITestNGMethod method, long millis)
+            throws InterruptedException {
+        IInvokedMethod invoked = (IInvokedMethod) Proxy.newProxyInstance(IInvokedMethod.class.getClassLoader(),
+                new Class<?>[]{IInvokedMethod.class}, (proxy, called, args) -> {
+                    switch (called.getName()) {
+                        case "isTestMethod":
+                            return method.isTest();
+                        case "isConfigurationMethod":
+                            return !method.isTest();
+                        case "getTestMethod":
+                            return method;
+                        default:
+                            return common(proxy, called.getName(), args);
+                    }
+                });
+        long start = System.currentTimeMillis();
+        ITestResult result = (ITestResult) Proxy.newProxyInstance(ITestResult.class.getClassLoader(),
+                new Class<?>[]{ITestResult.class}, (proxy, called, args) -> {
+                    switch (called.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "isSuccess":
+                            return true;
+                        case "getStartMillis":
+                            return start;
+                        default:
+                            return common(proxy, called.getName(), args);
+                    }
+                });
+        scheduler.beforeInvocation(invoked, result);
+        Thread.sleep(millis);
+        scheduler.afterInvocation(invoked, result);
+    }
+
+    private static ITestNGMethod method(String kind, String name) {
+        return (ITestNGMethod) Proxy.newProxyInstance(ITestNGMethod.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, called, args) -> {
+                    switch (called.getName()) {
+                        case "isTest":
+                            return "test".equals(kind);
+                        case "isBeforeMethodConfiguration":
+                            return "beforeMethod".equals(kind);
+                        case "isAfterMethodConfiguration":
+                            return "afterMethod".equals(kind);
+                        case "getRealClass":
+                            return DurationSchedulerTest.class;
+                        case "getMethodName":
+                            return name;
+                        default:
+                            return common(proxy, called.getName(), args);
+                    }
+                });
+    }
+
+    private static Object common(Object proxy, String method, Object[] args) {
+        switch (method) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "Stub";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package gui.automation.unit;
+
+import gui.automation.utils.DataRow;
+import gui.automation.utils.ExcelDataSource;
+import gui.automation.utils.SeleniumUtil;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks of the streaming Excel reader against workbooks written by POI.
+ */
+public class ExcelDataSourceTest {
+
+    @Test
+    public void testCellsReadAsDisplayed() throws IOException {
+        Path xlsx = write(new XSSFWorkbook(), ".xlsx");
+        List<DataRow> rows = new ArrayList<>();
+        ExcelDataSource.of(xlsx).sheet("Users").forEach(rows::add);
+
+        Assert.assertEquals(rows.size(), 2, "Blank row skipped");
+        DataRow ada = rows.get(0);
+        Assert.assertEquals(ada.getColumns(), List.of("name", "age", "joined", "active", "total", "note"));
+        Assert.assertEquals(ada.get("name"), "Ada");
+        Assert.assertEquals(ada.get("age"), "36");
+        Assert.assertEquals(ada.get("joined"), "2024-03-01");
+        Assert.assertEquals(ada.get("active"), "TRUE");
+        Assert.assertEquals(ada.get("total"), "72");
+        Assert.assertEquals(ada.get("note"), "");
+        Assert.assertEquals(rows.get(1).get("name"), "Grace");
+        Assert.assertEquals(rows.get(1).get("age"), "", "Missing cell reads as empty");
+        Assert.assertEquals(rows.get(1).get("note"), "gap before");
+    }
+
+    @Test
+    public void testSheetsAreSelectedByNameOrIndex() throws IOException {
+        Path xlsx = write(new XSSFWorkbook(), ".xlsx");
+        Iterator<Object[]> other = ExcelDataSource.of(xlsx).sheet(1).asDataProvider("key");
+        Assert.assertEquals(other.next(), new Object[]{"second sheet"});
+        try {
+            ExcelDataSource.of(xlsx).sheet("Missing").iterator().hasNext();
+            Assert.fail("Expected an error for a missing sheet");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(String.valueOf(e.getCause()).contains("Missing"), String.valueOf(e.getCause()));
+        }
+    }
+
+    @Test
+    public void testLargeStreamedWorkbookWithInlineStrings() throws IOException {
+        Path xlsx = Files.createTempFile("large", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(xlsx)) {
+            Sheet sheet = workbook.createSheet("Data");
+            sheet.createRow(0).createCell(0).setCellValue("id");
+            sheet.getRow(0).createCell(1).setCellValue("label");
+            for (int i = 1; i <= 30000; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("row " + i);
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        try (Stream<DataRow> rows = ExcelDataSource.of(xlsx).stream()) {
+            Assert.assertEquals(rows.count(), 30000);
+        }
+        try (Stream<DataRow> rows = ExcelDataSource.of(xlsx).filter(row -> row.get("id").endsWith("777")).stream()) {
+            Assert.assertEquals(rows.findFirst().get().get("label"), "row 777");
+        }
+    }
+
+    @Test
+    public void testLegacyXlsAndFirstRow() throws IOException {
+        Path xls = write(new HSSFWorkbook(), ".xls");
+        Assert.assertEquals(ExcelDataSource.of(xls).sheet("Users").iterator().next().get("name"), "Ada");
+        Assert.assertEquals(SeleniumUtil.readFirstRowFromExcel(write(new XSSFWorkbook(), ".xlsx").toString()),
+                new String[]{"name", "age", "joined", "active", "total", "note"});
+        Assert.assertNull(SeleniumUtil.readFirstRowFromExcel(xls.resolveSibling("missing.xlsx").toString()));
+    }
+
+    private static Path write(Workbook workbook, String suffix) throws IOException {
+        Path file = Files.createTempFile("data", suffix);
+        try (workbook; OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Users");
+            CellStyle date = workbook.createCellStyle();
+            date.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Row header = sheet.createRow(0);
+            String[] names = {"name", "age", "joined", "active", "total", "note"};
+            for (int i = 0; i < names.length; i++) {
+                header.createCell(i).setCellValue(names[i]);
+            }
+            Row ada = sheet.createRow(1);
+            ada.createCell(0).setCellValue("Ada");
+            ada.createCell(1).setCellValue(36);
+            ada.createCell(2).setCellValue(LocalDate.of(2024, 3, 1));
+            ada.getCell(2).setCellStyle(date);
+            ada.createCell(3).setCellValue(true);
+            ada.createCell(4).setCellFormula("B2*2");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            Row grace = sheet.createRow(3);
+            grace.createCell(0).setCellValue("Grace");
+            grace.createCell(5).setCellValue("gap before");
+            Sheet second = workbook.createSheet("Other");
+            second.createRow(0).createCell(0).setCellValue("key");
+            second.createRow(1).createCell(0).setCellValue("second sheet");
+            workbook.write(out);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,105 @@
+package gui.automation.unit;
+
+import gui.automation.utils.FlightRecorder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser-free checks of the flight recorder's ring buffer: capacity, eviction, snapshot cadence, the screenshot
+ * budget and the flight-recorder.json format, using synthetic snapshots.
+ */
+public class FlightRecorderTest {
+    private static final String SCREENSHOT = "QUJDREVGR0g="; // 12 Base64 characters
+
+    @Test
+    public void testOnlyTheNewestActionsAreKept() throws IOException {
+        FlightRecorder.Recording recording = new FlightRecorder.Recording(3, 100, 1000);
+        for (int i = 1; i <= 5; i++) {
+            recording.add(i * 1000L, "action" + i, By.id("field" + i), false);
+        }
+
+        List<Map<String, Object>> entries = entries(recording, "Eviction.test");
+        Assert.assertEquals(recording.getCount(), 5);
+        Assert.assertEquals(entries.size(), 3);
+        Assert.assertEquals(entries.get(0).get("action"), "action3");
+        Assert.assertEquals(entries.get(0).get("locator"), "By.id: field3");
+        Assert.assertEquals(entries.get(0).get("time"), "1970-01-01T00:00:03Z");
+        Assert.assertEquals(entries.get(2).get("action"), "action5");
+    }
+
+    @Test
+    public void testSnapshotsAreDueOnCadenceAndFailures() {
+        FlightRecorder.Recording recording = new FlightRecorder.Recording(10, 3, 1000);
+
+        Assert.assertTrue(recording.add(1, "first", null, false));
+        Assert.assertFalse(recording.add(2, "second", null, false));
+        Assert.assertFalse(recording.add(3, "third", null, false));
+        Assert.assertTrue(recording.add(4, "fourth", null, false));
+        Assert.assertTrue(recording.add(5, "broken", null, true));
+        Assert.assertFalse(recording.add(6, "sixth", null, false));
+        recording.clear();
+        Assert.assertTrue(recording.add(7, "after clear", null, false));
+    }
+
+    @Test
+    public void testSpillFormat() throws IOException {
+        FlightRecorder.Recording recording = new FlightRecorder.Recording(5, 1, 1000);
+        recording.add(0, "click", By.cssSelector("#submit"), false);
+        recording.attach("https://demoqa.com/ | ToolsQA | complete", List.of("error: boom"), null);
+        recording.add(0, "waitForVisible", null, true);
+        recording.attach("https://demoqa.com/ | ToolsQA | loading", List.of(), null);
+
+        Path dir = Files.createTempDirectory("flight-recorder");
+        Map<String, Object> report = new Json().toType(Files.readString(recording.write("Format.test", dir)),
+                Json.MAP_TYPE);
+        Assert.assertEquals(report.get("test"), "Format.test");
+        Assert.assertNotNull(report.get("spilledAt"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) report.get("entries");
+        Map<String, Object> click = entries.get(0);
+        Assert.assertEquals(click.keySet(), List.of("time", "action", "locator", "failed", "digest", "console"));
+        Assert.assertEquals(click.get("failed"), false);
+        Assert.assertEquals(click.get("console"), List.of("error: boom"));
+        Map<String, Object> wait = entries.get(1);
+        Assert.assertEquals(wait.keySet(), List.of("time", "action", "failed", "digest"));
+        Assert.assertEquals(wait.get("failed"), true);
+    }
+
+    @Test
+    public void testOldestScreenshotsAreDroppedOverBudget() throws IOException {
+        FlightRecorder.Recording recording = new FlightRecorder.Recording(10, 1, 2 * SCREENSHOT.length());
+        for (int i = 0; i < 3; i++) {
+            recording.add(i, "action" + i, null, false);
+            recording.attach("digest" + i, List.of(), SCREENSHOT);
+        }
+
+        Assert.assertEquals(recording.getScreenshotBytes(), 2L * SCREENSHOT.length());
+        List<Map<String, Object>> entries = entries(recording, "Budget.test");
+        Assert.assertNull(entries.get(0).get("screenshot"));
+        Assert.assertEquals(entries.get(0).get("digest"), "digest0");
+        Assert.assertEquals(entries.get(1).get("screenshot"), "frame-1.jpg");
+        Assert.assertEquals(entries.get(2).get("screenshot"), "frame-2.jpg");
+
+        // An evicted action gives back its screenshot's share of the budget
+        for (int i = 3; i < 13; i++) {
+            recording.add(i, "action" + i, null, false);
+        }
+        Assert.assertEquals(recording.getScreenshotBytes(), 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> entries(FlightRecorder.Recording recording, String testName)
+            throws IOException {
+        Path json = recording.write(testName, Files.createTempDirectory("flight-recorder"));
+        Map<String, Object> report = new Json().toType(Files.readString(json), Json.MAP_TYPE);
+        return (List<Map<String, Object>>) report.get("entries");
+    }
+}
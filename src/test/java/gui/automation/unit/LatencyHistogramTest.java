@@ -0,0 +1,74 @@
+package gui.automation.unit;
+
+import gui.automation.utils.LatencyHistogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser-free checks of the percentile math used by load runs and metrics.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesOfUniformValuesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.recordMicros(i * 100L);
+        }
+        Assert.assertEquals(histogram.getCount(), 10_000);
+        assertWithinPercent(histogram.getPercentileMicros(50), 500_000, 2);
+        assertWithinPercent(histogram.getPercentileMicros(95), 950_000, 2);
+        assertWithinPercent(histogram.getPercentileMicros(99), 990_000, 2);
+        Assert.assertEquals(histogram.getMaxMicros(), 1_000_000);
+        Assert.assertEquals(histogram.getMinMicros(), 100);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(3);
+        histogram.recordMicros(7);
+        histogram.recordMicros(100);
+        Assert.assertEquals(histogram.getPercentileMicros(0), 3);
+        Assert.assertEquals(histogram.getPercentileMicros(50), 7);
+        Assert.assertEquals(histogram.getPercentileMicros(100), 100);
+    }
+
+    @Test
+    public void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getPercentileMicros(99), 0);
+        Assert.assertEquals(histogram.getMinMicros(), 0);
+        Assert.assertEquals(histogram.getMeanMicros(), 0.0);
+    }
+
+    @Test
+    public void testConcurrentRecordingLosesNoValues() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.recordNanos(i * 1_000L);
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(histogram.getCount(), 400_000);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(histogram);
+        Assert.assertEquals(merged.getCount(), 400_000);
+        Assert.assertEquals(merged.getPercentileMicros(90), histogram.getPercentileMicros(90));
+    }
+
+    private static void assertWithinPercent(long actual, long expected, double percent) {
+        double error = Math.abs(actual - expected) * 100.0 / expected;
+        Assert.assertTrue(error <= percent, "Expected ~" + expected + " but was " + actual);
+    }
+}
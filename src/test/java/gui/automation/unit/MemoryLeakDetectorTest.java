@@ -0,0 +1,54 @@
+package gui.automation.unit;
+
+import gui.automation.utils.MemoryLeakDetector;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Checks of the leak verdict: trend fitting after the warm-up sample and the monotonic-growth test.
+ */
+public class MemoryLeakDetectorTest {
+
+    @Test
+    public void testFittedGrowthIgnoresTheWarmUpSample() {
+        // Warm-up jump, then +100 per iteration over 4 steps
+        Assert.assertEquals(MemoryLeakDetector.Result.fittedGrowth(List.of(5_000L, 1_000L, 1_100L, 1_200L, 1_300L, 1_400L)), 400.0, 1e-9);
+        Assert.assertEquals(MemoryLeakDetector.Result.fittedGrowth(List.of(0L, 1_000L, 1_000L, 1_000L)), 0.0, 1e-9);
+        // Too few samples after the warm-up to fit a line
+        Assert.assertEquals(MemoryLeakDetector.Result.fittedGrowth(List.of(1L, 2L)), 0.0);
+    }
+
+    @Test
+    public void testFittedGrowthSmoothsNoise() {
+        // Trend of +10 per step with alternating noise of +-3
+        double growth = MemoryLeakDetector.Result.fittedGrowth(List.of(0L, 103L, 107L, 123L, 127L, 143L));
+        Assert.assertTrue(growth > 35 && growth < 45, "growth " + growth);
+    }
+
+    @Test
+    public void testMonotonicAllowsNoiseButNotDrops() {
+        Assert.assertTrue(MemoryLeakDetector.Result.isMonotonic(List.of(900L, 100L, 200L, 300L), 0));
+        // The warm-up sample may be higher than the rest
+        Assert.assertTrue(MemoryLeakDetector.Result.isMonotonic(List.of(5_000L, 1_000L, 995L, 1_010L), 0.01));
+        Assert.assertFalse(MemoryLeakDetector.Result.isMonotonic(List.of(0L, 1_000L, 900L, 1_100L), 0.01));
+        Assert.assertFalse(MemoryLeakDetector.Result.isMonotonic(List.of(0L, 100L, 99L), 0));
+        Assert.assertFalse(MemoryLeakDetector.Result.isMonotonic(List.of(0L, 100L), 0));
+    }
+
+    @Test
+    public void testLeakNeedsSteadyGrowthAboveTheThreshold() {
+        MemoryLeakDetector.Result leaking = new MemoryLeakDetector.Result("leaking",
+                List.of(10_000L, 1_000L, 2_000L, 3_000L, 4_000L), List.of(0L, 100L, 100L, 100L, 100L), 2_500, 500, null);
+        Assert.assertTrue(leaking.isHeapLeaking());
+        Assert.assertFalse(leaking.isNodeLeaking());
+        Assert.assertThrows(AssertionError.class, leaking::assertNoLeak);
+
+        MemoryLeakDetector.Result sawtooth = new MemoryLeakDetector.Result("sawtooth",
+                List.of(0L, 1_000L, 5_000L, 1_000L, 9_000L), List.of(0L, 100L, 200L, 300L, 400L), 2_500, 500, null);
+        Assert.assertFalse(sawtooth.isHeapLeaking());
+        Assert.assertFalse(sawtooth.isNodeLeaking());
+        sawtooth.assertNoLeak();
+    }
+}
@@ -0,0 +1,75 @@
+package gui.automation.unit;
+
+import gui.automation.utils.MetricsRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser-free checks of the metrics registry: concurrent counting and the export formats.
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    registry.counter("webassure_tests_total", "outcome", i % 2 == 0 ? "passed" : "failed").increment();
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(registry.counter("webassure_tests_total", "outcome", "passed").get(), 20_000);
+        Assert.assertEquals(registry.sum("webassure_tests_total"), 40_000);
+    }
+
+    @Test
+    public void testPrometheusOutputGroupsSeriesByName() {
+        MetricsRegistry registry = new MetricsRegistry()
+                .describe("webassure_tests_total", "Finished tests by outcome");
+        registry.counter("webassure_tests_total", "outcome", "passed").add(3);
+        registry.counter("webassure_tests_total", "outcome", "failed").increment();
+        registry.timer("webassure_wait_seconds", "outcome", "timeout").recordMillis(10_000);
+
+        String text = registry.toPrometheus();
+        Assert.assertTrue(text.contains("# HELP webassure_tests_total Finished tests by outcome\n"), text);
+        Assert.assertEquals(text.split("# TYPE webassure_tests_total counter", -1).length, 2, text);
+        Assert.assertTrue(text.contains("webassure_tests_total{outcome=\"passed\"} 3\n"), text);
+        Assert.assertTrue(text.contains("webassure_tests_total{outcome=\"failed\"} 1\n"), text);
+        Assert.assertTrue(text.contains("# TYPE webassure_wait_seconds summary\n"), text);
+        Assert.assertTrue(text.contains("webassure_wait_seconds_count{outcome=\"timeout\"} 1\n"), text);
+        Assert.assertTrue(text.contains("webassure_wait_seconds_sum{outcome=\"timeout\"} 10\n"), text);
+    }
+
+    @Test
+    public void testLabelValuesAreEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("webassure_tests_total", "test", "say \"hi\"").increment();
+        Assert.assertTrue(registry.toPrometheus().contains("{test=\"say \\\"hi\\\"\"} 1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapExportContainsTimerPercentiles() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("webassure_driver_startup_seconds", "browser", "chrome").recordMillis(1500);
+        List<Map<String, Object>> timers = (List<Map<String, Object>>) registry.toMap().get("timers");
+        Assert.assertEquals(timers.size(), 1);
+        Assert.assertEquals(timers.get(0).get("count"), 1L);
+        Assert.assertEquals((Double) timers.get(0).get("maxSeconds"), 1.5, 0.001);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOddLabelListIsRejected() {
+        new MetricsRegistry().counter("webassure_tests_total", "outcome");
+    }
+}
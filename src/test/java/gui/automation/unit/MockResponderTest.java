@@ -0,0 +1,158 @@
+package gui.automation.unit;
+
+import gui.automation.utils.InterceptedRequest;
+import gui.automation.utils.MockResponder;
+import gui.automation.utils.MockResponseRule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks of mock rule matching and of delays that hold up only the delayed request.
+ */
+public class MockResponderTest {
+
+    @Test
+    public void testLaterRulesTakePrecedence() {
+        MockResponder responder = new MockResponder();
+        responder.addRule(new MockResponseRule("*/api/*").withStatus(200));
+        responder.addRule(new MockResponseRule("*/api/users*").withStatus(503));
+        responder.addRule(new MockResponseRule("*/api/users*").forMethod("POST").withStatus(201));
+
+        Assert.assertEquals(responder.findRule("GET", "https://demoqa.com/api/users?page=1").getStatus(), 503);
+        Assert.assertEquals(responder.findRule("post", "https://demoqa.com/api/users").getStatus(), 201);
+        Assert.assertEquals(responder.findRule("GET", "https://demoqa.com/api/books").getStatus(), 200);
+        Assert.assertNull(responder.findRule("GET", "https://demoqa.com/text-box"));
+    }
+
+    @Test
+    public void testOnlyMatchedRequestsAreCaptured() throws InterruptedException {
+        MockResponder responder = new MockResponder();
+        responder.addRule(new MockResponseRule("*/api/submit").passThrough());
+        RecordingExchange passed = new RecordingExchange();
+        RecordingExchange unmatched = new RecordingExchange();
+
+        responder.handle(request("POST", "https://demoqa.com/api/submit"), passed);
+        responder.handle(request("GET", "https://demoqa.com/logo.png"), unmatched);
+
+        Assert.assertTrue(passed.done.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(unmatched.done.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(passed.outcome, "proceed");
+        Assert.assertEquals(unmatched.outcome, "proceed");
+        Assert.assertEquals(responder.getCaptured().size(), 1);
+        Assert.assertEquals(responder.getCaptured().get(0).getUrl(), "https://demoqa.com/api/submit");
+    }
+
+    @Test
+    public void testDelayHoldsUpOnlyItsOwnRequest() throws InterruptedException {
+        MockResponder responder = new MockResponder();
+        responder.addRule(new MockResponseRule("*/slow*").withStatus(504).withDelayMillis(400));
+        Map<String, Long> answeredAt = new ConcurrentHashMap<>();
+        CountDownLatch all = new CountDownLatch(3);
+        long start = System.currentTimeMillis();
+
+        responder.handle(request("GET", "https://demoqa.com/slow/1"), exchange("slow1", answeredAt, all));
+        responder.handle(request("GET", "https://demoqa.com/slow/2"), exchange("slow2", answeredAt, all));
+        responder.handle(request("GET", "https://demoqa.com/fast"), exchange("fast", answeredAt, all));
+        long handled = System.currentTimeMillis() - start;
+
+        Assert.assertTrue(all.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(handled < 200, "handle() blocked for " + handled + " ms");
+        Assert.assertTrue(answeredAt.get("fast") - start < 300, "Unmocked request waited for the delayed one");
+        Assert.assertTrue(answeredAt.get("slow1") - start >= 400);
+        // Both delays run at once, not one after the other
+        Assert.assertTrue(answeredAt.get("slow2") - start < 750, "Delayed requests were serialized");
+    }
+
+    @Test
+    public void testUnmockedRequestsProceedOnTheCallingThread() {
+        MockResponder responder = new MockResponder();
+        responder.addRule(new MockResponseRule("*/api/submit").passThrough());
+        RecordingExchange passed = new RecordingExchange();
+        RecordingExchange unmatched = new RecordingExchange();
+
+        responder.handle(request("POST", "https://demoqa.com/api/submit"), passed);
+        responder.handle(request("GET", "https://demoqa.com/logo.png"), unmatched);
+
+        // No hop through a shared thread that another session's slow DevTools call could hold up
+        Assert.assertEquals(passed.thread, Thread.currentThread());
+        Assert.assertEquals(unmatched.thread, Thread.currentThread());
+    }
+
+    @Test
+    public void testEachResponderAnswersOnItsOwnThread() throws InterruptedException {
+        MockResponder first = new MockResponder();
+        MockResponder second = new MockResponder();
+        first.addRule(new MockResponseRule("*/api/*").withStatus(503));
+        second.addRule(new MockResponseRule("*/api/*").withStatus(503));
+        RecordingExchange fromFirst = new RecordingExchange();
+        RecordingExchange fromSecond = new RecordingExchange();
+
+        first.handle(request("GET", "https://demoqa.com/api/users"), fromFirst);
+        second.handle(request("GET", "https://demoqa.com/api/users"), fromSecond);
+
+        Assert.assertTrue(fromFirst.done.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(fromSecond.done.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(fromFirst.outcome, "fulfill 503");
+        Assert.assertNotEquals(fromFirst.thread, fromSecond.thread);
+        first.clear();
+        second.clear();
+    }
+
+    @Test
+    public void testOnlyRulePatternsArePaused() {
+        MockResponder responder = new MockResponder();
+        Assert.assertTrue(responder.getFetchUrlPatterns().isEmpty());
+        responder.addRule(new MockResponseRule("*/api/users*").withStatus(503));
+        responder.addRule(new MockResponseRule("*/api/users*").forMethod("POST").withStatus(201));
+        responder.addRule(new MockResponseRule("*/search?q=*").passThrough());
+
+        // Latest first, duplicates once; a literal '?' must not become the Fetch domain's one-character wildcard
+        Assert.assertEquals(responder.getFetchUrlPatterns(), List.of("*/search\\?q=*", "*/api/users*"));
+    }
+
+    private static InterceptedRequest request(String method, String url) {
+        return new InterceptedRequest(method, url, Collections.emptyMap(), "", System.currentTimeMillis());
+    }
+
+    private static MockResponder.Exchange exchange(String name, Map<String, Long> answeredAt, CountDownLatch latch) {
+        return new MockResponder.Exchange() {
+            @Override
+            public void proceed() {
+                answeredAt.put(name, System.currentTimeMillis());
+                latch.countDown();
+            }
+
+            @Override
+            public void fulfill(MockResponseRule rule) {
+                proceed();
+            }
+        };
+    }
+
+    private static final class RecordingExchange implements MockResponder.Exchange {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile String outcome;
+        private volatile Thread thread;
+
+        @Override
+        public void proceed() {
+            outcome = "proceed";
+            thread = Thread.currentThread();
+            done.countDown();
+        }
+
+        @Override
+        public void fulfill(MockResponseRule rule) {
+            outcome = "fulfill " + rule.getStatus();
+            thread = Thread.currentThread();
+            done.countDown();
+        }
+    }
+}
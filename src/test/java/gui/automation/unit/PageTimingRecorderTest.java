@@ -0,0 +1,62 @@
+package gui.automation.unit;
+
+import gui.automation.utils.PageTiming;
+import gui.automation.utils.PageTimingRecorder;
+import gui.automation.utils.ReportUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Browser-free checks of page timing aggregation: grouping by URL, the per-URL cap and incomplete samples.
+ */
+public class PageTimingRecorderTest {
+
+    @Test
+    public void testSamplesAreGroupedWithoutQueryAndFragment() {
+        PageTimingRecorder.record(timing("https://timing.test/group?page=1#top", 100, true));
+        PageTimingRecorder.record(timing("https://timing.test/group?page=2", 200, true));
+
+        List<PageTiming> samples = PageTimingRecorder.getSamples().get("https://timing.test/group");
+        Assert.assertNotNull(samples);
+        Assert.assertEquals(samples.size(), 2);
+    }
+
+    @Test
+    public void testOnlyTheNewestSamplesAreKept() {
+        for (int i = 1; i <= 520; i++) {
+            PageTimingRecorder.record(timing("https://timing.test/capped", i, true));
+        }
+
+        List<PageTiming> samples = PageTimingRecorder.getSamples().get("https://timing.test/capped");
+        Assert.assertEquals(samples.size(), 500);
+        Assert.assertEquals(samples.get(0).getLoad(), 21.0);
+        Assert.assertEquals(samples.get(samples.size() - 1).getLoad(), 520.0);
+    }
+
+    @Test
+    public void testIncompleteSamplesAreLeftOutOfLoadPercentiles() throws IOException {
+        PageTimingRecorder.record(timing("https://timing.test/early", 900, true));
+        PageTimingRecorder.record(timing("https://timing.test/early", 0, false));
+        PageTimingRecorder.record(timing("https://timing.test/early", 0, false));
+
+        PageTimingRecorder.writeReports();
+        List<String> rows = Files.readAllLines(ReportUtils.reportPath("page-load-percentiles.csv"), StandardCharsets.UTF_8)
+                .stream().filter(row -> row.startsWith("\"https://timing.test/early\"")).collect(Collectors.toList());
+        String load = rows.stream().filter(row -> row.contains(",load_ms,")).findFirst().orElseThrow();
+        Assert.assertEquals(load, "\"https://timing.test/early\",load_ms,1,900.0,900.0,900.0,900.0");
+        String ttfb = rows.stream().filter(row -> row.contains(",ttfb_ms,")).findFirst().orElseThrow();
+        Assert.assertTrue(ttfb.contains(",ttfb_ms,3,"), ttfb);
+    }
+
+    private static PageTiming timing(String url, double load, boolean complete) {
+        return new PageTiming(url, System.currentTimeMillis(), 10, 50, load, 1000, 3, 5000,
+                Collections.emptyList(), complete);
+    }
+}
@@ -0,0 +1,176 @@
+package gui.automation.unit;
+
+import gui.automation.annotations.Emulation;
+import gui.automation.annotations.ReadOnlyPage;
+import gui.automation.listeners.ReadOnlyPageScheduler;
+import gui.automation.utils.EmulationProfile;
+import gui.automation.utils.ReadOnlyPageSessions;
+import org.testng.Assert;
+import org.testng.IMethodInstance;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.ConstructorOrMethod;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks of how ReadOnlyPageScheduler groups @ReadOnlyPage tests and announces them to ReadOnlyPageSessions.
+ */
+public class ReadOnlyPageSchedulerTest {
+    private static final String TEXT_BOX = "https://demoqa.com/text-box";
+    private static final String BUTTONS = "https://demoqa.com/buttons";
+
+    @AfterMethod(alwaysRun = true)
+    public void forgetAnnouncements() {
+        ReadOnlyPageSessions.closeAll();
+    }
+
+    @Test
+    public void testReadOnlyTestsOfAPageRunTogetherAtTheFirstOnesPlace() {
+        List<IMethodInstance> methods = List.of(
+                instance(Pages.class, "login", false),
+                instance(Pages.class, "textBoxLabels", false),
+                instance(Pages.class, "buttonsVisible", false),
+                instance(Pages.class, "submit", false),
+                instance(Pages.class, "textBoxPlaceholders", false));
+
+        Assert.assertEquals(names(new ReadOnlyPageScheduler().intercept(methods, context(null))),
+                List.of("login", "textBoxLabels", "textBoxPlaceholders", "buttonsVisible", "submit"));
+        Assert.assertEquals(ReadOnlyPageSessions.expected(ReadOnlyPageSessions.poolKey(TEXT_BOX, null)), 2);
+        Assert.assertEquals(ReadOnlyPageSessions.expected(ReadOnlyPageSessions.poolKey(BUTTONS, null)), 1);
+    }
+
+    @Test
+    public void testTestsUnderDifferentProfilesDoNotShareAPool() {
+        List<IMethodInstance> methods = List.of(
+                instance(Pages.class, "textBoxLabels", false),
+                instance(ThrottledPages.class, "textBoxOnSlowNetwork", false),
+                instance(Pages.class, "textBoxOnCpuThrottling", false),
+                instance(Pages.class, "textBoxPlaceholders", false));
+
+        Assert.assertEquals(names(new ReadOnlyPageScheduler().intercept(methods, context(null))),
+                List.of("textBoxLabels", "textBoxPlaceholders", "textBoxOnSlowNetwork", "textBoxOnCpuThrottling"));
+        Assert.assertEquals(ReadOnlyPageSessions.expected(ReadOnlyPageSessions.poolKey(TEXT_BOX, null)), 2);
+        Assert.assertEquals(ReadOnlyPageSessions.expected(
+                ReadOnlyPageSessions.poolKey(TEXT_BOX, EmulationProfile.SLOW_4G)), 1);
+        Assert.assertEquals(ReadOnlyPageSessions.expected(
+                ReadOnlyPageSessions.poolKey(TEXT_BOX, EmulationProfile.CPU_4X)), 1);
+    }
+
+    @Test
+    public void testSuiteProfileAppliesToUnannotatedTests() {
+        new ReadOnlyPageScheduler().intercept(List.of(instance(Pages.class, "textBoxLabels", false)), context("3G"));
+
+        Assert.assertEquals(ReadOnlyPageSessions.expected(
+                ReadOnlyPageSessions.poolKey(TEXT_BOX, EmulationProfile.THREE_G)), 1);
+        Assert.assertEquals(ReadOnlyPageSessions.expected(ReadOnlyPageSessions.poolKey(TEXT_BOX, null)), 0);
+    }
+
+    @Test
+    public void testGroupsWithDataProvidersAreNotAnnounced() {
+        List<IMethodInstance> methods = List.of(
+                instance(Pages.class, "textBoxLabels", false),
+                instance(Pages.class, "textBoxPlaceholders", true));
+
+        Assert.assertEquals(new ReadOnlyPageScheduler().intercept(methods, context(null)).size(), 2);
+        Assert.assertEquals(ReadOnlyPageSessions.expected(ReadOnlyPageSessions.poolKey(TEXT_BOX, null)), 0,
+                "Rows are unknown up front, so the pool stays open until the suite ends");
+    }
+
+    public static class Pages {
+        public void login() {
+        }
+
+        @ReadOnlyPage(TEXT_BOX)
+        public void textBoxLabels() {
+        }
+
+        @ReadOnlyPage(BUTTONS)
+        public void buttonsVisible() {
+        }
+
+        public void submit() {
+        }
+
+        @ReadOnlyPage(TEXT_BOX)
+        public void textBoxPlaceholders() {
+        }
+
+        @ReadOnlyPage(TEXT_BOX)
+        @Emulation("4x-cpu")
+        public void textBoxOnCpuThrottling() {
+        }
+    }
+
+    @Emulation("slow-4G")
+    public static class ThrottledPages {
+        @ReadOnlyPage(TEXT_BOX)
+        public void textBoxOnSlowNetwork() {
+        }
+    }
+
+    private static List<String> names(List<IMethodInstance> methods) {
+        List<String> names = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            names.add(instance.getMethod().getConstructorOrMethod().getMethod().getName());
+        }
+        return names;
+    }
+
+    private static IMethodInstance instance(Class<?> testClass, String name, boolean dataDriven) {
+        ConstructorOrMethod method;
+        try {
+            method = new ConstructorOrMethod(testClass.getMethod(name));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+        ITestNGMethod testMethod = (ITestNGMethod) Proxy.newProxyInstance(ITestNGMethod.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, invoked, args) -> {
+                    switch (invoked.getName()) {
+                        case "getConstructorOrMethod":
+                            return method;
+                        case "getRealClass":
+                            return testClass;
+                        case "getInvocationCount":
+                            return 1;
+                        case "isDataDriven":
+                            return dataDriven;
+                        default:
+                            return common(proxy, invoked.getName(), args);
+                    }
+                });
+        return (IMethodInstance) Proxy.newProxyInstance(IMethodInstance.class.getClassLoader(),
+                new Class<?>[]{IMethodInstance.class}, (proxy, invoked, args) ->
+                        "getMethod".equals(invoked.getName()) ? testMethod : common(proxy, invoked.getName(), args));
+    }
+
+    private static ITestContext context(String suiteProfile) {
+        XmlTest xmlTest = new XmlTest(new XmlSuite());
+        if (suiteProfile != null) {
+            xmlTest.setParameters(Map.of("emulation.profile", suiteProfile));
+        }
+        return (ITestContext) Proxy.newProxyInstance(ITestContext.class.getClassLoader(),
+                new Class<?>[]{ITestContext.class}, (proxy, invoked, args) -> "getCurrentXmlTest".equals(invoked.getName())
+                        ? xmlTest : common(proxy, invoked.getName(), args));
+    }
+
+    private static Object common(Object proxy, String method, Object[] args) {
+        switch (method) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "Stub";
+            default:
+                return null;
+        }
+    }
+}
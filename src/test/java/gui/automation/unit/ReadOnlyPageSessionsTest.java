@@ -0,0 +1,75 @@
+package gui.automation.unit;
+
+import gui.automation.utils.EmulationProfile;
+import gui.automation.utils.ReadOnlyPageSessions;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Browser-free checks of when a shared read-only page's pool is closed and which tests share a pool.
+ */
+public class ReadOnlyPageSessionsTest {
+    private static final String TEXT_BOX = "https://demoqa.com/text-box [none]";
+
+    @Test
+    public void testPoolIsFinishedAfterItsLastAnnouncedTest() {
+        ReadOnlyPageSessions.Countdown countdown = new ReadOnlyPageSessions.Countdown();
+        countdown.expect(TEXT_BOX, 3);
+
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertEquals(countdown.remaining(TEXT_BOX), 1);
+        Assert.assertTrue(countdown.finished(TEXT_BOX));
+        Assert.assertEquals(countdown.remaining(TEXT_BOX), 0);
+    }
+
+    @Test
+    public void testAnnouncementsAddUp() {
+        ReadOnlyPageSessions.Countdown countdown = new ReadOnlyPageSessions.Countdown();
+        // Two <test> blocks of the suite announce tests of the same page before either runs
+        countdown.expect(TEXT_BOX, 1);
+        countdown.expect(TEXT_BOX, 1);
+
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertTrue(countdown.finished(TEXT_BOX));
+    }
+
+    @Test
+    public void testExtraReleasesNeverCloseALaterPoolEarly() {
+        ReadOnlyPageSessions.Countdown countdown = new ReadOnlyPageSessions.Countdown();
+        countdown.expect(TEXT_BOX, 1);
+        Assert.assertTrue(countdown.finished(TEXT_BOX));
+
+        // Unannounced releases (retries, data-provider rows) would have driven a plain counter to -2
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertEquals(countdown.remaining(TEXT_BOX), 0);
+
+        // ...and the next announcement of two tests would then have closed the pool after none of them
+        countdown.expect(TEXT_BOX, 2);
+        Assert.assertFalse(countdown.finished(TEXT_BOX));
+        Assert.assertTrue(countdown.finished(TEXT_BOX));
+    }
+
+    @Test
+    public void testUnannouncedPoolIsNeverFinished() {
+        ReadOnlyPageSessions.Countdown countdown = new ReadOnlyPageSessions.Countdown();
+        countdown.expect(TEXT_BOX, 1);
+
+        Assert.assertFalse(countdown.finished("https://demoqa.com/buttons [none]"));
+        Assert.assertEquals(countdown.remaining(TEXT_BOX), 1);
+    }
+
+    @Test
+    public void testPoolsAreKeyedByPageAndProfile() {
+        String url = "https://demoqa.com/text-box";
+
+        // No profile means the emulation.profile config value ("none")
+        Assert.assertEquals(ReadOnlyPageSessions.poolKey(url, null),
+                ReadOnlyPageSessions.poolKey(url, EmulationProfile.NONE));
+        Assert.assertNotEquals(ReadOnlyPageSessions.poolKey(url, EmulationProfile.SLOW_4G),
+                ReadOnlyPageSessions.poolKey(url, EmulationProfile.NONE));
+        Assert.assertNotEquals(ReadOnlyPageSessions.poolKey("https://demoqa.com/buttons", EmulationProfile.NONE),
+                ReadOnlyPageSessions.poolKey(url, EmulationProfile.NONE));
+    }
+}
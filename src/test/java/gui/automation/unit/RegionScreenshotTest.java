@@ -0,0 +1,212 @@
+package gui.automation.unit;
+
+import gui.automation.utils.SeleniumUtil;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser-free checks of region and element screenshots: the cropping fallback (scroll offset, device pixel ratio,
+ * clamping to the captured viewport), the CSS-pixel clip sent to Chrome, and an element that never shows up.
+ */
+public class RegionScreenshotTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void unbindDriver() {
+        SeleniumUtil.setDriver(null);
+    }
+
+    @Test
+    public void testCropIsScaledByDevicePixelRatioAndScroll() throws IOException {
+        // Viewport scrolled to (100, 50) at DPR 2: the 400x300 capture covers CSS (100..300, 50..200)
+        SeleniumUtil.setDriver(croppingDriver(100, 50, 2, viewport(400, 300)));
+
+        BufferedImage region = image(SeleniumUtil.getRegionScreenshot(110, 60, 20, 10));
+
+        Assert.assertEquals(region.getWidth(), 40);
+        Assert.assertEquals(region.getHeight(), 20);
+        // CSS (110, 60) is device pixel (20, 20) of the capture, which encodes its own coordinates
+        Assert.assertEquals(new Color(region.getRGB(0, 0)), new Color(20, 20, 0));
+        Assert.assertEquals(new Color(region.getRGB(39, 19)), new Color(59, 39, 0));
+    }
+
+    @Test
+    public void testCropIsClampedToTheViewport() throws IOException {
+        SeleniumUtil.setDriver(croppingDriver(100, 50, 2, viewport(400, 300)));
+
+        // Starts above and left of the viewport and ends beyond its right and bottom edges
+        BufferedImage region = image(SeleniumUtil.getRegionScreenshot(90, 40, 1000, 1000));
+
+        Assert.assertEquals(region.getWidth(), 400);
+        Assert.assertEquals(region.getHeight(), 300);
+        Assert.assertEquals(new Color(region.getRGB(0, 0)), new Color(0, 0, 0));
+    }
+
+    @Test
+    public void testRegionOutsideTheViewportIsRejected() {
+        SeleniumUtil.setDriver(croppingDriver(0, 0, 1, viewport(400, 300)));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> SeleniumUtil.getRegionScreenshot(500, 0, 50, 50));
+        Assert.assertThrows(IllegalArgumentException.class, () -> SeleniumUtil.getRegionScreenshot(0, -80, 50, 50));
+    }
+
+    @Test
+    public void testChromeClipIsInCssPixels() {
+        List<Map<String, Object>> commands = new ArrayList<>();
+        SeleniumUtil.setDriver(cdpDriver(commands, Collections.emptyList()));
+
+        SeleniumUtil.getRegionScreenshot(10, 2000, 300, 0);
+
+        Map<?, ?> clip = (Map<?, ?>) commands.get(0).get("clip");
+        Assert.assertEquals(((Number) clip.get("x")).doubleValue(), 10.0);
+        Assert.assertEquals(((Number) clip.get("y")).doubleValue(), 2000.0, "Below the fold: no viewport offset");
+        Assert.assertEquals(((Number) clip.get("width")).doubleValue(), 300.0);
+        Assert.assertEquals(((Number) clip.get("height")).doubleValue(), 1.0, "Empty regions still capture a pixel");
+        Assert.assertEquals(((Number) clip.get("scale")).doubleValue(), 1.0, "Chrome applies the DPR itself");
+        Assert.assertEquals(commands.get(0).get("captureBeyondViewport"), true);
+    }
+
+    @Test
+    public void testElementClipIncludesTheScrollOffset() {
+        List<Map<String, Object>> commands = new ArrayList<>();
+        // The page script returns the document coordinates of the element: client rect plus scroll
+        SeleniumUtil.setDriver(cdpDriver(commands, List.of(15.5, 1240.25, 200.0, 48.75)));
+
+        SeleniumUtil.getElementScreenshot(By.id("userForm"));
+
+        Map<?, ?> clip = (Map<?, ?>) commands.get(0).get("clip");
+        Assert.assertEquals(((Number) clip.get("x")).doubleValue(), 15.5);
+        Assert.assertEquals(((Number) clip.get("y")).doubleValue(), 1240.25);
+        Assert.assertEquals(((Number) clip.get("width")).doubleValue(), 200.0);
+        Assert.assertEquals(((Number) clip.get("height")).doubleValue(), 48.75);
+    }
+
+    @Test
+    public void testMissingElementFailsWithItsLocator() {
+        List<Map<String, Object>> commands = new ArrayList<>();
+        SeleniumUtil.setDriver(cdpDriver(commands, List.of(0.0, 0.0, 10.0, 10.0), null));
+
+        // Waits out the default timeout before giving up
+        NoSuchElementException e = Assert.expectThrows(NoSuchElementException.class,
+                () -> SeleniumUtil.getElementScreenshot(By.id("missing")));
+
+        Assert.assertTrue(e.getMessage().contains("Element not visible for screenshot: By.id: missing"), e.getMessage());
+        Assert.assertTrue(commands.isEmpty(), "Nothing is captured for a missing element");
+    }
+
+    /**
+     * A capture whose pixel (x, y) has the colour (x, y, 0), so crops can be located.
+     */
+    private static byte[] viewport(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, new Color(x % 256, y % 256, 0).getRGB());
+            }
+        }
+        return png(image);
+    }
+
+    private static WebDriver croppingDriver(double scrollX, double scrollY, double dpr, byte[] capture) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeScript":
+                            return List.of(scrollX, scrollY, dpr);
+                        case "getScreenshotAs":
+                            return ((OutputType<?>) args[0]).convertFromPngBytes(capture);
+                        default:
+                            return common(proxy, method.getName(), args);
+                    }
+                });
+    }
+
+    private static WebDriver cdpDriver(List<Map<String, Object>> commands, List<Double> scriptResult) {
+        WebElement element = (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+                new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> "isDisplayed".equals(method.getName()) ? Boolean.TRUE
+                        : common(proxy, method.getName(), args));
+        return cdpDriver(commands, scriptResult, element);
+    }
+
+    /**
+     * A Chrome driver stub whose findElement returns the given element, or finds nothing if it is null.
+     */
+    private static WebDriver cdpDriver(List<Map<String, Object>> commands, List<Double> scriptResult,
+                                       WebElement element) {
+        String blank = Base64.getEncoder().encodeToString(png(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB)));
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, HasCdp.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeCdpCommand":
+                            @SuppressWarnings("unchecked")
+                            Map<String, Object> params = (Map<String, Object>) args[1];
+                            commands.add(params);
+                            Map<String, Object> result = new HashMap<>();
+                            result.put("data", blank);
+                            return result;
+                        case "executeScript":
+                            return scriptResult;
+                        case "findElement":
+                            if (element == null) {
+                                throw new NoSuchElementException("No element for " + args[0]);
+                            }
+                            return element;
+                        default:
+                            return common(proxy, method.getName(), args);
+                    }
+                });
+    }
+
+    private static Object common(Object proxy, String method, Object[] args) {
+        switch (method) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "StubDriver";
+            default:
+                return null;
+        }
+    }
+
+    private static BufferedImage image(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private static byte[] png(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gui.automation.unit;
+
+import gui.automation.utils.ScreencastRecorder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Checks of the screencast frame buffer: frame-rate dropping, the time window and the byte budget.
+ */
+public class ScreencastRecorderTest {
+
+    @Test
+    public void testFramesFasterThanTheFrameRateAreDropped() {
+        ScreencastRecorder.FrameBuffer buffer = new ScreencastRecorder.FrameBuffer(5, 10_000, 1 << 20);
+
+        Assert.assertTrue(buffer.offer(1000, frame(10)));
+        Assert.assertFalse(buffer.offer(1100, frame(10)));
+        Assert.assertFalse(buffer.offer(1199, frame(10)));
+        Assert.assertTrue(buffer.offer(1200, frame(10)));
+        Assert.assertFalse(buffer.offer(1300, null));
+        Assert.assertEquals(buffer.size(), 2);
+    }
+
+    @Test
+    public void testFramesOutsideTheWindowAreEvicted() {
+        ScreencastRecorder.FrameBuffer buffer = new ScreencastRecorder.FrameBuffer(1, 3000, 1 << 20);
+        for (long time = 0; time <= 10_000; time += 1000) {
+            buffer.offer(time, frame(10));
+        }
+
+        // Frames from 7 s to 10 s remain
+        Assert.assertEquals(buffer.size(), 4);
+        Assert.assertEquals(buffer.getBytes(), 40);
+    }
+
+    @Test
+    public void testOldestFramesAreEvictedOverTheByteBudget() {
+        ScreencastRecorder.FrameBuffer buffer = new ScreencastRecorder.FrameBuffer(10, 60_000, 25);
+        buffer.offer(0, frame(10, (byte) 1));
+        buffer.offer(100, frame(10, (byte) 2));
+        buffer.offer(200, frame(10, (byte) 3));
+
+        Assert.assertEquals(buffer.size(), 2);
+        byte[] drained = buffer.drain();
+        Assert.assertEquals(drained.length, 20);
+        Assert.assertEquals(drained[0], 2);
+        Assert.assertEquals(drained[19], 3);
+        Assert.assertEquals(buffer.size(), 0);
+        Assert.assertEquals(buffer.getBytes(), 0);
+    }
+
+    @Test
+    public void testFrameLargerThanTheBudgetIsNotKept() {
+        ScreencastRecorder.FrameBuffer buffer = new ScreencastRecorder.FrameBuffer(10, 60_000, 25);
+        buffer.offer(0, frame(10));
+
+        Assert.assertTrue(buffer.offer(100, frame(30)));
+        Assert.assertEquals(buffer.size(), 0);
+        Assert.assertEquals(buffer.drain().length, 0);
+    }
+
+    private static String frame(int bytes) {
+        return frame(bytes, (byte) 0);
+    }
+
+    private static String frame(int bytes, byte fill) {
+        byte[] jpeg = new byte[bytes];
+        Arrays.fill(jpeg, fill);
+        return Base64.getEncoder().encodeToString(jpeg);
+    }
+}
@@ -0,0 +1,40 @@
+package gui.automation.unit;
+
+import gui.automation.utils.ScreenshotService;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Browser-free checks of the background screenshot writer.
+ */
+public class ScreenshotServiceTest {
+
+    @Test
+    public void testFlushWaitsForEveryQueuedWrite() throws IOException {
+        Path dir = Files.createTempDirectory("screenshots");
+        List<Path> files = new ArrayList<>();
+        // More screenshots than the queue holds, so some are written by this thread (back-pressure)
+        for (int i = 0; i < 100; i++) {
+            files.add(ScreenshotService.save(new byte[]{(byte) i, 1, 2, 3}, dir.resolve("t" + i).resolve("shot.png")));
+        }
+        Assert.assertTrue(ScreenshotService.flush(Duration.ofSeconds(30)));
+        Assert.assertEquals(ScreenshotService.getPending(), 0);
+        for (int i = 0; i < files.size(); i++) {
+            Assert.assertEquals(Files.readAllBytes(files.get(i)), new byte[]{(byte) i, 1, 2, 3});
+        }
+    }
+
+    @Test
+    public void testTestDirectoryNamesAreSafeForTheFileSystem() {
+        Path dir = ScreenshotService.testDirectory("LoginTest.testLogin[alice, a/b]");
+        Assert.assertEquals(dir.getFileName().toString(), "LoginTest.testLogin_alice__a_b_");
+        Assert.assertEquals(dir.getParent(), ScreenshotService.screenshotDirectory());
+    }
+}
@@ -0,0 +1,105 @@
+package gui.automation.unit;
+
+import gui.automation.utils.ScreenshotStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Checks of screenshot scaling, near-duplicate detection and the storage budget.
+ */
+public class ScreenshotStoreTest {
+
+    @Test
+    public void testNearDuplicatesHaveCloseHashes() {
+        long hash = ScreenshotStore.differenceHash(page(Color.WHITE, 0));
+        Assert.assertTrue(ScreenshotStore.distance(hash, ScreenshotStore.differenceHash(page(new Color(250, 250, 250), 3))) <= 4);
+        Assert.assertTrue(ScreenshotStore.distance(hash, ScreenshotStore.differenceHash(other())) > 4);
+    }
+
+    @Test
+    public void testNearDuplicateIsStoredOnce() throws IOException {
+        Path dir = Files.createTempDirectory("screenshots");
+        ScreenshotStore store = new ScreenshotStore(dir, 400, "png", 0.75f, 4, 0);
+        Path first = store.storeCapture(dir.resolve("a").resolve("fail.png"), png(page(Color.WHITE, 0)));
+        Path second = store.storeCapture(dir.resolve("a").resolve("retry.png"), png(page(Color.WHITE, 3)));
+        Path third = store.storeCapture(dir.resolve("a").resolve("other.png"), png(other()));
+
+        Assert.assertEquals(ImageIO.read(first.toFile()).getWidth(), 400, "Scaled to screenshot.max.width");
+        Assert.assertTrue(Files.isSameFile(first, second), "Near-duplicate is a link to the first capture");
+        Assert.assertFalse(Files.isSameFile(first, third));
+        Assert.assertEquals(store.getStoredBytes(), Files.size(first) + Files.size(third));
+    }
+
+    @Test
+    public void testNearDuplicatesOfOtherTestsAreStoredSeparately() throws IOException {
+        Path dir = Files.createTempDirectory("screenshots");
+        ScreenshotStore store = new ScreenshotStore(dir, 400, "png", 0.75f, 4, 0);
+        Path first = store.storeCapture(dir.resolve("a").resolve("fail.png"), png(page(Color.WHITE, 0)));
+        Path second = store.storeCapture(dir.resolve("b").resolve("fail.png"), png(page(Color.WHITE, 3)));
+
+        Assert.assertFalse(Files.isSameFile(first, second), "Another test's capture is never a link");
+        Assert.assertEquals(store.getStoredBytes(), Files.size(first) + Files.size(second));
+    }
+
+    @Test
+    public void testOldestFilesAreEvictedOverBudget() throws IOException {
+        Path dir = Files.createTempDirectory("screenshots");
+        ScreenshotStore store = new ScreenshotStore(dir, 0, "png", 0.75f, -1, 2500);
+        for (int i = 0; i < 5; i++) {
+            store.storeFile(dir.resolve("t" + i).resolve("frame.bin"), new byte[1000]);
+        }
+        Assert.assertFalse(Files.exists(dir.resolve("t0")), "Oldest test directory removed");
+        Assert.assertFalse(Files.exists(dir.resolve("t2").resolve("frame.bin")));
+        Assert.assertTrue(Files.exists(dir.resolve("t3").resolve("frame.bin")));
+        Assert.assertTrue(Files.exists(dir.resolve("t4").resolve("frame.bin")));
+        Assert.assertEquals(store.getStoredBytes(), 2000);
+    }
+
+    @Test
+    public void testJpegFormatChangesTheExtension() throws IOException {
+        Path dir = Files.createTempDirectory("screenshots");
+        ScreenshotStore store = new ScreenshotStore(dir, 0, "jpg", 0.5f, -1, 0);
+        Path path = store.storeCapture(dir.resolve("fail.png"), png(page(Color.WHITE, 0)));
+        Assert.assertEquals(path.getFileName().toString(), "fail.jpg");
+        Assert.assertEquals(ImageIO.read(path.toFile()).getWidth(), 800);
+    }
+
+    private static BufferedImage page(Color background, int shift) {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(background);
+        graphics.fillRect(0, 0, 800, 600);
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.fillRect(40 + shift, 40, 300, 200);
+        graphics.fillRect(420 + shift, 300, 300, 200);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage other() {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 800, 600);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(420, 40, 300, 200);
+        graphics.fillRect(40, 300, 300, 200);
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,163 @@
+package gui.automation.unit;
+
+import gui.automation.utils.BrowserPool;
+import gui.automation.utils.LoadScenario;
+import gui.automation.utils.PageTiming;
+import gui.automation.utils.PageTimingRecorder;
+import gui.automation.utils.SyntheticMonitor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Browser-free checks of the synthetic monitor and its browser pool, using stub drivers.
+ */
+public class SyntheticMonitorTest {
+
+    @Test
+    public void testRunsAreRecordedAndHistoryIsBounded() throws Exception {
+        AtomicInteger quits = new AtomicInteger();
+        SyntheticMonitor monitor = monitor(new BrowserPool(() -> stubDriver(quits), 1))
+                .monitor(new LoadScenario("ok").step("noop", driver -> { }), Duration.ofMinutes(1))
+                .monitor(new LoadScenario("broken")
+                        .step("first", driver -> { })
+                        .step("second", driver -> {
+                            throw new IllegalStateException("element missing\nstack details");
+                        })
+                        .step("never", driver -> Assert.fail("steps after a failure must not run")), Duration.ofMinutes(1))
+                .historySize(3);
+
+        Assert.assertTrue(monitor.runOnce("ok").isSuccess());
+        SyntheticMonitor.RunResult failed = monitor.runOnce("broken");
+        Assert.assertFalse(failed.isSuccess());
+        Assert.assertEquals(failed.getFailedStep(), "second");
+        Assert.assertEquals(failed.getError(), "IllegalStateException: element missing");
+        Assert.assertEquals(failed.getStepMillis().keySet(), List.of("first", "second"));
+        // The failed run reported its browser as unhealthy, so it was replaced
+        Assert.assertEquals(quits.get(), 1);
+
+        monitor.runOnce("ok");
+        monitor.runOnce("ok");
+        List<SyntheticMonitor.RunResult> history = monitor.getHistory();
+        Assert.assertEquals(history.size(), 3);
+        Assert.assertEquals(history.get(0).getScenario(), "broken");
+
+        String metrics = monitor.toPrometheus();
+        Assert.assertTrue(metrics.contains("webassure_synthetic_runs_total{scenario=\"ok\"} 3"), metrics);
+        Assert.assertTrue(metrics.contains("webassure_synthetic_failures_total{scenario=\"broken\"} 1"), metrics);
+        Assert.assertTrue(metrics.contains("webassure_synthetic_last_success{scenario=\"broken\"} 0"), metrics);
+        Assert.assertThrows(IllegalArgumentException.class, () -> monitor.runOnce("unknown"));
+        monitor.stop();
+    }
+
+    @Test
+    public void testLogIsRolled() throws Exception {
+        Path dir = Files.createTempDirectory("synthetic-log");
+        Path log = dir.resolve("runs.jsonl");
+        SyntheticMonitor monitor = new SyntheticMonitor(new BrowserPool(() -> stubDriver(new AtomicInteger()), 1))
+                .metricsFile(dir.resolve("metrics.prom"))
+                .logFile(log, 1, 2)
+                .monitor(new LoadScenario("ok").step("noop", driver -> { }), Duration.ofMinutes(1));
+
+        for (int i = 0; i < 4; i++) {
+            monitor.runOnce("ok");
+        }
+        monitor.stop();
+
+        Assert.assertEquals(Files.readAllLines(log).size(), 1);
+        Assert.assertTrue(Files.exists(dir.resolve("runs.jsonl.1")));
+        Assert.assertTrue(Files.exists(dir.resolve("runs.jsonl.2")));
+        Assert.assertFalse(Files.exists(dir.resolve("runs.jsonl.3")));
+        Assert.assertTrue(Files.readString(log).contains("\"ok\""));
+    }
+
+    @Test
+    public void testOnlyTheMonitorsOwnPageTimingsAreDropped() throws Exception {
+        String url = "https://synthetic.test/scoped";
+        PageTimingRecorder.record(timing(url));
+        SyntheticMonitor monitor = monitor(new BrowserPool(() -> stubDriver(new AtomicInteger()), 1))
+                .monitor(new LoadScenario("timed").step("load", driver -> PageTimingRecorder.record(timing(url))),
+                        Duration.ofMinutes(1));
+
+        monitor.runOnce("timed");
+        monitor.stop();
+
+        Assert.assertEquals(PageTimingRecorder.getSamples().get(url).size(), 1);
+    }
+
+    @Test
+    public void testBrowserReleasedAfterCloseIsQuit() throws Exception {
+        AtomicInteger quits = new AtomicInteger();
+        BrowserPool pool = new BrowserPool(() -> stubDriver(quits), 2).warmUp();
+        BrowserPool.Lease lease = pool.acquire();
+
+        pool.close();
+        Assert.assertEquals(quits.get(), 1, "the idle browser is quit on close");
+        pool.release(lease, true);
+
+        Assert.assertEquals(quits.get(), 2, "the leased browser is quit when it comes back");
+        Assert.assertNull(lease.getDriver());
+        Assert.assertThrows(IllegalStateException.class, pool::acquire);
+    }
+
+    @Test
+    public void testWornOutBrowserIsReplaced() throws Exception {
+        AtomicInteger quits = new AtomicInteger();
+        BrowserPool pool = new BrowserPool(() -> stubDriver(quits), 1).maxUses(2);
+
+        BrowserPool.Lease lease = pool.acquire();
+        WebDriver first = lease.getDriver();
+        pool.release(lease, true);
+        lease = pool.acquire();
+        Assert.assertSame(lease.getDriver(), first);
+        pool.release(lease, true);
+        lease = pool.acquire();
+
+        Assert.assertNotSame(lease.getDriver(), first);
+        Assert.assertEquals(lease.getUses(), 1);
+        Assert.assertEquals(quits.get(), 1);
+        pool.release(lease, true);
+        pool.close();
+        Assert.assertEquals(quits.get(), 2);
+    }
+
+    private static SyntheticMonitor monitor(BrowserPool pool) throws IOException {
+        Path dir = Files.createTempDirectory("synthetic-monitor");
+        return new SyntheticMonitor(pool)
+                .metricsFile(dir.resolve("metrics.prom"))
+                .logFile(dir.resolve("runs.jsonl"), 1024 * 1024, 1);
+    }
+
+    private static PageTiming timing(String url) {
+        return new PageTiming(url, System.currentTimeMillis(), 10, 50, 300, 1000, 3, 5000,
+                Collections.emptyList(), true);
+    }
+
+    private static WebDriver stubDriver(AtomicInteger quits) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "quit":
+                            quits.incrementAndGet();
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package gui.automation.unit;
+
+import gui.automation.utils.CsvDataSource;
+import gui.automation.utils.DataRow;
+import gui.automation.utils.TestDataCache;
+import gui.automation.utils.TestDataTable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks of the shared test-data cache: one parse per file version, and row views over the cached columns.
+ */
+public class TestDataCacheTest {
+
+    @Test
+    public void testConcurrentReadersShareOneTable() throws Exception {
+        Path csv = write("id,group\n1,odd\n2,even\n3,odd\n");
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<TestDataTable>> readers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            readers.add(() -> {
+                start.await();
+                return TestDataCache.get(CsvDataSource.of(csv));
+            });
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<TestDataTable>> results = new ArrayList<>();
+            for (Callable<TestDataTable> reader : readers) {
+                results.add(pool.submit(reader));
+            }
+            start.countDown();
+            TestDataTable first = results.get(0).get();
+            for (Future<TestDataTable> result : results) {
+                Assert.assertSame(result.get(), first);
+            }
+            Assert.assertEquals(first.getRowCount(), 3);
+            Assert.assertEquals(first.column("group"), List.of("odd", "even", "odd"));
+            // Repeated values in a column are stored once
+            Assert.assertSame(first.row(0).get("group"), first.row(2).get("group"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChangedFileIsReadAgain() throws IOException {
+        Path csv = write("name\nAda\n");
+        TestDataTable before = TestDataCache.get(CsvDataSource.of(csv));
+        Assert.assertSame(TestDataCache.get(CsvDataSource.of(csv)), before);
+
+        Files.write(csv, "name\nAda\nGrace\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 2000));
+        TestDataTable after = TestDataCache.get(CsvDataSource.of(csv));
+        Assert.assertNotSame(after, before);
+        Assert.assertEquals(after.column("name"), List.of("Ada", "Grace"));
+    }
+
+    @Test
+    public void testParseOptionsAreSeparateEntries() throws IOException {
+        Path csv = write("a;b\n1;2\n");
+        TestDataTable comma = TestDataCache.get(CsvDataSource.of(csv));
+        TestDataTable semicolon = TestDataCache.get(CsvDataSource.of(csv).delimiter(';'));
+        Assert.assertEquals(comma.getColumnCount(), 1);
+        Assert.assertEquals(semicolon.getColumnCount(), 2);
+    }
+
+    @Test
+    public void testCachedSourceAppliesSelection() throws IOException {
+        StringBuilder content = new StringBuilder("id,group\n");
+        for (int i = 1; i <= 100; i++) {
+            content.append(i).append(',').append(i % 2 == 0 ? "even" : "odd").append('\n');
+        }
+        Path csv = write(content.toString());
+        List<String> streamed = new ArrayList<>();
+        List<String> cached = new ArrayList<>();
+        CsvDataSource.of(csv).filter(row -> row.get("group").equals("even")).sample(0.5, 7).limit(10)
+                .forEach(row -> streamed.add(row.get("id") + "@" + row.getRowNumber()));
+        CsvDataSource.of(csv).cached().filter(row -> row.get("group").equals("even")).sample(0.5, 7).limit(10)
+                .forEach(row -> cached.add(row.get("id") + "@" + row.getRowNumber()));
+        Assert.assertEquals(cached, streamed);
+
+        Iterator<Object[]> provider = CsvDataSource.of(csv).cached().asDataProvider("group", "id");
+        Assert.assertEquals(provider.next(), new Object[]{"odd", "1"});
+    }
+
+    @Test
+    public void testRowViewsReadTheColumns() throws IOException {
+        Path csv = write("name,email\nAda,ada@example.com\nGrace\n");
+        TestDataTable table = TestDataCache.get(CsvDataSource.of(csv));
+        DataRow row = table.row(1);
+        Assert.assertEquals(row.get("name"), "Grace");
+        Assert.assertEquals(row.get("email"), "");
+        Assert.assertEquals(row.getRowNumber(), 2);
+        Assert.assertEquals(table.getColumns(), List.of("name", "email"));
+        Assert.assertTrue(table.getEstimatedBytes() > 0);
+    }
+
+    private static Path write(String content) throws IOException {
+        Path csv = Files.createTempFile("cached", ".csv");
+        Files.write(csv, content.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+}
@@ -0,0 +1,100 @@
+package gui.automation.unit;
+
+import gui.automation.utils.TestHistory;
+import gui.automation.utils.TestSchedule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks of longest-first planning and of the duration history it is fed from.
+ */
+public class TestScheduleTest {
+
+    @Test
+    public void testLongestJobsStartFirst() {
+        List<TestSchedule.Job<String>> jobs = new ArrayList<>();
+        jobs.add(new TestSchedule.Job<>("a", 10, null));
+        jobs.add(new TestSchedule.Job<>("b", 10, null));
+        jobs.add(new TestSchedule.Job<>("c", 10, null));
+        jobs.add(new TestSchedule.Job<>("d", 10, null));
+        jobs.add(new TestSchedule.Job<>("slow", 40, null));
+        TestSchedule<String> plan = TestSchedule.plan(jobs, 2);
+
+        Assert.assertEquals(plan.getOrder().get(0).getPayload(), "slow");
+        // Declaration order would put the slow job last and finish at 60
+        Assert.assertEquals(plan.getEstimatedMakespanMillis(), 40);
+    }
+
+    @Test
+    public void testJobsOfOnePageStayOnOneWorker() {
+        List<TestSchedule.Job<String>> jobs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            jobs.add(new TestSchedule.Job<>("landing" + i, 10, "landing"));
+            jobs.add(new TestSchedule.Job<>("textbox" + i, 10, "textbox"));
+        }
+        TestSchedule<String> plan = TestSchedule.plan(jobs, 2);
+
+        for (String page : List.of("landing", "textbox")) {
+            List<Integer> workers = plan.getOrder().stream().filter(job -> page.equals(job.getAffinity()))
+                    .map(TestSchedule.Job::getWorker).distinct().collect(Collectors.toList());
+            Assert.assertEquals(workers.size(), 1, page + " ran on " + workers);
+        }
+        Assert.assertEquals(plan.getEstimatedMakespanMillis(), 40);
+    }
+
+    @Test
+    public void testDispatchOrderFollowsPlannedStart() {
+        List<TestSchedule.Job<String>> jobs = new ArrayList<>();
+        jobs.add(new TestSchedule.Job<>("x", 5, null));
+        jobs.add(new TestSchedule.Job<>("y", 30, null));
+        jobs.add(new TestSchedule.Job<>("z", 20, null));
+        TestSchedule<String> plan = TestSchedule.plan(jobs, 2);
+
+        List<Long> starts = plan.getOrder().stream().map(TestSchedule.Job::getPlannedStartMillis).collect(Collectors.toList());
+        List<Long> sorted = new ArrayList<>(starts);
+        sorted.sort(null);
+        Assert.assertEquals(starts, sorted);
+        Assert.assertEquals(plan.getOrder().stream().map(TestSchedule.Job::getPayload).collect(Collectors.toList()),
+                List.of("y", "z", "x"));
+    }
+
+    @Test
+    public void testHistoryPersistsAndSmoothsDurations() throws IOException {
+        Path file = Files.createTempDirectory("history").resolve("test-history.json");
+        TestHistory first = new TestHistory(file);
+        first.record("A.slow", 0, 10_000, true);
+        first.record("A.fast", 0, 1_000, false);
+        // Data-provider rows of one method add up
+        first.record("A.rows", 0, 2_000, true);
+        first.record("A.rows", 2_000, 5_000, true);
+        Assert.assertEquals(first.getActualMakespanMillis(), 10_000);
+        first.save();
+
+        TestHistory second = new TestHistory(file);
+        Assert.assertEquals(second.estimateMillis("A.slow"), 10_000);
+        Assert.assertEquals(second.estimateMillis("A.rows"), 5_000);
+        // Unknown tests get the median
+        Assert.assertEquals(second.estimateMillis("B.new"), 5_000);
+        second.record("A.slow", 0, 20_000, true);
+        second.save();
+
+        TestHistory third = new TestHistory(file);
+        Assert.assertEquals(third.estimateMillis("A.slow"), 13_000);
+        String json = new String(Files.readAllBytes(file));
+        Assert.assertTrue(json.contains("\"recent\": \"F\"") || json.contains("\"recent\":\"F\""), json);
+    }
+
+    @Test
+    public void testDamagedHistoryIsIgnored() throws IOException {
+        Path file = Files.createTempFile("history", ".json");
+        Files.write(file, "{not json".getBytes());
+        Assert.assertTrue(new TestHistory(file).estimateMillis("A.any") > 0);
+    }
+}
@@ -0,0 +1,59 @@
+package gui.automation.unit;
+
+import gui.automation.utils.TraceTimeline;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Browser-free checks of the trace-event timeline: one row per thread and nested spans.
+ */
+public class TraceTimelineTest {
+
+    @Test
+    public void testSpansFromEachThreadGetTheirOwnRow() throws InterruptedException {
+        Thread worker = new Thread(() -> TraceTimeline.span("worker span", TraceTimeline.CATEGORY_ACTION,
+                TraceTimeline.start()), "timeline-worker");
+        worker.start();
+        worker.join();
+        TraceTimeline.span("caller span", TraceTimeline.CATEGORY_ACTION, TraceTimeline.start());
+
+        Map<String, Object> workerSpan = event("worker span");
+        Map<String, Object> caller = event("caller span");
+        Assert.assertNotEquals(workerSpan.get("tid"), caller.get("tid"));
+        Assert.assertTrue(events().stream().anyMatch(e -> "thread_name".equals(e.get("name"))
+                && workerSpan.get("tid").equals(e.get("tid"))
+                && "timeline-worker".equals(((Map<?, ?>) e.get("args")).get("name"))));
+    }
+
+    @Test
+    public void testActionSpanNestsInsideTestSpan() {
+        TraceTimeline.beginTest("TraceTimelineTest.nested");
+        TraceTimeline.span("nested action", TraceTimeline.CATEGORY_ACTION, TraceTimeline.start());
+        TraceTimeline.endTest();
+
+        Map<String, Object> test = event("TraceTimelineTest.nested");
+        Map<String, Object> action = event("nested action");
+        double testStart = ((Number) test.get("ts")).doubleValue();
+        double actionStart = ((Number) action.get("ts")).doubleValue();
+        Assert.assertEquals(test.get("cat"), TraceTimeline.CATEGORY_TEST);
+        Assert.assertEquals(test.get("ph"), "X");
+        Assert.assertTrue(actionStart >= testStart);
+        Assert.assertTrue(actionStart + ((Number) action.get("dur")).doubleValue()
+                <= testStart + ((Number) test.get("dur")).doubleValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> events() {
+        return ((List<Object>) TraceTimeline.toTraceEvents().get("traceEvents")).stream()
+                .map(e -> (Map<String, Object>) e).collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> event(String name) {
+        return events().stream().filter(e -> name.equals(e.get("name"))).findFirst()
+                .orElseThrow(() -> new AssertionError("No span named " + name));
+    }
+}
@@ -0,0 +1,146 @@
+package gui.automation.unit;
+
+import gui.automation.utils.BaselineStore;
+import gui.automation.utils.VisualDiff;
+import gui.automation.utils.VisualDiffOptions;
+import gui.automation.utils.VisualDiffResult;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Browser-free checks of the visual diff and the baseline approval flow.
+ */
+public class VisualDiffTest {
+
+    @Test
+    public void testIdenticalImagesPass() {
+        VisualDiffResult result = VisualDiff.compare(page(), page(), options());
+        Assert.assertTrue(result.isPassed());
+        Assert.assertEquals(result.getDiffPixels(), 0);
+        Assert.assertEquals(result.getComparedPixels(), 300 * 200);
+    }
+
+    @Test
+    public void testChangedBlockIsCountedAcrossTiles() {
+        BufferedImage actual = page();
+        fill(actual, 60, 60, 20, 10, Color.RED);
+        VisualDiffResult result = VisualDiff.compare(page(), actual, options());
+        Assert.assertFalse(result.isPassed());
+        Assert.assertEquals(result.getDiffPixels(), 200);
+    }
+
+    @Test
+    public void testMaskedRegionIsIgnored() {
+        BufferedImage actual = page();
+        fill(actual, 60, 60, 20, 10, Color.RED);
+        VisualDiffResult result = VisualDiff.compare(page(), actual, options().mask(55, 55, 30, 20));
+        Assert.assertTrue(result.isPassed());
+        Assert.assertEquals(result.getComparedPixels(), 300 * 200 - 30 * 20);
+    }
+
+    @Test
+    public void testSmallColourNoiseIsBelowThreshold() {
+        BufferedImage actual = page();
+        fill(actual, 0, 0, 300, 200, new Color(252, 252, 252));
+        Assert.assertTrue(VisualDiff.compare(page(), actual, options()).isPassed());
+    }
+
+    @Test
+    public void testAntiAliasedEdgeIsTolerated() {
+        BufferedImage expected = text(false);
+        BufferedImage actual = text(true);
+        VisualDiffResult result = VisualDiff.compare(expected, actual, options().maxDiffRatio(0));
+        Assert.assertTrue(result.getAntiAliasedPixels() > 0, result.toString());
+        VisualDiffResult strict = VisualDiff.compare(expected, actual, options().maxDiffRatio(0).detectAntiAliasing(false));
+        Assert.assertTrue(strict.getDiffPixels() > result.getDiffPixels(), strict + " vs " + result);
+    }
+
+    @Test
+    public void testSizeMismatchFails() {
+        VisualDiffResult result = VisualDiff.compare(page(), new BufferedImage(300, 201, BufferedImage.TYPE_INT_RGB), options());
+        Assert.assertFalse(result.isPassed());
+        Assert.assertTrue(result.isSizeMismatch());
+    }
+
+    @Test
+    public void testFailedCheckIsPendingUntilApproved() throws IOException {
+        Path dir = Files.createTempDirectory("visual");
+        BaselineStore store = new BaselineStore(dir.resolve("baselines"), dir.resolve("work"));
+        Files.createDirectories(dir.resolve("baselines"));
+        Files.write(store.baselinePath("form"), png(page()));
+        BufferedImage changed = page();
+        fill(changed, 10, 10, 40, 40, Color.BLUE);
+
+        Assert.assertTrue(store.check("form", png(page()), options()).isPassed());
+        Assert.assertFalse(Files.exists(store.diffPath("form")), "No diff image for a passing check");
+        Assert.assertFalse(store.check("form", png(changed), options()).isPassed());
+        Assert.assertTrue(Files.exists(store.diffPath("form")));
+        Assert.assertEquals(store.pending(), Collections.singletonList("form"));
+
+        Assert.assertEquals(store.approveAll(), Collections.singletonList("form"));
+        Assert.assertTrue(store.pending().isEmpty());
+        Assert.assertTrue(store.check("form", png(changed), options()).isPassed());
+    }
+
+    @Test
+    public void testMissingBaselineFailsAndIsLeftPending() throws IOException {
+        Path dir = Files.createTempDirectory("visual");
+        BaselineStore store = new BaselineStore(dir.resolve("baselines"), dir.resolve("work"));
+
+        Assert.assertFalse(store.check("new-form", png(page()), options()).isPassed());
+        Assert.assertFalse(Files.exists(store.baselinePath("new-form")), "Nothing is recorded without approval");
+        Assert.assertEquals(store.pending(), Collections.singletonList("new-form"));
+
+        store.approve("new-form");
+        Assert.assertTrue(store.check("new-form", png(page()), options()).isPassed());
+    }
+
+    private static VisualDiffOptions options() {
+        return new VisualDiffOptions().tileSize(16);
+    }
+
+    private static BufferedImage page() {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        fill(image, 0, 0, 300, 200, Color.WHITE);
+        fill(image, 20, 20, 120, 80, new Color(230, 230, 240));
+        fill(image, 160, 20, 120, 80, new Color(230, 230, 240));
+        return image;
+    }
+
+    private static BufferedImage text(boolean antiAliased) {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 300, 200);
+        graphics.setColor(Color.BLACK);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antiAliased ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        graphics.fillOval(50, 50, 100, 60);
+        graphics.dispose();
+        return image;
+    }
+
+    private static void fill(BufferedImage image, int x, int y, int width, int height, Color color) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(x, y, width, height);
+        graphics.dispose();
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
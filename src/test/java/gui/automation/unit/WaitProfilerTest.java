@@ -0,0 +1,54 @@
+package gui.automation.unit;
+
+import gui.automation.utils.WaitProfiler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * Browser-free checks of the wait profiler's attribution of test time.
+ */
+public class WaitProfilerTest {
+
+    @Test
+    public void testTimeIsSplitByKind() throws InterruptedException {
+        WaitProfiler.beginTest("WaitProfilerTest.split");
+        long sleep = WaitProfiler.beginWait();
+        Thread.sleep(30);
+        WaitProfiler.endWait(WaitProfiler.Kind.SLEEP, sleep);
+        long timeout = WaitProfiler.beginWait();
+        Thread.sleep(20);
+        WaitProfiler.endWait(WaitProfiler.Kind.WAIT_TIMEOUT, timeout);
+        WaitProfiler.command(5_000_000, false);
+        WaitProfiler.command(7_000_000, true);
+        Map<String, Object> breakdown = WaitProfiler.endTest();
+
+        Assert.assertTrue(millis(breakdown, "sleepMs") >= 30);
+        Assert.assertTrue(millis(breakdown, "waitTimeoutMs") >= 27);
+        Assert.assertEquals(millis(breakdown, "implicitWaitTimeoutMs"), 7.0);
+        Assert.assertEquals(millis(breakdown, "activeMs"), 5.0);
+        Assert.assertEquals(millis(breakdown, "waitMs"), 0.0);
+        Assert.assertTrue(millis(breakdown, "wallMs") >= 50);
+    }
+
+    @Test
+    public void testNestedWaitsAndPollingCommandsAreNotCountedTwice() throws InterruptedException {
+        WaitProfiler.beginTest("WaitProfilerTest.nested");
+        long outer = WaitProfiler.beginWait();
+        long inner = WaitProfiler.beginWait();
+        WaitProfiler.command(50_000_000, true);
+        Thread.sleep(10);
+        WaitProfiler.endWait(WaitProfiler.Kind.WAIT_TIMEOUT, inner);
+        WaitProfiler.endWait(WaitProfiler.Kind.WAIT, outer);
+        Map<String, Object> breakdown = WaitProfiler.endTest();
+
+        Assert.assertTrue(millis(breakdown, "waitMs") >= 10);
+        Assert.assertEquals(millis(breakdown, "waitTimeoutMs"), 0.0);
+        Assert.assertEquals(millis(breakdown, "activeMs"), 0.0);
+    }
+
+    private static double millis(Map<String, Object> breakdown, String key) {
+        return ((Number) breakdown.get(key)).doubleValue();
+    }
+}
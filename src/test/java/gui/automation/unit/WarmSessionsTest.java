@@ -0,0 +1,106 @@
+package gui.automation.unit;
+
+import gui.automation.base.WarmSessions;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks of which kept @WarmSession browser a thread may reuse, must quit, or must only forget.
+ */
+public class WarmSessionsTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseKept() {
+        WarmSessions.release();
+    }
+
+    @Test
+    public void testBrowserIsReusedOnlyForTheSameMethod() {
+        WarmSessions sessions = new WarmSessions();
+        WebDriver browser = stubDriver();
+        sessions.keep("LoginTest.testLogin", browser);
+
+        Assert.assertSame(sessions.reuse("LoginTest.testLogin"), browser);
+        Assert.assertNull(sessions.reuse("LoginTest.testLogout"));
+        Assert.assertNull(new WarmSessions().reuse("LoginTest.testLogin"), "Not kept through that instance's class");
+    }
+
+    @Test
+    public void testReleasedBrowserIsHandedBackOnce() {
+        WarmSessions sessions = new WarmSessions();
+        WebDriver browser = stubDriver();
+        sessions.keep("LoginTest.testLogin", browser);
+
+        Assert.assertTrue(WarmSessions.isHolding());
+        Assert.assertSame(WarmSessions.release(), browser);
+        Assert.assertFalse(WarmSessions.isHolding());
+        Assert.assertNull(WarmSessions.release());
+        Assert.assertTrue(sessions.closeAll().isEmpty(), "A released browser is the caller's to quit");
+    }
+
+    @Test
+    public void testKeepingTheSameBrowserAgainIsNotCountedTwice() {
+        WarmSessions sessions = new WarmSessions();
+        WebDriver browser = stubDriver();
+        sessions.keep("LoginTest.testLogin", browser);
+        sessions.keep("LoginTest.testLogin", browser);
+
+        Assert.assertEquals(sessions.closeAll(), List.of(browser));
+    }
+
+    @Test
+    public void testBrowserClosedByAnotherThreadIsForgottenNotReused() throws Exception {
+        WarmSessions sessions = new WarmSessions();
+        WebDriver browser = stubDriver();
+        sessions.keep("LoginTest.testLogin", browser);
+
+        // The thread running the class's @AfterClass quits browsers kept on every thread
+        List<WebDriver> closed = CompletableFuture.supplyAsync(sessions::closeAll).get();
+        Assert.assertEquals(closed, List.of(browser));
+
+        Assert.assertNull(sessions.reuse("LoginTest.testLogin"));
+        Assert.assertTrue(WarmSessions.isHolding(), "The owning thread still has to drop its references");
+        Assert.assertNull(WarmSessions.release(), "Already quit: nothing left to quit");
+        Assert.assertFalse(WarmSessions.isHolding());
+        Assert.assertTrue(sessions.closeAll().isEmpty());
+    }
+
+    @Test
+    public void testOtherThreadsKeepTheirOwnBrowsers() throws Exception {
+        WarmSessions sessions = new WarmSessions();
+        WebDriver mine = stubDriver();
+        WebDriver theirs = stubDriver();
+        sessions.keep("LoginTest.testLogin", mine);
+
+        WebDriver seenElsewhere = CompletableFuture.supplyAsync(() -> {
+            sessions.keep("LoginTest.testLogin", theirs);
+            return sessions.reuse("LoginTest.testLogin");
+        }).get();
+
+        Assert.assertSame(seenElsewhere, theirs);
+        Assert.assertSame(sessions.reuse("LoginTest.testLogin"), mine);
+        Assert.assertEquals(sessions.closeAll().size(), 2);
+    }
+
+    private static WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
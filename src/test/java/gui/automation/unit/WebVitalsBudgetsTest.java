@@ -0,0 +1,63 @@
+package gui.automation.unit;
+
+import gui.automation.utils.WebVitals;
+import gui.automation.utils.WebVitalsBudgets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Checks of the Web Vitals budget file format and of budget evaluation.
+ */
+public class WebVitalsBudgetsTest {
+    private static final String BUDGETS = "{\"budgets\": ["
+            + "{\"urlPattern\": \"*demoqa.com/text-box*\", \"mode\": \"fail\", \"lcp\": 2500, \"cls\": 0.1, \"inp\": 200},"
+            + "{\"urlPattern\": \"*\", \"mode\": \"warn\", \"lcp\": 4000}"
+            + "]}";
+
+    @Test
+    public void testFirstMatchingBudgetApplies() {
+        WebVitalsBudgets budgets = WebVitalsBudgets.parse(BUDGETS);
+
+        WebVitalsBudgets.Budget textBox = budgets.budgetFor("https://demoqa.com/text-box");
+        Assert.assertTrue(textBox.isFail());
+        Assert.assertEquals(textBox.getLimits().keySet(), List.of(WebVitals.LCP, WebVitals.CLS, WebVitals.INP));
+        WebVitalsBudgets.Budget other = budgets.budgetFor("https://demoqa.com/");
+        Assert.assertFalse(other.isFail());
+        Assert.assertEquals(other.getLimits().keySet(), List.of(WebVitals.LCP));
+    }
+
+    @Test
+    public void testOnlyExceededMetricsAreViolations() {
+        WebVitalsBudgets budgets = WebVitalsBudgets.parse(BUDGETS);
+
+        List<WebVitalsBudgets.Violation> violations = budgets.evaluate(
+                new WebVitals("https://demoqa.com/text-box", 2600, 0.05, 200, -1, 900));
+        Assert.assertEquals(violations.size(), 1);
+        WebVitalsBudgets.Violation lcp = violations.get(0);
+        Assert.assertEquals(lcp.getMetric(), WebVitals.LCP);
+        Assert.assertEquals(lcp.getActual(), 2600.0);
+        Assert.assertEquals(lcp.getLimit(), 2500.0);
+        Assert.assertTrue(lcp.isFail());
+    }
+
+    @Test
+    public void testUnreportedMetricsAreNotChecked() {
+        WebVitalsBudgets budgets = WebVitalsBudgets.parse(BUDGETS);
+
+        Assert.assertTrue(budgets.evaluate(new WebVitals("https://demoqa.com/text-box", -1, -1, -1, -1, -1)).isEmpty());
+        List<WebVitalsBudgets.Violation> warn = budgets.evaluate(new WebVitals("https://demoqa.com/", 4100, 3, 900, -1, 0));
+        Assert.assertEquals(warn.size(), 1);
+        Assert.assertFalse(warn.get(0).isFail());
+    }
+
+    @Test
+    public void testMalformedFilesAreRejected() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> WebVitalsBudgets.parse("{\"limits\": []}"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> WebVitalsBudgets.parse("{\"budgets\": [{\"lcp\": 1}]}"));
+        Assert.assertTrue(WebVitalsBudgets.load("no-such-budgets.json").isEmpty());
+        Assert.assertTrue(WebVitalsBudgets.parse("{\"budgets\": []}").evaluate(
+                new WebVitals("https://demoqa.com/", 99999, 9, 9999, 9999, 9999)).isEmpty());
+    }
+}
@@ -0,0 +1,36 @@
+package gui.automation.visual;
+
+import gui.automation.utils.BaselineStore;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Approves visual changes after a run: moves the pending screenshots of failed visual checks over their
+ * baselines in visual.baseline.dir. Review the images under visual/diff in the report directory first, and run
+ * this before mvn clean removes them.
+ * <p>
+ * List what is pending:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=gui.automation.visual.ApproveBaselinesMain
+ * Approve one or more baselines, or all of them:
+ *   ... -Dexec.args="landing-page text-box-form"
+ *   ... -Dexec.args=--all
+ */
+public class ApproveBaselinesMain {
+
+    public static void main(String[] args) {
+        BaselineStore store = BaselineStore.defaultStore();
+        List<String> names = Arrays.asList(args);
+        if (names.isEmpty()) {
+            System.out.println("Pending visual changes: " + store.pending());
+            return;
+        }
+        if (names.contains("--all")) {
+            System.out.println("Approved: " + store.approveAll());
+            return;
+        }
+        for (String name : names) {
+            System.out.println(name + (store.approve(name) ? ": approved" : ": nothing pending"));
+        }
+    }
+}